@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.apache.storm.perf.kafkatest;
+
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.storm.kafka.spout.KafkaSpoutMessageId;
+import org.apache.storm.kafka.spout.internal.OffsetManager;
+
+/**
+ * Measures the heap used by the offset tracking of the Kafka spout with many records in flight, and the throughput of emitting, acking
+ * out of order and committing, against the tree sets of offsets the OffsetManager used before.
+ *
+ * <p>Usage: OffsetManagerPerfTest [records in flight] [seconds per measurement]
+ */
+public class OffsetManagerPerfTest {
+    private static final TopicPartition TP = new TopicPartition("topic", 0);
+    // the acks arrive shuffled within windows of this many records
+    private static final int ACK_WINDOW = 1000;
+    private static final int COMMIT_EVERY = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        int inFlight = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        System.out.printf("%-30s %,14d bytes for %,d records in flight%n", "tree sets",
+            heapInFlight(new TreeSetTracker(), inFlight), inFlight);
+        System.out.printf("%-30s %,14d bytes for %,d records in flight%n", "offset manager",
+            heapInFlight(new OffsetManagerTracker(), inFlight), inFlight);
+
+        run("tree sets", TreeSetTracker::new, inFlight, seconds);
+        run("offset manager", OffsetManagerTracker::new, inFlight, seconds);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long heapInFlight(Tracker tracker, int inFlight) throws InterruptedException {
+        long before = usedHeap();
+        for (long offset = 0; offset < inFlight; offset++) {
+            tracker.emit(offset);
+            // every other record acked, so that nothing can be committed
+            if (offset % 2 == 1) {
+                tracker.ack(offset);
+            }
+        }
+        long used = usedHeap() - before;
+        if (tracker.commit() != null) {
+            System.out.println("Unexpected commit");
+        }
+        return used;
+    }
+
+    private static void run(String name, Supplier<Tracker> trackers, int inFlight, int seconds) {
+        // warm up for the same duration as the measurement
+        measure(trackers.get(), inFlight, seconds);
+        long count = measure(trackers.get(), inFlight, seconds);
+        System.out.printf("%-30s %,14d records/sec emitted, acked and committed%n", name, count / seconds);
+    }
+
+    private static long measure(Tracker tracker, int inFlight, int seconds) {
+        Random random = new Random(42);
+        long[] window = new long[ACK_WINDOW];
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        long nextToEmit = 0;
+        long nextToAck = 0;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < COMMIT_EVERY; i += ACK_WINDOW) {
+                while (nextToEmit - nextToAck < inFlight) {
+                    tracker.emit(nextToEmit++);
+                }
+                for (int j = 0; j < ACK_WINDOW; j++) {
+                    window[j] = nextToAck + j;
+                }
+                for (int j = ACK_WINDOW - 1; j > 0; j--) {
+                    int k = random.nextInt(j + 1);
+                    long tmp = window[j];
+                    window[j] = window[k];
+                    window[k] = tmp;
+                }
+                for (long offset : window) {
+                    tracker.ack(offset);
+                }
+                nextToAck += ACK_WINDOW;
+            }
+            OffsetAndMetadata commit = tracker.commit();
+            if (commit == null || commit.offset() != nextToAck) {
+                throw new IllegalStateException("Expected to commit up to " + nextToAck + ", got " + commit);
+            }
+        }
+        return nextToAck;
+    }
+
+    private interface Tracker {
+        void emit(long offset);
+
+        void ack(long offset);
+
+        OffsetAndMetadata commit();
+    }
+
+    private static class OffsetManagerTracker implements Tracker {
+        private final OffsetManager manager = new OffsetManager(TP, 0);
+
+        @Override
+        public void emit(long offset) {
+            manager.addToEmitMsgs(offset);
+        }
+
+        @Override
+        public void ack(long offset) {
+            manager.addToAckMsgs(new KafkaSpoutMessageId(TP, offset));
+        }
+
+        @Override
+        public OffsetAndMetadata commit() {
+            OffsetAndMetadata next = manager.findNextCommitOffset("");
+            if (next != null) {
+                manager.commit(next);
+            }
+            return next;
+        }
+    }
+
+    // the offset tracking of the OffsetManager before the bitmaps, without the handling of compacted offsets
+    private static class TreeSetTracker implements Tracker {
+        private final NavigableSet<Long> emittedOffsets = new TreeSet<>();
+        private final NavigableSet<KafkaSpoutMessageId> ackedMsgs =
+            new TreeSet<>((m1, m2) -> Long.compare(m1.offset(), m2.offset()));
+        private long committedOffset;
+
+        @Override
+        public void emit(long offset) {
+            emittedOffsets.add(offset);
+        }
+
+        @Override
+        public void ack(long offset) {
+            ackedMsgs.add(new KafkaSpoutMessageId(TP, offset));
+        }
+
+        @Override
+        public OffsetAndMetadata commit() {
+            long nextCommitOffset = committedOffset;
+            for (KafkaSpoutMessageId msgId : ackedMsgs) {
+                if (msgId.offset() != nextCommitOffset) {
+                    break;
+                }
+                nextCommitOffset++;
+            }
+            if (nextCommitOffset == committedOffset) {
+                return null;
+            }
+            committedOffset = nextCommitOffset;
+            for (Iterator<KafkaSpoutMessageId> iter = ackedMsgs.iterator(); iter.hasNext() && iter.next().offset() < committedOffset; ) {
+                iter.remove();
+            }
+            emittedOffsets.headSet(committedOffset).clear();
+            return new OffsetAndMetadata(committedOffset, "");
+        }
+    }
+}
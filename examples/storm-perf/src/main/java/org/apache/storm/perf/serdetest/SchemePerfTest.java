@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+
+package org.apache.storm.perf.serdetest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.storm.sql.runtime.serde.csv.CsvScheme;
+import org.apache.storm.sql.runtime.serde.json.JsonScheme;
+import org.apache.storm.sql.runtime.serde.tsv.TsvScheme;
+import org.apache.storm.sql.runtime.utils.Utils;
+
+/**
+ * Measures the deserialization throughput of the JSON, CSV and TSV schemes of Storm SQL on wide records, reading all the columns and a
+ * projection of a few columns, against the generic map and intermediate list deserialization they replaced.
+ *
+ * <p>Usage: SchemePerfTest [columns] [projected columns] [seconds per measurement]
+ */
+public class SchemePerfTest {
+    private static final int RECORDS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        int columns = args.length > 0 ? Integer.parseInt(args[0]) : 80;
+        int projectedColumns = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        List<String> fields = new ArrayList<>();
+        for (int i = 0; i < columns; i++) {
+            fields.add("field" + i);
+        }
+        List<String> projected = new ArrayList<>();
+        for (int i = 0; i < projectedColumns; i++) {
+            projected.add(fields.get(i * columns / projectedColumns));
+        }
+
+        Random random = new Random(42);
+        List<ByteBuffer> json = new ArrayList<>();
+        List<ByteBuffer> csv = new ArrayList<>();
+        List<ByteBuffer> tsv = new ArrayList<>();
+        for (int r = 0; r < RECORDS; r++) {
+            StringBuilder jsonRecord = new StringBuilder("{");
+            StringBuilder csvRecord = new StringBuilder();
+            StringBuilder tsvRecord = new StringBuilder();
+            for (int i = 0; i < columns; i++) {
+                String value = i % 2 == 0 ? String.valueOf(random.nextInt(1_000_000)) : "value " + random.nextInt(1_000_000);
+                String sep = i == 0 ? "" : ",";
+                jsonRecord.append(sep).append('"').append(fields.get(i)).append("\":");
+                jsonRecord.append(i % 2 == 0 ? value : '"' + value + '"');
+                csvRecord.append(sep).append(i % 4 == 1 ? '"' + value + ",\"\"x\"\"\"" : value);
+                tsvRecord.append(i == 0 ? "" : "\t").append(value);
+            }
+            json.add(toBuffer(jsonRecord.append('}').toString()));
+            csv.add(toBuffer(csvRecord.toString()));
+            tsv.add(toBuffer(tsvRecord.toString()));
+        }
+
+        run("json generic map, all columns", json, seconds, ser -> readJsonMap(ser, fields));
+        run("json scheme, all columns", json, seconds, new JsonScheme(fields)::deserialize);
+        run("json generic map, " + projectedColumns + " columns", json, seconds, ser -> readJsonMap(ser, projected));
+        run("json scheme, " + projectedColumns + " columns", json, seconds, new JsonScheme(projected)::deserialize);
+
+        run("csv commons-csv, all columns", csv, seconds, ser -> readCsvRecord(ser, columns));
+        run("csv scheme, all columns", csv, seconds, new CsvScheme(fields)::deserialize);
+        run("csv scheme, " + projectedColumns + " columns", csv, seconds, new CsvScheme(fields, projected)::deserialize);
+
+        run("tsv split, all columns", tsv, seconds, ser -> readTsvParts(ser, columns));
+        run("tsv scheme, all columns", tsv, seconds, new TsvScheme(fields, '\t')::deserialize);
+        run("tsv scheme, " + projectedColumns + " columns", tsv, seconds, new TsvScheme(fields, '\t', projected)::deserialize);
+    }
+
+    private static ByteBuffer toBuffer(String record) {
+        return ByteBuffer.wrap(record.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void run(String name, List<ByteBuffer> records, int seconds, Function<ByteBuffer, List<Object>> deserializer) {
+        // warm up for the same duration as the measurement
+        measure(records, seconds, deserializer);
+        long count = measure(records, seconds, deserializer);
+        System.out.printf("%-40s %,12d records/sec%n", name, count / seconds);
+    }
+
+    private static long measure(List<ByteBuffer> records, int seconds, Function<ByteBuffer, List<Object>> deserializer) {
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        long count = 0;
+        long sink = 0;
+        while (System.nanoTime() < end) {
+            for (ByteBuffer record : records) {
+                sink += deserializer.apply(record.duplicate()).size();
+            }
+            count += records.size();
+        }
+        if (sink == 0) {
+            System.out.println("Nothing deserialized");
+        }
+        return count;
+    }
+
+    // the deserialization of the JSON scheme before the streaming parser
+    @SuppressWarnings("unchecked")
+    private static List<Object> readJsonMap(ByteBuffer ser, List<String> fields) {
+        try {
+            HashMap<String, Object> map = new ObjectMapper().readValue(org.apache.storm.utils.Utils.toByteArray(ser), HashMap.class);
+            List<Object> list = new ArrayList<>(fields.size());
+            for (String f : fields) {
+                list.add(map.get(f));
+            }
+            return list;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // the deserialization of the CSV scheme before the in place tokenizer
+    private static List<Object> readCsvRecord(ByteBuffer ser, int columns) {
+        try {
+            String data = new String(org.apache.storm.utils.Utils.toByteArray(ser), StandardCharsets.UTF_8);
+            CSVRecord record = CSVParser.parse(data, CSVFormat.RFC4180).getRecords().get(0);
+            List<Object> list = new ArrayList<>(columns);
+            for (int i = 0; i < record.size(); i++) {
+                list.add(record.get(i));
+            }
+            return list;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // the deserialization of the TSV scheme before the in place tokenizer
+    private static List<Object> readTsvParts(ByteBuffer ser, int columns) {
+        String data = new String(org.apache.storm.utils.Utils.toByteArray(ser), StandardCharsets.UTF_8);
+        List<Object> list = new ArrayList<>(columns);
+        list.addAll(Utils.split(data, '\t'));
+        return list;
+    }
+}
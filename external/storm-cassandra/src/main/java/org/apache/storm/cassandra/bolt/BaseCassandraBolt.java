@@ -24,9 +24,11 @@ import org.apache.storm.cassandra.ExecutionResultHandler;
 import org.apache.storm.cassandra.client.CassandraConf;
 import org.apache.storm.cassandra.client.SimpleClient;
 import org.apache.storm.cassandra.client.SimpleClientProvider;
+import org.apache.storm.cassandra.executor.AdaptiveConcurrencyLimiter;
 import org.apache.storm.cassandra.executor.AsyncExecutor;
 import org.apache.storm.cassandra.executor.AsyncExecutorProvider;
 import org.apache.storm.cassandra.executor.AsyncResultHandler;
+import org.apache.storm.cassandra.executor.ConcurrencyLimiterProvider;
 import org.apache.storm.cassandra.query.CQLStatementTupleMapper;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
@@ -58,6 +60,7 @@ public abstract class BaseCassandraBolt<T> extends BaseTickTupleAwareRichBolt {
 
     private CQLStatementTupleMapper mapper;
     private ExecutionResultHandler resultHandler;
+    private transient AdaptiveConcurrencyLimiter concurrencyLimiter;
 
     private transient Map<String, Fields> outputsFields = new HashMap<>();
     private Map<String, Object> cassandraConfig;
@@ -96,6 +99,11 @@ public abstract class BaseCassandraBolt<T> extends BaseTickTupleAwareRichBolt {
             outputCollector.reportError(e);
             throw e;
         }
+
+        if (cassandraConf.isAdaptiveConcurrencyEnabled()) {
+            concurrencyLimiter = ConcurrencyLimiterProvider.getShared(cassandraConf);
+            concurrencyLimiter.registerMetrics(topologyContext);
+        }
     }
 
     public BaseCassandraBolt withResultHandler(ExecutionResultHandler resultHandler) {
@@ -151,7 +159,9 @@ public abstract class BaseCassandraBolt<T> extends BaseTickTupleAwareRichBolt {
     protected abstract AsyncResultHandler<T> getAsyncHandler();
 
     protected AsyncExecutor<T> getAsyncExecutor() {
-        return AsyncExecutorProvider.getLocal(session, getAsyncHandler());
+        AsyncExecutor<T> executor = AsyncExecutorProvider.getLocal(session, getAsyncHandler());
+        executor.setConcurrencyLimiter(concurrencyLimiter);
+        return executor;
     }
 
     /**
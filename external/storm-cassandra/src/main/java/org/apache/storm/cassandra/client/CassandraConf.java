@@ -56,6 +56,11 @@ public class CassandraConf implements Serializable {
     public static final String CASSANDRA_IDLE_TIMEOUT_SEC = "cassandra.idle.timeout.sec";
     public static final String CASSANDRA_SOCKET_READ_TIMEOUT_MS = "cassandra.socket.read.timeout.millis";
     public static final String CASSANDRA_SOCKET_CONNECT_TIMEOUT_MS = "cassandra.socket.connect.timeout.millis";
+    public static final String CASSANDRA_ADAPTIVE_CONCURRENCY_ENABLED = "cassandra.adaptive.concurrency.enabled";
+    public static final String CASSANDRA_ADAPTIVE_CONCURRENCY_INITIAL = "cassandra.adaptive.concurrency.initial";
+    public static final String CASSANDRA_ADAPTIVE_CONCURRENCY_MIN = "cassandra.adaptive.concurrency.min";
+    public static final String CASSANDRA_ADAPTIVE_CONCURRENCY_MAX = "cassandra.adaptive.concurrency.max";
+    public static final String CASSANDRA_ADAPTIVE_CONCURRENCY_MAX_QUEUE_WAIT_MS = "cassandra.adaptive.concurrency.max.queue.wait.millis";
 
     /**
      * The authorized cassandra username.
@@ -130,6 +135,23 @@ public class CassandraConf implements Serializable {
      */
     private long socketConnectTimeoutMillis;
 
+    /**
+     * Whether the concurrent requests to the cluster are limited by an adaptive limiter shared within the worker.
+     */
+    private boolean adaptiveConcurrencyEnabled;
+
+    /**
+     * The initial, minimum and maximum number of concurrent requests allowed by the adaptive limiter.
+     */
+    private int adaptiveConcurrencyInitial;
+    private int adaptiveConcurrencyMin;
+    private int adaptiveConcurrencyMax;
+
+    /**
+     * The maximum time a request waits for the adaptive limiter before being rejected, 0 to wait indefinitely.
+     */
+    private long adaptiveConcurrencyMaxQueueWaitMillis;
+
     /**
      * Creates a new {@link CassandraConf} instance.
      */
@@ -166,6 +188,11 @@ public class CassandraConf implements Serializable {
             getLong(conf.get(CASSANDRA_SOCKET_READ_TIMEOUT_MS), (long) SocketOptions.DEFAULT_READ_TIMEOUT_MILLIS);
         this.socketConnectTimeoutMillis =
             getLong(conf.get(CASSANDRA_SOCKET_CONNECT_TIMEOUT_MS), (long) SocketOptions.DEFAULT_CONNECT_TIMEOUT_MILLIS);
+        this.adaptiveConcurrencyEnabled = ObjectReader.getBoolean(conf.get(CASSANDRA_ADAPTIVE_CONCURRENCY_ENABLED), false);
+        this.adaptiveConcurrencyInitial = getInt(conf.get(CASSANDRA_ADAPTIVE_CONCURRENCY_INITIAL), 16);
+        this.adaptiveConcurrencyMin = getInt(conf.get(CASSANDRA_ADAPTIVE_CONCURRENCY_MIN), 1);
+        this.adaptiveConcurrencyMax = getInt(conf.get(CASSANDRA_ADAPTIVE_CONCURRENCY_MAX), 256);
+        this.adaptiveConcurrencyMaxQueueWaitMillis = getLong(conf.get(CASSANDRA_ADAPTIVE_CONCURRENCY_MAX_QUEUE_WAIT_MS), 0L);
     }
 
     public static Integer getInt(Object o, Integer defaultValue) {
@@ -287,6 +314,26 @@ public class CassandraConf implements Serializable {
         return socketConnectTimeoutMillis;
     }
 
+    public boolean isAdaptiveConcurrencyEnabled() {
+        return adaptiveConcurrencyEnabled;
+    }
+
+    public int getAdaptiveConcurrencyInitial() {
+        return adaptiveConcurrencyInitial;
+    }
+
+    public int getAdaptiveConcurrencyMin() {
+        return adaptiveConcurrencyMin;
+    }
+
+    public int getAdaptiveConcurrencyMax() {
+        return adaptiveConcurrencyMax;
+    }
+
+    public long getAdaptiveConcurrencyMaxQueueWaitMillis() {
+        return adaptiveConcurrencyMaxQueueWaitMillis;
+    }
+
     private <T> T get(Map<String, Object> conf, String key) {
         Object o = conf.get(key);
         if (o == null) {
@@ -315,6 +362,7 @@ public class CassandraConf implements Serializable {
                       .add("heartbeatIntervalSeconds", heartbeatIntervalSeconds)
                       .add("idleTimeoutSeconds", idleTimeoutSeconds)
                       .add("socketReadTimeoutMillis", socketReadTimeoutMillis)
+                      .add("adaptiveConcurrencyEnabled", adaptiveConcurrencyEnabled)
                       .toString();
     }
 }
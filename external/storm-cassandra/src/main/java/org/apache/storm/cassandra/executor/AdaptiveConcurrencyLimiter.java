@@ -0,0 +1,264 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.cassandra.executor;
+
+import com.datastax.driver.core.exceptions.BusyConnectionException;
+import com.datastax.driver.core.exceptions.BusyPoolException;
+import com.datastax.driver.core.exceptions.OperationTimedOutException;
+import com.datastax.driver.core.exceptions.OverloadedException;
+import com.datastax.driver.core.exceptions.ReadTimeoutException;
+import com.datastax.driver.core.exceptions.WriteTimeoutException;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.storm.task.IMetricsContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the number of concurrent requests to a cluster, adjusting the limit from the observed latencies and timeouts.
+ *
+ * <p>The limit follows the gradient between a long term and a short term average of the request latency: it grows by about the square
+ * root of the limit while the latency is stable, and shrinks in proportion of the latency increase, e.g. when the cluster is compacting.
+ * A request which times out or is rejected because the cluster or the driver is overloaded shrinks the limit multiplicatively, at most
+ * once per short term latency, so that a burst of timeouts does not collapse the limit. The limit does not grow while less than half of
+ * it is in use.
+ *
+ * <p>A limiter with a minimum limit equal to its maximum limit behaves like a fair semaphore. This class is thread safe.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final double SHORT_RTT_SMOOTHING = 0.1;
+    private static final double LONG_RTT_SMOOTHING = 0.01;
+    private static final double LIMIT_SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double BACKOFF_RATIO = 0.75;
+    private static final double QUEUEING_DELAY_SMOOTHING = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long maxQueueWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition permitAvailable = lock.newCondition();
+    private final AtomicLong rejections = new AtomicLong();
+
+    private double limit;
+    private int inFlight;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private long lastBackoffNanos;
+    private double queueingDelayNanos;
+
+    /**
+     * Creates a new {@link AdaptiveConcurrencyLimiter} instance.
+     *
+     * @param initialLimit the initial number of concurrent requests
+     * @param minLimit the minimum number of concurrent requests
+     * @param maxLimit the maximum number of concurrent requests
+     * @param maxQueueWaitMillis the maximum time a request waits for the limiter before being rejected, 0 to wait indefinitely
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long maxQueueWaitMillis) {
+        Preconditions.checkArgument(minLimit > 0, "minLimit must be positive");
+        Preconditions.checkArgument(minLimit <= maxLimit, "minLimit must not be greater than maxLimit");
+        Preconditions.checkArgument(maxQueueWaitMillis >= 0, "maxQueueWaitMillis must not be negative");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMillis);
+        this.lastBackoffNanos = System.nanoTime();
+    }
+
+    /**
+     * Returns whether the given request failure means the cluster, or the connections to it, are overloaded.
+     */
+    public static boolean isOverload(Throwable t) {
+        return t instanceof WriteTimeoutException
+               || t instanceof ReadTimeoutException
+               || t instanceof OperationTimedOutException
+               || t instanceof OverloadedException
+               || t instanceof BusyPoolException
+               || t instanceof BusyConnectionException;
+    }
+
+    /**
+     * Waits until a request can be sent.
+     *
+     * @return the start time of the request, to pass to {@link #release(long, Throwable)}, or -1 if the request was rejected because it
+     *     waited longer than the maximum queue wait time
+     */
+    public long acquire() {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            long remaining = maxQueueWaitNanos;
+            while (inFlight >= (int) limit) {
+                if (maxQueueWaitNanos == 0) {
+                    permitAvailable.awaitUninterruptibly();
+                } else if (remaining > 0) {
+                    remaining = permitAvailable.awaitNanos(remaining);
+                } else {
+                    rejections.incrementAndGet();
+                    return -1;
+                }
+            }
+            inFlight++;
+            long now = System.nanoTime();
+            queueingDelayNanos += (now - start - queueingDelayNanos) * QUEUEING_DELAY_SMOOTHING;
+            return now;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejections.incrementAndGet();
+            return -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a completed request, and adjusts the limit from its outcome.
+     *
+     * @param startNanos the start time returned by {@link #acquire()}
+     * @param error the failure of the request, or null if it succeeded
+     */
+    public void release(long startNanos, Throwable error) {
+        long now = System.nanoTime();
+        if (error == null) {
+            onSample(now - startNanos, now, false);
+        } else if (isOverload(error)) {
+            onSample(now - startNanos, now, true);
+        } else {
+            // other failures say nothing about the load of the cluster
+            cancel();
+        }
+    }
+
+    /**
+     * Releases the permit of a request without adjusting the limit, e.g. when the request was not sent after all.
+     */
+    public void cancel() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a completed request which took the given time, and adjusts the limit.
+     *
+     * @param rttNanos the time taken by the request
+     * @param nowNanos the current time
+     * @param dropped true if the request timed out or was rejected because of overload
+     */
+    void onSample(long rttNanos, long nowNanos, boolean dropped) {
+        lock.lock();
+        try {
+            int inFlightBefore = inFlight--;
+            double previousLimit = limit;
+            if (dropped) {
+                if (nowNanos - lastBackoffNanos >= shortRttNanos) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    lastBackoffNanos = nowNanos;
+                }
+            } else {
+                if (longRttNanos == 0) {
+                    shortRttNanos = rttNanos;
+                    longRttNanos = rttNanos;
+                } else {
+                    shortRttNanos += (rttNanos - shortRttNanos) * SHORT_RTT_SMOOTHING;
+                    longRttNanos += (rttNanos - longRttNanos) * LONG_RTT_SMOOTHING;
+                    // recover faster once the latency went back down, e.g. after a compaction
+                    if (longRttNanos > 2 * shortRttNanos) {
+                        longRttNanos *= 0.95;
+                    }
+                }
+                if (inFlightBefore >= limit / 2) {
+                    double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, longRttNanos / shortRttNanos));
+                    double newLimit = limit * gradient + Math.sqrt(limit);
+                    limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - LIMIT_SMOOTHING) + newLimit * LIMIT_SMOOTHING));
+                }
+            }
+            if ((int) limit != (int) previousLimit) {
+                LOG.debug("Concurrency limit changed from {} to {}", (int) previousLimit, (int) limit);
+            }
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current number of concurrent requests allowed.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests sent and not completed yet.
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the moving average of the time the requests waited for the limiter, in milliseconds.
+     */
+    public double getQueueingDelayMillis() {
+        lock.lock();
+        try {
+            return queueingDelayNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests rejected because they waited longer than the maximum queue wait time.
+     */
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    /**
+     * Registers gauges for the limit, the requests in flight, the queueing delay and the rejections of this limiter.
+     */
+    public void registerMetrics(IMetricsContext context) {
+        context.registerGauge("cassandra-concurrency-limit", this::getLimit);
+        context.registerGauge("cassandra-concurrency-in-flight", this::getInFlight);
+        context.registerGauge("cassandra-concurrency-queueing-delay-ms", this::getQueueingDelayMillis);
+        context.registerGauge("cassandra-concurrency-rejections", this::getRejections);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveConcurrencyLimiter{limit=" + getLimit() + ", minLimit=" + minLimit + ", maxLimit=" + maxLimit + "}";
+    }
+}
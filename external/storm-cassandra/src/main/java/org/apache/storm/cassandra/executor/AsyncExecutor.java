@@ -48,6 +48,8 @@ public class AsyncExecutor<T> implements Serializable {
 
     private AtomicInteger pending = new AtomicInteger();
 
+    private transient AdaptiveConcurrencyLimiter concurrencyLimiter;
+
     /**
      * Creates a new {@link AsyncExecutor} instance.
      */
@@ -67,6 +69,15 @@ public class AsyncExecutor<T> implements Serializable {
         this.handler = handler;
     }
 
+    /**
+     * Limits the concurrent statements executed by {@link #execAsync(Statement, Object, AsyncResultHandler)} with the given limiter.
+     *
+     * @param concurrencyLimiter the limiter, or null to execute the statements without limit.
+     */
+    public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
     protected static ExecutorService newSingleThreadExecutor() {
         return Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("cassandra-async-handler-%d").build());
     }
@@ -112,16 +123,27 @@ public class AsyncExecutor<T> implements Serializable {
      */
     public SettableFuture<T> execAsync(final Statement statement, final T inputs, final AsyncResultHandler<T> handler) {
         final SettableFuture<T> settableFuture = SettableFuture.create();
+        final AdaptiveConcurrencyLimiter limiter = concurrencyLimiter;
+        final long permit = limiter == null ? 0 : limiter.acquire();
+        if (permit < 0) {
+            FailedException e = new FailedException("Too many concurrent statements, the concurrency limit is " + limiter.getLimit());
+            settableFuture.setException(e);
+            handler.failure(e, inputs);
+            return settableFuture;
+        }
         pending.incrementAndGet();
         ResultSetFuture future = session.executeAsync(statement);
         Futures.addCallback(future, new FutureCallback<ResultSet>() {
-            public void release() {
+            public void release(Throwable t) {
                 pending.decrementAndGet();
+                if (limiter != null) {
+                    limiter.release(permit, t);
+                }
             }
 
             @Override
             public void onSuccess(ResultSet result) {
-                release();
+                release(null);
                 settableFuture.set(inputs);
                 handler.success(inputs);
             }
@@ -129,7 +151,7 @@ public class AsyncExecutor<T> implements Serializable {
             @Override
             public void onFailure(Throwable t) {
                 LOG.error(String.format("Failed to execute statement '%s' ", statement), t);
-                release();
+                release(t);
                 settableFuture.setException(t);
                 handler.failure(t, inputs);
             }
@@ -143,6 +165,20 @@ public class AsyncExecutor<T> implements Serializable {
      */
     public SettableFuture<List<T>> execAsync(final List<Statement> statements, final List<T> inputs, Semaphore throttle,
                                              final AsyncResultSetHandler<T> handler) {
+        return execAsync(statements, inputs, throttle, null, handler);
+    }
+
+    /**
+     * Asynchronously executes the specified select statements, with at most as many concurrent statements as allowed by the given limiter.
+     * Results will be passed to the {@link AsyncResultSetHandler} once each query has succeed or failed.
+     */
+    public SettableFuture<List<T>> execAsync(final List<Statement> statements, final List<T> inputs,
+                                             AdaptiveConcurrencyLimiter limiter, final AsyncResultSetHandler<T> handler) {
+        return execAsync(statements, inputs, null, limiter, handler);
+    }
+
+    private SettableFuture<List<T>> execAsync(final List<Statement> statements, final List<T> inputs, Semaphore throttle,
+                                              AdaptiveConcurrencyLimiter limiter, final AsyncResultSetHandler<T> handler) {
 
         final SettableFuture<List<T>> settableFuture = SettableFuture.create();
         if (inputs.size() == 0) {
@@ -150,11 +186,12 @@ public class AsyncExecutor<T> implements Serializable {
             return settableFuture;
         }
 
-        final AsyncContext<T> asyncContext = new AsyncContext<>(inputs, throttle, settableFuture);
+        final AsyncContext<T> asyncContext = new AsyncContext<>(inputs, throttle, limiter, settableFuture);
         for (int i = 0; i < statements.size(); i++) {
 
             // Acquire a slot
-            if (asyncContext.acquire()) {
+            final long permit = asyncContext.acquire();
+            if (permit >= 0) {
                 try {
                     pending.incrementAndGet();
                     final T input = inputs.get(i);
@@ -169,7 +206,7 @@ public class AsyncExecutor<T> implements Serializable {
                                 asyncContext.exception(throwable);
                             } finally {
                                 pending.decrementAndGet();
-                                asyncContext.release();
+                                asyncContext.release(permit, null);
                             }
                         }
 
@@ -182,7 +219,7 @@ public class AsyncExecutor<T> implements Serializable {
                             } finally {
                                 asyncContext
                                     .exception(throwable)
-                                    .release();
+                                    .release(permit, throwable);
                                 pending.decrementAndGet();
                                 LOG.error(String.format("Failed to execute statement '%s' ", statement), throwable);
                             }
@@ -190,7 +227,7 @@ public class AsyncExecutor<T> implements Serializable {
                     }, executorService);
                 } catch (Throwable throwable) {
                     asyncContext.exception(throwable)
-                                .release();
+                                .release(permit, throwable);
                     pending.decrementAndGet();
                     break;
                 }
@@ -221,27 +258,65 @@ public class AsyncExecutor<T> implements Serializable {
         private final AtomicInteger latch;
         private final List<Throwable> exceptions;
         private final Semaphore throttle;
+        private final AdaptiveConcurrencyLimiter limiter;
 
-        AsyncContext(List<T> inputs, Semaphore throttle, SettableFuture<List<T>> settableFuture) {
+        AsyncContext(List<T> inputs, Semaphore throttle, AdaptiveConcurrencyLimiter limiter, SettableFuture<List<T>> settableFuture) {
             this.inputs = inputs;
             this.latch = new AtomicInteger(inputs.size());
             this.throttle = throttle;
+            this.limiter = limiter;
             this.exceptions = Collections.synchronizedList(new ArrayList<Throwable>());
             this.future = settableFuture;
         }
 
-        public boolean acquire() {
-            throttle.acquireUninterruptibly();
+        /**
+         * Acquires a slot.
+         *
+         * @return the permit to release, or -1 if the request must not be started
+         */
+        public long acquire() {
+            long permit = 0;
+            if (limiter == null) {
+                throttle.acquireUninterruptibly();
+            } else {
+                permit = limiter.acquire();
+                if (permit < 0) {
+                    exception(new FailedException("Too many concurrent statements, the concurrency limit is " + limiter.getLimit()));
+                    cancel(permit);
+                    return -1;
+                }
+            }
             // Don't start new requests if there is an exception
             if (exceptions.size() > 0) {
-                latch.decrementAndGet();
+                cancel(permit);
+                return -1;
+            }
+            return permit;
+        }
+
+        public AsyncContext release(long permit, Throwable error) {
+            countDown();
+            if (limiter == null) {
                 throttle.release();
-                return false;
+            } else {
+                limiter.release(permit, error);
+            }
+            return this;
+        }
+
+        /**
+         * Releases the slot of a request that was not sent, so that it does not count as a latency sample of the limiter.
+         */
+        private void cancel(long permit) {
+            countDown();
+            if (limiter == null) {
+                throttle.release();
+            } else if (permit >= 0) {
+                limiter.cancel();
             }
-            return true;
         }
 
-        public AsyncContext release() {
+        private void countDown() {
             int remaining = latch.decrementAndGet();
             if (remaining == 0) {
                 if (exceptions.size() == 0) {
@@ -251,8 +326,6 @@ public class AsyncExecutor<T> implements Serializable {
                 }
 
             }
-            throttle.release();
-            return this;
         }
 
         public AsyncContext exception(Throwable throwable) {
@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.cassandra.executor;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.storm.cassandra.client.CassandraConf;
+
+/**
+ * This class must be used to obtain a single instance of {@link AdaptiveConcurrencyLimiter} per cluster within a storm worker, so that
+ * all the executors writing to the same cluster share the same limit.
+ */
+public class ConcurrencyLimiterProvider {
+
+    private static final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the limiter shared by the executors of the worker connecting to the nodes of the given configuration. The limiter is created
+     * with the adaptive concurrency settings of the first configuration.
+     */
+    public static AdaptiveConcurrencyLimiter getShared(CassandraConf conf) {
+        String[] nodes = conf.getNodes().clone();
+        Arrays.sort(nodes);
+        String cluster = String.join(",", nodes) + ":" + conf.getPort();
+        return limiters.computeIfAbsent(cluster, key -> new AdaptiveConcurrencyLimiter(conf.getAdaptiveConcurrencyInitial(),
+                                                                                      conf.getAdaptiveConcurrencyMin(),
+                                                                                      conf.getAdaptiveConcurrencyMax(),
+                                                                                      conf.getAdaptiveConcurrencyMaxQueueWaitMillis()));
+    }
+}
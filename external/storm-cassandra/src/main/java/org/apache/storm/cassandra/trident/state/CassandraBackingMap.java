@@ -22,10 +22,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
+import org.apache.storm.cassandra.client.CassandraConf;
 import org.apache.storm.cassandra.client.SimpleClient;
 import org.apache.storm.cassandra.client.SimpleClientProvider;
+import org.apache.storm.cassandra.executor.AdaptiveConcurrencyLimiter;
+import org.apache.storm.cassandra.executor.ConcurrencyLimiterProvider;
 import org.apache.storm.cassandra.query.AyncCQLResultSetValuesMapper;
 import org.apache.storm.cassandra.query.CQLStatementTupleMapper;
+import org.apache.storm.task.IMetricsContext;
 import org.apache.storm.topology.FailedException;
 import org.apache.storm.trident.state.JSONNonTransactionalSerializer;
 import org.apache.storm.trident.state.JSONOpaqueSerializer;
@@ -57,6 +61,9 @@ import org.slf4j.LoggerFactory;
  * <p>Parallelism defaults to half the maximum requests per host, either local or remote whichever is
  * lower. The driver defaults to 256 for remote hosts and 1024 for local hosts, so the default value is 128
  * unless the driver is configured otherwise.
+ *
+ * <p>When {@link CassandraConf#CASSANDRA_ADAPTIVE_CONCURRENCY_ENABLED} is set, the parallelism is instead adjusted from the observed
+ * latencies and timeouts by an {@link AdaptiveConcurrencyLimiter} shared by all the states of the worker writing to the same cluster.
  */
 public class CassandraBackingMap<T> implements IBackingMap<T> {
 
@@ -71,6 +78,7 @@ public class CassandraBackingMap<T> implements IBackingMap<T> {
     private AyncCQLResultSetValuesMapper getResultMapper;
     private AyncCQLResultSetValuesMapper putResultMapper;
     private Semaphore throttle;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
 
 
     protected CassandraBackingMap(Map<String, Object> conf, Options<T> options) {
@@ -87,6 +95,14 @@ public class CassandraBackingMap<T> implements IBackingMap<T> {
         Preconditions.checkNotNull(options.putMapper, "CassandraBackingMap.Options should have putMapper");
         client = options.clientProvider.getClient(conf);
         session = client.connect();
+        CassandraConf cassandraConf = new CassandraConf(conf);
+        if (cassandraConf.isAdaptiveConcurrencyEnabled()) {
+            concurrencyLimiter = ConcurrencyLimiterProvider.getShared(cassandraConf);
+            LOG.info("Parallelism adjusted by {}", concurrencyLimiter);
+            this.getResultMapper = new TridentAyncCQLResultSetValuesMapper(options.stateMapper.getStateFields(), concurrencyLimiter);
+            this.putResultMapper = new TridentAyncCQLResultSetValuesMapper(null, concurrencyLimiter);
+            return;
+        }
         if (options.maxParallelism == null || options.maxParallelism <= 0) {
             PoolingOptions po = session.getCluster().getConfiguration().getPoolingOptions();
             Integer maxRequestsPerHost = Math.min(
@@ -101,6 +117,15 @@ public class CassandraBackingMap<T> implements IBackingMap<T> {
         this.putResultMapper = new TridentAyncCQLResultSetValuesMapper(null, throttle);
     }
 
+    /**
+     * Registers the metrics of the adaptive concurrency limiter, if the parallelism is adaptive.
+     */
+    public void registerMetrics(IMetricsContext metrics) {
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.registerMetrics(metrics);
+        }
+    }
+
     @Override
     public List<T> multiGet(List<List<Object>> keys) {
         LOG.debug("multiGet fetching {} values.", keys.size());
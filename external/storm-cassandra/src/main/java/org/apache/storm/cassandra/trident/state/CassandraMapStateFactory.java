@@ -19,6 +19,7 @@ import org.apache.storm.trident.state.State;
 import org.apache.storm.trident.state.StateFactory;
 import org.apache.storm.trident.state.StateType;
 import org.apache.storm.trident.state.TransactionalValue;
+import org.apache.storm.trident.state.map.CacheOptions;
 import org.apache.storm.trident.state.map.CachedMap;
 import org.apache.storm.trident.state.map.IBackingMap;
 import org.apache.storm.trident.state.map.MapState;
@@ -37,6 +38,7 @@ public class CassandraMapStateFactory implements StateFactory {
     private final StateType stateType;
     private final CassandraBackingMap.Options options;
     private int cacheSize;
+    private CacheOptions cacheOptions;
     private Map<String, Object> cassandraConfig;
 
     private CassandraMapStateFactory(StateType stateType, CassandraBackingMap.Options options, Map<String, Object> cassandraConfig) {
@@ -62,16 +64,30 @@ public class CassandraMapStateFactory implements StateFactory {
         return this;
     }
 
+    /**
+     * Wraps the backing map in a {@link CachedMap} with the given cache options.
+     */
+    public CassandraMapStateFactory withCache(CacheOptions cacheOptions) {
+        this.cacheOptions = cacheOptions;
+        return this;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public State makeState(Map<String, Object> conf, IMetricsContext metrics, int partitionIndex, int numPartitions) {
 
         CassandraBackingMap cassandraBackingMap = new CassandraBackingMap(cassandraConfig, options);
         cassandraBackingMap.prepare();
+        if (metrics != null) {
+            cassandraBackingMap.registerMetrics(metrics);
+        }
 
-        IBackingMap backingMap = cacheSize > 0
-            ? new CachedMap<>(cassandraBackingMap, cacheSize)
-            : cassandraBackingMap;
+        IBackingMap backingMap = cassandraBackingMap;
+        if (cacheOptions != null) {
+            backingMap = new CachedMap<>(cassandraBackingMap, cacheOptions, metrics);
+        } else if (cacheSize > 0) {
+            backingMap = new CachedMap<>(cassandraBackingMap, cacheSize);
+        }
 
         MapState<?> mapState;
 
@@ -20,6 +20,7 @@ import com.google.common.util.concurrent.SettableFuture;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Semaphore;
+import org.apache.storm.cassandra.executor.AdaptiveConcurrencyLimiter;
 import org.apache.storm.cassandra.executor.AsyncExecutor;
 import org.apache.storm.cassandra.executor.AsyncExecutorProvider;
 import org.apache.storm.cassandra.executor.AsyncResultHandler;
@@ -37,10 +38,18 @@ import org.apache.storm.tuple.Values;
 public class TridentAyncCQLResultSetValuesMapper implements AyncCQLResultSetValuesMapper {
     private final Fields outputDeclaredFields;
     private final Semaphore throttle;
+    private final AdaptiveConcurrencyLimiter limiter;
 
     public TridentAyncCQLResultSetValuesMapper(Fields outputDeclaredFields, Semaphore throttle) {
         this.outputDeclaredFields = outputDeclaredFields;
         this.throttle = throttle;
+        this.limiter = null;
+    }
+
+    public TridentAyncCQLResultSetValuesMapper(Fields outputDeclaredFields, AdaptiveConcurrencyLimiter limiter) {
+        this.outputDeclaredFields = outputDeclaredFields;
+        this.throttle = null;
+        this.limiter = limiter;
     }
 
     @Override
@@ -52,7 +61,7 @@ public class TridentAyncCQLResultSetValuesMapper implements AyncCQLResultSetValu
             indexes.add(i);
             results.add(null);
         }
-        SettableFuture<List<Integer>> result = executor.execAsync(statements, indexes, throttle, new AsyncResultSetHandler<Integer>() {
+        AsyncResultSetHandler<Integer> handler = new AsyncResultSetHandler<Integer>() {
             @Override
             public void success(Integer index, ResultSet resultSet) {
                 if (outputDeclaredFields != null) {
@@ -78,7 +87,10 @@ public class TridentAyncCQLResultSetValuesMapper implements AyncCQLResultSetValu
                 // Exceptions are captured and thrown at the end of the batch by the executor
             }
 
-        });
+        };
+        SettableFuture<List<Integer>> result = limiter != null
+            ? executor.execAsync(statements, indexes, limiter, handler)
+            : executor.execAsync(statements, indexes, throttle, handler);
 
         try {
             // Await all results
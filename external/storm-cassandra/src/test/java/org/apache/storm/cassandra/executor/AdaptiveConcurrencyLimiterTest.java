@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.cassandra.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static void saturate(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.getInFlight() < limiter.getLimit()) {
+            assertTrue(limiter.acquire() >= 0);
+        }
+    }
+
+    @Test
+    public void testLimitGrowsWithStableLatencyWhenSaturated() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0);
+        long now = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            saturate(limiter);
+            now += RTT;
+            limiter.onSample(RTT, now, false);
+        }
+        assertTrue(limiter.getLimit() > 10, "limit: " + limiter.getLimit());
+        assertTrue(limiter.getLimit() <= 100, "limit: " + limiter.getLimit());
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhenUnderused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 0);
+        long now = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire();
+            now += RTT;
+            limiter.onSample(RTT, now, false);
+        }
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyIncreases() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 1, 100, 0);
+        long now = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter);
+            now += RTT;
+            limiter.onSample(RTT, now, false);
+        }
+        int stableLimit = limiter.getLimit();
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter);
+            now += 10 * RTT;
+            limiter.onSample(10 * RTT, now, false);
+        }
+        assertTrue(limiter.getLimit() < stableLimit, "limit: " + limiter.getLimit() + ", stable limit: " + stableLimit);
+    }
+
+    @Test
+    public void testDropsBackOffAtMostOncePerLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 1, 200, 0);
+        long now = System.nanoTime() + 10 * RTT;
+        limiter.acquire();
+        limiter.onSample(RTT, now, false);
+        assertEquals(100, limiter.getLimit());
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+        }
+        limiter.onSample(RTT, now, true);
+        assertEquals(75, limiter.getLimit());
+        limiter.onSample(RTT, now + RTT / 10, true);
+        assertEquals(75, limiter.getLimit());
+        limiter.onSample(RTT, now + 2 * RTT, true);
+        assertEquals(56, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+
+        // failures unrelated to the load of the cluster do not change the limit
+        limiter.release(limiter.acquire(), new IllegalArgumentException());
+        assertEquals(56, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testCancelDoesNotSampleTheLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 100, 0);
+        long now = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            saturate(limiter);
+            now += 10 * RTT;
+            limiter.onSample(10 * RTT, now, false);
+        }
+        int limit = limiter.getLimit();
+        saturate(limiter);
+        while (limiter.getInFlight() > 0) {
+            limiter.cancel();
+        }
+        // the requests that were not sent do not count as fast requests
+        assertEquals(limit, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void testRejectsAfterMaxQueueWait() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 50);
+        long permit = limiter.acquire();
+        assertTrue(permit >= 0);
+
+        long start = System.nanoTime();
+        assertEquals(-1, limiter.acquire());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, limiter.getRejections());
+
+        limiter.release(permit, null);
+        assertTrue(limiter.acquire() >= 0);
+        assertEquals(1, limiter.getInFlight());
+    }
+}
@@ -20,23 +20,63 @@ package org.apache.storm.elasticsearch.bolt;
 
 import static java.util.Objects.requireNonNull;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.util.Args;
 import org.apache.storm.elasticsearch.common.DefaultEsTupleMapper;
 import org.apache.storm.elasticsearch.common.EsConfig;
 import org.apache.storm.elasticsearch.common.EsTupleMapper;
+import org.apache.storm.elasticsearch.doc.IndexItem;
+import org.apache.storm.elasticsearch.doc.IndexItemDoc;
+import org.apache.storm.elasticsearch.response.BulkIndexResponse;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.tuple.Tuple;
+import org.apache.storm.utils.TupleUtils;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Basic bolt for storing tuple to ES document.
+ * <p>
+ * By default every tuple is indexed with its own request. With {@link #withBatchSize(int)} the tuples are indexed with bulk requests,
+ * which are sent when they reach the batch size or {@link #withMaxBatchBytes(long)}, or every {@link #withFlushIntervalSecs(int)}
+ * seconds. Up to {@link #withMaxInFlightRequests(int)} bulk requests are sent concurrently, and the tuples of a bulk request are acked
+ * or failed once its response is received, so that only the tuples of the documents Elasticsearch rejected are failed.
+ * </p>
  */
 public class EsIndexBolt extends AbstractEsBolt {
+    private static final Logger LOG = LoggerFactory.getLogger(EsIndexBolt.class);
+    private static final int DEFAULT_FLUSH_INTERVAL_SECS = 1;
+    private static final ObjectReader bulkResponseReader = objectMapper.readerFor(BulkIndexResponse.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
     private final EsTupleMapper tupleMapper;
+    private int batchSize = 1;
+    private long maxBatchBytes = Long.MAX_VALUE;
+    private int flushIntervalSecs = DEFAULT_FLUSH_INTERVAL_SECS;
+    private int maxInFlightRequests = 1;
+
+    private transient List<Tuple> batchTuples;
+    private transient StringBuilder batchBody;
+    private transient Map<String, String> batchParams;
+    // The bulk requests are completed by the http client threads, and their tuples are acked or failed by the executor thread
+    private transient BlockingQueue<BulkResult> completedRequests;
+    private transient int inFlightRequests;
 
     /**
      * EsIndexBolt constructor.
@@ -56,9 +96,46 @@ public class EsIndexBolt extends AbstractEsBolt {
         this.tupleMapper = requireNonNull(tupleMapper);
     }
 
+    /**
+     * Sets the number of tuples indexed with a bulk request. The default is 1, i.e. every tuple is indexed with its own request.
+     */
+    public EsIndexBolt withBatchSize(int batchSize) {
+        this.batchSize = Args.positive(batchSize, "batchSize");
+        return this;
+    }
+
+    /**
+     * Sets the size of the body of a bulk request, in characters, above which the request is sent before reaching the batch size.
+     */
+    public EsIndexBolt withMaxBatchBytes(long maxBatchBytes) {
+        this.maxBatchBytes = Args.positive(maxBatchBytes, "maxBatchBytes");
+        return this;
+    }
+
+    /**
+     * Sets the interval at which an incomplete bulk request is sent, when the batch size is greater than 1. The default is 1 second.
+     */
+    public EsIndexBolt withFlushIntervalSecs(int flushIntervalSecs) {
+        this.flushIntervalSecs = Args.positive(flushIntervalSecs, "flushIntervalSecs");
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of bulk requests sent concurrently. When it is reached the bolt waits for a response before sending the
+     * next request. The default is 1.
+     */
+    public EsIndexBolt withMaxInFlightRequests(int maxInFlightRequests) {
+        this.maxInFlightRequests = Args.positive(maxInFlightRequests, "maxInFlightRequests");
+        return this;
+    }
+
     @Override
     public void prepare(Map<String, Object> map, TopologyContext topologyContext, OutputCollector outputCollector) {
         super.prepare(map, topologyContext, outputCollector);
+        this.batchTuples = new ArrayList<>();
+        this.batchBody = new StringBuilder();
+        this.completedRequests = new LinkedBlockingQueue<>();
+        this.inFlightRequests = 0;
     }
 
     /**
@@ -67,6 +144,11 @@ public class EsIndexBolt extends AbstractEsBolt {
      */
     @Override
     public void process(Tuple tuple) {
+        if (batchSize > 1) {
+            completeRequests();
+            addToBatch(tuple);
+            return;
+        }
         try {
             String source = tupleMapper.getSource(tuple);
             String index = tupleMapper.getIndex(tuple);
@@ -82,7 +164,167 @@ public class EsIndexBolt extends AbstractEsBolt {
         }
     }
 
+    @Override
+    protected void onTickTuple(Tuple tuple) {
+        if (batchSize > 1) {
+            completeRequests();
+            flush();
+        }
+    }
+
+    private void addToBatch(Tuple tuple) {
+        String action;
+        String document;
+        Map<String, String> params;
+        try {
+            ObjectNode metadata = objectMapper.createObjectNode().put("_index", requireNonNull(tupleMapper.getIndex(tuple)));
+            String type = tupleMapper.getType(tuple);
+            if (!(type == null || type.isEmpty())) {
+                metadata.put("_type", type);
+            }
+            String id = tupleMapper.getId(tuple);
+            if (!(id == null || id.isEmpty())) {
+                metadata.put("_id", id);
+            }
+            action = objectMapper.createObjectNode().set("index", metadata).toString();
+            String source = tupleMapper.getSource(tuple);
+            // every document must be on a single line of the bulk request
+            document = source.indexOf('\n') < 0 ? source : objectMapper.readTree(source).toString();
+            params = tupleMapper.getParams(tuple, new HashMap<>());
+        } catch (Exception e) {
+            collector.reportError(e);
+            collector.fail(tuple);
+            return;
+        }
+        // the parameters apply to the whole bulk request, so the tuples with different parameters are sent in separate requests
+        if (!batchTuples.isEmpty() && !params.equals(batchParams)) {
+            flush();
+        }
+        batchParams = params;
+        batchBody.append(action).append('\n').append(document).append('\n');
+        batchTuples.add(tuple);
+        if (batchTuples.size() >= batchSize || batchBody.length() >= maxBatchBytes) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (batchTuples.isEmpty()) {
+            return;
+        }
+        while (inFlightRequests >= maxInFlightRequests) {
+            complete(takeCompletedRequest());
+        }
+        final List<Tuple> tuples = batchTuples;
+        String body = batchBody.toString();
+        batchTuples = new ArrayList<>();
+        batchBody.setLength(0);
+        LOG.debug("Sending bulk request of [{}] documents", tuples.size());
+        inFlightRequests++;
+        try {
+            client.performRequestAsync("post", "/_bulk", batchParams, new StringEntity(body, ContentType.APPLICATION_JSON),
+                    new ResponseListener() {
+                        @Override
+                        public void onSuccess(Response response) {
+                            try {
+                                BulkIndexResponse bulkResponse = bulkResponseReader.readValue(response.getEntity().getContent());
+                                completedRequests.add(new BulkResult(tuples, bulkResponse, null));
+                            } catch (Exception e) {
+                                completedRequests.add(new BulkResult(tuples, null, e));
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            completedRequests.add(new BulkResult(tuples, null, e));
+                        }
+                    });
+        } catch (Exception e) {
+            completedRequests.add(new BulkResult(tuples, null, e));
+        }
+    }
+
+    private BulkResult takeCompletedRequest() {
+        try {
+            return completedRequests.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void completeRequests() {
+        BulkResult result;
+        while ((result = completedRequests.poll()) != null) {
+            complete(result);
+        }
+    }
+
+    /**
+     * Acks the tuples of the documents Elasticsearch indexed, and fails the others.
+     */
+    private void complete(BulkResult result) {
+        inFlightRequests--;
+        if (result.error != null) {
+            collector.reportError(result.error);
+            for (Tuple tuple : result.tuples) {
+                collector.fail(tuple);
+            }
+            return;
+        }
+        List<IndexItemDoc> items = result.response.getItems();
+        int failed = 0;
+        String firstError = null;
+        for (int i = 0; i < result.tuples.size(); i++) {
+            Tuple tuple = result.tuples.get(i);
+            IndexItem item = items != null && i < items.size() ? items.get(i).getIndex() : null;
+            if (item != null && item.getStatus() >= 200 && item.getStatus() < 300) {
+                collector.ack(tuple);
+            } else {
+                if (failed++ == 0) {
+                    firstError = item == null ? "missing bulk response item" : item.getStatus() + ": " + item.getError();
+                }
+                collector.fail(tuple);
+            }
+        }
+        if (failed > 0) {
+            collector.reportError(new IllegalStateException("Elasticsearch rejected " + failed + " of " + result.tuples.size()
+                    + " documents, first error " + firstError));
+        }
+    }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        if (batchSize > 1) {
+            return TupleUtils.putTickFrequencyIntoComponentConfig(super.getComponentConfiguration(), flushIntervalSecs);
+        }
+        return super.getComponentConfiguration();
+    }
+
+    @Override
+    public void cleanup() {
+        if (batchSize > 1 && batchTuples != null) {
+            flush();
+            while (inFlightRequests > 0) {
+                complete(takeCompletedRequest());
+            }
+        }
+        super.cleanup();
+    }
+
     @Override
     public void declareOutputFields(OutputFieldsDeclarer outputFieldsDeclarer) {
     }
+
+    private static class BulkResult {
+        private final List<Tuple> tuples;
+        private final BulkIndexResponse response;
+        private final Exception error;
+
+        BulkResult(List<Tuple> tuples, BulkIndexResponse response, Exception error) {
+            this.tuples = tuples;
+            this.response = response;
+            this.error = error;
+        }
+    }
 }
@@ -23,26 +23,39 @@ import static java.util.Objects.requireNonNull;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.apache.storm.elasticsearch.DefaultEsLookupResultOutput;
 import org.apache.storm.elasticsearch.EsLookupResultOutput;
 import org.apache.storm.elasticsearch.common.DefaultEsTupleMapper;
 import org.apache.storm.elasticsearch.common.EsConfig;
 import org.apache.storm.elasticsearch.common.EsTupleMapper;
+import org.apache.storm.lookup.AsyncLookupHelper;
+import org.apache.storm.lookup.LookupOptions;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.TupleUtils;
 import org.elasticsearch.client.Response;
 
 /**
  * Basic bolt for looking up document in ES.
+ *
+ * <p>The lookups can be made asynchronous and cached with {@link #withLookupOptions(LookupOptions)}. A document requested by several
+ * tuples while it is being looked up is requested once. The documents of a batch are requested one by one, since the
+ * {@link EsLookupResultOutput} maps the response of a single document request.
  * @since 0.11
  */
 public class EsLookupBolt extends AbstractEsBolt {
 
     private final EsTupleMapper tupleMapper;
     private final EsLookupResultOutput output;
+    private LookupOptions lookupOptions = new LookupOptions();
+    private transient AsyncLookupHelper<DocumentRequest, Collection<Values>> lookupHelper;
 
     /**
      * EsLookupBolt constructor.
@@ -66,36 +79,106 @@ public class EsLookupBolt extends AbstractEsBolt {
         this.output = requireNonNull(output);
     }
 
+    /**
+     * Sets the options of the lookups, to make them asynchronous or cached.
+     * @param lookupOptions the lookup options
+     * @return this
+     */
+    public EsLookupBolt withLookupOptions(LookupOptions lookupOptions) {
+        this.lookupOptions = requireNonNull(lookupOptions);
+        return this;
+    }
+
+    @Override
+    public void prepare(Map<String, Object> map, TopologyContext topologyContext, OutputCollector outputCollector) {
+        super.prepare(map, topologyContext, outputCollector);
+        lookupHelper = new AsyncLookupHelper<>(lookupOptions, this::lookupValuesInEs, this::tryEmit, topologyContext, outputCollector);
+    }
+
     @Override
     public void process(Tuple tuple) {
+        DocumentRequest request;
         try {
-            Collection<Values> values = lookupValuesInEs(tuple);
-            tryEmitAndAck(values, tuple);
+            String index = tupleMapper.getIndex(tuple);
+            String type = tupleMapper.getType(tuple);
+            String id = tupleMapper.getId(tuple);
+            Map<String, String> params = tupleMapper.getParams(tuple, new HashMap<>());
+            request = new DocumentRequest(getEndpoint(index, type, id), params);
         } catch (Exception e) {
             collector.reportError(e);
             collector.fail(tuple);
+            return;
         }
+        lookupHelper.lookup(tuple, request);
     }
 
-    private Collection<Values> lookupValuesInEs(Tuple tuple) throws IOException {
-        String index = tupleMapper.getIndex(tuple);
-        String type = tupleMapper.getType(tuple);
-        String id = tupleMapper.getId(tuple);
-        Map<String, String> params = tupleMapper.getParams(tuple, new HashMap<>());
+    @Override
+    protected void onTickTuple(Tuple tuple) {
+        lookupHelper.onTick();
+    }
 
-        Response response = client.performRequest("get", getEndpoint(index, type, id), params);
-        return output.toValues(response);
+    private Map<DocumentRequest, Collection<Values>> lookupValuesInEs(List<DocumentRequest> requests) throws IOException {
+        Map<DocumentRequest, Collection<Values>> values = new HashMap<>();
+        for (DocumentRequest request : requests) {
+            Response response = client.performRequest("get", request.endpoint, request.params);
+            values.put(request, output.toValues(response));
+        }
+        return values;
     }
 
-    private void tryEmitAndAck(Collection<Values> values, Tuple tuple) {
+    private void tryEmit(Tuple tuple, Collection<Values> values) {
         for (Values value : values) {
             collector.emit(tuple, value);
         }
-        collector.ack(tuple);
     }
 
     @Override
     public void declareOutputFields(OutputFieldsDeclarer outputFieldsDeclarer) {
         outputFieldsDeclarer.declare(output.fields());
     }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        Map<String, Object> conf = super.getComponentConfiguration();
+        if (lookupOptions.isAsync()) {
+            // completes the lookups when the input is idle
+            conf = TupleUtils.putTickFrequencyIntoComponentConfig(conf, 1);
+        }
+        return conf;
+    }
+
+    @Override
+    public void cleanup() {
+        if (lookupHelper != null) {
+            lookupHelper.cleanup();
+        }
+        super.cleanup();
+    }
+
+    private static final class DocumentRequest {
+        private final String endpoint;
+        private final Map<String, String> params;
+
+        DocumentRequest(String endpoint, Map<String, String> params) {
+            this.endpoint = endpoint;
+            this.params = params;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DocumentRequest)) {
+                return false;
+            }
+            DocumentRequest that = (DocumentRequest) o;
+            return endpoint.equals(that.endpoint) && Objects.equals(params, that.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, params);
+        }
+    }
 }
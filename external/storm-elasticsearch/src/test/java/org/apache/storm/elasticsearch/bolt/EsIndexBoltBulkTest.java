@@ -0,0 +1,235 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.elasticsearch.bolt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHost;
+import org.apache.storm.Config;
+import org.apache.storm.Constants;
+import org.apache.storm.elasticsearch.common.EsConfig;
+import org.apache.storm.elasticsearch.common.EsTestUtil;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.tuple.Tuple;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the bulk indexing of {@link EsIndexBolt} against a stub of the Elasticsearch bulk API, which rejects the documents containing
+ * "rejected".
+ */
+public class EsIndexBoltBulkTest {
+
+    private static final String index = "index";
+    private static final String type = "type";
+    private static final String source = "{\"user\":\"user1\"}";
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final OutputCollector outputCollector = mock(OutputCollector.class);
+    private final List<String> requestBodies = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private final AtomicInteger maxInFlightRequests = new AtomicInteger();
+    private volatile long responseDelayMs;
+    private ExecutorService serverExecutor;
+    private HttpServer server;
+    private RestClient previousClient;
+    private RestClient client;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/_bulk", this::handleBulk);
+        server.setExecutor(serverExecutor);
+        server.start();
+        previousClient = AbstractEsBolt.getClient();
+        client = RestClient.builder(new HttpHost("localhost", server.getAddress().getPort())).build();
+        AbstractEsBolt.replaceClient(client);
+    }
+
+    @AfterEach
+    public void stopServer() throws IOException {
+        AbstractEsBolt.replaceClient(previousClient);
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleBulk(HttpExchange exchange) throws IOException {
+        int inFlight = inFlightRequests.incrementAndGet();
+        maxInFlightRequests.accumulateAndGet(inFlight, Math::max);
+        try {
+            String body = IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8);
+            requestBodies.add(body);
+            Thread.sleep(responseDelayMs);
+
+            ObjectNode response = objectMapper.createObjectNode().put("took", 1).put("errors", false);
+            ArrayNode items = response.putArray("items");
+            String[] lines = body.split("\n");
+            for (int i = 0; i < lines.length; i += 2) {
+                ObjectNode item = ((ObjectNode) objectMapper.readTree(lines[i]).get("index")).deepCopy();
+                if (lines[i + 1].contains("rejected")) {
+                    response.put("errors", true);
+                    item.put("status", 400).putObject("error").put("type", "mapper_parsing_exception");
+                } else {
+                    item.put("status", 201).put("result", "created");
+                }
+                items.addObject().set("index", item);
+            }
+            byte[] bytes = response.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            inFlightRequests.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private EsIndexBolt prepare(EsIndexBolt bolt) {
+        bolt.prepare(new Config(), null, outputCollector);
+        return bolt;
+    }
+
+    private List<Tuple> createTuples(int count) {
+        List<Tuple> tuples = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tuples.add(EsTestUtil.generateTestTuple(source, index, type, String.valueOf(i)));
+        }
+        return tuples;
+    }
+
+    private Tuple createTickTuple() {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.getSourceComponent()).thenReturn(Constants.SYSTEM_COMPONENT_ID);
+        when(tuple.getSourceStreamId()).thenReturn(Constants.SYSTEM_TICK_STREAM_ID);
+        return tuple;
+    }
+
+    @Test
+    public void testSendsBulkRequestAtBatchSize() throws Exception {
+        EsIndexBolt bolt = prepare(new EsIndexBolt(new EsConfig()).withBatchSize(3));
+        List<Tuple> tuples = createTuples(3);
+
+        bolt.execute(tuples.get(0));
+        bolt.execute(tuples.get(1));
+        assertTrue(requestBodies.isEmpty());
+
+        bolt.execute(tuples.get(2));
+        bolt.cleanup();
+
+        assertEquals(1, requestBodies.size());
+        String[] lines = requestBodies.get(0).split("\n");
+        assertEquals(6, lines.length);
+        JsonNode action = objectMapper.readTree(lines[2]).get("index");
+        assertEquals(index, action.get("_index").asText());
+        assertEquals(type, action.get("_type").asText());
+        assertEquals("1", action.get("_id").asText());
+        assertEquals(source, lines[3]);
+        for (Tuple tuple : tuples) {
+            verify(outputCollector).ack(tuple);
+        }
+    }
+
+    @Test
+    public void testTickSendsPartialBatch() {
+        EsIndexBolt bolt = prepare(new EsIndexBolt(new EsConfig()).withBatchSize(10));
+        List<Tuple> tuples = createTuples(2);
+
+        for (Tuple tuple : tuples) {
+            bolt.execute(tuple);
+        }
+        bolt.execute(createTickTuple());
+        bolt.cleanup();
+
+        assertEquals(1, requestBodies.size());
+        assertEquals(4, requestBodies.get(0).split("\n").length);
+        for (Tuple tuple : tuples) {
+            verify(outputCollector).ack(tuple);
+        }
+    }
+
+    @Test
+    public void testFailsOnlyRejectedDocuments() {
+        EsIndexBolt bolt = prepare(new EsIndexBolt(new EsConfig()).withBatchSize(3));
+        Tuple rejected = EsTestUtil.generateTestTuple("{\"user\":\"rejected\"}", index, type, "rejected");
+        List<Tuple> tuples = createTuples(2);
+
+        bolt.execute(tuples.get(0));
+        bolt.execute(rejected);
+        bolt.execute(tuples.get(1));
+        bolt.cleanup();
+
+        verify(outputCollector).ack(tuples.get(0));
+        verify(outputCollector).ack(tuples.get(1));
+        verify(outputCollector).fail(rejected);
+        verify(outputCollector, never()).ack(rejected);
+        verify(outputCollector, times(1)).reportError(any(Throwable.class));
+    }
+
+    @Test
+    public void testBoundsInFlightRequests() {
+        responseDelayMs = 200;
+        EsIndexBolt bolt = prepare(new EsIndexBolt(new EsConfig()).withBatchSize(2).withMaxInFlightRequests(2));
+        List<Tuple> tuples = createTuples(10);
+
+        for (Tuple tuple : tuples) {
+            bolt.execute(tuple);
+        }
+        bolt.cleanup();
+
+        assertEquals(5, requestBodies.size());
+        assertEquals(2, maxInFlightRequests.get());
+        for (Tuple tuple : tuples) {
+            verify(outputCollector).ack(tuple);
+        }
+    }
+}
@@ -12,10 +12,10 @@
 
 package org.apache.storm.hbase.bolt;
 
-import com.github.benmanes.caffeine.cache.CacheLoader;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
-import com.google.common.collect.Lists;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang.Validate;
@@ -24,6 +24,8 @@ import org.apache.hadoop.hbase.client.Result;
 import org.apache.storm.hbase.bolt.mapper.HBaseMapper;
 import org.apache.storm.hbase.bolt.mapper.HBaseProjectionCriteria;
 import org.apache.storm.hbase.bolt.mapper.HBaseValueMapper;
+import org.apache.storm.lookup.AsyncLookupHelper;
+import org.apache.storm.lookup.LookupOptions;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
@@ -37,14 +39,18 @@ import org.slf4j.LoggerFactory;
  * Basic bolt for querying from HBase.
  *
  * <p>Note: Each HBaseBolt defined in a topology is tied to a specific table.
+ *
+ * <p>The lookups can be made asynchronous, batched and cached with {@link #withLookupOptions(LookupOptions)}. The row keys of a batch
+ * are looked up with a single multi get. The HBase table of an executor is not thread safe, so its multi gets are executed one at a
+ * time.
  */
 public class HBaseLookupBolt extends AbstractHBaseBolt {
     private static final Logger LOG = LoggerFactory.getLogger(HBaseLookupBolt.class);
 
     private HBaseValueMapper rowToTupleMapper;
     private HBaseProjectionCriteria projectionCriteria;
-    private transient LoadingCache<byte[], Result> cache;
-    private transient boolean cacheEnabled;
+    private LookupOptions lookupOptions = new LookupOptions();
+    private transient AsyncLookupHelper<ByteBuffer, Result> lookupHelper;
 
     public HBaseLookupBolt(String tableName, HBaseMapper mapper, HBaseValueMapper rowToTupleMapper) {
         super(tableName, mapper);
@@ -62,51 +68,65 @@ public class HBaseLookupBolt extends AbstractHBaseBolt {
         return this;
     }
 
+    /**
+     * Sets the options of the lookups, to make them asynchronous, batched or cached. The cache of the lookup options takes precedence over
+     * the {@code hbase.cache.*} configuration.
+     */
+    public HBaseLookupBolt withLookupOptions(LookupOptions lookupOptions) {
+        this.lookupOptions = lookupOptions;
+        return this;
+    }
+
     @Override
     public void prepare(Map<String, Object> config, TopologyContext topologyContext, OutputCollector collector) {
         super.prepare(config, topologyContext, collector);
-        cacheEnabled = Boolean.parseBoolean(config.getOrDefault("hbase.cache.enable", "false").toString());
-        int cacheTtl = Integer.parseInt(config.getOrDefault("hbase.cache.ttl.seconds", "300").toString());
-        int maxCacheSize = Integer.parseInt(config.getOrDefault("hbase.cache.size", "1000").toString());
-        if (cacheEnabled) {
-            cache = Caffeine.newBuilder().maximumSize(maxCacheSize).expireAfterWrite(cacheTtl, TimeUnit.SECONDS)
-                            .build(new CacheLoader<byte[], Result>() {
-
-                                @Override
-                                public Result load(byte[] rowKey) throws Exception {
-                                    Get get = hBaseClient.constructGetRequests(rowKey, projectionCriteria);
-                                    if (LOG.isDebugEnabled()) {
-                                        LOG.debug("Cache miss for key:" + new String(rowKey));
-                                    }
-                                    return hBaseClient.batchGet(Lists.newArrayList(get))[0];
-                                }
-
-                            });
+        LookupOptions options = lookupOptions;
+        boolean cacheEnabled = Boolean.parseBoolean(config.getOrDefault("hbase.cache.enable", "false").toString());
+        if (cacheEnabled && !options.isCacheEnabled()) {
+            int cacheTtl = Integer.parseInt(config.getOrDefault("hbase.cache.ttl.seconds", "300").toString());
+            int maxCacheSize = Integer.parseInt(config.getOrDefault("hbase.cache.size", "1000").toString());
+            options = new LookupOptions()
+                .withMaxInFlightLookups(lookupOptions.getMaxInFlightLookups())
+                .withMaxBatchSize(lookupOptions.getMaxBatchSize())
+                .withCache(maxCacheSize, cacheTtl, TimeUnit.SECONDS)
+                .withCacheName(lookupOptions.getCacheName());
         }
+        this.lookupHelper = new AsyncLookupHelper<>(options, this::batchGet, this::emitValues, topologyContext, collector);
     }
 
     @Override
     public void execute(Tuple tuple) {
         if (TupleUtils.isTick(tuple)) {
+            lookupHelper.onTick();
             collector.ack(tuple);
             return;
         }
         byte[] rowKey = this.mapper.rowKey(tuple);
-        Result result = null;
-        try {
-            if (cacheEnabled) {
-                result = cache.get(rowKey);
-            } else {
-                Get get = hBaseClient.constructGetRequests(rowKey, projectionCriteria);
-                result = hBaseClient.batchGet(Lists.newArrayList(get))[0];
-            }
-            for (Values values : rowToTupleMapper.toValues(tuple, result)) {
-                this.collector.emit(tuple, values);
-            }
-            this.collector.ack(tuple);
-        } catch (Exception e) {
-            this.collector.reportError(e);
-            this.collector.fail(tuple);
+        lookupHelper.lookup(tuple, ByteBuffer.wrap(rowKey));
+    }
+
+    private Map<ByteBuffer, Result> batchGet(List<ByteBuffer> rowKeys) throws Exception {
+        List<Get> gets = new ArrayList<>(rowKeys.size());
+        for (ByteBuffer rowKey : rowKeys) {
+            gets.add(hBaseClient.constructGetRequests(rowKey.array(), projectionCriteria));
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Looking up {} row keys", rowKeys.size());
+        }
+        Result[] results;
+        synchronized (hBaseClient) {
+            results = hBaseClient.batchGet(gets);
+        }
+        Map<ByteBuffer, Result> resultsByRowKey = new HashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            resultsByRowKey.put(rowKeys.get(i), results[i]);
+        }
+        return resultsByRowKey;
+    }
+
+    private void emitValues(Tuple tuple, Result result) throws Exception {
+        for (Values values : rowToTupleMapper.toValues(tuple, result)) {
+            this.collector.emit(tuple, values);
         }
     }
 
@@ -114,4 +134,22 @@ public class HBaseLookupBolt extends AbstractHBaseBolt {
     public void declareOutputFields(OutputFieldsDeclarer outputFieldsDeclarer) {
         rowToTupleMapper.declareOutputFields(outputFieldsDeclarer);
     }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        Map<String, Object> conf = super.getComponentConfiguration();
+        if (lookupOptions.isAsync()) {
+            // completes the lookups when the input is idle
+            conf = TupleUtils.putTickFrequencyIntoComponentConfig(conf, 1);
+        }
+        return conf;
+    }
+
+    @Override
+    public void cleanup() {
+        if (lookupHelper != null) {
+            lookupHelper.cleanup();
+        }
+        super.cleanup();
+    }
 }
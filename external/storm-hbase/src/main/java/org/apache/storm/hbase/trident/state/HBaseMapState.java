@@ -47,6 +47,7 @@ import org.apache.storm.trident.state.State;
 import org.apache.storm.trident.state.StateFactory;
 import org.apache.storm.trident.state.StateType;
 import org.apache.storm.trident.state.TransactionalValue;
+import org.apache.storm.trident.state.map.CacheOptions;
 import org.apache.storm.trident.state.map.CachedMap;
 import org.apache.storm.trident.state.map.IBackingMap;
 import org.apache.storm.trident.state.map.MapState;
@@ -204,6 +205,8 @@ public class HBaseMapState<T> implements IBackingMap<T> {
 
         public Serializer<T> serializer = null;
         public int cacheSize = 5000;
+        // if set, used for the cache instead of cacheSize
+        public CacheOptions cacheOptions = null;
         public String globalKey = "$HBASE_STATE_GLOBAL$";
         public String configKey = "hbase.config";
         public String tableName;
@@ -239,7 +242,9 @@ public class HBaseMapState<T> implements IBackingMap<T> {
             LOG.info("Preparing HBase State for partition {} of {}.", partitionIndex + 1, numPartitions);
             IBackingMap state = new HBaseMapState(options, conf, partitionIndex);
 
-            if (options.cacheSize > 0) {
+            if (options.cacheOptions != null) {
+                state = new CachedMap(state, options.cacheOptions, metrics);
+            } else if (options.cacheSize > 0) {
                 state = new CachedMap(state, options.cacheSize);
             }
 
@@ -14,13 +14,19 @@ package org.apache.storm.hdfs.bolt;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -32,6 +38,7 @@ import org.apache.storm.hdfs.common.NullPartitioner;
 import org.apache.storm.hdfs.common.Partitioner;
 import org.apache.storm.hdfs.common.rotation.RotationAction;
 import org.apache.storm.hdfs.security.HdfsSecurityUtil;
+import org.apache.storm.task.IOutputCollector;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
@@ -49,6 +56,8 @@ public abstract class AbstractHdfsBolt extends BaseRichBolt {
      */
     private static final int DEFAULT_TICK_TUPLE_INTERVAL_SECS = 15;
     private static final Integer DEFAULT_MAX_OPEN_FILES = 50;
+    private static final Integer DEFAULT_MAX_BUFFERED_TUPLES = 10_000;
+    private static final int ASYNC_TICK_TUPLE_INTERVAL_SECS = 1;
 
     protected Map<String, Writer> writers;
     protected Map<String, Integer> rotationCounterMap = new HashMap<>();
@@ -68,7 +77,13 @@ public abstract class AbstractHdfsBolt extends BaseRichBolt {
     protected Integer maxOpenFiles = DEFAULT_MAX_OPEN_FILES;
     protected Partitioner partitioner = new NullPartitioner();
     protected transient Configuration hdfsConfig;
+    // writes, syncs and rotates the files on a background thread while the next tuples are buffered, the tuples are still acked once
+    // their data is synced, and the acks are delivered on the next tuple or tick
+    protected boolean asyncFlush = false;
+    // the maximum number of tuples buffered for the background thread, the bolt blocks when the buffer is full
+    protected Integer maxBufferedTuples = DEFAULT_MAX_BUFFERED_TUPLES;
     private List<Tuple> tupleBatch = new LinkedList<>();
+    private transient AsyncFlusher asyncFlusher;
 
     protected void rotateOutputFile(Writer writer) throws IOException {
         LOG.info("Rotating output file...");
@@ -123,77 +138,95 @@ public abstract class AbstractHdfsBolt extends BaseRichBolt {
         if (this.rotationPolicy instanceof TimedRotationPolicy) {
             startTimedRotationPolicy();
         }
+
+        if (this.asyncFlush) {
+            this.asyncFlusher = new AsyncFlusher();
+        }
     }
 
     @Override
     public final void execute(Tuple tuple) {
+        if (this.asyncFlusher != null) {
+            this.asyncFlusher.execute(tuple);
+            return;
+        }
 
         synchronized (this.writeLock) {
-            boolean forceSync = false;
-            Writer writer = null;
-            String writerKey = null;
-
             if (TupleUtils.isTick(tuple)) {
                 LOG.debug("TICK! forcing a file system flush");
                 this.collector.ack(tuple);
-                forceSync = true;
-            } else {
+            }
+            writeAndSync(tuple, this.collector);
+        }
+    }
 
-                writerKey = getHashKeyForTuple(tuple);
+    /**
+     * Writes a tuple, or forces a sync for a tick tuple, syncs the writers and acks the written tuples when the sync policy requires it,
+     * and rotates the file of the tuple when the rotation policy requires it. Must be called holding the write lock.
+     */
+    private void writeAndSync(Tuple tuple, OutputCollector collector) {
+        boolean forceSync = false;
+        Writer writer = null;
+        String writerKey = null;
 
-                try {
-                    writer = getOrCreateWriter(writerKey, tuple);
-                    this.offset = writer.write(tuple);
-                    tupleBatch.add(tuple);
-                } catch (IOException e) {
-                    //If the write failed, try to sync anything already written
-                    LOG.info("Tuple failed to write, forcing a flush of existing data.");
-                    this.collector.reportError(e);
-                    forceSync = true;
-                    this.collector.fail(tuple);
-                }
-            }
+        if (TupleUtils.isTick(tuple)) {
+            forceSync = true;
+        } else {
 
-            if (this.syncPolicy.mark(tuple, this.offset) || (forceSync && tupleBatch.size() > 0)) {
-                int attempts = 0;
-                boolean success = false;
-                IOException lastException = null;
-                // Make every attempt to sync the data we have.  If it can't be done then kill the bolt with
-                // a runtime exception.  The filesystem is presumably in a very bad state.
-                while (success == false && attempts < fileRetryCount) {
-                    attempts += 1;
-                    try {
-                        syncAllWriters();
-                        LOG.debug("Data synced to filesystem. Ack'ing [{}] tuples", tupleBatch.size());
-                        for (Tuple t : tupleBatch) {
-                            this.collector.ack(t);
-                        }
-                        tupleBatch.clear();
-                        syncPolicy.reset();
-                        success = true;
-                    } catch (IOException e) {
-                        LOG.warn("Data could not be synced to filesystem on attempt [{}]", attempts);
-                        this.collector.reportError(e);
-                        lastException = e;
-                    }
-                }
+            writerKey = getHashKeyForTuple(tuple);
 
-                // If unsuccesful fail the pending tuples
-                if (success == false) {
-                    LOG.warn("Data could not be synced to filesystem, failing this batch of tuples");
+            try {
+                writer = getOrCreateWriter(writerKey, tuple);
+                this.offset = writer.write(tuple);
+                tupleBatch.add(tuple);
+            } catch (IOException e) {
+                //If the write failed, try to sync anything already written
+                LOG.info("Tuple failed to write, forcing a flush of existing data.");
+                collector.reportError(e);
+                forceSync = true;
+                collector.fail(tuple);
+            }
+        }
+
+        if (this.syncPolicy.mark(tuple, this.offset) || (forceSync && tupleBatch.size() > 0)) {
+            int attempts = 0;
+            boolean success = false;
+            IOException lastException = null;
+            // Make every attempt to sync the data we have.  If it can't be done then kill the bolt with
+            // a runtime exception.  The filesystem is presumably in a very bad state.
+            while (success == false && attempts < fileRetryCount) {
+                attempts += 1;
+                try {
+                    syncAllWriters();
+                    LOG.debug("Data synced to filesystem. Ack'ing [{}] tuples", tupleBatch.size());
                     for (Tuple t : tupleBatch) {
-                        this.collector.fail(t);
+                        collector.ack(t);
                     }
                     tupleBatch.clear();
-
-                    throw new RuntimeException("Sync failed [" + attempts + "] times.", lastException);
+                    syncPolicy.reset();
+                    success = true;
+                } catch (IOException e) {
+                    LOG.warn("Data could not be synced to filesystem on attempt [{}]", attempts);
+                    collector.reportError(e);
+                    lastException = e;
                 }
             }
 
-            if (writer != null && writer.needsRotation()) {
-                doRotationAndRemoveWriter(writerKey, writer);
+            // If unsuccesful fail the pending tuples
+            if (success == false) {
+                LOG.warn("Data could not be synced to filesystem, failing this batch of tuples");
+                for (Tuple t : tupleBatch) {
+                    collector.fail(t);
+                }
+                tupleBatch.clear();
+
+                throw new RuntimeException("Sync failed [" + attempts + "] times.", lastException);
             }
         }
+
+        if (writer != null && writer.needsRotation()) {
+            doRotationAndRemoveWriter(writerKey, writer, collector);
+        }
     }
 
     private Writer getOrCreateWriter(String writerKey, Tuple tuple) throws IOException {
@@ -220,11 +253,11 @@ public abstract class AbstractHdfsBolt extends BaseRichBolt {
         return boltKey + "****" + partitionDir;
     }
 
-    void doRotationAndRemoveWriter(String writerKey, Writer writer) {
+    void doRotationAndRemoveWriter(String writerKey, Writer writer, OutputCollector collector) {
         try {
             rotateOutputFile(writer);
         } catch (IOException e) {
-            this.collector.reportError(e);
+            collector.reportError(e);
             LOG.error("File could not be rotated");
             //At this point there is nothing to do.  In all likelihood any filesystem operations will fail.
             //The next tuple will almost certainly fail to write and/or sync, which force a rotation.  That
@@ -237,7 +270,10 @@ public abstract class AbstractHdfsBolt extends BaseRichBolt {
 
     @Override
     public Map<String, Object> getComponentConfiguration() {
-        return TupleUtils.putTickFrequencyIntoComponentConfig(super.getComponentConfiguration(), tickTupleInterval);
+        // with asynchronous flushing the ticks also deliver the acks of the tuples synced in the background,
+        // the syncs are still forced every tickTupleInterval seconds
+        int interval = this.asyncFlush ? ASYNC_TICK_TUPLE_INTERVAL_SECS : tickTupleInterval;
+        return TupleUtils.putTickFrequencyIntoComponentConfig(super.getComponentConfiguration(), interval);
     }
 
     @Override
@@ -246,6 +282,9 @@ public abstract class AbstractHdfsBolt extends BaseRichBolt {
 
     @Override
     public void cleanup() {
+        if (this.asyncFlusher != null) {
+            this.asyncFlusher.stop();
+        }
         doRotationAndRemoveAllWriters();
         if (this.rotationTimer != null) {
             this.rotationTimer.cancel();
@@ -267,7 +306,10 @@ public abstract class AbstractHdfsBolt extends BaseRichBolt {
         }
     }
 
-    private void syncAllWriters() throws IOException {
+    /**
+     * Makes the data written so far durable and visible to the readers, before the written tuples are acked.
+     */
+    protected void syncAllWriters() throws IOException {
         for (Writer writer : writers.values()) {
             writer.sync();
         }
@@ -307,6 +349,192 @@ public abstract class AbstractHdfsBolt extends BaseRichBolt {
 
     protected abstract Writer makeNewWriter(Path path, Tuple tuple) throws IOException;
 
+    /**
+     * Writes, syncs and rotates the files on a background thread. The executor thread appends the tuples to a buffer, which the flusher
+     * swaps with an empty one before writing it, so that the next tuples are buffered while the previous ones are written and synced.
+     * The executor blocks when the buffer is full. The acks and fails of the flusher are queued, and replayed on the executor thread.
+     */
+    private final class AsyncFlusher implements Runnable {
+        private final Object bufferLock = new Object();
+        private final Queue<Runnable> completions = new ConcurrentLinkedQueue<>();
+        private final OutputCollector deferredCollector = new OutputCollector(new DeferredOutputCollector(completions));
+        private final Thread thread;
+        private List<Tuple> buffer = new ArrayList<>();
+        private boolean stopped = false;
+        private volatile RuntimeException failure;
+        private long lastForcedSyncMs = System.currentTimeMillis();
+
+        AsyncFlusher() {
+            this.thread = new Thread(this, "hdfs-bolt-flusher");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        void execute(Tuple tuple) {
+            runCompletions();
+            checkFailure(tuple);
+            if (TupleUtils.isTick(tuple)) {
+                collector.ack(tuple);
+                long now = System.currentTimeMillis();
+                if (now - lastForcedSyncMs < TimeUnit.SECONDS.toMillis(tickTupleInterval)) {
+                    return;
+                }
+                LOG.debug("TICK! forcing a file system flush");
+                lastForcedSyncMs = now;
+            }
+
+            synchronized (bufferLock) {
+                while (buffer.size() >= maxBufferedTuples && failure == null) {
+                    try {
+                        bufferLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException("Interrupted while waiting for the buffered tuples to be written", e);
+                    }
+                }
+                if (failure == null) {
+                    buffer.add(tuple);
+                    bufferLock.notifyAll();
+                    return;
+                }
+            }
+            checkFailure(tuple);
+        }
+
+        /**
+         * Fails the tuple and rethrows the failure of the background thread, if it failed to sync the writers.
+         */
+        private void checkFailure(Tuple tuple) {
+            RuntimeException error = failure;
+            if (error != null) {
+                runCompletions();
+                if (!TupleUtils.isTick(tuple)) {
+                    collector.fail(tuple);
+                }
+                throw error;
+            }
+        }
+
+        private void runCompletions() {
+            Runnable completion;
+            while ((completion = completions.poll()) != null) {
+                completion.run();
+            }
+        }
+
+        @Override
+        public void run() {
+            List<Tuple> batch = new ArrayList<>();
+            int written = 0;
+            try {
+                while (true) {
+                    synchronized (bufferLock) {
+                        while (buffer.isEmpty() && !stopped) {
+                            bufferLock.wait();
+                        }
+                        if (buffer.isEmpty()) {
+                            return;
+                        }
+                        batch = buffer;
+                        buffer = new ArrayList<>();
+                        written = 0;
+                        bufferLock.notifyAll();
+                    }
+                    synchronized (writeLock) {
+                        for (Tuple tuple : batch) {
+                            writeAndSync(tuple, deferredCollector);
+                            written++;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                LOG.error("Failed to write the buffered tuples, failing the remaining tuples", e);
+                // the tuples written but not synced yet, which are only failed by writeAndSync when the sync itself fails
+                Set<Tuple> unacked = new LinkedHashSet<>();
+                synchronized (writeLock) {
+                    unacked.addAll(tupleBatch);
+                    tupleBatch.clear();
+                }
+                synchronized (bufferLock) {
+                    // the tuple whose write failed, and the ones after it
+                    unacked.addAll(batch.subList(written, batch.size()));
+                    unacked.addAll(buffer);
+                    buffer.clear();
+                    for (Tuple tuple : unacked) {
+                        if (!TupleUtils.isTick(tuple)) {
+                            deferredCollector.fail(tuple);
+                        }
+                    }
+                    failure = e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+                    bufferLock.notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Writes the buffered tuples, stops the background thread, and acks or fails the tuples it completed.
+         */
+        void stop() {
+            synchronized (bufferLock) {
+                stopped = true;
+                bufferLock.notifyAll();
+            }
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            runCompletions();
+        }
+    }
+
+    /**
+     * Queues the acks, fails and errors reported by the background flusher, to be replayed on the executor thread.
+     */
+    private final class DeferredOutputCollector implements IOutputCollector {
+        private final Queue<Runnable> completions;
+
+        DeferredOutputCollector(Queue<Runnable> completions) {
+            this.completions = completions;
+        }
+
+        @Override
+        public List<Integer> emit(String streamId, Collection<Tuple> anchors, List<Object> tuple) {
+            throw new UnsupportedOperationException("The HDFS bolts do not emit tuples");
+        }
+
+        @Override
+        public void emitDirect(int taskId, String streamId, Collection<Tuple> anchors, List<Object> tuple) {
+            throw new UnsupportedOperationException("The HDFS bolts do not emit tuples");
+        }
+
+        @Override
+        public void ack(Tuple input) {
+            completions.add(() -> collector.ack(input));
+        }
+
+        @Override
+        public void fail(Tuple input) {
+            completions.add(() -> collector.fail(input));
+        }
+
+        @Override
+        public void resetTimeout(Tuple input) {
+            completions.add(() -> collector.resetTimeout(input));
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void reportError(Throwable error) {
+            completions.add(() -> collector.reportError(error));
+        }
+    }
+
     static class WritersMap extends LinkedHashMap<String, Writer> {
         final long maxWriters;
         final OutputCollector collector;
@@ -76,6 +76,16 @@ public class AvroGenericRecordBolt extends AbstractHdfsBolt {
         return this;
     }
 
+    public AvroGenericRecordBolt withAsyncFlush(boolean asyncFlush) {
+        this.asyncFlush = asyncFlush;
+        return this;
+    }
+
+    public AvroGenericRecordBolt withMaxBufferedTuples(int maxBufferedTuples) {
+        this.maxBufferedTuples = maxBufferedTuples;
+        return this;
+    }
+
     public AvroGenericRecordBolt withPartitioner(Partitioner partitioner) {
         this.partitioner = partitioner;
         return this;
@@ -93,6 +93,16 @@ public class HdfsBolt extends AbstractHdfsBolt {
         return this;
     }
 
+    public HdfsBolt withAsyncFlush(boolean asyncFlush) {
+        this.asyncFlush = asyncFlush;
+        return this;
+    }
+
+    public HdfsBolt withMaxBufferedTuples(int maxBufferedTuples) {
+        this.maxBufferedTuples = maxBufferedTuples;
+        return this;
+    }
+
     @Override
     public void doPrepare(Map<String, Object> conf, TopologyContext topologyContext, OutputCollector collector) throws IOException {
         LOG.info("Preparing HDFS Bolt...");
@@ -0,0 +1,202 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.hdfs.bolt;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Iterator;
+import java.util.Map;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.storm.hdfs.bolt.format.FileNameFormat;
+import org.apache.storm.hdfs.bolt.rotation.FileRotationPolicy;
+import org.apache.storm.hdfs.bolt.sync.SyncPolicy;
+import org.apache.storm.hdfs.common.AbstractHDFSWriter;
+import org.apache.storm.hdfs.common.ParquetHDFSWriter;
+import org.apache.storm.hdfs.common.Partitioner;
+import org.apache.storm.hdfs.common.rotation.RotationAction;
+import org.apache.storm.hdfs.parquet.ParquetFormat;
+import org.apache.storm.hdfs.parquet.TupleParquetWriterBuilder;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.tuple.ITuple;
+import org.apache.storm.tuple.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the tuples to Parquet files, mapping the tuple fields to the columns with a {@link ParquetFormat}.
+ *
+ * <p>The rows are buffered in memory and written a row group at a time. A Parquet file can only be read once closed, so each sync
+ * required by the {@link SyncPolicy}, or forced by a tick tuple, closes the open files and acks their tuples, and the next tuples are
+ * written to new files. The sync policy, the tick tuple interval and the message timeout of the topology therefore bound the size of the
+ * files, and the rotation policy can only rotate them earlier.
+ */
+public class ParquetBolt extends AbstractHdfsBolt {
+    private static final Logger LOG = LoggerFactory.getLogger(ParquetBolt.class);
+
+    private ParquetFormat format;
+    private CompressionCodecName compressionCodec = CompressionCodecName.SNAPPY;
+    private int rowGroupSize = ParquetWriter.DEFAULT_BLOCK_SIZE;
+    private int pageSize = ParquetWriter.DEFAULT_PAGE_SIZE;
+    private boolean dictionaryEncoding = true;
+    private long maxBufferMemory = 0;
+    private transient int fileRowGroupSize;
+
+    public ParquetBolt withFsUrl(String fsUrl) {
+        this.fsUrl = fsUrl;
+        return this;
+    }
+
+    public ParquetBolt withConfigKey(String configKey) {
+        this.configKey = configKey;
+        return this;
+    }
+
+    public ParquetBolt withFileNameFormat(FileNameFormat fileNameFormat) {
+        this.fileNameFormat = fileNameFormat;
+        return this;
+    }
+
+    public ParquetBolt withParquetFormat(ParquetFormat format) {
+        this.format = format;
+        return this;
+    }
+
+    public ParquetBolt withSyncPolicy(SyncPolicy syncPolicy) {
+        this.syncPolicy = syncPolicy;
+        return this;
+    }
+
+    public ParquetBolt withRotationPolicy(FileRotationPolicy rotationPolicy) {
+        this.rotationPolicy = rotationPolicy;
+        return this;
+    }
+
+    public ParquetBolt addRotationAction(RotationAction action) {
+        this.rotationActions.add(action);
+        return this;
+    }
+
+    public ParquetBolt withTickTupleIntervalSeconds(int interval) {
+        this.tickTupleInterval = interval;
+        return this;
+    }
+
+    public ParquetBolt withRetryCount(int fileRetryCount) {
+        this.fileRetryCount = fileRetryCount;
+        return this;
+    }
+
+    public ParquetBolt withPartitioner(Partitioner partitioner) {
+        this.partitioner = partitioner;
+        return this;
+    }
+
+    public ParquetBolt withMaxOpenFiles(int maxOpenFiles) {
+        this.maxOpenFiles = maxOpenFiles;
+        return this;
+    }
+
+    public ParquetBolt withAsyncFlush(boolean asyncFlush) {
+        this.asyncFlush = asyncFlush;
+        return this;
+    }
+
+    public ParquetBolt withMaxBufferedTuples(int maxBufferedTuples) {
+        this.maxBufferedTuples = maxBufferedTuples;
+        return this;
+    }
+
+    /**
+     * Sets the compression of the column pages, snappy by default.
+     */
+    public ParquetBolt withCompressionCodec(CompressionCodecName compressionCodec) {
+        this.compressionCodec = compressionCodec;
+        return this;
+    }
+
+    /**
+     * Sets the size of the row groups buffered in memory before being written, 128 MB by default.
+     */
+    public ParquetBolt withRowGroupSize(int rowGroupSize) {
+        this.rowGroupSize = rowGroupSize;
+        return this;
+    }
+
+    public ParquetBolt withPageSize(int pageSize) {
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Enables the dictionary encoding of the columns, enabled by default.
+     */
+    public ParquetBolt withDictionaryEncoding(boolean dictionaryEncoding) {
+        this.dictionaryEncoding = dictionaryEncoding;
+        return this;
+    }
+
+    /**
+     * Sets the memory the row groups of the open files may use together, a quarter of the maximum heap by default. The row groups are
+     * shrunk so that {@link #withMaxOpenFiles(int)} files fit in this memory.
+     */
+    public ParquetBolt withMaxBufferMemory(long maxBufferMemory) {
+        this.maxBufferMemory = maxBufferMemory;
+        return this;
+    }
+
+    @Override
+    public void doPrepare(Map<String, Object> conf, TopologyContext topologyContext, OutputCollector collector) throws IOException {
+        LOG.info("Preparing Parquet Bolt...");
+        if (this.format == null) {
+            throw new IllegalStateException("ParquetFormat must be specified.");
+        }
+
+        this.fs = FileSystem.get(URI.create(this.fsUrl), hdfsConfig);
+        long memory = this.maxBufferMemory > 0 ? this.maxBufferMemory : Runtime.getRuntime().maxMemory() / 4;
+        this.fileRowGroupSize = (int) Math.max(this.pageSize, Math.min(this.rowGroupSize, memory / this.maxOpenFiles));
+        LOG.info("Using row groups of {} bytes for up to {} open files", this.fileRowGroupSize, this.maxOpenFiles);
+    }
+
+    @Override
+    protected String getWriterKey(Tuple tuple) {
+        return "CONSTANT";
+    }
+
+    @Override
+    protected AbstractHDFSWriter makeNewWriter(Path path, Tuple tuple) throws IOException {
+        ParquetWriter<ITuple> writer = new TupleParquetWriterBuilder(path, this.format)
+            .withConf(this.hdfsConfig)
+            .withCompressionCodec(this.compressionCodec)
+            .withRowGroupSize(this.fileRowGroupSize)
+            .withPageSize(this.pageSize)
+            .withDictionaryEncoding(this.dictionaryEncoding)
+            .build();
+        return new ParquetHDFSWriter(this.rotationPolicy, path, writer);
+    }
+
+    /**
+     * Closes the open files, which writes their footers and makes them readable, the next tuples are written to new files.
+     */
+    @Override
+    protected void syncAllWriters() throws IOException {
+        for (Iterator<Writer> iter = this.writers.values().iterator(); iter.hasNext(); ) {
+            // a writer which fails to close stays open, so that the retries of the sync close it again
+            rotateOutputFile(iter.next());
+            iter.remove();
+        }
+    }
+}
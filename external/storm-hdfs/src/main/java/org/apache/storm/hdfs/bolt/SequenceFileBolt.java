@@ -111,6 +111,16 @@ public class SequenceFileBolt extends AbstractHdfsBolt {
         return this;
     }
 
+    public SequenceFileBolt withAsyncFlush(boolean asyncFlush) {
+        this.asyncFlush = asyncFlush;
+        return this;
+    }
+
+    public SequenceFileBolt withMaxBufferedTuples(int maxBufferedTuples) {
+        this.maxBufferedTuples = maxBufferedTuples;
+        return this;
+    }
+
     @Override
     public void doPrepare(Map<String, Object> conf, TopologyContext topologyContext, OutputCollector collector) throws IOException {
         LOG.info("Preparing Sequence File Bolt...");
@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.hdfs.common;
+
+import java.io.IOException;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.storm.hdfs.bolt.rotation.FileRotationPolicy;
+import org.apache.storm.tuple.ITuple;
+import org.apache.storm.tuple.Tuple;
+
+@SuppressWarnings("checkstyle:AbbreviationAsWordInName")
+public class ParquetHDFSWriter extends AbstractHDFSWriter {
+
+    private final ParquetWriter<ITuple> parquetWriter;
+
+    public ParquetHDFSWriter(FileRotationPolicy policy, Path path, ParquetWriter<ITuple> parquetWriter) {
+        super(policy, path);
+        this.parquetWriter = parquetWriter;
+    }
+
+    @Override
+    protected void doWrite(Tuple tuple) throws IOException {
+        parquetWriter.write(tuple);
+        // the size of the row groups written so far, and of the buffered row group
+        offset = parquetWriter.getDataSize();
+    }
+
+    @Override
+    protected void doSync() throws IOException {
+        // a Parquet file can only be read once closed, the ParquetBolt closes the files instead of syncing them
+    }
+
+    @Override
+    protected void doClose() throws IOException {
+        parquetWriter.close();
+        // the file may be closed by a sync of the ParquetBolt, it must not be rotated again
+        this.needsRotation = false;
+    }
+}
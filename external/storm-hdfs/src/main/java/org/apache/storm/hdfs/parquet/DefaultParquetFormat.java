@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.hdfs.parquet;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.apache.storm.tuple.ITuple;
+
+/**
+ * Writes the tuple fields named after the columns of a Parquet schema, e.g.
+ * <pre>
+ * message event {
+ *   required int64 id;
+ *   optional binary msg (UTF8);
+ *   optional double amount;
+ * }
+ * </pre>
+ *
+ * <p>The columns must be required or optional primitive columns. The values of the int32, int64, float and double columns must be numbers,
+ * the values of the binary columns strings or byte arrays, and the values of the fixed_len_byte_array columns byte arrays. A null value
+ * is skipped for an optional column, and fails the write for a required column.
+ */
+public class DefaultParquetFormat implements ParquetFormat {
+
+    private final String schemaString;
+    private transient MessageType schema;
+
+    public DefaultParquetFormat(String schema) {
+        this.schemaString = schema;
+        // fail when the topology is built rather than in the workers
+        validate(parse(schema));
+    }
+
+    private static MessageType parse(String schema) {
+        return MessageTypeParser.parseMessageType(schema);
+    }
+
+    private static void validate(MessageType schema) {
+        for (Type field : schema.getFields()) {
+            if (!field.isPrimitive() || field.isRepetition(Type.Repetition.REPEATED)) {
+                throw new IllegalArgumentException("Column " + field.getName() + " must be a required or optional primitive column");
+            }
+            if (field.asPrimitiveType().getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.INT96) {
+                throw new IllegalArgumentException("Column " + field.getName() + " has the unsupported type int96");
+            }
+        }
+    }
+
+    @Override
+    public MessageType getSchema() {
+        if (schema == null) {
+            schema = parse(schemaString);
+        }
+        return schema;
+    }
+
+    @Override
+    public void write(ITuple tuple, RecordConsumer recordConsumer) {
+        MessageType messageType = getSchema();
+        for (int i = 0; i < messageType.getFieldCount(); i++) {
+            Type field = messageType.getType(i);
+            String name = field.getName();
+            Object value = tuple.getValueByField(name);
+            if (value == null) {
+                if (field.isRepetition(Type.Repetition.REQUIRED)) {
+                    throw new IllegalArgumentException("Column " + name + " is required, but the tuple has no value for it");
+                }
+                continue;
+            }
+            recordConsumer.startField(name, i);
+            writeValue(field.asPrimitiveType(), value, recordConsumer);
+            recordConsumer.endField(name, i);
+        }
+    }
+
+    private void writeValue(PrimitiveType field, Object value, RecordConsumer recordConsumer) {
+        switch (field.getPrimitiveTypeName()) {
+            case BOOLEAN:
+                recordConsumer.addBoolean((Boolean) value);
+                break;
+            case INT32:
+                recordConsumer.addInteger(((Number) value).intValue());
+                break;
+            case INT64:
+                recordConsumer.addLong(((Number) value).longValue());
+                break;
+            case FLOAT:
+                recordConsumer.addFloat(((Number) value).floatValue());
+                break;
+            case DOUBLE:
+                recordConsumer.addDouble(((Number) value).doubleValue());
+                break;
+            case BINARY:
+                recordConsumer.addBinary(value instanceof byte[]
+                                             ? Binary.fromConstantByteArray((byte[]) value)
+                                             : Binary.fromString(value.toString()));
+                break;
+            case FIXED_LEN_BYTE_ARRAY:
+                recordConsumer.addBinary(Binary.fromConstantByteArray((byte[]) value));
+                break;
+            default:
+                throw new IllegalArgumentException("Column " + field.getName() + " has the unsupported type "
+                                                   + field.getPrimitiveTypeName());
+        }
+    }
+}
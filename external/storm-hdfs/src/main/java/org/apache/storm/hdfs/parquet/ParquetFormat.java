@@ -0,0 +1,35 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.hdfs.parquet;
+
+import java.io.Serializable;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.parquet.schema.MessageType;
+import org.apache.storm.tuple.ITuple;
+
+/**
+ * Maps the fields of a tuple to the columns of a Parquet file, for both the {@link org.apache.storm.hdfs.bolt.ParquetBolt} and the
+ * Trident {@link org.apache.storm.hdfs.trident.HdfsState}.
+ */
+public interface ParquetFormat extends Serializable {
+
+    /**
+     * Returns the schema of the Parquet files.
+     */
+    MessageType getSchema();
+
+    /**
+     * Writes the fields of a tuple as the fields of a record, the record itself is started and ended by the caller.
+     */
+    void write(ITuple tuple, RecordConsumer recordConsumer);
+}
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.hdfs.parquet;
+
+import java.util.HashMap;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.api.WriteSupport;
+import org.apache.parquet.io.api.RecordConsumer;
+import org.apache.storm.tuple.ITuple;
+
+/**
+ * Builds the {@link ParquetWriter} of a file of tuples, mapped to records by a {@link ParquetFormat}.
+ *
+ * <p>The writer buffers a row group in memory, with every column compressed and dictionary encoded when enabled, and writes it to the
+ * file when it reaches the row group size. The file can only be read once the writer is closed and has written the footer.
+ */
+public class TupleParquetWriterBuilder extends ParquetWriter.Builder<ITuple, TupleParquetWriterBuilder> {
+
+    private final ParquetFormat format;
+
+    public TupleParquetWriterBuilder(Path path, ParquetFormat format) {
+        super(path);
+        this.format = format;
+    }
+
+    @Override
+    protected TupleParquetWriterBuilder self() {
+        return this;
+    }
+
+    @Override
+    protected WriteSupport<ITuple> getWriteSupport(Configuration conf) {
+        return new TupleWriteSupport(format);
+    }
+
+    private static class TupleWriteSupport extends WriteSupport<ITuple> {
+        private final ParquetFormat format;
+        private RecordConsumer recordConsumer;
+
+        TupleWriteSupport(ParquetFormat format) {
+            this.format = format;
+        }
+
+        @Override
+        public WriteContext init(Configuration configuration) {
+            return new WriteContext(format.getSchema(), new HashMap<>());
+        }
+
+        @Override
+        public void prepareForWrite(RecordConsumer recordConsumer) {
+            this.recordConsumer = recordConsumer;
+        }
+
+        @Override
+        public void write(ITuple tuple) {
+            recordConsumer.startMessage();
+            format.write(tuple, recordConsumer);
+            recordConsumer.endMessage();
+        }
+    }
+}
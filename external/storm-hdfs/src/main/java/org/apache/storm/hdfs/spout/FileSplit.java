@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.hdfs.spout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.storm.hdfs.common.HdfsUtils;
+
+/**
+ * A byte range of a file. Files larger than the split size of the {@link HdfsSpout} are divided into splits which are locked
+ * and read independently, so that all the spout instances share the reading of a large file.
+ *
+ * <p>A split reads the records starting within its range. The text reader skips the partial line at the start of the split
+ * and reads the line running past its end, the sequence file reader starts and stops at the first sync markers past the
+ * start and the end of the split.
+ */
+public class FileSplit {
+    private static final String LOCK_NAME_INFIX = ".split.";
+    private static final Pattern NAME = Pattern.compile("(\\d+)-(\\d+)");
+    private static final Pattern LOCK_NAME = Pattern.compile("(.+)" + Pattern.quote(LOCK_NAME_INFIX) + NAME.pattern());
+
+    private final long start;
+    private final long end;
+
+    public FileSplit(long start, long end) {
+        if (start < 0 || end <= start) {
+            throw new IllegalArgumentException("Invalid split range " + start + "-" + end);
+        }
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Divides a file into splits of splitSize bytes, the last split holding the remainder.
+     */
+    public static List<FileSplit> split(long fileLength, long splitSize) {
+        List<FileSplit> splits = new ArrayList<>();
+        for (long start = 0; start < fileLength; start += splitSize) {
+            splits.add(new FileSplit(start, Math.min(start + splitSize, fileLength)));
+        }
+        return splits;
+    }
+
+    /**
+     * Parses the name of a split, as returned by {@link #getName()}.
+     */
+    public static FileSplit parse(String name) {
+        Matcher matcher = NAME.matcher(name);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("'" + name + "' is not the name of a file split. Format e.g. 0-1024");
+        }
+        return new FileSplit(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)));
+    }
+
+    /**
+     * Parses the name of the lock file of a split, as returned by {@link #getLockName(String)}.
+     *
+     * @return the name of the split file and the split, or null if the lock file does not lock a split
+     */
+    public static HdfsUtils.Pair<String, FileSplit> parseLockName(String lockName) {
+        Matcher matcher = LOCK_NAME.matcher(lockName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        FileSplit split = new FileSplit(Long.parseLong(matcher.group(2)), Long.parseLong(matcher.group(3)));
+        return HdfsUtils.Pair.of(matcher.group(1), split);
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public String getName() {
+        return start + "-" + end;
+    }
+
+    /**
+     * Returns the name of the lock file of this split of the given file.
+     */
+    public String getLockName(String fileName) {
+        return fileName + LOCK_NAME_INFIX + getName();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FileSplit)) {
+            return false;
+        }
+        FileSplit that = (FileSplit) o;
+        return start == that.start && end == that.end;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(start) + Long.hashCode(end);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + getName() + ")";
+    }
+}
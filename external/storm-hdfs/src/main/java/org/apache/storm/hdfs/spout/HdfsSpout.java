@@ -12,10 +12,13 @@
 
 package org.apache.storm.hdfs.spout;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,6 +27,7 @@ import java.util.TimerTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.storm.Config;
@@ -41,6 +45,7 @@ public class HdfsSpout extends BaseRichSpout {
 
     // other members
     private static final Logger LOG = LoggerFactory.getLogger(HdfsSpout.class);
+    private static final String SPLITS_DIR = ".splits";
     private final AtomicBoolean commitTimeElapsed = new AtomicBoolean(false);
     HashMap<MessageId, List<Object>> inflight = new HashMap<>();
     LinkedBlockingQueue<HdfsUtils.Pair<MessageId, List<Object>>> retryList = new LinkedBlockingQueue<>();
@@ -79,6 +84,10 @@ public class HdfsSpout extends BaseRichSpout {
     private int acksSinceLastCommit = 0;
     private Timer commitTimer;
     private boolean fileReadCompletely = true;
+    private long splitSizeBytes = 0;
+    private Path splitsDirPath;
+    private Path splitsTmpDirPath;
+    private FileSplit split; // the split being read, null when reading a whole file
 
     private String configKey = Configs.DEFAULT_HDFS_CONFIG_KEY; // key for hdfs Kerberos configs
 
@@ -198,6 +207,15 @@ public class HdfsSpout extends BaseRichSpout {
         return this;
     }
 
+    /**
+     * Splits the files larger than splitSizeBytes, so that their splits are read in parallel by all the spout instances rather than
+     * by a single instance. Only the text and sequence file readers can read splits. 0, the default, disables the splitting.
+     */
+    public HdfsSpout setSplitSizeBytes(long splitSizeBytes) {
+        this.splitSizeBytes = splitSizeBytes;
+        return this;
+    }
+
     /**
      * Output field names. Number of fields depends upon the reader type
      */
@@ -337,6 +355,10 @@ public class HdfsSpout extends BaseRichSpout {
     }
 
     private void markFileAsDone(Path filePath) {
+        if (split != null) {
+            markSplitAsDone(filePath);
+            return;
+        }
         try {
             Path newFile = renameCompletedFile(reader.getFilePath());
             LOG.info("Completed processing {}. Spout Id = {}", newFile, spoutId);
@@ -361,7 +383,52 @@ public class HdfsSpout extends BaseRichSpout {
         } catch (IOException e) {
             LOG.warn("Error moving bad file: " + file + " to destination " + newFile + " SpoutId =" + spoutId, e);
         }
+        if (split != null) {
+            // the other splits of the file are not read anymore
+            try {
+                hdfs.delete(new Path(splitsDirPath, originalName), true);
+            } catch (IOException e) {
+                LOG.warn("Error deleting the splits of bad file: " + file + " SpoutId =" + spoutId, e);
+            }
+        }
+        closeReaderAndResetTrackers();
+    }
+
+    private void markSplitAsDone(Path filePath) {
+        String fileName = getOriginalName(filePath);
+        try {
+            // the split is marked as done before its lock is released, so that no other spout reads it again
+            if (!hdfs.delete(new Path(new Path(splitsDirPath, fileName), split.getName()), false)) {
+                throw new IOException("Delete failed for split " + split.getName());
+            }
+            LOG.info("Completed processing split {} of {}. Spout Id = {}", split, filePath, spoutId);
+        } catch (IOException e) {
+            LOG.error("Unable to mark split " + split + " of " + filePath + " as done. Spout ID " + spoutId, e);
+        }
         closeReaderAndResetTrackers();
+        archiveIfAllSplitsDone(fileName, filePath);
+    }
+
+    /**
+     * Archives a split file once all its splits are read. The spouts completing the last splits of a file may archive it
+     * concurrently, and only one of them succeeds.
+     */
+    private void archiveIfAllSplitsDone(String fileName, Path filePath) {
+        Path fileSplitsDir = new Path(splitsDirPath, fileName);
+        try {
+            if (hdfs.listStatus(fileSplitsDir).length > 0) {
+                return;
+            }
+            if (hdfs.exists(filePath)) {
+                Path newFile = renameCompletedFile(filePath);
+                LOG.info("Completed processing all splits of {}. Spout Id = {}", newFile, spoutId);
+            }
+            hdfs.delete(fileSplitsDir, true);
+        } catch (FileNotFoundException e) {
+            LOG.debug("Splits of {} already archived. Spout Id = {}", filePath, spoutId);
+        } catch (IOException e) {
+            LOG.warn("Unable to archive completed split file " + filePath + " Spout ID " + spoutId, e);
+        }
     }
 
     private void closeReaderAndResetTrackers() {
@@ -371,6 +438,7 @@ public class HdfsSpout extends BaseRichSpout {
 
         reader.close();
         reader = null;
+        split = null;
         releaseLockAndLog(lock, spoutId);
         lock = null;
     }
@@ -480,6 +548,15 @@ public class HdfsSpout extends BaseRichSpout {
         }
         this.lockDirPath = new Path(lockDir);
         validateOrMakeDir(hdfs, lockDirPath, "locks");
+        // the splits left to read of each split file, created lazily on the first split file
+        this.splitsDirPath = new Path(lockDirPath, SPLITS_DIR);
+        this.splitsTmpDirPath = new Path(lockDirPath, SPLITS_DIR + ".tmp");
+
+        // -- split size
+        if (splitSizeBytes > 0 && !canReadSplits()) {
+            LOG.error("Splits cannot be read by the {} reader", readerType);
+            throw new RuntimeException("Splits cannot be read by the " + readerType + " reader");
+        }
 
         // -- lock timeout
         if (conf.get(Configs.LOCK_TIMEOUT) != null) {
@@ -580,13 +657,19 @@ public class HdfsSpout extends BaseRichSpout {
             lock = getOldestExpiredLock();
             if (lock != null) {
                 LOG.debug("Spout {} now took over ownership of abandoned FileLock {}", spoutId, lock.getLockFile());
-                Path file = getFileForLockFile(lock.getLockFile(), sourceDirPath);
-                String resumeFromOffset = lock.getLastLogEntry().fileOffset;
-                LOG.info("Resuming processing of abandoned file : {}", file);
-                return createFileReader(file, resumeFromOffset);
+                FileReader result = resumeAbandonedLock();
+                if (result != null) {
+                    return result;
+                }
+            }
+
+            // 2) If no abandoned files, then pick a split left to read of a split file
+            FileReader splitReader = pickNextSplit();
+            if (splitReader != null) {
+                return splitReader;
             }
 
-            // 2) If no abandoned files, then pick oldest file in sourceDirPath, lock it and rename it
+            // 3) If no splits, then pick oldest file in sourceDirPath, lock it and rename it
             Collection<Path> listing = HdfsUtils.listFilesByModificationTime(hdfs, sourceDirPath, 0);
 
             for (Path file : listing) {
@@ -602,13 +685,25 @@ public class HdfsSpout extends BaseRichSpout {
                     continue; // could not lock, so try another file.
                 }
                 try {
+                    boolean splitFile = splitSizeBytes > 0 && hdfs.getFileStatus(file).getLen() > splitSizeBytes;
                     Path newFile = renameToInProgressFile(file);
+                    if (splitFile && planSplits(file.getName(), hdfs.getFileStatus(newFile).getLen())) {
+                        // the splits are locked on their own
+                        releaseLockAndLog(lock, spoutId);
+                        lock = null;
+                        splitReader = pickNextSplit();
+                        if (splitReader != null) {
+                            return splitReader;
+                        }
+                        continue;
+                    }
                     FileReader result = createFileReader(newFile);
                     LOG.info("Processing : {} ", file);
                     return result;
                 } catch (Exception e) {
                     LOG.error("Skipping file " + file, e);
                     releaseLockAndLog(lock, spoutId);
+                    lock = null;
                     continue;
                 }
             }
@@ -620,6 +715,133 @@ public class HdfsSpout extends BaseRichSpout {
         }
     }
 
+    /**
+     * Resumes reading the file or the split locked by the abandoned lock. Returns null, and releases the lock, if there is
+     * nothing left to read.
+     */
+    private FileReader resumeAbandonedLock() throws IOException {
+        String resumeFromOffset = lock.getLastLogEntry().fileOffset;
+        HdfsUtils.Pair<String, FileSplit> lockedSplit = FileSplit.parseLockName(lock.getLockFile().getName());
+        if (lockedSplit != null) {
+            String fileName = lockedSplit.getKey();
+            Path file = new Path(sourceDirPath, fileName + inprogressSuffix);
+            if (!hdfs.exists(new Path(new Path(splitsDirPath, fileName), lockedSplit.getValue().getName()))) {
+                // the split was completed before its lock was released
+                releaseLockAndLog(lock, spoutId);
+                lock = null;
+                archiveIfAllSplitsDone(fileName, file);
+                return null;
+            }
+            LOG.info("Resuming processing of abandoned split {} of file : {}", lockedSplit.getValue(), file);
+            split = lockedSplit.getValue();
+            return createFileReader(file, split, resumeFromOffset);
+        }
+
+        if (hdfs.exists(new Path(splitsDirPath, lock.getLockFile().getName()))) {
+            // the file was split before its lock was released, its splits are locked on their own
+            releaseLockAndLog(lock, spoutId);
+            lock = null;
+            return null;
+        }
+        Path file = getFileForLockFile(lock.getLockFile(), sourceDirPath);
+        if (file == null) {
+            LOG.warn("Abandoned lock file {} has no file left to read", lock.getLockFile());
+            releaseLockAndLog(lock, spoutId);
+            lock = null;
+            return null;
+        }
+        LOG.info("Resuming processing of abandoned file : {}", file);
+        return createFileReader(file, resumeFromOffset);
+    }
+
+    /**
+     * Records the splits of a file in a directory named after the file, holding an empty file per split left to read. The
+     * directory is created aside and renamed into the splits dir once complete, so that the other spouts see all its splits.
+     *
+     * @return false if the file could not be split, and is to be read whole
+     */
+    private boolean planSplits(String fileName, long fileLength) {
+        Path tmpDir = new Path(splitsTmpDirPath, fileName);
+        try {
+            hdfs.delete(tmpDir, true);
+            if (!hdfs.mkdirs(tmpDir)) {
+                throw new IOException("Unable to create splits dir " + tmpDir);
+            }
+            List<FileSplit> splits = FileSplit.split(fileLength, splitSizeBytes);
+            for (FileSplit fileSplit : splits) {
+                hdfs.createNewFile(new Path(tmpDir, fileSplit.getName()));
+            }
+            Path fileSplitsDir = new Path(splitsDirPath, fileName);
+            if (!hdfs.mkdirs(splitsDirPath) || !hdfs.rename(tmpDir, fileSplitsDir)) {
+                throw new RenameException(tmpDir, fileSplitsDir);
+            }
+            LOG.info("Split {} into {} splits. Spout Id = {}", fileName, splits.size(), spoutId);
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Unable to split file " + fileName + ", reading it whole. Spout Id = " + spoutId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Locks and returns a reader on a split left to read of a split file, or null if all the splits are being read.
+     */
+    private FileReader pickNextSplit() throws IOException {
+        FileStatus[] splitFiles;
+        try {
+            splitFiles = hdfs.listStatus(splitsDirPath);
+        } catch (FileNotFoundException e) {
+            return null; // no file was split yet
+        }
+        for (FileStatus splitFile : splitFiles) {
+            if (!splitFile.isDirectory()) {
+                continue;
+            }
+            String fileName = splitFile.getPath().getName();
+            Path file = new Path(sourceDirPath, fileName + inprogressSuffix);
+            FileStatus[] fileSplits;
+            try {
+                fileSplits = hdfs.listStatus(splitFile.getPath());
+            } catch (FileNotFoundException e) {
+                continue; // archived meanwhile
+            }
+            if (fileSplits.length == 0) {
+                // the spout completing the last split died before archiving the file
+                archiveIfAllSplitsDone(fileName, file);
+                continue;
+            }
+            // read the splits in the order of the file
+            List<FileSplit> candidates = new ArrayList<>(fileSplits.length);
+            for (FileStatus fileSplit : fileSplits) {
+                candidates.add(FileSplit.parse(fileSplit.getPath().getName()));
+            }
+            candidates.sort(Comparator.comparingLong(FileSplit::getStart));
+            for (FileSplit candidate : candidates) {
+                lock = FileLock.tryLock(hdfs, new Path(candidate.getLockName(fileName)), lockDirPath, spoutId);
+                if (lock == null) {
+                    continue;
+                }
+                // the split may have been completed between the listing and the locking
+                if (!hdfs.exists(new Path(splitFile.getPath(), candidate.getName()))) {
+                    releaseLockAndLog(lock, spoutId);
+                    lock = null;
+                    continue;
+                }
+                try {
+                    FileReader result = createFileReader(file, candidate, "0");
+                    split = candidate;
+                    LOG.info("Processing split {} of {}", candidate, file);
+                    return result;
+                } catch (Exception e) {
+                    LOG.error("Skipping split " + candidate + " of file " + file, e);
+                    releaseLockAndLog(lock, spoutId);
+                    lock = null;
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * If clocks in sync, then acquires the oldest expired lock Else, on first call, just remembers the oldest expired lock, on next call
      * check if the lock is updated. if not updated then acquires the lock
@@ -727,6 +949,30 @@ public class HdfsSpout extends BaseRichSpout {
         }
     }
 
+    /**
+     * Creates a reader that reads a split of a file, starting from 'offset' within the split.
+     */
+    private FileReader createFileReader(Path file, FileSplit fileSplit, String offset)
+        throws IOException {
+        if (readerType.equalsIgnoreCase(Configs.SEQ)) {
+            return new SequenceFileReader(this.hdfs, file, conf, fileSplit, offset);
+        }
+        if (readerType.equalsIgnoreCase(Configs.TEXT)) {
+            return new TextFileReader(this.hdfs, file, conf, fileSplit, offset);
+        }
+        throw new IllegalStateException("Splits cannot be read by the " + readerType + " reader");
+    }
+
+    private boolean canReadSplits() {
+        return readerType.equalsIgnoreCase(Configs.SEQ)
+               || (readerType.equalsIgnoreCase(Configs.TEXT) && TextFileReader.canReadSplits(conf));
+    }
+
+    private String getOriginalName(Path file) {
+        String fileName = file.getName();
+        return fileName.substring(0, fileName.length() - inprogressSuffix.length());
+    }
+
     /**
      * Renames files with .inprogress suffix.
      *
@@ -34,6 +34,9 @@ public class SequenceFileReader<KeyT extends Writable, ValueT extends Writable>
     private final SequenceFile.Reader reader;
 
     private final SequenceFileReader.Offset offset;
+    // the split being read, null when reading the whole file
+    private final FileSplit split;
+    private boolean splitEnded = false;
 
 
     private final KeyT key;
@@ -48,6 +51,7 @@ public class SequenceFileReader<KeyT extends Writable, ValueT extends Writable>
         this.key = (KeyT) ReflectionUtils.newInstance(reader.getKeyClass(), fs.getConf());
         this.value = (ValueT) ReflectionUtils.newInstance(reader.getValueClass(), fs.getConf());
         this.offset = new SequenceFileReader.Offset(0, 0, 0);
+        this.split = null;
     }
 
     public SequenceFileReader(FileSystem fs, Path file, Map<String, Object> conf, String offset)
@@ -58,9 +62,34 @@ public class SequenceFileReader<KeyT extends Writable, ValueT extends Writable>
         this.reader = new SequenceFile.Reader(fs.getConf(), SequenceFile.Reader.file(file), SequenceFile.Reader.bufferSize(bufferSize));
         this.key = (KeyT) ReflectionUtils.newInstance(reader.getKeyClass(), fs.getConf());
         this.value = (ValueT) ReflectionUtils.newInstance(reader.getValueClass(), fs.getConf());
+        this.split = null;
         skipToOffset(this.reader, this.offset, this.key);
     }
 
+    /**
+     * Reads the records starting within a split of the file, from the first sync marker past the start of the split.
+     */
+    public SequenceFileReader(FileSystem fs, Path file, Map<String, Object> conf, FileSplit split)
+        throws IOException {
+        this(fs, file, conf, split, "0");
+    }
+
+    public SequenceFileReader(FileSystem fs, Path file, Map<String, Object> conf, FileSplit split, String offset)
+        throws IOException {
+        super(fs, file);
+        int bufferSize = !conf.containsKey(BUFFER_SIZE) ? DEFAULT_BUFF_SIZE : Integer.parseInt(conf.get(BUFFER_SIZE).toString());
+        this.offset = new SequenceFileReader.Offset(offset);
+        this.reader = new SequenceFile.Reader(fs.getConf(), SequenceFile.Reader.file(file), SequenceFile.Reader.bufferSize(bufferSize));
+        this.key = (KeyT) ReflectionUtils.newInstance(reader.getKeyClass(), fs.getConf());
+        this.value = (ValueT) ReflectionUtils.newInstance(reader.getValueClass(), fs.getConf());
+        this.split = split;
+        if (this.offset.lastSyncPoint > 0 || this.offset.recordsSinceLastSync > 0) {
+            skipToOffset(this.reader, this.offset, this.key);
+        } else if (split.getStart() > reader.getPosition()) {
+            reader.sync(split.getStart());
+        }
+    }
+
     private static <K> void skipToOffset(SequenceFile.Reader reader, Offset offset, K key) throws IOException {
         reader.sync(offset.lastSyncPoint);
         for (int i = 0; i < offset.recordsSinceLastSync; ++i) {
@@ -70,10 +99,19 @@ public class SequenceFileReader<KeyT extends Writable, ValueT extends Writable>
 
     @Override
     public List<Object> next() throws IOException, ParseException {
+        if (splitEnded) {
+            return null;
+        }
+        long recordStart = reader.getPosition();
         if (reader.next(key, value)) {
+            // the records following the first sync marker past the end of the split are read by the next split
+            if (split != null && recordStart >= split.getEnd() && reader.syncSeen()) {
+                splitEnded = true;
+                return null;
+            }
             ArrayList<Object> result = new ArrayList<Object>(2);
             Collections.addAll(result, key, value);
-            offset.increment(reader.syncSeen(), reader.getPosition());
+            offset.increment(reader.syncSeen(), recordStart, reader.getPosition());
             return result;
         }
         return null;
@@ -192,12 +230,13 @@ public class SequenceFileReader<KeyT extends Writable, ValueT extends Writable>
             return (int) (currentRecord ^ (currentRecord >>> 32));
         }
 
-        void increment(boolean syncSeen, long newBytePosition) {
+        void increment(boolean syncSeen, long recordStart, long newBytePosition) {
             if (!syncSeen) {
                 ++recordsSinceLastSync;
             } else {
+                // the sync marker preceding the record starts where the previous record ended
                 recordsSinceLastSync = 1;
-                lastSyncPoint = prevRecordEndOffset;
+                lastSyncPoint = recordStart;
             }
             ++currentRecord;
             prevRecordEndOffset = currRecordEndOffset;
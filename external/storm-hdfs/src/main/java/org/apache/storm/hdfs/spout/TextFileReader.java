@@ -12,9 +12,14 @@
 
 package org.apache.storm.hdfs.spout;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +39,11 @@ public class TextFileReader extends AbstractFileReader {
     private static final Logger LOG = LoggerFactory.getLogger(TextFileReader.class);
     private BufferedReader reader;
     private TextFileReader.Offset offset;
+    // the split being read, and its lines read byte by byte, null when reading the whole file
+    private final FileSplit split;
+    private InputStream splitStream;
+    private String charSet;
+    private ByteArrayOutputStream lineBuffer;
 
     public TextFileReader(FileSystem fs, Path file, Map<String, Object> conf) throws IOException {
         this(fs, file, conf, new TextFileReader.Offset(0, 0));
@@ -43,22 +53,79 @@ public class TextFileReader extends AbstractFileReader {
         this(fs, file, conf, new TextFileReader.Offset(startOffset));
     }
 
+    /**
+     * Reads the lines starting within a split of the file. The offsets of the lines are byte offsets in the file, rather than
+     * character offsets.
+     */
+    public TextFileReader(FileSystem fs, Path file, Map<String, Object> conf, FileSplit split) throws IOException {
+        this(fs, file, conf, split, "0");
+    }
+
+    public TextFileReader(FileSystem fs, Path file, Map<String, Object> conf, FileSplit split, String startOffset)
+        throws IOException {
+        super(fs, file);
+        if (!canReadSplits(conf)) {
+            throw new IllegalArgumentException("Splits of " + getCharSet(conf) + " text files cannot be read");
+        }
+        this.split = split;
+        offset = new TextFileReader.Offset(startOffset);
+        charSet = getCharSet(conf);
+        lineBuffer = new ByteArrayOutputStream(1000);
+        // resume from the line following the last committed line, or from the line feed ending the previous split, which
+        // precedes a line starting at the first byte of the split
+        boolean resume = offset.charOffset > 0;
+        if (!resume) {
+            offset.charOffset = Math.max(split.getStart() - 1, 0);
+        }
+        FSDataInputStream in = fs.open(file);
+        in.seek(offset.charOffset);
+        splitStream = new BufferedInputStream(in, getBufferSize(conf));
+        if (!resume && split.getStart() > 0) {
+            skipPartialLine();
+        }
+    }
+
     private TextFileReader(FileSystem fs, Path file, Map<String, Object> conf, TextFileReader.Offset startOffset)
         throws IOException {
         super(fs, file);
         offset = startOffset;
+        split = null;
         FSDataInputStream in = fs.open(file);
 
-        String charSet = (conf == null || !conf.containsKey(CHARSET)) ? "UTF-8" : conf.get(CHARSET).toString();
-        int buffSz =
-            (conf == null || !conf.containsKey(BUFFER_SIZE)) ? DEFAULT_BUFF_SIZE : Integer.parseInt(conf.get(BUFFER_SIZE).toString());
-        reader = new BufferedReader(new InputStreamReader(in, charSet), buffSz);
+        reader = new BufferedReader(new InputStreamReader(in, getCharSet(conf)), getBufferSize(conf));
         if (offset.charOffset > 0) {
             reader.skip(offset.charOffset);
         }
 
     }
 
+    private static String getCharSet(Map<String, Object> conf) {
+        return (conf == null || !conf.containsKey(CHARSET)) ? "UTF-8" : conf.get(CHARSET).toString();
+    }
+
+    private static int getBufferSize(Map<String, Object> conf) {
+        return (conf == null || !conf.containsKey(BUFFER_SIZE)) ? DEFAULT_BUFF_SIZE : Integer.parseInt(conf.get(BUFFER_SIZE).toString());
+    }
+
+    /**
+     * Splits are divided into lines on the line feed bytes, which is only possible with the charsets encoding the line feed and
+     * carriage return characters as ASCII does, such as UTF-8 and ISO-8859-1.
+     */
+    static boolean canReadSplits(Map<String, Object> conf) {
+        return Arrays.equals("\r\n".getBytes(Charset.forName(getCharSet(conf))), new byte[]{ '\r', '\n' });
+    }
+
+    // the line running into the split is read by the previous split
+    private void skipPartialLine() throws IOException {
+        int ch;
+        while ((ch = splitStream.read()) != -1) {
+            ++offset.charOffset;
+            if (ch == '\n') {
+                break;
+            }
+        }
+    }
+
     @Override
     public Offset getFileOffset() {
         return offset.clone();
@@ -66,7 +133,7 @@ public class TextFileReader extends AbstractFileReader {
 
     @Override
     public List<Object> next() throws IOException, ParseException {
-        String line = readLineAndTrackOffset(reader);
+        String line = split == null ? readLineAndTrackOffset(reader) : readSplitLineAndTrackOffset();
         if (line != null) {
             return Collections.singletonList((Object) line);
         }
@@ -92,9 +159,36 @@ public class TextFileReader extends AbstractFileReader {
         return sb.toString();
     }
 
+    private String readSplitLineAndTrackOffset() throws IOException {
+        // the lines starting past the end of the split are read by the next split
+        if (offset.charOffset >= split.getEnd()) {
+            return null;
+        }
+        lineBuffer.reset();
+        long before = offset.charOffset;
+        int ch;
+        while ((ch = splitStream.read()) != -1) {
+            ++offset.charOffset;
+            if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                lineBuffer.write(ch);
+            }
+        }
+        if (before == offset.charOffset) { // reached EOF, didnt read anything
+            return null;
+        }
+        ++offset.lineNumber;
+        return lineBuffer.toString(charSet);
+    }
+
     @Override
     public void close() {
         try {
+            if (split != null) {
+                splitStream.close();
+                return;
+            }
             reader.close();
         } catch (IOException e) {
             LOG.warn("Ignoring error when closing file " + getFilePath(), e);
@@ -38,20 +38,26 @@ import org.apache.hadoop.hdfs.client.HdfsDataOutputStream;
 import org.apache.hadoop.io.SequenceFile;
 import org.apache.hadoop.io.Writable;
 import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.storm.Config;
 import org.apache.storm.hdfs.common.rotation.RotationAction;
+import org.apache.storm.hdfs.parquet.ParquetFormat;
+import org.apache.storm.hdfs.parquet.TupleParquetWriterBuilder;
 import org.apache.storm.hdfs.security.HdfsSecurityUtil;
 import org.apache.storm.hdfs.trident.format.FileNameFormat;
 import org.apache.storm.hdfs.trident.format.RecordFormat;
 import org.apache.storm.hdfs.trident.format.SequenceFormat;
 import org.apache.storm.hdfs.trident.rotation.FileRotationPolicy;
 import org.apache.storm.hdfs.trident.rotation.FileSizeRotationPolicy;
+import org.apache.storm.hdfs.trident.rotation.NoRotationPolicy;
 import org.apache.storm.hdfs.trident.rotation.TimedRotationPolicy;
 import org.apache.storm.task.IMetricsContext;
 import org.apache.storm.topology.FailedException;
 import org.apache.storm.trident.operation.TridentCollector;
 import org.apache.storm.trident.state.State;
 import org.apache.storm.trident.tuple.TridentTuple;
+import org.apache.storm.tuple.ITuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -532,6 +538,124 @@ public class HdfsState implements State {
 
     }
 
+    /**
+     * Writes the tuples to Parquet files. A Parquet file can only be read once closed, so each committed batch is written to its own file,
+     * closed on commit, and a replayed batch is written again from scratch to a new file. The size of the files is set by the size of the
+     * batches, and the row group size should be larger than the size of a batch.
+     */
+    public static class ParquetFileOptions extends Options {
+        private ParquetFormat format;
+        private CompressionCodecName compressionCodec = CompressionCodecName.SNAPPY;
+        private int rowGroupSize = ParquetWriter.DEFAULT_BLOCK_SIZE;
+        private int pageSize = ParquetWriter.DEFAULT_PAGE_SIZE;
+        private boolean dictionaryEncoding = true;
+        private transient ParquetWriter<ITuple> writer;
+
+        public ParquetFileOptions() {
+            // the files are rotated on every commit
+            this.rotationPolicy = new NoRotationPolicy();
+        }
+
+        public ParquetFileOptions withFsUrl(String fsUrl) {
+            this.fsUrl = fsUrl;
+            return this;
+        }
+
+        public ParquetFileOptions withConfigKey(String configKey) {
+            this.configKey = configKey;
+            return this;
+        }
+
+        public ParquetFileOptions withFileNameFormat(FileNameFormat fileNameFormat) {
+            this.fileNameFormat = fileNameFormat;
+            return this;
+        }
+
+        public ParquetFileOptions withParquetFormat(ParquetFormat format) {
+            this.format = format;
+            return this;
+        }
+
+        public ParquetFileOptions withCompressionCodec(CompressionCodecName compressionCodec) {
+            this.compressionCodec = compressionCodec;
+            return this;
+        }
+
+        public ParquetFileOptions withRowGroupSize(int rowGroupSize) {
+            this.rowGroupSize = rowGroupSize;
+            return this;
+        }
+
+        public ParquetFileOptions withPageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public ParquetFileOptions withDictionaryEncoding(boolean dictionaryEncoding) {
+            this.dictionaryEncoding = dictionaryEncoding;
+            return this;
+        }
+
+        public ParquetFileOptions addRotationAction(RotationAction action) {
+            this.rotationActions.add(action);
+            return this;
+        }
+
+        @Override
+        void doPrepare(Map<String, Object> conf, int partitionIndex, int numPartitions) throws IOException {
+            LOG.info("Preparing Parquet File State...");
+            if (this.format == null) {
+                throw new IllegalStateException("ParquetFormat must be specified.");
+            }
+
+            this.fs = FileSystem.get(URI.create(this.fsUrl), hdfsConfig);
+        }
+
+        /**
+         * The file of a batch only holds the batch, so a replayed batch has nothing to recover from it.
+         */
+        @Override
+        public long getCurrentOffset() {
+            return 0;
+        }
+
+        @Override
+        public void doCommit(Long txId) throws IOException {
+            rotateOutputFile();
+        }
+
+        @Override
+        void doRecover(Path srcPath, long numberOfBytes) {
+        }
+
+        @Override
+        Path createOutputFile() throws IOException {
+            // the writer opens the file system of the path
+            Path p = this.fs.makeQualified(new Path(this.fileNameFormat.getPath(),
+                                                    this.fileNameFormat.getName(this.rotation, System.currentTimeMillis())));
+            this.writer = new TupleParquetWriterBuilder(p, this.format)
+                .withConf(this.hdfsConfig)
+                .withCompressionCodec(this.compressionCodec)
+                .withRowGroupSize(this.rowGroupSize)
+                .withPageSize(this.pageSize)
+                .withDictionaryEncoding(this.dictionaryEncoding)
+                .build();
+            return p;
+        }
+
+        @Override
+        void closeOutputFile() throws IOException {
+            this.writer.close();
+        }
+
+        @Override
+        public void execute(List<TridentTuple> tuples) throws IOException {
+            for (TridentTuple tuple : tuples) {
+                this.writer.write(tuple);
+            }
+        }
+    }
+
     /**
      * TxnRecord [txnid, data_file_path, data_file_offset].
      *
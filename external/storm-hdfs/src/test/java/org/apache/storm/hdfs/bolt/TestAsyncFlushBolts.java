@@ -0,0 +1,256 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.hdfs.bolt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.apache.hadoop.fs.Path;
+import org.apache.storm.Config;
+import org.apache.storm.hdfs.bolt.format.DefaultFileNameFormat;
+import org.apache.storm.hdfs.bolt.format.DefaultSequenceFormat;
+import org.apache.storm.hdfs.bolt.format.DelimitedRecordFormat;
+import org.apache.storm.hdfs.bolt.rotation.FileSizeRotationPolicy;
+import org.apache.storm.hdfs.bolt.sync.CountSyncPolicy;
+import org.apache.storm.hdfs.common.AbstractHDFSWriter;
+import org.apache.storm.hdfs.common.HDFSWriter;
+import org.apache.storm.task.GeneralTopologyContext;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.TopologyBuilder;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.TupleImpl;
+import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.MockTupleHelpers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Tests the background writes, syncs and rotations of the HDFS bolts against the local file system.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TestAsyncFlushBolts {
+    private static final String OUTPUT_DIR = "/output";
+
+    @TempDir
+    public File tempDir;
+    @Mock
+    private OutputCollector collector;
+    @Mock
+    private TopologyContext topologyContext;
+
+    private final Tuple tuple1 = generateTestTuple(1L, "First Tuple", "SFO", "CA");
+    private final Tuple tuple2 = generateTestTuple(2L, "Second Tuple", "SJO", "CA");
+
+    @Test
+    public void testAcksTuplesOnceSynced() throws IOException {
+        HdfsBolt bolt = makeHdfsBolt(2, 10000f);
+        bolt.prepare(new Config(), topologyContext, collector);
+
+        bolt.execute(tuple1);
+        verifyZeroInteractions(collector);
+
+        bolt.execute(tuple2);
+        bolt.cleanup();
+
+        verify(collector).ack(tuple1);
+        verify(collector).ack(tuple2);
+        List<File> files = listDataFiles();
+        assertEquals(1, files.size());
+        assertEquals("1|First Tuple|SFO|CA\n2|Second Tuple|SJO|CA\n", new String(Files.readAllBytes(files.get(0).toPath()),
+                                                                                 StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRotatesFilesInBackground() throws IOException {
+        HdfsBolt bolt = makeHdfsBolt(1, .00001f);
+        bolt.prepare(new Config(), topologyContext, collector);
+
+        bolt.execute(tuple1);
+        bolt.execute(tuple2);
+        bolt.cleanup();
+
+        verify(collector).ack(tuple1);
+        verify(collector).ack(tuple2);
+        assertEquals(2, listDataFiles().size());
+    }
+
+    @Test
+    public void testTickForcesSyncAfterInterval() {
+        HdfsBolt bolt = makeHdfsBolt(10, 10000f).withTickTupleIntervalSeconds(0);
+        bolt.prepare(new Config(), topologyContext, collector);
+        Tuple tick = MockTupleHelpers.mockTickTuple();
+
+        bolt.execute(tuple1);
+        bolt.execute(tick);
+        bolt.cleanup();
+
+        verify(collector).ack(tick);
+        verify(collector).ack(tuple1);
+    }
+
+    @Test
+    public void testTickDoesNotForceSyncBeforeInterval() {
+        HdfsBolt bolt = makeHdfsBolt(10, 10000f);
+        bolt.prepare(new Config(), topologyContext, collector);
+        Tuple tick = MockTupleHelpers.mockTickTuple();
+
+        bolt.execute(tuple1);
+        bolt.execute(tick);
+        bolt.cleanup();
+
+        verify(collector).ack(tick);
+        verify(collector, never()).ack(tuple1);
+    }
+
+    @Test
+    @Timeout(30)
+    public void testFailedSyncFailsTuplesAndKillsBolt() {
+        HdfsBolt bolt = new HdfsBolt() {
+            @Override
+            protected AbstractHDFSWriter makeNewWriter(Path path, Tuple tuple) throws IOException {
+                return new HDFSWriter(rotationPolicy, path, fs.create(path), new DelimitedRecordFormat()) {
+                    @Override
+                    protected void doSync() throws IOException {
+                        throw new IOException("Sync failed");
+                    }
+                };
+            }
+        };
+        configure(bolt, 1, 10000f).withRetryCount(1);
+        bolt.prepare(new Config(), topologyContext, collector);
+        Tuple tick = MockTupleHelpers.mockTickTuple();
+
+        bolt.execute(tuple1);
+        // the failure of the background thread is rethrown on a later tuple
+        assertThrows(RuntimeException.class, () -> {
+            while (true) {
+                bolt.execute(tick);
+                Thread.sleep(10);
+            }
+        });
+
+        verify(collector).fail(tuple1);
+        verify(collector, never()).ack(tuple1);
+        verify(collector, atLeastOnce()).reportError(any(IOException.class));
+    }
+
+    @Test
+    @Timeout(30)
+    public void testFailedWriteFailsUnsyncedTuples() {
+        HdfsBolt bolt = configure(new HdfsBolt(), 10, 10000f)
+            .withRecordFormat(new DelimitedRecordFormat() {
+                @Override
+                public byte[] format(Tuple tuple) {
+                    if (tuple == tuple2) {
+                        throw new IllegalArgumentException("Cannot format the tuple");
+                    }
+                    return super.format(tuple);
+                }
+            });
+        bolt.prepare(new Config(), topologyContext, collector);
+        Tuple tick = MockTupleHelpers.mockTickTuple();
+
+        bolt.execute(tuple1);
+        bolt.execute(tuple2);
+        // the tuple written before the failure is not synced yet, and is failed along with the tuple that could not be written
+        assertThrows(IllegalArgumentException.class, () -> {
+            while (true) {
+                bolt.execute(tick);
+                Thread.sleep(10);
+            }
+        });
+
+        verify(collector).fail(tuple1);
+        verify(collector).fail(tuple2);
+        verify(collector, never()).ack(tuple1);
+    }
+
+    @Test
+    public void testSequenceFileBolt() throws IOException {
+        SequenceFileBolt bolt = new SequenceFileBolt()
+            .withFsUrl("file://" + tempDir.getAbsolutePath())
+            .withFileNameFormat(new DefaultFileNameFormat().withPath(OUTPUT_DIR))
+            .withRotationPolicy(new FileSizeRotationPolicy(10000f, FileSizeRotationPolicy.Units.MB))
+            .withSequenceFormat(new DefaultSequenceFormat("id", "msg"))
+            .withSyncPolicy(new CountSyncPolicy(2))
+            .withAsyncFlush(true);
+        bolt.prepare(new Config(), topologyContext, collector);
+
+        bolt.execute(tuple1);
+        bolt.execute(tuple2);
+        bolt.cleanup();
+
+        verify(collector).ack(tuple1);
+        verify(collector).ack(tuple2);
+        assertEquals(1, listDataFiles().size());
+    }
+
+    private HdfsBolt makeHdfsBolt(int countSync, float rotationSizeMb) {
+        return configure(new HdfsBolt(), countSync, rotationSizeMb)
+            .withRecordFormat(new DelimitedRecordFormat().withFieldDelimiter("|"));
+    }
+
+    private HdfsBolt configure(HdfsBolt bolt, int countSync, float rotationSizeMb) {
+        return bolt
+            .withFsUrl("file://" + tempDir.getAbsolutePath())
+            .withFileNameFormat(new DefaultFileNameFormat().withPath(OUTPUT_DIR))
+            .withRotationPolicy(new FileSizeRotationPolicy(rotationSizeMb, FileSizeRotationPolicy.Units.MB))
+            .withSyncPolicy(new CountSyncPolicy(countSync))
+            .withAsyncFlush(true);
+    }
+
+    // the non empty files written by the bolts, without the checksum files of the local file system
+    private List<File> listDataFiles() {
+        List<File> files = new ArrayList<>();
+        File[] children = new File(tempDir, OUTPUT_DIR).listFiles();
+        if (children != null) {
+            for (File file : children) {
+                if (!file.getName().startsWith(".") && file.length() > 0) {
+                    files.add(file);
+                }
+            }
+        }
+        return files;
+    }
+
+    private Tuple generateTestTuple(Object id, Object msg, Object city, Object state) {
+        TopologyBuilder builder = new TopologyBuilder();
+        GeneralTopologyContext topologyContext = new GeneralTopologyContext(builder.createTopology(),
+                                                                            new Config(), new HashMap<>(), new HashMap<>(), new HashMap<>(),
+                                                                            "") {
+            @Override
+            public Fields getComponentOutputFields(String componentId, String streamId) {
+                return new Fields("id", "msg", "city", "state");
+            }
+        };
+        return new TupleImpl(topologyContext, new Values(id, msg, city, state), topologyContext.getComponentId(1), 1, "");
+    }
+}
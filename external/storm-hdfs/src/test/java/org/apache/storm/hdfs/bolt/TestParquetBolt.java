@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.hdfs.bolt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.storm.Config;
+import org.apache.storm.hdfs.bolt.format.DefaultFileNameFormat;
+import org.apache.storm.hdfs.bolt.rotation.FileSizeRotationPolicy;
+import org.apache.storm.hdfs.bolt.sync.CountSyncPolicy;
+import org.apache.storm.hdfs.parquet.DefaultParquetFormat;
+import org.apache.storm.task.GeneralTopologyContext;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.TopologyBuilder;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.TupleImpl;
+import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.MockTupleHelpers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class TestParquetBolt {
+    private static final String OUTPUT_DIR = "/output";
+    private static final String SCHEMA = "message event {\n"
+                                         + "  required int64 id;\n"
+                                         + "  optional binary msg (UTF8);\n"
+                                         + "  optional double amount;\n"
+                                         + "}";
+
+    @TempDir
+    public File tempDir;
+    @Mock
+    private OutputCollector collector;
+    @Mock
+    private TopologyContext topologyContext;
+
+    private final Tuple tuple1 = generateTestTuple(1L, "First Tuple", 1.5);
+    private final Tuple tuple2 = generateTestTuple(2L, null, 2.5);
+
+    @Test
+    public void testAcksTuplesOnceFileClosed() throws IOException {
+        ParquetBolt bolt = makeParquetBolt(2);
+        bolt.prepare(new Config(), topologyContext, collector);
+
+        bolt.execute(tuple1);
+        verifyZeroInteractions(collector);
+
+        bolt.execute(tuple2);
+        verify(collector).ack(tuple1);
+        verify(collector).ack(tuple2);
+
+        List<Group> rows = readDataFiles();
+        assertEquals(2, rows.size());
+        assertEquals(1L, rows.get(0).getLong("id", 0));
+        assertEquals("First Tuple", rows.get(0).getString("msg", 0));
+        assertEquals(1.5, rows.get(0).getDouble("amount", 0), 0.0);
+        assertEquals(0, rows.get(1).getFieldRepetitionCount("msg"));
+    }
+
+    @Test
+    public void testWritesNewFileAfterEachSync() throws IOException {
+        ParquetBolt bolt = makeParquetBolt(1);
+        bolt.prepare(new Config(), topologyContext, collector);
+
+        bolt.execute(tuple1);
+        bolt.execute(tuple2);
+        bolt.cleanup();
+
+        verify(collector).ack(tuple1);
+        verify(collector).ack(tuple2);
+        assertEquals(2, listDataFiles().size());
+        assertEquals(2, readDataFiles().size());
+    }
+
+    @Test
+    public void testTickClosesFile() throws IOException {
+        ParquetBolt bolt = makeParquetBolt(10);
+        bolt.prepare(new Config(), topologyContext, collector);
+
+        bolt.execute(tuple1);
+        bolt.execute(MockTupleHelpers.mockTickTuple());
+
+        verify(collector).ack(tuple1);
+        assertEquals(1, readDataFiles().size());
+    }
+
+    @Test
+    public void testInvalidSchema() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new DefaultParquetFormat("message event { repeated int64 id; }"));
+    }
+
+    private ParquetBolt makeParquetBolt(int countSync) {
+        return new ParquetBolt()
+            .withFsUrl("file://" + tempDir.getAbsolutePath())
+            .withFileNameFormat(new DefaultFileNameFormat().withPath(OUTPUT_DIR).withExtension(".parquet"))
+            .withParquetFormat(new DefaultParquetFormat(SCHEMA))
+            .withCompressionCodec(CompressionCodecName.GZIP)
+            .withRotationPolicy(new FileSizeRotationPolicy(10000f, FileSizeRotationPolicy.Units.MB))
+            .withSyncPolicy(new CountSyncPolicy(countSync));
+    }
+
+    // the closed files written by the bolt, without the checksum files of the local file system
+    private List<File> listDataFiles() {
+        List<File> files = new ArrayList<>();
+        File[] children = new File(tempDir, OUTPUT_DIR).listFiles();
+        if (children != null) {
+            for (File file : children) {
+                if (!file.getName().startsWith(".") && file.length() > 0) {
+                    files.add(file);
+                }
+            }
+        }
+        return files;
+    }
+
+    private List<Group> readDataFiles() throws IOException {
+        List<Group> rows = new ArrayList<>();
+        for (File file : listDataFiles()) {
+            try (ParquetReader<Group> reader = ParquetReader.builder(new GroupReadSupport(), new Path(file.getAbsolutePath())).build()) {
+                Group row;
+                while ((row = reader.read()) != null) {
+                    rows.add(row);
+                }
+            }
+        }
+        rows.sort((row1, row2) -> Long.compare(row1.getLong("id", 0), row2.getLong("id", 0)));
+        return rows;
+    }
+
+    private Tuple generateTestTuple(Long id, String msg, Double amount) {
+        TopologyBuilder builder = new TopologyBuilder();
+        GeneralTopologyContext topologyContext = new GeneralTopologyContext(builder.createTopology(),
+                                                                            new Config(), new HashMap<>(), new HashMap<>(), new HashMap<>(),
+                                                                            "") {
+            @Override
+            public Fields getComponentOutputFields(String componentId, String streamId) {
+                return new Fields("id", "msg", "amount");
+            }
+        };
+        return new TupleImpl(topologyContext, new Values(id, msg, amount), topologyContext.getComponentId(1), 1, "");
+    }
+}
@@ -23,6 +23,7 @@ import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -631,6 +632,125 @@ public class TestHdfsSpout {
         }
     }
 
+    @Test
+    public void testSplitText_TwoSpouts() throws Exception {
+        Path file1 = new Path(source.toString() + "/file1.txt");
+        createTextFile(file1, 1000);
+
+        try (AutoCloseableHdfsSpout closeableSpout = makeSpout(Configs.TEXT, TextFileReader.defaultFields);
+             AutoCloseableHdfsSpout closeableSpout2 = makeSpout(Configs.TEXT, TextFileReader.defaultFields)) {
+            HdfsSpout spout = closeableSpout.spout.setSplitSizeBytes(1000);
+            HdfsSpout spout2 = closeableSpout2.spout.setSplitSizeBytes(1000);
+
+            Map<String, Object> conf = getCommonConfigs();
+            openSpout(spout, 0, conf);
+            openSpout(spout2, 1, conf);
+
+            // both spouts read splits of the file
+            for (int i = 0; i < 600; ++i) {
+                runSpout(spout, "r1");
+                runSpout(spout2, "r1");
+            }
+            MockCollector collector = (MockCollector) spout.getCollector();
+            MockCollector collector2 = (MockCollector) spout2.getCollector();
+            assertFalse(collector.items.isEmpty());
+            assertFalse(collector2.items.isEmpty());
+
+            // each line is read once, and the file is archived once all its splits are read
+            Path arc1 = new Path(archive.toString() + "/file1.txt");
+            List<String> expected = getTextFileContents(fs, arc1);
+            List<String> actual = new ArrayList<>();
+            for (Pair<HdfsSpout.MessageId, List<Object>> item : collector.items) {
+                actual.add(item.getValue().get(0).toString());
+            }
+            for (Pair<HdfsSpout.MessageId, List<Object>> item : collector2.items) {
+                actual.add(item.getValue().get(0).toString());
+            }
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+            assertTrue(listDir(spout.getLockDirPath()).isEmpty());
+            assertFalse(fs.exists(new Path(spout.getLockDirPath(), ".splits/file1.txt")));
+        }
+    }
+
+    @Test
+    public void testSplitSeq_TwoSpouts() throws Exception {
+        Path file1 = new Path(source.toString() + "/file1.seq");
+        createSeqFile(fs, file1, 2000);
+
+        try (AutoCloseableHdfsSpout closeableSpout = makeSpout(Configs.SEQ, SequenceFileReader.defaultFields);
+             AutoCloseableHdfsSpout closeableSpout2 = makeSpout(Configs.SEQ, SequenceFileReader.defaultFields)) {
+            HdfsSpout spout = closeableSpout.spout.setSplitSizeBytes(5000);
+            HdfsSpout spout2 = closeableSpout2.spout.setSplitSizeBytes(5000);
+
+            Map<String, Object> conf = getCommonConfigs();
+            openSpout(spout, 0, conf);
+            openSpout(spout2, 1, conf);
+
+            for (int i = 0; i < 1100; ++i) {
+                runSpout(spout, "r1");
+                runSpout(spout2, "r1");
+            }
+            List<String> actual = new ArrayList<>(((MockCollector) spout.getCollector()).lines);
+            List<String> actual2 = ((MockCollector) spout2.getCollector()).lines;
+            assertFalse(actual.isEmpty());
+            assertFalse(actual2.isEmpty());
+
+            // the splits start and stop at the sync markers, so that each record is read once
+            Path arc1 = new Path(archive.toString() + "/file1.seq");
+            List<String> expected = getSeqFileContents(fs, arc1);
+            actual.addAll(actual2);
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void testSplitText_ResumeAbandoned() throws Exception {
+        Path file1 = new Path(source.toString() + "/file1.txt");
+        createTextFile(file1, 300);
+
+        final Integer lockExpirySec = 1;
+
+        try (AutoCloseableHdfsSpout closeableSpout = makeSpout(Configs.TEXT, TextFileReader.defaultFields);
+             AutoCloseableHdfsSpout closeableSpout2 = makeSpout(Configs.TEXT, TextFileReader.defaultFields)) {
+            HdfsSpout spout = closeableSpout.spout.setSplitSizeBytes(1000);
+            spout.setCommitFrequencyCount(1);
+            spout.setLockTimeoutSec(lockExpirySec);
+            HdfsSpout spout2 = closeableSpout2.spout.setSplitSizeBytes(1000);
+            spout2.setCommitFrequencyCount(1);
+            spout2.setLockTimeoutSec(lockExpirySec);
+
+            Map<String, Object> conf = getCommonConfigs();
+            openSpout(spout, 0, conf);
+            openSpout(spout2, 1, conf);
+
+            // read the first split partially, then abandon it
+            final List<String> res = runSpout(spout, "r5");
+            FileLock lock = getField(spout, "lock");
+            assertEquals(new FileSplit(0, 1000).getLockName("file1.txt"), lock.getLockFile().getName());
+            TestFileLock.closeUnderlyingLockFile(lock);
+            Thread.sleep(lockExpirySec * 2 * 1000);
+
+            // the other spout resumes the split after the committed lines, and reads the other splits
+            List<String> res2 = runSpout(spout2, "r400");
+            assertFalse(fs.exists(lock.getLockFile()));
+            List<String> expected = getTextFileContents(fs, new Path(archive.toString() + "/file1.txt"));
+            List<String> actual = new ArrayList<>();
+            for (String line : res) {
+                actual.add(line.substring(1, line.length() - 1));
+            }
+            for (String line : res2) {
+                actual.add(line.substring(1, line.length() - 1));
+            }
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        }
+    }
+
     private Map<String, Object> getCommonConfigs() {
         Map<String, Object> topoConf = new HashMap<>();
         topoConf.put(Config.TOPOLOGY_ACKER_EXECUTORS, "0");
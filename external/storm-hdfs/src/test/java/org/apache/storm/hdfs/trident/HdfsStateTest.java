@@ -24,7 +24,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.io.FileUtils;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
 import org.apache.storm.Config;
+import org.apache.storm.hdfs.parquet.DefaultParquetFormat;
 import org.apache.storm.hdfs.trident.format.DelimitedRecordFormat;
 import org.apache.storm.hdfs.trident.format.FileNameFormat;
 import org.apache.storm.hdfs.trident.format.RecordFormat;
@@ -74,6 +78,36 @@ public class HdfsStateTest {
         return state;
     }
 
+    private HdfsState createParquetHdfsState() {
+        HdfsState.Options options = new HdfsState.ParquetFileOptions()
+            .withFileNameFormat(fileNameFormat)
+            .withParquetFormat(new DefaultParquetFormat("message test { required binary f1 (UTF8); }"))
+            .withFsUrl("file://" + TEST_OUT_DIR);
+
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(Config.TOPOLOGY_NAME, TEST_TOPOLOGY_NAME);
+
+        HdfsState state = new HdfsState(options);
+        state.prepare(conf, null, 0, 1);
+        return state;
+    }
+
+    private List<String> readParquetDataFiles() throws IOException {
+        List<String> values = new ArrayList<>();
+        for (File file : FileUtils.listFiles(new File(TEST_OUT_DIR), null, false)) {
+            if (file.getName().startsWith(FILE_NAME_PREFIX)) {
+                try (ParquetReader<Group> reader =
+                         ParquetReader.builder(new GroupReadSupport(), new org.apache.hadoop.fs.Path(file.getAbsolutePath())).build()) {
+                    Group group;
+                    while ((group = reader.read()) != null) {
+                        values.add(group.getString("f1", 0));
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
     private List<TridentTuple> createMockTridentTuples(int count) {
         TridentTuple tuple = mock(TridentTuple.class);
         when(tuple.getValueByField(any(String.class))).thenReturn("data");
@@ -191,6 +225,42 @@ public class HdfsStateTest {
         assertEquals(expectedTupleCount, lines.size());
     }
 
+    @Test
+    public void testParquetUpdateState() throws Exception {
+        HdfsState state = createParquetHdfsState();
+        state.beginCommit(1L);
+        state.updateState(createMockTridentTuples(100), null);
+        state.commit(1L);
+        state.beginCommit(2L);
+        state.updateState(createMockTridentTuples(50), null);
+        state.commit(2L);
+        state.close();
+
+        // each committed batch is in its own file, readable once committed
+        assertTrue(Paths.get(TEST_OUT_DIR, FILE_NAME_PREFIX + "0").toFile().exists());
+        assertTrue(Paths.get(TEST_OUT_DIR, FILE_NAME_PREFIX + "1").toFile().exists());
+        List<String> values = readParquetDataFiles();
+        assertEquals(150, values.size());
+        assertEquals("data", values.get(0));
+    }
+
+    @Test
+    public void testParquetRecoverOneBatch() throws Exception {
+        HdfsState state = createParquetHdfsState();
+        state.beginCommit(1L);
+        state.updateState(createMockTridentTuples(10), null);
+        state.commit(1L);
+        // batch 2 is played with 25 tuples initially, then replayed with 50 tuples
+        state.beginCommit(2L);
+        state.updateState(createMockTridentTuples(25), null);
+        state.beginCommit(2L);
+        state.updateState(createMockTridentTuples(50), null);
+        state.commit(2L);
+        state.close();
+
+        assertEquals(60, readParquetDataFiles().size());
+    }
+
     private static class TestFileNameFormat implements FileNameFormat {
         private String currentFileName = "";
 
@@ -15,6 +15,10 @@ package org.apache.storm.jdbc.bolt;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.lang.Validate;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.storm.jdbc.common.Column;
@@ -24,6 +28,8 @@ import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.tuple.Tuple;
+import org.apache.storm.utils.BatchHelper;
+import org.apache.storm.utils.TupleUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,13 +37,31 @@ import org.slf4j.LoggerFactory;
  * Basic bolt for writing to any Database table.
  * <p/>
  * Note: Each JdbcInsertBolt defined in a topology is tied to a specific table.
+ * <p/>
+ * By default every tuple is inserted in its own transaction. With {@link #withBatchSize(int)} the tuples are inserted in batches, which
+ * are flushed when they reach the batch size or {@link #withMaxBatchBytes(long)}, or every {@link #withFlushIntervalSecs(int)} seconds,
+ * and all the tuples of a batch are acked or failed together. With {@link #withAsyncFlush(boolean)} a batch is inserted on a background
+ * thread while the bolt builds the next one.
  */
 public class JdbcInsertBolt extends AbstractJdbcBolt {
     private static final Logger LOG = LoggerFactory.getLogger(JdbcInsertBolt.class);
+    private static final int DEFAULT_FLUSH_INTERVAL_SECS = 1;
 
     private String tableName;
     private String insertQuery;
     private JdbcMapper jdbcMapper;
+    private int batchSize = 1;
+    private long maxBatchBytes = Long.MAX_VALUE;
+    private int flushIntervalSecs = DEFAULT_FLUSH_INTERVAL_SECS;
+    private boolean asyncFlush = false;
+
+    private transient BatchHelper batchHelper;
+    private transient List<List<Column>> columnLists;
+    private transient long batchBytes;
+    private transient ExecutorService flushExecutor;
+    // The batch being inserted on the flush thread, and the result of the insert
+    private transient BatchHelper pendingBatch;
+    private transient Future<?> pendingFlush;
 
     public JdbcInsertBolt(ConnectionProvider connectionProvider, JdbcMapper jdbcMapper) {
         super(connectionProvider);
@@ -67,30 +91,170 @@ public class JdbcInsertBolt extends AbstractJdbcBolt {
         return this;
     }
 
+    /**
+     * Sets the number of tuples inserted in a batch. The default is 1, i.e. every tuple is inserted and acked on its own.
+     */
+    public JdbcInsertBolt withBatchSize(int batchSize) {
+        Validate.isTrue(batchSize > 0, "The batch size must be positive");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the estimated size of the column values of a batch, in bytes, above which the batch is flushed before reaching the batch size.
+     */
+    public JdbcInsertBolt withMaxBatchBytes(long maxBatchBytes) {
+        Validate.isTrue(maxBatchBytes > 0, "The max batch bytes must be positive");
+        this.maxBatchBytes = maxBatchBytes;
+        return this;
+    }
+
+    /**
+     * Sets the interval at which an incomplete batch is flushed, when the batch size is greater than 1, and at which the tuples of a
+     * batch inserted asynchronously are acked once the insert completes. The default is 1 second.
+     */
+    public JdbcInsertBolt withFlushIntervalSecs(int flushIntervalSecs) {
+        this.flushIntervalSecs = flushIntervalSecs;
+        return this;
+    }
+
+    /**
+     * Sets whether the batches are inserted on a background thread, with their own connection, so that the bolt keeps consuming tuples
+     * while a batch is inserted. At most one batch is inserted at a time, and its tuples are acked or failed by the bolt thread once the
+     * insert completes. The default is false.
+     */
+    public JdbcInsertBolt withAsyncFlush(boolean asyncFlush) {
+        this.asyncFlush = asyncFlush;
+        return this;
+    }
+
     @Override
     public void prepare(Map<String, Object> map, TopologyContext topologyContext, OutputCollector collector) {
         super.prepare(map, topologyContext, collector);
         if (StringUtils.isBlank(tableName) && StringUtils.isBlank(insertQuery)) {
             throw new IllegalArgumentException("You must supply either a tableName or an insert Query.");
         }
+        this.batchHelper = new BatchHelper(batchSize, collector);
+        this.columnLists = new ArrayList<>();
+        if (asyncFlush) {
+            this.flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jdbc-insert-flush-" + topologyContext.getThisTaskId());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
     }
 
     @Override
     protected void process(Tuple tuple) {
+        completePendingFlush(false);
+        List<Column> columns;
         try {
-            List<Column> columns = jdbcMapper.getColumns(tuple);
-            List<List<Column>> columnLists = new ArrayList<List<Column>>();
-            columnLists.add(columns);
-            if (!StringUtils.isBlank(tableName)) {
-                this.jdbcClient.insert(this.tableName, columnLists);
-            } else {
-                this.jdbcClient.executeInsertQuery(this.insertQuery, columnLists);
-            }
-            this.collector.ack(tuple);
+            columns = jdbcMapper.getColumns(tuple);
         } catch (Exception e) {
             this.collector.reportError(e);
             this.collector.fail(tuple);
+            return;
+        }
+        columnLists.add(columns);
+        batchBytes += estimateBytes(columns);
+        batchHelper.addBatch(tuple);
+        if (batchHelper.shouldFlush() || batchBytes >= maxBatchBytes) {
+            flush();
+        }
+    }
+
+    @Override
+    protected void onTickTuple(Tuple tuple) {
+        completePendingFlush(false);
+        batchHelper.shouldHandle(tuple);
+        if (batchHelper.shouldFlush()) {
+            LOG.debug("Flushing [{}] tuples on tick", columnLists.size());
+            flush();
+        }
+    }
+
+    private void flush() {
+        final List<List<Column>> batch = columnLists;
+        columnLists = new ArrayList<>();
+        batchBytes = 0;
+        if (flushExecutor == null) {
+            try {
+                insert(batch);
+                batchHelper.ack();
+            } catch (Exception e) {
+                batchHelper.fail(e);
+            }
+        } else {
+            completePendingFlush(true);
+            pendingBatch = batchHelper;
+            pendingFlush = flushExecutor.submit(() -> insert(batch));
+            batchHelper = new BatchHelper(batchSize, collector);
+        }
+    }
+
+    private void insert(List<List<Column>> batch) {
+        if (!StringUtils.isBlank(tableName)) {
+            this.jdbcClient.insert(this.tableName, batch);
+        } else {
+            this.jdbcClient.executeInsertQuery(this.insertQuery, batch);
+        }
+    }
+
+    /**
+     * Acks or fails the tuples of the batch inserted on the flush thread, if the insert is complete.
+     *
+     * @param wait true to wait for the insert to complete
+     */
+    private void completePendingFlush(boolean wait) {
+        if (pendingFlush == null || !(wait || pendingFlush.isDone())) {
+            return;
+        }
+        try {
+            pendingFlush.get();
+            pendingBatch.ack();
+        } catch (ExecutionException e) {
+            pendingBatch.fail(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            pendingFlush = null;
+            pendingBatch = null;
+        }
+    }
+
+    private static long estimateBytes(List<Column> columns) {
+        long bytes = 0;
+        for (Column column : columns) {
+            Object value = column.getVal();
+            if (value instanceof String) {
+                bytes += ((String) value).length();
+            } else if (value instanceof byte[]) {
+                bytes += ((byte[]) value).length;
+            } else {
+                bytes += Long.BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        // with async flushes the ticks also ack the last batch inserted when the input is idle
+        if (batchSize > 1 || asyncFlush) {
+            return TupleUtils.putTickFrequencyIntoComponentConfig(super.getComponentConfiguration(), flushIntervalSecs);
+        }
+        return super.getComponentConfiguration();
+    }
+
+    @Override
+    public void cleanup() {
+        if (flushExecutor != null) {
+            completePendingFlush(true);
+            flushExecutor.shutdown();
         }
+        super.cleanup();
     }
 
     @Override
@@ -12,19 +12,30 @@
 
 package org.apache.storm.jdbc.bolt;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang.Validate;
 import org.apache.storm.jdbc.common.Column;
 import org.apache.storm.jdbc.common.ConnectionProvider;
 import org.apache.storm.jdbc.mapper.JdbcLookupMapper;
+import org.apache.storm.lookup.AsyncLookupHelper;
+import org.apache.storm.lookup.LookupOptions;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.TupleUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Basic bolt for querying from any database.
+ *
+ * <p>The lookups can be made asynchronous, batched and cached with {@link #withLookupOptions(LookupOptions)}. The query is executed once
+ * per distinct set of parameters, and the queries of a batch share the same connection and prepared statement. The select query is not
+ * rewritten into an {@code IN (...)} query, since the rows could not be matched back to the parameters of an arbitrary query.
  */
 public class JdbcLookupBolt extends AbstractJdbcBolt {
     private static final Logger LOG = LoggerFactory.getLogger(JdbcLookupBolt.class);
@@ -33,6 +44,10 @@ public class JdbcLookupBolt extends AbstractJdbcBolt {
 
     private JdbcLookupMapper jdbcLookupMapper;
 
+    private LookupOptions lookupOptions = new LookupOptions();
+
+    private transient AsyncLookupHelper<List<Column>, List<List<Column>>> lookupHelper;
+
     public JdbcLookupBolt(ConnectionProvider connectionProvider, String selectQuery, JdbcLookupMapper jdbcLookupMapper) {
         super(connectionProvider);
 
@@ -48,24 +63,55 @@ public class JdbcLookupBolt extends AbstractJdbcBolt {
         return this;
     }
 
+    /**
+     * Sets the options of the lookups, to make them asynchronous, batched or cached.
+     */
+    public JdbcLookupBolt withLookupOptions(LookupOptions lookupOptions) {
+        this.lookupOptions = lookupOptions;
+        return this;
+    }
+
+    @Override
+    public void prepare(Map<String, Object> map, TopologyContext topologyContext, OutputCollector collector) {
+        super.prepare(map, topologyContext, collector);
+        this.lookupHelper = new AsyncLookupHelper<>(lookupOptions, this::select, this::emitRows, topologyContext, collector);
+    }
+
     @Override
     protected void process(Tuple tuple) {
+        List<Column> columns;
         try {
-            List<Column> columns = jdbcLookupMapper.getColumns(tuple);
-            List<List<Column>> result = jdbcClient.select(this.selectQuery, columns);
-
-            if (result != null && result.size() != 0) {
-                for (List<Column> row : result) {
-                    List<Values> values = jdbcLookupMapper.toTuple(tuple, row);
-                    for (Values value : values) {
-                        collector.emit(tuple, value);
-                    }
-                }
-            }
-            this.collector.ack(tuple);
+            columns = jdbcLookupMapper.getColumns(tuple);
         } catch (Exception e) {
             this.collector.reportError(e);
             this.collector.fail(tuple);
+            return;
+        }
+        lookupHelper.lookup(tuple, columns);
+    }
+
+    @Override
+    protected void onTickTuple(Tuple tuple) {
+        lookupHelper.onTick();
+    }
+
+    private Map<List<Column>, List<List<Column>>> select(List<List<Column>> queryParamsList) {
+        List<List<List<Column>>> results = jdbcClient.selectBatch(this.selectQuery, queryParamsList);
+        Map<List<Column>, List<List<Column>>> resultsByParams = new HashMap<>();
+        for (int i = 0; i < queryParamsList.size(); i++) {
+            resultsByParams.put(queryParamsList.get(i), results.get(i));
+        }
+        return resultsByParams;
+    }
+
+    private void emitRows(Tuple tuple, List<List<Column>> result) {
+        if (result != null && result.size() != 0) {
+            for (List<Column> row : result) {
+                List<Values> values = jdbcLookupMapper.toTuple(tuple, row);
+                for (Values value : values) {
+                    collector.emit(tuple, value);
+                }
+            }
         }
     }
 
@@ -73,4 +119,22 @@ public class JdbcLookupBolt extends AbstractJdbcBolt {
     public void declareOutputFields(OutputFieldsDeclarer outputFieldsDeclarer) {
         jdbcLookupMapper.declareOutputFields(outputFieldsDeclarer);
     }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        Map<String, Object> conf = super.getComponentConfiguration();
+        if (lookupOptions.isAsync()) {
+            // completes the lookups when the input is idle
+            conf = TupleUtils.putTickFrequencyIntoComponentConfig(conf, 1);
+        }
+        return conf;
+    }
+
+    @Override
+    public void cleanup() {
+        if (lookupHelper != null) {
+            lookupHelper.cleanup();
+        }
+        super.cleanup();
+    }
 }
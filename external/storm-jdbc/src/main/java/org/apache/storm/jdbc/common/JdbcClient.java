@@ -29,6 +29,7 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
@@ -112,6 +113,18 @@ public class JdbcClient {
     }
 
     public List<List<Column>> select(String sqlQuery, List<Column> queryParams) {
+        List<List<List<Column>>> results = selectBatch(sqlQuery, Collections.singletonList(queryParams));
+        return results == null ? null : results.get(0);
+    }
+
+    /**
+     * Executes a select query once per set of parameters, with the same connection and prepared statement.
+     *
+     * @param sqlQuery the select query
+     * @param queryParamsList the sets of parameters
+     * @return the rows selected for each set of parameters, in the same order
+     */
+    public List<List<List<Column>>> selectBatch(String sqlQuery, List<List<Column>> queryParamsList) {
         Exception selectException = null;
         Connection connection = null;
         try {
@@ -120,47 +133,14 @@ public class JdbcClient {
                 if (queryTimeoutSecs > 0) {
                     preparedStatement.setQueryTimeout(queryTimeoutSecs);
                 }
-                setPreparedStatementParams(preparedStatement, queryParams);
-                try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                    List<List<Column>> rows = Lists.newArrayList();
-                    while (resultSet.next()) {
-                        ResultSetMetaData metaData = resultSet.getMetaData();
-                        int columnCount = metaData.getColumnCount();
-                        List<Column> row = Lists.newArrayList();
-                        for (int i = 1; i <= columnCount; i++) {
-                            String columnLabel = metaData.getColumnLabel(i);
-                            int columnType = metaData.getColumnType(i);
-                            Class columnJavaType = Util.getJavaType(columnType);
-                            if (columnJavaType.equals(String.class)) {
-                                row.add(new Column<String>(columnLabel, resultSet.getString(columnLabel), columnType));
-                            } else if (columnJavaType.equals(Integer.class)) {
-                                row.add(new Column<Integer>(columnLabel, resultSet.getInt(columnLabel), columnType));
-                            } else if (columnJavaType.equals(Double.class)) {
-                                row.add(new Column<Double>(columnLabel, resultSet.getDouble(columnLabel), columnType));
-                            } else if (columnJavaType.equals(Float.class)) {
-                                row.add(new Column<Float>(columnLabel, resultSet.getFloat(columnLabel), columnType));
-                            } else if (columnJavaType.equals(Short.class)) {
-                                row.add(new Column<Short>(columnLabel, resultSet.getShort(columnLabel), columnType));
-                            } else if (columnJavaType.equals(Boolean.class)) {
-                                row.add(new Column<Boolean>(columnLabel, resultSet.getBoolean(columnLabel), columnType));
-                            } else if (columnJavaType.equals(byte[].class)) {
-                                row.add(new Column<byte[]>(columnLabel, resultSet.getBytes(columnLabel), columnType));
-                            } else if (columnJavaType.equals(Long.class)) {
-                                row.add(new Column<Long>(columnLabel, resultSet.getLong(columnLabel), columnType));
-                            } else if (columnJavaType.equals(Date.class)) {
-                                row.add(new Column<Date>(columnLabel, resultSet.getDate(columnLabel), columnType));
-                            } else if (columnJavaType.equals(Time.class)) {
-                                row.add(new Column<Time>(columnLabel, resultSet.getTime(columnLabel), columnType));
-                            } else if (columnJavaType.equals(Timestamp.class)) {
-                                row.add(new Column<Timestamp>(columnLabel, resultSet.getTimestamp(columnLabel), columnType));
-                            } else {
-                                throw new RuntimeException("type =  " + columnType + " for column " + columnLabel + " not supported.");
-                            }
-                        }
-                        rows.add(row);
+                List<List<List<Column>>> results = new ArrayList<>(queryParamsList.size());
+                for (List<Column> queryParams : queryParamsList) {
+                    setPreparedStatementParams(preparedStatement, queryParams);
+                    try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                        results.add(readRows(resultSet));
                     }
-                    return rows;
                 }
+                return results;
             }
         } catch (SQLException e) {
             selectException = new RuntimeException("Failed to execute select query " + sqlQuery, e);
@@ -172,6 +152,47 @@ public class JdbcClient {
         return null;
     }
 
+    private List<List<Column>> readRows(ResultSet resultSet) throws SQLException {
+        List<List<Column>> rows = Lists.newArrayList();
+        while (resultSet.next()) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            List<Column> row = Lists.newArrayList();
+            for (int i = 1; i <= columnCount; i++) {
+                String columnLabel = metaData.getColumnLabel(i);
+                int columnType = metaData.getColumnType(i);
+                Class columnJavaType = Util.getJavaType(columnType);
+                if (columnJavaType.equals(String.class)) {
+                    row.add(new Column<String>(columnLabel, resultSet.getString(columnLabel), columnType));
+                } else if (columnJavaType.equals(Integer.class)) {
+                    row.add(new Column<Integer>(columnLabel, resultSet.getInt(columnLabel), columnType));
+                } else if (columnJavaType.equals(Double.class)) {
+                    row.add(new Column<Double>(columnLabel, resultSet.getDouble(columnLabel), columnType));
+                } else if (columnJavaType.equals(Float.class)) {
+                    row.add(new Column<Float>(columnLabel, resultSet.getFloat(columnLabel), columnType));
+                } else if (columnJavaType.equals(Short.class)) {
+                    row.add(new Column<Short>(columnLabel, resultSet.getShort(columnLabel), columnType));
+                } else if (columnJavaType.equals(Boolean.class)) {
+                    row.add(new Column<Boolean>(columnLabel, resultSet.getBoolean(columnLabel), columnType));
+                } else if (columnJavaType.equals(byte[].class)) {
+                    row.add(new Column<byte[]>(columnLabel, resultSet.getBytes(columnLabel), columnType));
+                } else if (columnJavaType.equals(Long.class)) {
+                    row.add(new Column<Long>(columnLabel, resultSet.getLong(columnLabel), columnType));
+                } else if (columnJavaType.equals(Date.class)) {
+                    row.add(new Column<Date>(columnLabel, resultSet.getDate(columnLabel), columnType));
+                } else if (columnJavaType.equals(Time.class)) {
+                    row.add(new Column<Time>(columnLabel, resultSet.getTime(columnLabel), columnType));
+                } else if (columnJavaType.equals(Timestamp.class)) {
+                    row.add(new Column<Timestamp>(columnLabel, resultSet.getTimestamp(columnLabel), columnType));
+                } else {
+                    throw new RuntimeException("type =  " + columnType + " for column " + columnLabel + " not supported.");
+                }
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
     public List<Column> getColumnSchema(String tableName) {
         Exception getSchemaException = null;
         Connection connection = null;
@@ -12,22 +12,67 @@
 
 package org.apache.storm.jdbc.bolt;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
 import com.google.common.collect.Lists;
+import java.sql.Types;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.storm.Config;
+import org.apache.storm.Constants;
 import org.apache.storm.jdbc.common.Column;
 import org.apache.storm.jdbc.common.ConnectionProvider;
 import org.apache.storm.jdbc.common.HikariCPConnectionProvider;
+import org.apache.storm.jdbc.common.JdbcClient;
 import org.apache.storm.jdbc.mapper.JdbcMapper;
 import org.apache.storm.jdbc.mapper.SimpleJdbcMapper;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.tuple.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.mockito.Mockito;
 
 /**
  * Created by pbrahmbhatt on 10/29/15.
  */
 public class JdbcInsertBoltTest {
 
+    private static final String TABLE_NAME = "user_ids";
+    private final JdbcMapper mapper = tuple -> Lists.newArrayList(new Column<>("ID", tuple.getIntegerByField("id"), Types.INTEGER));
+    private final OutputCollector collector = mock(OutputCollector.class);
+    private final Map<String, Object> dataSourceConfig = new HashMap<>();
+    private ConnectionProvider connectionProvider;
+    private JdbcClient client;
+
+    @BeforeEach
+    public void setup() {
+        dataSourceConfig.put("dataSourceClassName", "org.hsqldb.jdbc.JDBCDataSource");
+        dataSourceConfig.put("dataSource.url", "jdbc:hsqldb:mem:insertbolt");
+        dataSourceConfig.put("dataSource.user", "SA");
+        dataSourceConfig.put("dataSource.password", "");
+        connectionProvider = new HikariCPConnectionProvider(dataSourceConfig);
+        connectionProvider.prepare();
+        client = new JdbcClient(connectionProvider, 60);
+        client.executeSql("create table " + TABLE_NAME + " (id integer)");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        client.executeSql("drop table " + TABLE_NAME);
+        connectionProvider.cleanup();
+    }
+
     @Test
     public void testValidation() {
         ConnectionProvider provider = new HikariCPConnectionProvider(new HashMap<>());
@@ -48,6 +93,139 @@ public class JdbcInsertBoltTest {
         });
     }
 
+    @Test
+    public void testFlushesFullBatch() {
+        JdbcInsertBolt bolt = prepare(new JdbcInsertBolt(new HikariCPConnectionProvider(dataSourceConfig), mapper).withTableName(TABLE_NAME)
+            .withBatchSize(3));
+        List<Tuple> tuples = createTuples(4);
+
+        for (Tuple tuple : tuples.subList(0, 2)) {
+            bolt.execute(tuple);
+        }
+        assertEquals(0, countRows());
+        verify(collector, never()).ack(any(Tuple.class));
+
+        bolt.execute(tuples.get(2));
+        assertEquals(3, countRows());
+        for (Tuple tuple : tuples.subList(0, 3)) {
+            verify(collector).ack(tuple);
+        }
+
+        bolt.execute(tuples.get(3));
+        verify(collector, never()).ack(tuples.get(3));
+        bolt.execute(createTickTuple());
+        assertEquals(4, countRows());
+        verify(collector).ack(tuples.get(3));
+        bolt.cleanup();
+    }
+
+    @Test
+    public void testFlushesOnMaxBatchBytes() {
+        JdbcInsertBolt bolt = prepare(new JdbcInsertBolt(new HikariCPConnectionProvider(dataSourceConfig), mapper).withTableName(TABLE_NAME)
+            .withBatchSize(100)
+            .withMaxBatchBytes(2 * Long.BYTES));
+
+        for (Tuple tuple : createTuples(2)) {
+            bolt.execute(tuple);
+        }
+        assertEquals(2, countRows());
+        verify(collector, times(2)).ack(any(Tuple.class));
+        bolt.cleanup();
+    }
+
+    @Test
+    public void testFailsWholeBatch() {
+        JdbcInsertBolt bolt = prepare(new JdbcInsertBolt(new HikariCPConnectionProvider(dataSourceConfig), mapper)
+            .withInsertQuery("insert into missing_table values (?)")
+            .withBatchSize(2));
+
+        List<Tuple> tuples = createTuples(2);
+        for (Tuple tuple : tuples) {
+            bolt.execute(tuple);
+        }
+        verify(collector).reportError(any(Exception.class));
+        for (Tuple tuple : tuples) {
+            verify(collector).fail(tuple);
+        }
+        verify(collector, never()).ack(any(Tuple.class));
+        bolt.cleanup();
+    }
+
+    @Test
+    public void testAsyncFlush() {
+        JdbcInsertBolt bolt = prepare(new JdbcInsertBolt(new HikariCPConnectionProvider(dataSourceConfig), mapper).withTableName(TABLE_NAME)
+            .withBatchSize(2)
+            .withAsyncFlush(true));
+
+        List<Tuple> tuples = createTuples(5);
+        for (Tuple tuple : tuples) {
+            bolt.execute(tuple);
+        }
+        // the second batch is acked when the third one is flushed
+        for (Tuple tuple : tuples.subList(0, 2)) {
+            verify(collector).ack(tuple);
+        }
+        bolt.execute(createTickTuple());
+        bolt.cleanup();
+
+        assertEquals(5, countRows());
+        for (Tuple tuple : tuples) {
+            verify(collector).ack(tuple);
+        }
+    }
+
+    @Test
+    public void testAcksAsyncFlushOnTickWithoutFurtherInput() throws InterruptedException {
+        JdbcInsertBolt bolt = new JdbcInsertBolt(new HikariCPConnectionProvider(dataSourceConfig), mapper).withTableName(TABLE_NAME)
+            .withAsyncFlush(true);
+        assertEquals(1, bolt.getComponentConfiguration().get(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS));
+        prepare(bolt);
+
+        Tuple tuple = createTuples(1).get(0);
+        bolt.execute(tuple);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!isAcked(tuple) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            bolt.execute(createTickTuple());
+        }
+        verify(collector).ack(tuple);
+        assertEquals(1, countRows());
+        bolt.cleanup();
+    }
+
+    private boolean isAcked(Tuple tuple) {
+        return Mockito.mockingDetails(collector).getInvocations().stream()
+            .anyMatch(invocation -> invocation.getMethod().getName().equals("ack") && invocation.getArgument(0) == tuple);
+    }
+
+    private JdbcInsertBolt prepare(JdbcInsertBolt bolt) {
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(Config.TOPOLOGY_MESSAGE_TIMEOUT_SECS, 30);
+        bolt.prepare(conf, mock(TopologyContext.class), collector);
+        return bolt;
+    }
+
+    private List<Tuple> createTuples(int count) {
+        List<Tuple> tuples = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Tuple tuple = mock(Tuple.class);
+            when(tuple.getIntegerByField("id")).thenReturn(i);
+            tuples.add(tuple);
+        }
+        return tuples;
+    }
+
+    private Tuple createTickTuple() {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.getSourceComponent()).thenReturn(Constants.SYSTEM_COMPONENT_ID);
+        when(tuple.getSourceStreamId()).thenReturn(Constants.SYSTEM_TICK_STREAM_ID);
+        return tuple;
+    }
+
+    private int countRows() {
+        return client.select("select * from " + TABLE_NAME, new ArrayList<>()).size();
+    }
+
     private void expectIllegalArgs(ConnectionProvider provider, JdbcMapper mapper) {
         assertThrows(IllegalArgumentException.class, () -> new JdbcInsertBolt(provider, mapper));
     }
@@ -36,6 +36,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.Validate;
 import org.apache.kafka.clients.consumer.Consumer;
@@ -47,14 +48,17 @@ import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.InterruptException;
 import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.errors.WakeupException;
 import org.apache.storm.kafka.spout.KafkaSpoutConfig.ProcessingGuarantee;
 import org.apache.storm.kafka.spout.internal.CommitMetadataManager;
 import org.apache.storm.kafka.spout.internal.ConsumerFactory;
 import org.apache.storm.kafka.spout.internal.ConsumerFactoryDefault;
 import org.apache.storm.kafka.spout.internal.OffsetManager;
+import org.apache.storm.kafka.spout.internal.PrefetchingPoller;
 import org.apache.storm.kafka.spout.internal.Timer;
 import org.apache.storm.kafka.spout.metrics.KafkaOffsetMetric;
 import org.apache.storm.kafka.spout.subscription.TopicAssigner;
+import org.apache.storm.metric.api.IMetric;
 import org.apache.storm.spout.SpoutOutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
@@ -104,6 +108,12 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
     private transient CommitMetadataManager commitMetadataManager;
     private transient KafkaOffsetMetric<K, V> kafkaOffsetMetric;
     private transient KafkaSpoutConsumerRebalanceListener rebalanceListener;
+    // poller == null unless prefetching is enabled. The poller thread polls the consumer, and the spout thread uses it through the poller
+    private transient PrefetchingPoller<K, V> poller;
+    // The poll requested to the poller
+    private transient PollablePartitionsInfo prefetchInfo;
+    // The partitions assigned to the consumer, which the spout thread reads without using the consumer while prefetching
+    private transient Set<TopicPartition> assignedPartitions;
 
     public KafkaSpout(KafkaSpoutConfig<K, V> kafkaSpoutConfig) {
         this(kafkaSpoutConfig, new ConsumerFactoryDefault<>(), new TopicAssigner());
@@ -140,11 +150,17 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
         offsetManagers = new HashMap<>();
         emitted = new HashSet<>();
         waitingToEmit = new HashMap<>();
+        assignedPartitions = new HashSet<>();
         commitMetadataManager = new CommitMetadataManager(context, kafkaSpoutConfig.getProcessingGuarantee());
 
         rebalanceListener = new KafkaSpoutConsumerRebalanceListener();
 
         consumer = kafkaConsumerFactory.createConsumer(kafkaSpoutConfig.getKafkaProps());
+        if (kafkaSpoutConfig.isPrefetchEnabled()) {
+            poller = new PrefetchingPoller<>(consumer,
+                "kafka-spout-poller-" + context.getThisComponentId() + "-" + context.getThisTaskId());
+            poller.start();
+        }
 
         tupleListener.open(conf, context);
         if (canRegisterMetrics()) {
@@ -157,7 +173,8 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
     private void registerMetric() {
         LOG.info("Registering Spout Metrics");
         kafkaOffsetMetric = new KafkaOffsetMetric<>(() -> Collections.unmodifiableMap(offsetManagers), () -> consumer);
-        context.registerMetric("kafkaOffset", kafkaOffsetMetric, kafkaSpoutConfig.getMetricsTimeBucketSizeInSecs());
+        IMetric metric = poller == null ? kafkaOffsetMetric : () -> callOnConsumer(kafkaOffsetMetric::getValueAndReset);
+        context.registerMetric("kafkaOffset", metric, kafkaSpoutConfig.getMetricsTimeBucketSizeInSecs());
     }
 
     private boolean canRegisterMetrics() {
@@ -196,6 +213,7 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
             LOG.info("Partitions reassignment. [task-ID={}, consumer-group={}, consumer={}, topic-partitions={}]",
                 context.getThisTaskId(), kafkaSpoutConfig.getConsumerGroupId(), consumer, partitions);
 
+            assignedPartitions = new HashSet<>(partitions);
             initialize(partitions);
             tupleListener.onPartitionsReassigned(partitions);
         }
@@ -274,27 +292,26 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
     public void nextTuple() {
         try {
             if (refreshAssignmentTimer.isExpiredResetOnTrue()) {
-                refreshAssignment();
+                runOnConsumer(this::refreshAssignment);
             }
 
             if (commitTimer != null && commitTimer.isExpiredResetOnTrue()) {
-                if (isAtLeastOnceProcessing()) {
-                    commitOffsetsForAckedTuples();
-                } else if (kafkaSpoutConfig.getProcessingGuarantee() == ProcessingGuarantee.NO_GUARANTEE) {
-                    Map<TopicPartition, OffsetAndMetadata> offsetsToCommit =
-                        createFetchedOffsetsMetadata(consumer.assignment());
-                    consumer.commitAsync(offsetsToCommit, null);
-                    LOG.debug("Committed offsets {} to Kafka", offsetsToCommit);
-                }
+                runOnConsumer(this::commitOffsetsOnTimer);
             }
 
-            PollablePartitionsInfo pollablePartitionsInfo = getPollablePartitionsInfo();
-            if (pollablePartitionsInfo.shouldPoll()) {
-                try {
-                    setWaitingToEmit(pollKafkaBroker(pollablePartitionsInfo));
-                } catch (RetriableException e) {
-                    LOG.error("Failed to poll from kafka.", e);
+            if (poller == null) {
+                PollablePartitionsInfo pollablePartitionsInfo = getPollablePartitionsInfo();
+                if (pollablePartitionsInfo.shouldPoll()) {
+                    try {
+                        ConsumerRecords<K, V> consumerRecords = pollKafkaBroker(pollablePartitionsInfo);
+                        ackRetriableOffsetsIfCompactedAway(pollablePartitionsInfo.pollableEarliestRetriableOffsets, consumerRecords);
+                        setWaitingToEmit(consumerRecords);
+                    } catch (RetriableException e) {
+                        LOG.error("Failed to poll from kafka.", e);
+                    }
                 }
+            } else {
+                prefetch();
             }
 
             emitIfWaitingNotEmitted();
@@ -303,6 +320,38 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
         }
     }
 
+    private void commitOffsetsOnTimer() {
+        if (isAtLeastOnceProcessing()) {
+            commitOffsetsForAckedTuples();
+        } else if (kafkaSpoutConfig.getProcessingGuarantee() == ProcessingGuarantee.NO_GUARANTEE) {
+            Map<TopicPartition, OffsetAndMetadata> offsetsToCommit =
+                createFetchedOffsetsMetadata(consumer.assignment());
+            consumer.commitAsync(offsetsToCommit, null);
+            LOG.debug("Committed offsets {} to Kafka", offsetsToCommit);
+        }
+    }
+
+    /**
+     * Runs an action using the consumer. While prefetching, the poll in progress is woken up, and the records already polled are added to
+     * the records waiting to be emitted first, so that the action, e.g. a commit or an assignment change, applies to them too.
+     */
+    private void runOnConsumer(Runnable action) {
+        callOnConsumer(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T callOnConsumer(Supplier<T> action) {
+        if (poller == null) {
+            return action.get();
+        }
+        return poller.runExclusively(() -> {
+            addPrefetchedRecords();
+            return action.get();
+        });
+    }
+
     private void throwKafkaConsumerInterruptedException() {
         //Kafka throws their own type of exception when interrupted.
         //Throw a new Java InterruptedException to ensure Storm can recognize the exception as a reaction to an interrupt.
@@ -310,17 +359,22 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
     }
 
     private PollablePartitionsInfo getPollablePartitionsInfo() {
-        if (isWaitingToEmit()) {
+        if (poller == null && isWaitingToEmit()) {
             LOG.debug("Not polling. Tuples waiting to be emitted.");
             return new PollablePartitionsInfo(Collections.emptySet(), Collections.emptyMap());
         }
 
-        Set<TopicPartition> assignment = consumer.assignment();
+        Set<TopicPartition> assignment = poller == null ? consumer.assignment() : assignedPartitions;
         if (!isAtLeastOnceProcessing()) {
             return new PollablePartitionsInfo(assignment, Collections.emptyMap());
         }
 
         Map<TopicPartition, Long> earliestRetriableOffsets = retryService.earliestRetriableOffsets();
+        if (poller != null) {
+            //Don't seek to the retriable offsets of partitions with records waiting to be emitted, which may be the records to retry
+            earliestRetriableOffsets = new HashMap<>(earliestRetriableOffsets);
+            earliestRetriableOffsets.keySet().removeIf(tp -> !waitingToEmit.getOrDefault(tp, Collections.emptyList()).isEmpty());
+        }
         Set<TopicPartition> pollablePartitions = new HashSet<>();
         final int maxUncommittedOffsets = kafkaSpoutConfig.getMaxUncommittedOffsets();
         for (TopicPartition tp : assignment) {
@@ -355,6 +409,30 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
         }
     }
 
+    // ======== prefetch =========
+    private void prefetch() {
+        if (!isWaitingToEmit()) {
+            addPrefetchedRecords();
+        }
+        if (poller.isIdle()) {
+            PollablePartitionsInfo pollablePartitionsInfo = getPollablePartitionsInfo();
+            if (pollablePartitionsInfo.shouldPoll()) {
+                prefetchInfo = pollablePartitionsInfo;
+                poller.prefetch(polledConsumer -> pollKafkaBroker(pollablePartitionsInfo));
+            }
+        }
+    }
+
+    private void addPrefetchedRecords() {
+        ConsumerRecords<K, V> consumerRecords = poller.takeRecords();
+        if (consumerRecords != null) {
+            ackRetriableOffsetsIfCompactedAway(prefetchInfo.pollableEarliestRetriableOffsets, consumerRecords);
+            for (TopicPartition tp : consumerRecords.partitions()) {
+                waitingToEmit.computeIfAbsent(tp, k -> new LinkedList<>()).addAll(consumerRecords.records(tp));
+            }
+        }
+    }
+
     // ======== poll =========
     private ConsumerRecords<K, V> pollKafkaBroker(PollablePartitionsInfo pollablePartitionsInfo) {
         doSeekRetriableTopicPartitions(pollablePartitionsInfo.pollableEarliestRetriableOffsets);
@@ -363,7 +441,6 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
         try {
             consumer.pause(pausedPartitions);
             final ConsumerRecords<K, V> consumerRecords = consumer.poll(kafkaSpoutConfig.getPollTimeoutMs());
-            ackRetriableOffsetsIfCompactedAway(pollablePartitionsInfo.pollableEarliestRetriableOffsets, consumerRecords);
             final int numPolledRecords = consumerRecords.count();
             LOG.debug("Polled [{}] records from Kafka",
                 numPolledRecords);
@@ -371,7 +448,12 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
                 //Commit polled records immediately to ensure delivery is at-most-once.
                 Map<TopicPartition, OffsetAndMetadata> offsetsToCommit =
                     createFetchedOffsetsMetadata(consumer.assignment());
-                consumer.commitSync(offsetsToCommit);
+                try {
+                    consumer.commitSync(offsetsToCommit);
+                } catch (WakeupException e) {
+                    //The prefetching poller was woken up after polling. Commit anyway, the polled records would be lost otherwise
+                    consumer.commitSync(offsetsToCommit);
+                }
                 LOG.debug("Committed offsets {} to Kafka", offsetsToCommit);
             }
             return consumerRecords;
@@ -620,7 +702,7 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
     @Override
     public void activate() {
         try {
-            refreshAssignment();
+            runOnConsumer(this::refreshAssignment);
         } catch (InterruptException e) {
             throwKafkaConsumerInterruptedException();
         }
@@ -638,7 +720,7 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
     @Override
     public void deactivate() {
         try {
-            commitIfNecessary();
+            runOnConsumer(this::commitIfNecessary);
         } catch (InterruptException e) {
             throwKafkaConsumerInterruptedException();
         }
@@ -661,10 +743,16 @@ public class KafkaSpout<K, V> extends BaseRichSpout {
 
     private void shutdown() {
         try {
-            commitIfNecessary();
+            runOnConsumer(this::commitIfNecessary);
         } finally {
             //remove resources
-            consumer.close();
+            try {
+                if (poller != null) {
+                    poller.close();
+                }
+            } finally {
+                consumer.close();
+            }
         }
     }
 
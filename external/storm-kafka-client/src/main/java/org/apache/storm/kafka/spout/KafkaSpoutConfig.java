@@ -66,6 +66,7 @@ public class KafkaSpoutConfig<K, V> extends CommonKafkaSpoutConfig<K, V> {
     private final ProcessingGuarantee processingGuarantee;
     private final boolean tupleTrackingEnforced;
     private final int metricsTimeBucketSizeInSecs;
+    private final boolean prefetchEnabled;
 
     /**
      * Creates a new KafkaSpoutConfig using a Builder.
@@ -82,6 +83,7 @@ public class KafkaSpoutConfig<K, V> extends CommonKafkaSpoutConfig<K, V> {
         this.processingGuarantee = builder.processingGuarantee;
         this.tupleTrackingEnforced = builder.tupleTrackingEnforced;
         this.metricsTimeBucketSizeInSecs = builder.metricsTimeBucketSizeInSecs;
+        this.prefetchEnabled = builder.prefetchEnabled;
     }
 
     /**
@@ -122,6 +124,7 @@ public class KafkaSpoutConfig<K, V> extends CommonKafkaSpoutConfig<K, V> {
         private ProcessingGuarantee processingGuarantee = DEFAULT_PROCESSING_GUARANTEE;
         private boolean tupleTrackingEnforced = false;
         private int metricsTimeBucketSizeInSecs = DEFAULT_METRICS_TIME_BUCKET_SIZE_SECONDS;
+        private boolean prefetchEnabled = false;
 
         public Builder(String bootstrapServers, String... topics) {
             super(bootstrapServers, topics);
@@ -217,6 +220,20 @@ public class KafkaSpoutConfig<K, V> extends CommonKafkaSpoutConfig<K, V> {
             return this;
         }
 
+        /**
+         * Specifies whether the spout should poll Kafka on a dedicated thread. When enabled, the next poll runs while the spout emits the
+         * records of the previous poll, so that the spout does not wait for the broker between polls. The spout thread still seeks to the
+         * offsets to retry, pauses the partitions which have reached {@link #setMaxUncommittedOffsets(int)}, and commits the offsets,
+         * waking up the poll in progress to use the consumer. At most one poll is prefetched, so the uncommitted offsets may exceed the
+         * limit by up to one more poll. This setting is false by default.
+         *
+         * @param prefetchEnabled true if the spout should prefetch records on a dedicated thread, false otherwise
+         */
+        public Builder<K, V> setPrefetchEnabled(boolean prefetchEnabled) {
+            this.prefetchEnabled = prefetchEnabled;
+            return this;
+        }
+
         /**
          * Specifies which processing guarantee the spout should offer. Refer to the documentation for {@link ProcessingGuarantee}.
          *
@@ -368,6 +385,10 @@ public class KafkaSpoutConfig<K, V> extends CommonKafkaSpoutConfig<K, V> {
         return metricsTimeBucketSizeInSecs;
     }
 
+    public boolean isPrefetchEnabled() {
+        return prefetchEnabled;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
@@ -379,6 +400,7 @@ public class KafkaSpoutConfig<K, V> extends CommonKafkaSpoutConfig<K, V> {
             .append("emitNullTuples", emitNullTuples)
             .append("tupleTrackingEnforced", tupleTrackingEnforced)
             .append("metricsTimeBucketSizeInSecs", metricsTimeBucketSizeInSecs)
+            .append("prefetchEnabled", prefetchEnabled)
             .toString();
     }
 }
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.storm.kafka.spout.internal;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * A sorted set of non negative offsets, stored as bitmaps of {@link #BLOCK_SIZE} consecutive offsets keyed by the base offset of the
+ * block. The offsets of a partition in flight are mostly consecutive, so a set takes about one bit per offset, and the blocks with no
+ * offsets, e.g. in the gaps of a compacted topic, are not stored. Adding, removing and looking up an offset in the last used block is
+ * O(1). This class is not thread safe.
+ */
+final class OffsetBitSet {
+    static final int BLOCK_SIZE = 4096;
+    private static final int WORDS_PER_BLOCK = BLOCK_SIZE / Long.SIZE;
+
+    private final TreeMap<Long, long[]> blocks = new TreeMap<>();
+    private long lastBase = -1;
+    private long[] lastBlock;
+    private int size;
+
+    private static long baseOf(long offset) {
+        return offset - (offset % BLOCK_SIZE);
+    }
+
+    private long[] getBlock(long base, boolean create) {
+        if (base == lastBase) {
+            return lastBlock;
+        }
+        long[] block = blocks.get(base);
+        if (block == null) {
+            if (!create) {
+                return null;
+            }
+            block = new long[WORDS_PER_BLOCK];
+            blocks.put(base, block);
+        }
+        lastBase = base;
+        lastBlock = block;
+        return block;
+    }
+
+    /**
+     * Adds an offset.
+     *
+     * @return true if the offset was not in the set
+     */
+    boolean add(long offset) {
+        long base = baseOf(offset);
+        long[] block = getBlock(base, true);
+        int index = (int) (offset - base);
+        long bit = 1L << index;
+        if ((block[index >>> 6] & bit) != 0) {
+            return false;
+        }
+        block[index >>> 6] |= bit;
+        size++;
+        return true;
+    }
+
+    boolean contains(long offset) {
+        long base = baseOf(offset);
+        long[] block = getBlock(base, false);
+        if (block == null) {
+            return false;
+        }
+        int index = (int) (offset - base);
+        return (block[index >>> 6] & (1L << index)) != 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes the offsets lower than an offset.
+     *
+     * @param offset the lowest offset to keep
+     * @return the number of removed offsets
+     */
+    int removeBelow(long offset) {
+        int removed = 0;
+        long base = baseOf(offset);
+        for (Iterator<Map.Entry<Long, long[]>> iter = blocks.headMap(base, true).entrySet().iterator(); iter.hasNext(); ) {
+            Map.Entry<Long, long[]> entry = iter.next();
+            long[] block = entry.getValue();
+            int words = entry.getKey() < base ? WORDS_PER_BLOCK : (int) (offset - base) >>> 6;
+            for (int i = 0; i < words; i++) {
+                removed += Long.bitCount(block[i]);
+                block[i] = 0;
+            }
+            if (words < WORDS_PER_BLOCK) {
+                long mask = (1L << (offset - base)) - 1;
+                removed += Long.bitCount(block[words] & mask);
+                block[words] &= ~mask;
+            }
+            if (isEmptyBlock(block)) {
+                iter.remove();
+                if (entry.getKey() == lastBase) {
+                    lastBase = -1;
+                    lastBlock = null;
+                }
+            }
+        }
+        size -= removed;
+        return removed;
+    }
+
+    private static boolean isEmptyBlock(long[] block) {
+        for (long word : block) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the lowest offset in the set greater than or equal to an offset, or -1 if there is none.
+     */
+    long ceiling(long offset) {
+        long base = baseOf(offset);
+        for (Map.Entry<Long, long[]> entry : blocks.tailMap(base, true).entrySet()) {
+            long[] block = entry.getValue();
+            int index = entry.getKey() == base ? (int) (offset - base) : 0;
+            for (int i = index >>> 6; i < WORDS_PER_BLOCK; i++) {
+                long word = block[i];
+                if (i == index >>> 6) {
+                    word &= -1L << index;
+                }
+                if (word != 0) {
+                    return entry.getKey() + i * Long.SIZE + Long.numberOfTrailingZeros(word);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the lowest offset not in the set greater than or equal to an offset, i.e. the end of the run of consecutive offsets starting
+     * at the offset.
+     */
+    long ceilingMissing(long offset) {
+        long current = offset;
+        while (true) {
+            long base = baseOf(current);
+            long[] block = getBlock(base, false);
+            if (block == null) {
+                return current;
+            }
+            int index = (int) (current - base);
+            for (int i = index >>> 6; i < WORDS_PER_BLOCK; i++) {
+                long word = ~block[i];
+                if (i == index >>> 6) {
+                    word &= -1L << index;
+                }
+                if (word != 0) {
+                    return base + i * Long.SIZE + Long.numberOfTrailingZeros(word);
+                }
+            }
+            current = base + BLOCK_SIZE;
+        }
+    }
+
+    /**
+     * Returns the lowest offset in the set.
+     *
+     * @throws NoSuchElementException if the set is empty
+     */
+    long first() {
+        if (blocks.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return ceiling(blocks.firstKey());
+    }
+
+    /**
+     * Returns the nth lowest offset in the set, starting at 1.
+     *
+     * @throws NoSuchElementException if the set has less offsets
+     */
+    long nth(int n) {
+        if (n < 1 || n > size) {
+            throw new NoSuchElementException("The set has " + size + " offsets, the offset " + n + " was requested");
+        }
+        int remaining = n;
+        for (Map.Entry<Long, long[]> entry : blocks.entrySet()) {
+            long[] block = entry.getValue();
+            for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+                long word = block[i];
+                int count = Long.bitCount(word);
+                if (remaining > count) {
+                    remaining -= count;
+                    continue;
+                }
+                for (int j = 1; j < remaining; j++) {
+                    word &= word - 1;
+                }
+                return entry.getKey() + i * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+        }
+        throw new NoSuchElementException();
+    }
+
+    /**
+     * Returns the offsets as ranges of consecutive offsets, e.g. [0-5, 8, 10-12].
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        long start = blocks.isEmpty() ? -1 : first();
+        while (start >= 0) {
+            long end = ceilingMissing(start) - 1;
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(start);
+            if (end > start) {
+                sb.append('-').append(end);
+            }
+            start = ceiling(end + 1);
+        }
+        return sb.append(']').toString();
+    }
+}
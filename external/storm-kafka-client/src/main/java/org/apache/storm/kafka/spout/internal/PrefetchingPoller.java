@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.storm.kafka.spout.internal;
+
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls a consumer on a dedicated thread, so that the spout thread emits the records of a poll while the next poll is in progress. The
+ * spout thread requests a poll with {@link #prefetch(Function)} and takes the polled records with {@link #takeRecords()}. At most one
+ * poll is requested or holds records not taken yet, which bounds the prefetched records to one poll.
+ *
+ * <p>The consumer is not thread safe, so the spout thread uses the consumer for anything else than the polls, like commits and
+ * assignment changes, through {@link #runExclusively(Supplier)}. It wakes up the poll in progress, if any, and runs on the spout thread
+ * once the poller thread does not use the consumer. A poll which is woken up returns no records, and the request is dropped.
+ */
+public class PrefetchingPoller<K, V> implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrefetchingPoller.class);
+    private final Consumer<K, V> consumer;
+    private final Thread thread;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private Function<Consumer<K, V>, ConsumerRecords<K, V>> pollTask;
+    private ConsumerRecords<K, V> records;
+    private RuntimeException failure;
+    private boolean polling;
+    private boolean wakeupRequested;
+    private boolean exclusive;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a poller for the consumer. The poller thread starts with {@link #start()}.
+     *
+     * @param consumer the consumer to poll
+     * @param threadName the name of the poller thread
+     */
+    public PrefetchingPoller(Consumer<K, V> consumer, String threadName) {
+        this.consumer = consumer;
+        this.thread = new Thread(this::run, threadName);
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Returns true if no poll is requested or in progress and no polled records are waiting to be taken, i.e. if another poll can be
+     * requested.
+     */
+    public boolean isIdle() {
+        lock.lock();
+        try {
+            return pollTask == null && !polling && records == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Requests a poll, which runs on the poller thread.
+     *
+     * @param task the poll, which may seek, pause and resume partitions before polling the consumer
+     */
+    public void prefetch(Function<Consumer<K, V>, ConsumerRecords<K, V>> task) {
+        lock.lock();
+        try {
+            pollTask = task;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the records of the last poll.
+     *
+     * @return the polled records, or null if the requested poll is not complete
+     * @throws RuntimeException if the poll failed with a non retriable exception
+     */
+    public ConsumerRecords<K, V> takeRecords() {
+        lock.lock();
+        try {
+            if (failure != null) {
+                RuntimeException e = failure;
+                failure = null;
+                throw e;
+            }
+            ConsumerRecords<K, V> taken = records;
+            records = null;
+            return taken;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an action using the consumer on the calling thread, while the poller thread does not use the consumer. The poll in progress is
+     * woken up, and the requested poll not started yet is dropped. The records polled before are kept.
+     *
+     * @param action the action
+     * @return the result of the action
+     */
+    public <T> T runExclusively(Supplier<T> action) {
+        lock.lock();
+        try {
+            exclusive = true;
+            pollTask = null;
+            wakeUpPoll();
+            while (polling) {
+                changed.await();
+            }
+            return action.get();
+        } catch (InterruptedException e) {
+            throw new InterruptException(e);
+        } finally {
+            exclusive = false;
+            changed.signalAll();
+            lock.unlock();
+        }
+    }
+
+    private void wakeUpPoll() {
+        if (polling && !wakeupRequested) {
+            wakeupRequested = true;
+            consumer.wakeup();
+        }
+    }
+
+    private void run() {
+        lock.lock();
+        try {
+            while (running) {
+                if (pollTask == null || records != null || exclusive) {
+                    changed.await();
+                    continue;
+                }
+                Function<Consumer<K, V>, ConsumerRecords<K, V>> task = pollTask;
+                pollTask = null;
+                polling = true;
+                wakeupRequested = false;
+                lock.unlock();
+                ConsumerRecords<K, V> polled = null;
+                RuntimeException pollFailure = null;
+                boolean wokenUp = false;
+                try {
+                    polled = task.apply(consumer);
+                } catch (WakeupException e) {
+                    LOG.debug("Poll woken up to use the consumer on the spout thread");
+                    wokenUp = true;
+                } catch (RetriableException e) {
+                    LOG.error("Failed to poll from kafka.", e);
+                } catch (RuntimeException e) {
+                    pollFailure = e;
+                } finally {
+                    lock.lock();
+                }
+                if (wakeupRequested && !wokenUp) {
+                    pollFailure = clearWakeup(pollFailure);
+                }
+                polling = false;
+                if (running) {
+                    records = polled;
+                    failure = pollFailure;
+                } else if (pollFailure != null) {
+                    LOG.debug("Poll failed while closing the poller", pollFailure);
+                }
+                changed.signalAll();
+            }
+        } catch (InterruptedException e) {
+            LOG.debug("Poller thread interrupted", e);
+        } finally {
+            polling = false;
+            changed.signalAll();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The poll completed before the consumer was woken up, so the wake up is pending and would interrupt the next blocking call on the
+     * spout thread. Consumes it with a poll returning no records, since all the partitions are paused.
+     */
+    private RuntimeException clearWakeup(RuntimeException pollFailure) {
+        Set<TopicPartition> assignment = consumer.assignment();
+        if (assignment.isEmpty()) {
+            return pollFailure;
+        }
+        consumer.pause(assignment);
+        try {
+            consumer.poll(0);
+        } catch (WakeupException e) {
+            LOG.trace("Cleared the pending wake up of the consumer");
+        } catch (RuntimeException e) {
+            return pollFailure == null ? e : pollFailure;
+        } finally {
+            consumer.resume(assignment);
+        }
+        return pollFailure;
+    }
+
+    /**
+     * Stops the poller thread, waking up the poll in progress. The consumer is not closed.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            running = false;
+            pollTask = null;
+            wakeUpPoll();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            throw new InterruptException(e);
+        }
+    }
+}
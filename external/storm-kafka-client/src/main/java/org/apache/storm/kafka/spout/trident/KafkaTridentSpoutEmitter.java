@@ -183,8 +183,12 @@ public class KafkaTridentSpoutEmitter<K, V> implements Serializable {
 
             seek(currBatchTp, lastBatchMeta);
 
-            final List<ConsumerRecord<K, V>> records = consumer.poll(pollTimeoutMs).records(currBatchTp);
+            List<ConsumerRecord<K, V>> records = consumer.poll(pollTimeoutMs).records(currBatchTp);
             LOG.debug("Polled [{}] records from Kafka.", records.size());
+            if (tx.getBatchSizeHint() != null && records.size() > tx.getBatchSizeHint()) {
+                // the next batch seeks past the last emitted record, so the remaining records are fetched again
+                records = records.subList(0, tx.getBatchSizeHint());
+            }
 
             if (!records.isEmpty()) {
                 for (ConsumerRecord<K, V> record : records) {
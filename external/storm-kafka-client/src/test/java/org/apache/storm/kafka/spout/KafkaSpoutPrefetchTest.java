@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.storm.kafka.spout;
+
+import static org.apache.storm.kafka.spout.config.builder.SingleTopicKafkaSpoutConfiguration.createKafkaSpoutConfigBuilder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.storm.kafka.spout.config.builder.SingleTopicKafkaSpoutConfiguration;
+import org.apache.storm.kafka.spout.subscription.ManualPartitioner;
+import org.apache.storm.kafka.spout.subscription.TopicFilter;
+import org.apache.storm.spout.SpoutOutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.utils.Time;
+import org.apache.storm.utils.Time.SimulatedTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+public class KafkaSpoutPrefetchTest {
+
+    private final long offsetCommitPeriodMs = 2_000;
+    private final TopologyContext contextMock = mock(TopologyContext.class);
+    private final SpoutOutputCollector collectorMock = mock(SpoutOutputCollector.class);
+    private final Map<String, Object> conf = new HashMap<>();
+    private final TopicPartition partition = new TopicPartition(SingleTopicKafkaSpoutConfiguration.TOPIC, 1);
+    private final Set<Thread> pollingThreads = ConcurrentHashMap.newKeySet();
+    private final List<KafkaSpoutMessageId> emittedMessageIds = Collections.synchronizedList(new ArrayList<>());
+    private KafkaConsumer<String, String> consumerMock;
+    private KafkaSpoutConfig<String, String> spoutConfig;
+
+    @BeforeEach
+    public void setUp() {
+        spoutConfig = createKafkaSpoutConfigBuilder(mock(TopicFilter.class), mock(ManualPartitioner.class), -1)
+            .setOffsetCommitPeriodMs(offsetCommitPeriodMs)
+            .setPrefetchEnabled(true)
+            .build();
+        consumerMock = mock(KafkaConsumer.class);
+        ConsumerRecords<String, String> records = new ConsumerRecords<>(
+            Collections.singletonMap(partition, SpoutWithMockedConsumerSetupHelper.createRecords(partition, 0, 10)));
+        when(consumerMock.poll(anyLong()))
+            .thenAnswer(invocation -> {
+                pollingThreads.add(Thread.currentThread());
+                return records;
+            })
+            .thenAnswer(invocation -> {
+                pollingThreads.add(Thread.currentThread());
+                return ConsumerRecords.empty();
+            });
+        doAnswer(invocation -> {
+            emittedMessageIds.add(invocation.getArgument(2));
+            return null;
+        }).when(collectorMock).emit(anyString(), anyList(), any(KafkaSpoutMessageId.class));
+    }
+
+    private void emitUntil(KafkaSpout<String, String> spout, int numEmits) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (emittedMessageIds.size() < numEmits && System.nanoTime() < deadline) {
+            spout.nextTuple();
+            Thread.sleep(1);
+        }
+        assertEquals(numEmits, emittedMessageIds.size());
+    }
+
+    @Test
+    public void testPollsOnPollerThread() throws Exception {
+        KafkaSpout<String, String> spout = SpoutWithMockedConsumerSetupHelper.setupSpout(spoutConfig, conf, contextMock, collectorMock,
+            consumerMock, partition);
+        try {
+            emitUntil(spout, 10);
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, emittedMessageIds.get(i).offset());
+            }
+            assertEquals(1, pollingThreads.size());
+            assertNotSame(Thread.currentThread(), pollingThreads.iterator().next());
+        } finally {
+            spout.close();
+        }
+    }
+
+    @Test
+    public void testCommitsOnSpoutThreadWhilePrefetching() throws Exception {
+        try (SimulatedTime simulatedTime = new SimulatedTime()) {
+            Thread spoutThread = Thread.currentThread();
+            List<Thread> committingThreads = Collections.synchronizedList(new ArrayList<>());
+            doAnswer(invocation -> {
+                committingThreads.add(Thread.currentThread());
+                return null;
+            }).when(consumerMock).commitSync(anyMap());
+            KafkaSpout<String, String> spout = SpoutWithMockedConsumerSetupHelper.setupSpout(spoutConfig, conf, contextMock,
+                collectorMock, consumerMock, partition);
+            try {
+                emitUntil(spout, 10);
+                for (KafkaSpoutMessageId messageId : new ArrayList<>(emittedMessageIds)) {
+                    spout.ack(messageId);
+                }
+
+                Time.advanceTime(KafkaSpout.TIMER_DELAY_MS + offsetCommitPeriodMs);
+                spout.nextTuple();
+
+                ArgumentCaptor<Map<TopicPartition, OffsetAndMetadata>> commitCapture = ArgumentCaptor.forClass(Map.class);
+                verify(consumerMock).commitSync(commitCapture.capture());
+                assertEquals(10, commitCapture.getValue().get(partition).offset());
+                assertEquals(Collections.singletonList(spoutThread), committingThreads);
+            } finally {
+                spout.close();
+            }
+        }
+    }
+}
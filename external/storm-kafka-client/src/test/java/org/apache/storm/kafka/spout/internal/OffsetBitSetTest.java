@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ *   or more contributor license agreements.  See the NOTICE file
+ *   distributed with this work for additional information
+ *   regarding copyright ownership.  The ASF licenses this file
+ *   to you under the Apache License, Version 2.0 (the
+ *   "License"); you may not use this file except in compliance
+ *   with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+
+package org.apache.storm.kafka.spout.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+public class OffsetBitSetTest {
+
+    @Test
+    public void testRangesAcrossBlocks() {
+        OffsetBitSet set = new OffsetBitSet();
+        long start = OffsetBitSet.BLOCK_SIZE - 10;
+        for (long offset = start; offset < start + 100; offset++) {
+            assertTrue(set.add(offset));
+        }
+        assertFalse(set.add(start));
+        set.add(start + 200);
+
+        assertEquals(101, set.size());
+        assertEquals(start, set.first());
+        assertEquals(start + 100, set.ceilingMissing(start));
+        assertEquals(start + 200, set.ceiling(start + 100));
+        assertEquals(-1, set.ceiling(start + 201));
+        assertEquals(start + 5, set.nth(6));
+        assertThrows(NoSuchElementException.class, () -> set.nth(102));
+        assertEquals("[" + start + "-" + (start + 99) + ", " + (start + 200) + "]", set.toString());
+
+        assertEquals(50, set.removeBelow(start + 50));
+        assertEquals(51, set.size());
+        assertFalse(set.contains(start + 49));
+        assertTrue(set.contains(start + 50));
+        assertEquals(start + 50, set.first());
+    }
+
+    @Test
+    public void testMatchesTreeSet() {
+        Random random = new Random(7);
+        OffsetBitSet set = new OffsetBitSet();
+        TreeSet<Long> expected = new TreeSet<>();
+        long low = 0;
+        for (int i = 0; i < 20_000; i++) {
+            int op = random.nextInt(100);
+            if (op < 80) {
+                // mostly increasing offsets with gaps, like the emitted offsets of a compacted topic
+                long offset = low + random.nextInt(op < 5 ? 100_000 : 10_000);
+                assertEquals(expected.add(offset), set.add(offset));
+            } else if (op < 85) {
+                low += random.nextInt(5_000);
+                int removed = 0;
+                for (Iterator<Long> iter = expected.iterator(); iter.hasNext() && iter.next() < low; ) {
+                    iter.remove();
+                    removed++;
+                }
+                assertEquals(removed, set.removeBelow(low));
+            } else {
+                long offset = low + random.nextInt(20_000);
+                assertEquals(expected.contains(offset), set.contains(offset));
+                Long ceiling = expected.ceiling(offset);
+                assertEquals(ceiling == null ? -1 : ceiling, set.ceiling(offset));
+                long missing = offset;
+                while (expected.contains(missing)) {
+                    missing++;
+                }
+                assertEquals(missing, set.ceilingMissing(offset));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        int n = 1;
+        for (long offset : expected) {
+            assertEquals(offset, set.nth(n++));
+        }
+    }
+}
@@ -18,25 +18,44 @@
 
 package org.apache.storm.mongodb.bolt;
 
+import com.mongodb.client.model.Filters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.commons.lang.Validate;
+import org.apache.storm.lookup.AsyncLookupHelper;
+import org.apache.storm.lookup.LookupOptions;
 import org.apache.storm.mongodb.common.QueryFilterCreator;
+import org.apache.storm.mongodb.common.SimpleQueryFilterCreator;
 import org.apache.storm.mongodb.common.mapper.MongoLookupMapper;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
 import org.apache.storm.utils.TupleUtils;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
 import org.bson.Document;
-import org.bson.conversions.Bson;
 
 /**
  * Basic bolt for querying from MongoDB.
  * Note: Each MongoLookupBolt defined in a topology is tied to a specific collection.
+ *
+ * <p>The lookups can be made asynchronous, batched and cached with {@link #withLookupOptions(LookupOptions)}. The identical query
+ * filters are looked up once. With a {@link SimpleQueryFilterCreator}, the filters of a batch are looked up with a single {@code $in}
+ * query on the field, and the found documents are matched to the filters by the BSON value of the field, so the values of the tuples and
+ * of the documents must have the same BSON type. The value of a dotted field is read through the embedded documents, and an array matches
+ * the filters of its elements, as in the queries. The other filters of a batch are looked up one by one.
  */
 public class MongoLookupBolt extends AbstractMongoBolt {
 
     private QueryFilterCreator queryCreator;
     private MongoLookupMapper mapper;
+    private LookupOptions lookupOptions = new LookupOptions();
+    private transient AsyncLookupHelper<BsonDocument, Document> lookupHelper;
 
     /**
      * MongoLookupBolt Constructor.
@@ -55,26 +74,99 @@ public class MongoLookupBolt extends AbstractMongoBolt {
         this.mapper = mapper;
     }
 
+    /**
+     * Sets the options of the lookups, to make them asynchronous, batched or cached.
+     * @param lookupOptions the lookup options
+     * @return this
+     */
+    public MongoLookupBolt withLookupOptions(LookupOptions lookupOptions) {
+        this.lookupOptions = lookupOptions;
+        return this;
+    }
+
+    @Override
+    public void prepare(Map<String, Object> topoConf, TopologyContext context, OutputCollector collector) {
+        super.prepare(topoConf, context, collector);
+        this.lookupHelper = new AsyncLookupHelper<>(lookupOptions, this::findDocuments, this::emitValues, context, collector);
+    }
+
     @Override
     public void execute(Tuple tuple) {
         if (TupleUtils.isTick(tuple)) {
+            lookupHelper.onTick();
             return;
         }
 
+        //get query filter
+        BsonDocument filter;
         try {
-            //get query filter
-            Bson filter = queryCreator.createFilter(tuple);
-            //find document from mongodb
-            Document doc = mongoClient.find(filter);
-            //get storm values and emit
-            List<Values> valuesList = mapper.toTuple(tuple, doc);
-            for (Values values : valuesList) {
-                this.collector.emit(tuple, values);
-            }
-            this.collector.ack(tuple);
+            filter = mongoClient.toBsonDocument(queryCreator.createFilter(tuple));
         } catch (Exception e) {
             this.collector.reportError(e);
             this.collector.fail(tuple);
+            return;
+        }
+        //find document from mongodb, then get storm values and emit
+        lookupHelper.lookup(tuple, filter);
+    }
+
+    private Map<BsonDocument, Document> findDocuments(List<BsonDocument> filters) {
+        Map<BsonDocument, Document> documents = new HashMap<>();
+        if (filters.size() > 1 && queryCreator instanceof SimpleQueryFilterCreator) {
+            String field = ((SimpleQueryFilterCreator) queryCreator).getField();
+            List<BsonValue> values = new ArrayList<>(filters.size());
+            for (BsonDocument filter : filters) {
+                values.add(filter.get(field));
+            }
+            for (Document doc : mongoClient.findAll(Filters.in(field, values))) {
+                for (Object value : getFieldValues(doc, field)) {
+                    // the filter the document matches, as created by Filters.eq
+                    BsonDocument filter = mongoClient.toBsonDocument(new Document(field, value));
+                    documents.putIfAbsent(filter, doc);
+                }
+            }
+        } else {
+            for (BsonDocument filter : filters) {
+                documents.put(filter, mongoClient.find(filter));
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Returns the values of a possibly dotted field of a document, following the embedded documents and the arrays like the queries do.
+     */
+    private static List<Object> getFieldValues(Document doc, String field) {
+        List<Object> values = Collections.singletonList(doc);
+        for (String name : field.split("\\.")) {
+            List<Object> nextValues = new ArrayList<>();
+            for (Object value : values) {
+                if (value instanceof Document) {
+                    nextValues.add(((Document) value).get(name));
+                } else if (value instanceof List) {
+                    for (Object element : (List<?>) value) {
+                        if (element instanceof Document) {
+                            nextValues.add(((Document) element).get(name));
+                        }
+                    }
+                }
+            }
+            values = nextValues;
+        }
+
+        List<Object> fieldValues = new ArrayList<>(values);
+        for (Object value : values) {
+            if (value instanceof List) {
+                fieldValues.addAll((List<?>) value);
+            }
+        }
+        return fieldValues;
+    }
+
+    private void emitValues(Tuple tuple, Document doc) {
+        List<Values> valuesList = mapper.toTuple(tuple, doc);
+        for (Values values : valuesList) {
+            this.collector.emit(tuple, values);
         }
     }
 
@@ -83,4 +175,22 @@ public class MongoLookupBolt extends AbstractMongoBolt {
         mapper.declareOutputFields(declarer);
     }
 
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        Map<String, Object> conf = super.getComponentConfiguration();
+        if (lookupOptions.isAsync()) {
+            // completes the lookups when the input is idle
+            conf = TupleUtils.putTickFrequencyIntoComponentConfig(conf, 1);
+        }
+        return conf;
+    }
+
+    @Override
+    public void cleanup() {
+        if (lookupHelper != null) {
+            lookupHelper.cleanup();
+        }
+        super.cleanup();
+    }
+
 }
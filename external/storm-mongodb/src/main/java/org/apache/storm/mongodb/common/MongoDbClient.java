@@ -25,8 +25,10 @@ import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.UpdateOptions;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import org.bson.BsonDocument;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 
@@ -99,6 +101,24 @@ public class MongoDbClient {
         return collection.find(filter).first();
     }
 
+    /**
+     * Finds all the documents in the collection according to the specified arguments.
+     *
+     * @param filter Bson filter
+     */
+    public List<Document> findAll(Bson filter) {
+        return collection.find(filter).into(new ArrayList<>());
+    }
+
+    /**
+     * Encodes a filter or a document as a {@link BsonDocument}, with the codecs of the collection.
+     *
+     * @param bson Bson filter or document
+     */
+    public BsonDocument toBsonDocument(Bson bson) {
+        return bson.toBsonDocument(BsonDocument.class, collection.getCodecRegistry());
+    }
+
     /**
      * Closes all resources associated with this instance.
      */
@@ -44,4 +44,8 @@ public class SimpleQueryFilterCreator implements QueryFilterCreator {
         return this;
     }
 
+    public String getField() {
+        return field;
+    }
+
 }
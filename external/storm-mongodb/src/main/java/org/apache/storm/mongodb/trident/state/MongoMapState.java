@@ -40,6 +40,7 @@ import org.apache.storm.trident.state.State;
 import org.apache.storm.trident.state.StateFactory;
 import org.apache.storm.trident.state.StateType;
 import org.apache.storm.trident.state.TransactionalValue;
+import org.apache.storm.trident.state.map.CacheOptions;
 import org.apache.storm.trident.state.map.CachedMap;
 import org.apache.storm.trident.state.map.IBackingMap;
 import org.apache.storm.trident.state.map.MapState;
@@ -90,6 +91,8 @@ public class MongoMapState<T> implements IBackingMap<T> {
         public QueryFilterCreator queryCreator;
         public Serializer<T> serializer;
         public int cacheSize = 5000;
+        // if set, used for the cache instead of cacheSize
+        public CacheOptions cacheOptions = null;
         public String globalKey = "$MONGO-MAP-STATE-GLOBAL";
         public String serDocumentField = "tridentSerField";
     }
@@ -151,7 +154,9 @@ public class MongoMapState<T> implements IBackingMap<T> {
         public State makeState(Map<String, Object> conf, IMetricsContext metrics, int partitionIndex, int numPartitions) {
             IBackingMap state = new MongoMapState(conf, options);
 
-            if (options.cacheSize > 0) {
+            if (options.cacheOptions != null) {
+                state = new CachedMap(state, options.cacheOptions, metrics);
+            } else if (options.cacheSize > 0) {
                 state = new CachedMap(state, options.cacheSize);
             }
 
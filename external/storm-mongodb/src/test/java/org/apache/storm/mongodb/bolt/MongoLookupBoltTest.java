@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.mongodb.bolt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.model.Filters;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import org.apache.storm.lookup.LookupOptions;
+import org.apache.storm.mongodb.common.MongoDbClient;
+import org.apache.storm.mongodb.common.SimpleQueryFilterCreator;
+import org.apache.storm.mongodb.common.mapper.SimpleMongoLookupMapper;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.Values;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+public class MongoLookupBoltTest {
+    private final OutputCollector collector = mock(OutputCollector.class);
+    private final MongoDbClient mongoClient = mock(MongoDbClient.class);
+
+    @Test
+    public void testMatchesBatchedDocumentsOnDottedField() throws InterruptedException {
+        when(mongoClient.toBsonDocument(any()))
+            .thenAnswer(invocation -> ((Bson) invocation.getArgument(0)).toBsonDocument(BsonDocument.class,
+                                                                                         MongoClient.getDefaultCodecRegistry()));
+        // the first lookup completes once the next two keys wait for a lookup thread, so that they are looked up together
+        CountDownLatch firstLookup = new CountDownLatch(1);
+        when(mongoClient.find(any())).thenAnswer(invocation -> {
+            firstLookup.await();
+            return new Document("user", new Document("id", 1)).append("name", "one");
+        });
+        when(mongoClient.findAll(any())).thenReturn(Arrays.asList(
+            new Document("user", new Document("id", 3)).append("name", "three"),
+            new Document("user", Collections.singletonList(new Document("id", 2))).append("name", "two")));
+
+        MongoLookupBolt bolt = new MongoLookupBolt("mongodb://127.0.0.1:27017/test", "users",
+                                                   new SimpleQueryFilterCreator().withField("user.id"),
+                                                   new SimpleMongoLookupMapper("user.id", "name"))
+            .withLookupOptions(new LookupOptions().withMaxInFlightLookups(1).withMaxBatchSize(2));
+        bolt.prepare(new HashMap<>(), mock(TopologyContext.class), collector);
+        bolt.mongoClient.close();
+        bolt.mongoClient = mongoClient;
+
+        Tuple tuple1 = mockTuple(1);
+        Tuple tuple2 = mockTuple(2);
+        Tuple tuple3 = mockTuple(3);
+        bolt.execute(tuple1);
+        bolt.execute(tuple2);
+        firstLookup.countDown();
+        bolt.execute(tuple3);
+        bolt.cleanup();
+
+        ArgumentCaptor<Bson> inFilter = ArgumentCaptor.forClass(Bson.class);
+        verify(mongoClient).findAll(inFilter.capture());
+        assertEquals(mongoClient.toBsonDocument(Filters.in("user.id", Arrays.asList(2, 3))), mongoClient.toBsonDocument(inFilter.getValue()));
+        verify(collector).emit(tuple1, new Values(1, "one"));
+        verify(collector).emit(tuple2, new Values(2, "two"));
+        verify(collector).emit(tuple3, new Values(3, "three"));
+        verify(collector).ack(tuple1);
+        verify(collector).ack(tuple2);
+        verify(collector).ack(tuple3);
+    }
+
+    private static Tuple mockTuple(int userId) {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.getValueByField("user.id")).thenReturn(userId);
+        when(tuple.contains("user.id")).thenReturn(true);
+        return tuple;
+    }
+}
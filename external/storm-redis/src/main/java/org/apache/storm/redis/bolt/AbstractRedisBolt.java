@@ -12,7 +12,10 @@
 
 package org.apache.storm.redis.bolt;
 
+import java.util.List;
 import java.util.Map;
+import org.apache.storm.redis.common.commands.JedisClusterPipeline;
+import org.apache.storm.redis.common.commands.RedisPipeline;
 import org.apache.storm.redis.common.config.JedisClusterConfig;
 import org.apache.storm.redis.common.config.JedisPoolConfig;
 import org.apache.storm.redis.common.container.JedisCommandsContainerBuilder;
@@ -20,6 +23,8 @@ import org.apache.storm.redis.common.container.JedisCommandsInstanceContainer;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.base.BaseTickTupleAwareRichBolt;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisCommands;
 
 /**
@@ -41,11 +46,14 @@ import redis.clients.jedis.JedisCommands;
  * }
  * </pre></blockquote>
  *
+ * <p>Batches of commands can be sent with {@link #executePipelined(List, RedisPipeline.Command)}, which pipelines them on a single
+ * connection, or on one connection per node of a Redis Cluster.
  */
 public abstract class AbstractRedisBolt extends BaseTickTupleAwareRichBolt {
     protected OutputCollector collector;
 
     private transient JedisCommandsInstanceContainer container;
+    private transient JedisClusterPipeline clusterPipeline;
 
     private JedisPoolConfig jedisPoolConfig;
     private JedisClusterConfig jedisClusterConfig;
@@ -80,6 +88,7 @@ public abstract class AbstractRedisBolt extends BaseTickTupleAwareRichBolt {
             this.container = JedisCommandsContainerBuilder.build(jedisPoolConfig);
         } else if (jedisClusterConfig != null) {
             this.container = JedisCommandsContainerBuilder.build(jedisClusterConfig);
+            this.clusterPipeline = new JedisClusterPipeline((JedisCluster) container.getInstance());
         } else {
             throw new IllegalArgumentException("Jedis configuration not found");
         }
@@ -103,6 +112,28 @@ public abstract class AbstractRedisBolt extends BaseTickTupleAwareRichBolt {
         this.container.returnInstance(instance);
     }
 
+    /**
+     * Sends a batch of commands with a pipeline, on a single connection for a single Redis environment, or grouped by the node serving
+     * the slot of their key for Redis Cluster environment.
+     * @param slotKeys the key of each command, which determines the node of the command in a Redis Cluster
+     * @param command adds the command of the given index to a pipeline
+     * @return the results of the commands, in the order of the commands
+     * @see JedisClusterPipeline
+     */
+    protected <R> List<R> executePipelined(List<String> slotKeys, RedisPipeline.Command<R> command) {
+        if (clusterPipeline != null) {
+            return clusterPipeline.execute(slotKeys, command);
+        }
+
+        JedisCommands jedisCommand = null;
+        try {
+            jedisCommand = getInstance();
+            return RedisPipeline.execute((Jedis) jedisCommand, slotKeys.size(), command);
+        } finally {
+            returnInstance(jedisCommand);
+        }
+    }
+
     @Override
     public void cleanup() {
         container.close();
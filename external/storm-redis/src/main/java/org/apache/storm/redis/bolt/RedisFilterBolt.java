@@ -12,15 +12,26 @@
 
 package org.apache.storm.redis.bolt;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import org.apache.storm.redis.common.config.JedisClusterConfig;
 import org.apache.storm.redis.common.config.JedisPoolConfig;
 import org.apache.storm.redis.common.mapper.RedisDataTypeDescription;
 import org.apache.storm.redis.common.mapper.RedisFilterMapper;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.tuple.Tuple;
+import org.apache.storm.utils.BatchHelper;
+import org.apache.storm.utils.TupleUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import redis.clients.jedis.GeoCoordinate;
 import redis.clients.jedis.JedisCommands;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
 /**
  * Basic bolt for querying from Redis and filters out if key/field doesn't exist.
@@ -36,11 +47,25 @@ import redis.clients.jedis.JedisCommands;
  *
  * <p>Note2: If you want to just query about existence of key regardless of actual data type,
  * specify STRING to data type of RedisFilterMapper.
+ *
+ * <p>The tuples can be queried in batches with {@link #withBatchSize(int)}. The commands of a batch are sent with a single pipeline, or
+ * with one pipeline per node of a Redis Cluster, when the batch is full or on the tick tuples of {@link #withFlushIntervalSecs(int)},
+ * and the tuples of a batch are acked or failed together. Without batches every tuple is queried with its own command, and JedisCluster
+ * handles the redirections and the retries of the command.
  */
 public class RedisFilterBolt extends AbstractRedisBolt {
+    private static final Logger LOG = LoggerFactory.getLogger(RedisFilterBolt.class);
+    private static final int DEFAULT_FLUSH_INTERVAL_SECS = 1;
+
     private final RedisFilterMapper filterMapper;
     private final RedisDataTypeDescription.RedisDataType dataType;
     private final String additionalKey;
+    private int batchSize = 1;
+    private int flushIntervalSecs = DEFAULT_FLUSH_INTERVAL_SECS;
+
+    private transient BatchHelper batchHelper;
+    private transient List<String> keys;
+    private transient List<String> slotKeys;
 
     /**
      * Constructor for single Redis environment (JedisPool).
@@ -77,11 +102,80 @@ public class RedisFilterBolt extends AbstractRedisBolt {
         this.additionalKey = dataTypeDescription.getAdditionalKey();
     }
 
+    /**
+     * Sets the number of tuples queried with a single pipeline, 1 by default.
+     * @param batchSize the number of tuples per batch
+     * @return RedisFilterBolt itself
+     */
+    public RedisFilterBolt withBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the interval of the tick tuples which query the incomplete batches, 1 second by default.
+     * @param flushIntervalSecs the flush interval in seconds
+     * @return RedisFilterBolt itself
+     */
+    public RedisFilterBolt withFlushIntervalSecs(int flushIntervalSecs) {
+        this.flushIntervalSecs = flushIntervalSecs;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void prepare(Map<String, Object> map, TopologyContext topologyContext, OutputCollector collector) {
+        super.prepare(map, topologyContext, collector);
+        this.batchHelper = new BatchHelper(batchSize, collector);
+        this.keys = new ArrayList<>();
+        this.slotKeys = new ArrayList<>();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void process(Tuple input) {
+        if (batchSize == 1) {
+            filter(input);
+            return;
+        }
+
+        String key;
+        try {
+            key = filterMapper.getKeyFromTuple(input);
+        } catch (Exception e) {
+            this.collector.reportError(e);
+            this.collector.fail(input);
+            return;
+        }
+
+        batchHelper.addBatch(input);
+        keys.add(key);
+        slotKeys.add(getSlotKey(key));
+        if (batchHelper.shouldFlush()) {
+            flush();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onTickTuple(Tuple tuple) {
+        batchHelper.shouldHandle(tuple);
+        if (batchHelper.shouldFlush()) {
+            LOG.debug("Flushing [{}] tuples on tick", keys.size());
+            flush();
+        }
+    }
+
+    private void filter(Tuple input) {
         String key = filterMapper.getKeyFromTuple(input);
 
         boolean found;
@@ -132,6 +226,83 @@ public class RedisFilterBolt extends AbstractRedisBolt {
         }
     }
 
+    private void flush() {
+        try {
+            List<Object> results = executePipelined(slotKeys, (pipeline, i) -> query(pipeline, keys.get(i)));
+            Iterator<Object> resultIter = results.iterator();
+            for (Tuple input : batchHelper.getBatchTuples()) {
+                if (isFound(resultIter.next())) {
+                    collector.emit(input, input.getValues());
+                }
+            }
+            batchHelper.ack();
+        } catch (Exception e) {
+            batchHelper.fail(e);
+        } finally {
+            keys.clear();
+            slotKeys.clear();
+        }
+    }
+
+    private Response<?> query(Pipeline pipeline, String key) {
+        switch (dataType) {
+            case STRING:
+                return pipeline.exists(key);
+
+            case SET:
+                return pipeline.sismember(additionalKey, key);
+
+            case HASH:
+                return pipeline.hexists(additionalKey, key);
+
+            case SORTED_SET:
+                return pipeline.zrank(additionalKey, key);
+
+            case HYPER_LOG_LOG:
+                return pipeline.pfcount(key);
+
+            case GEO:
+                return pipeline.geopos(additionalKey, key);
+
+            default:
+                throw new IllegalArgumentException("Cannot process such data type: " + dataType);
+        }
+    }
+
+    private boolean isFound(Object result) {
+        switch (dataType) {
+            case STRING:
+            case SET:
+            case HASH:
+                return (Boolean) result;
+
+            case SORTED_SET:
+                return result != null;
+
+            case HYPER_LOG_LOG:
+                return (Long) result > 0;
+
+            case GEO:
+                List<?> geopos = (List<?>) result;
+                return geopos != null && geopos.size() > 0;
+
+            default:
+                throw new IllegalArgumentException("Cannot process such data type: " + dataType);
+        }
+    }
+
+    // the Redis key queried, which determines the node of the command in a Redis Cluster
+    private String getSlotKey(String key) {
+        switch (dataType) {
+            case STRING:
+            case HYPER_LOG_LOG:
+                return key;
+
+            default:
+                return additionalKey;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -139,4 +310,15 @@ public class RedisFilterBolt extends AbstractRedisBolt {
     public void declareOutputFields(OutputFieldsDeclarer declarer) {
         filterMapper.declareOutputFields(declarer);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        if (batchSize > 1) {
+            return TupleUtils.putTickFrequencyIntoComponentConfig(super.getComponentConfiguration(), flushIntervalSecs);
+        }
+        return super.getComponentConfiguration();
+    }
 }
@@ -12,25 +12,42 @@
 
 package org.apache.storm.redis.bolt;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.apache.storm.lookup.AsyncLookupHelper;
+import org.apache.storm.lookup.LookupOptions;
 import org.apache.storm.redis.common.config.JedisClusterConfig;
 import org.apache.storm.redis.common.config.JedisPoolConfig;
 import org.apache.storm.redis.common.mapper.RedisDataTypeDescription;
 import org.apache.storm.redis.common.mapper.RedisLookupMapper;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.TupleUtils;
 import redis.clients.jedis.JedisCommands;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
 /**
  * Basic bolt for querying from Redis and emits response as tuple.
  *
  * <p>Various data types are supported: STRING, LIST, HASH, SET, SORTED_SET, HYPER_LOG_LOG, GEO
+ *
+ * <p>The lookups can be made asynchronous, batched and cached with {@link #withLookupOptions(LookupOptions)}. A single key is looked up
+ * with its own command, which JedisCluster redirects and retries as needed. The keys of a batch are looked up with a single HMGET for
+ * HASH, and with one command per key sent with a single pipeline otherwise, or with one pipeline per node of a Redis Cluster. LIST lookups
+ * pop the elements, so they can be neither asynchronous nor cached.
  */
 public class RedisLookupBolt extends AbstractRedisBolt {
     private final RedisLookupMapper lookupMapper;
     private final RedisDataTypeDescription.RedisDataType dataType;
     private final String additionalKey;
+    private LookupOptions lookupOptions = new LookupOptions();
+    private transient AsyncLookupHelper<String, Object> lookupHelper;
 
     /**
      * Constructor for single Redis environment (JedisPool).
@@ -62,65 +79,162 @@ public class RedisLookupBolt extends AbstractRedisBolt {
         this.additionalKey = dataTypeDescription.getAdditionalKey();
     }
 
+    /**
+     * Sets the options of the lookups, to make them asynchronous, batched or cached.
+     * @param lookupOptions the lookup options
+     * @return this
+     */
+    public RedisLookupBolt withLookupOptions(LookupOptions lookupOptions) {
+        if (dataType == RedisDataTypeDescription.RedisDataType.LIST && (lookupOptions.isAsync() || lookupOptions.isCacheEnabled())) {
+            throw new IllegalArgumentException("LIST lookups pop the elements, they can be neither asynchronous nor cached");
+        }
+        this.lookupOptions = lookupOptions;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void prepare(Map<String, Object> map, TopologyContext topologyContext, OutputCollector collector) {
+        super.prepare(map, topologyContext, collector);
+        this.lookupHelper = new AsyncLookupHelper<>(lookupOptions, this::lookupValues, this::emitValues, topologyContext, collector);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void process(Tuple input) {
-        String key = lookupMapper.getKeyFromTuple(input);
-        Object lookupValue;
+        lookupHelper.lookup(input, lookupMapper.getKeyFromTuple(input));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onTickTuple(Tuple tuple) {
+        lookupHelper.onTick();
+    }
+
+    private Map<String, Object> lookupValues(List<String> keys) {
+        Map<String, Object> lookupValues = new HashMap<>();
+        if (keys.size() == 1) {
+            lookupValues.put(keys.get(0), lookupValue(keys.get(0)));
+            return lookupValues;
+        }
+        if (dataType == RedisDataTypeDescription.RedisDataType.HASH) {
+            List<String> values = hmget(keys);
+            for (int i = 0; i < keys.size(); i++) {
+                lookupValues.put(keys.get(i), values.get(i));
+            }
+            return lookupValues;
+        }
+
+        List<String> slotKeys = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            slotKeys.add(getSlotKey(key));
+        }
+        List<Object> values = executePipelined(slotKeys, (pipeline, i) -> lookupValue(pipeline, keys.get(i)));
+        for (int i = 0; i < keys.size(); i++) {
+            lookupValues.put(keys.get(i), values.get(i));
+        }
+        return lookupValues;
+    }
+
+    private List<String> hmget(List<String> keys) {
+        JedisCommands jedisCommand = null;
+        try {
+            jedisCommand = getInstance();
+            return jedisCommand.hmget(additionalKey, keys.toArray(new String[0]));
+        } finally {
+            returnInstance(jedisCommand);
+        }
+    }
 
+    private Object lookupValue(String key) {
         JedisCommands jedisCommand = null;
         try {
             jedisCommand = getInstance();
 
             switch (dataType) {
                 case STRING:
-                    lookupValue = jedisCommand.get(key);
-                    break;
+                    return jedisCommand.get(key);
 
                 case LIST:
-                    lookupValue = jedisCommand.lpop(key);
-                    break;
+                    return jedisCommand.lpop(key);
 
                 case HASH:
-                    lookupValue = jedisCommand.hget(additionalKey, key);
-                    break;
+                    return jedisCommand.hget(additionalKey, key);
 
                 case SET:
-                    lookupValue = jedisCommand.scard(key);
-                    break;
+                    return jedisCommand.scard(key);
 
                 case SORTED_SET:
-                    lookupValue = jedisCommand.zscore(additionalKey, key);
-                    break;
+                    return jedisCommand.zscore(additionalKey, key);
 
                 case HYPER_LOG_LOG:
-                    lookupValue = jedisCommand.pfcount(key);
-                    break;
+                    return jedisCommand.pfcount(key);
 
                 case GEO:
-                    lookupValue = jedisCommand.geopos(additionalKey, key);
-                    break;
+                    return jedisCommand.geopos(additionalKey, key);
 
                 default:
                     throw new IllegalArgumentException("Cannot process such data type: " + dataType);
             }
-
-            List<Values> values = lookupMapper.toTuple(input, lookupValue);
-            for (Values value : values) {
-                collector.emit(input, value);
-            }
-
-            collector.ack(input);
-        } catch (Exception e) {
-            this.collector.reportError(e);
-            this.collector.fail(input);
         } finally {
             returnInstance(jedisCommand);
         }
     }
 
+    private Response<?> lookupValue(Pipeline pipeline, String key) {
+        switch (dataType) {
+            case STRING:
+                return pipeline.get(key);
+
+            case LIST:
+                return pipeline.lpop(key);
+
+            case HASH:
+                return pipeline.hget(additionalKey, key);
+
+            case SET:
+                return pipeline.scard(key);
+
+            case SORTED_SET:
+                return pipeline.zscore(additionalKey, key);
+
+            case HYPER_LOG_LOG:
+                return pipeline.pfcount(key);
+
+            case GEO:
+                return pipeline.geopos(additionalKey, key);
+
+            default:
+                throw new IllegalArgumentException("Cannot process such data type: " + dataType);
+        }
+    }
+
+    // the Redis key looked up, which determines the node of the command in a Redis Cluster
+    private String getSlotKey(String key) {
+        switch (dataType) {
+            case HASH:
+            case SORTED_SET:
+            case GEO:
+                return additionalKey;
+
+            default:
+                return key;
+        }
+    }
+
+    private void emitValues(Tuple input, Object lookupValue) {
+        List<Values> values = lookupMapper.toTuple(input, lookupValue);
+        for (Values value : values) {
+            collector.emit(input, value);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -128,4 +242,28 @@ public class RedisLookupBolt extends AbstractRedisBolt {
     public void declareOutputFields(OutputFieldsDeclarer declarer) {
         lookupMapper.declareOutputFields(declarer);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        Map<String, Object> conf = super.getComponentConfiguration();
+        if (lookupOptions.isAsync()) {
+            // completes the lookups when the input is idle
+            conf = TupleUtils.putTickFrequencyIntoComponentConfig(conf, 1);
+        }
+        return conf;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cleanup() {
+        if (lookupHelper != null) {
+            lookupHelper.cleanup();
+        }
+        super.cleanup();
+    }
 }
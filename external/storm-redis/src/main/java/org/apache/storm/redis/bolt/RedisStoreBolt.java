@@ -12,23 +12,49 @@
 
 package org.apache.storm.redis.bolt;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import org.apache.storm.redis.common.config.JedisClusterConfig;
 import org.apache.storm.redis.common.config.JedisPoolConfig;
 import org.apache.storm.redis.common.mapper.RedisDataTypeDescription;
 import org.apache.storm.redis.common.mapper.RedisStoreMapper;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.tuple.Tuple;
+import org.apache.storm.utils.BatchHelper;
+import org.apache.storm.utils.TupleUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import redis.clients.jedis.JedisCommands;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
 /**
  * Basic bolt for writing to Redis.
  *
  * <p>Various data types are supported: STRING, LIST, HASH, SET, SORTED_SET, HYPER_LOG_LOG, GEO
+ *
+ * <p>The tuples can be written in batches with {@link #withBatchSize(int)}. The commands of a batch are sent with a single pipeline, or
+ * with one pipeline per node of a Redis Cluster, when the batch is full or on the tick tuples of {@link #withFlushIntervalSecs(int)},
+ * and the tuples of a batch are acked or failed together. Without batches every tuple is written with its own command, and JedisCluster
+ * handles the redirections and the retries of the command.
  */
 public class RedisStoreBolt extends AbstractRedisBolt {
+    private static final Logger LOG = LoggerFactory.getLogger(RedisStoreBolt.class);
+    private static final int DEFAULT_FLUSH_INTERVAL_SECS = 1;
+
     private final RedisStoreMapper storeMapper;
     private final RedisDataTypeDescription.RedisDataType dataType;
     private final String additionalKey;
+    private int batchSize = 1;
+    private int flushIntervalSecs = DEFAULT_FLUSH_INTERVAL_SECS;
+
+    private transient BatchHelper batchHelper;
+    private transient List<String> slotKeys;
+    private transient List<Function<Pipeline, Response<?>>> writes;
 
     /**
      * Constructor for single Redis environment (JedisPool).
@@ -58,11 +84,82 @@ public class RedisStoreBolt extends AbstractRedisBolt {
         this.additionalKey = dataTypeDescription.getAdditionalKey();
     }
 
+    /**
+     * Sets the number of tuples written with a single pipeline, 1 by default.
+     * @param batchSize the number of tuples per batch
+     * @return RedisStoreBolt itself
+     */
+    public RedisStoreBolt withBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the interval of the tick tuples which write the incomplete batches, 1 second by default.
+     * @param flushIntervalSecs the flush interval in seconds
+     * @return RedisStoreBolt itself
+     */
+    public RedisStoreBolt withFlushIntervalSecs(int flushIntervalSecs) {
+        this.flushIntervalSecs = flushIntervalSecs;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void prepare(Map<String, Object> map, TopologyContext topologyContext, OutputCollector collector) {
+        super.prepare(map, topologyContext, collector);
+        this.batchHelper = new BatchHelper(batchSize, collector);
+        this.slotKeys = new ArrayList<>();
+        this.writes = new ArrayList<>();
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void process(Tuple input) {
+        if (batchSize == 1) {
+            write(input);
+            return;
+        }
+
+        String key;
+        Function<Pipeline, Response<?>> write;
+        try {
+            key = storeMapper.getKeyFromTuple(input);
+            write = toWrite(key, storeMapper.getValueFromTuple(input));
+        } catch (Exception e) {
+            this.collector.reportError(e);
+            this.collector.fail(input);
+            return;
+        }
+
+        batchHelper.addBatch(input);
+        slotKeys.add(getSlotKey(key));
+        writes.add(write);
+        if (batchHelper.shouldFlush()) {
+            flush();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onTickTuple(Tuple tuple) {
+        batchHelper.shouldHandle(tuple);
+        if (batchHelper.shouldFlush()) {
+            LOG.debug("Flushing [{}] tuples on tick", writes.size());
+            flush();
+        }
+    }
+
+    private void write(Tuple input) {
         String key = storeMapper.getKeyFromTuple(input);
         String value = storeMapper.getValueFromTuple(input);
 
@@ -119,10 +216,82 @@ public class RedisStoreBolt extends AbstractRedisBolt {
         }
     }
 
+    private Function<Pipeline, Response<?>> toWrite(String key, String value) {
+        switch (dataType) {
+            case STRING:
+                return pipeline -> pipeline.set(key, value);
+
+            case LIST:
+                return pipeline -> pipeline.rpush(key, value);
+
+            case HASH:
+                return pipeline -> pipeline.hset(additionalKey, key, value);
+
+            case SET:
+                return pipeline -> pipeline.sadd(key, value);
+
+            case SORTED_SET:
+                double score = Double.valueOf(value);
+                return pipeline -> pipeline.zadd(additionalKey, score, key);
+
+            case HYPER_LOG_LOG:
+                return pipeline -> pipeline.pfadd(key, value);
+
+            case GEO:
+                String[] array = value.split(":");
+                if (array.length != 2) {
+                    throw new IllegalArgumentException("value structure should be longitude:latitude");
+                }
+
+                double longitude = Double.valueOf(array[0]);
+                double latitude = Double.valueOf(array[1]);
+                return pipeline -> pipeline.geoadd(additionalKey, longitude, latitude, key);
+
+            default:
+                throw new IllegalArgumentException("Cannot process such data type: " + dataType);
+        }
+    }
+
+    // the Redis key written to, which determines the node of the command in a Redis Cluster
+    private String getSlotKey(String key) {
+        switch (dataType) {
+            case HASH:
+            case SORTED_SET:
+            case GEO:
+                return additionalKey;
+
+            default:
+                return key;
+        }
+    }
+
+    private void flush() {
+        try {
+            executePipelined(slotKeys, (pipeline, i) -> writes.get(i).apply(pipeline));
+            batchHelper.ack();
+        } catch (Exception e) {
+            batchHelper.fail(e);
+        } finally {
+            slotKeys.clear();
+            writes.clear();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void declareOutputFields(OutputFieldsDeclarer declarer) {
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        if (batchSize > 1) {
+            return TupleUtils.putTickFrequencyIntoComponentConfig(super.getComponentConfiguration(), flushIntervalSecs);
+        }
+        return super.getComponentConfiguration();
+    }
 }
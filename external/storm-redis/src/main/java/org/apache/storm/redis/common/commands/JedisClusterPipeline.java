@@ -0,0 +1,215 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.redis.common.commands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisClusterInfoCache;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisAskDataException;
+import redis.clients.jedis.exceptions.JedisClusterException;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.util.JedisClusterCRC16;
+import redis.clients.util.SafeEncoder;
+
+/**
+ * Sends a batch of commands to a Redis Cluster with pipelines. JedisCluster sends every command on its own, so the commands are grouped
+ * by the node serving the hash slot of their key instead, and sent with one pipeline per node, through the connection pools of the
+ * JedisCluster.
+ *
+ * <p>The slots served by the nodes are read with CLUSTER SLOTS, and updated from the MOVED redirections. The commands redirected to
+ * another node are sent once more to that node, and the commands redirected twice fail, so that the batch is retried later. The
+ * commands of a slot being migrated, redirected with ASK, are sent right away to the importing node, each one preceded by ASKING, without
+ * updating the slots. The slots are read again after a connection failure. The connection pools of the nodes that joined the cluster
+ * are created by the JedisCluster once it renews its own slots.
+ *
+ * <p>This class is thread safe.
+ */
+public class JedisClusterPipeline {
+    private static final Logger LOG = LoggerFactory.getLogger(JedisClusterPipeline.class);
+
+    private final JedisCluster jedisCluster;
+    // the node serving each slot, read from the cluster when null
+    private volatile String[] slotNodes;
+
+    /**
+     * Constructor.
+     *
+     * @param jedisCluster JedisCluster whose connection pools are used
+     */
+    public JedisClusterPipeline(JedisCluster jedisCluster) {
+        this.jedisCluster = jedisCluster;
+    }
+
+    /**
+     * Sends the commands of a batch and returns their results, in the order of the commands.
+     *
+     * @param slotKeys the key of each command, which determines the slot and the node of the command
+     * @param command adds the command of the given index to the pipeline of its node
+     * @return the results of the commands
+     * @throws JedisException if a command fails, or a node cannot be reached
+     */
+    public <R> List<R> execute(List<String> slotKeys, RedisPipeline.Command<R> command) {
+        List<Response<? extends R>> responses = new ArrayList<>(Collections.nCopies(slotKeys.size(), null));
+        List<Integer> indexes = new ArrayList<>(slotKeys.size());
+        for (int i = 0; i < slotKeys.size(); i++) {
+            indexes.add(i);
+        }
+
+        List<Integer> redirected = send(slotKeys, indexes, command, responses);
+        if (!redirected.isEmpty()) {
+            LOG.debug("Sending {} commands again to the nodes they were redirected to", redirected.size());
+            send(slotKeys, redirected, command, responses);
+        }
+
+        List<R> results = new ArrayList<>(responses.size());
+        for (Response<? extends R> response : responses) {
+            results.add(response.get());
+        }
+        return results;
+    }
+
+    /**
+     * Sends the given commands with one pipeline per node, and returns the indexes of the commands redirected to another node.
+     */
+    private <R> List<Integer> send(List<String> slotKeys, List<Integer> indexes, RedisPipeline.Command<R> command,
+                                   List<Response<? extends R>> responses) {
+        String[] nodes = getSlotNodes();
+        Map<String, List<Integer>> nodeIndexes = new HashMap<>();
+        for (int index : indexes) {
+            int slot = JedisClusterCRC16.getSlot(slotKeys.get(index));
+            if (nodes[slot] == null) {
+                this.slotNodes = null;
+                throw new JedisClusterException("No node of the cluster serves the slot " + slot);
+            }
+            nodeIndexes.computeIfAbsent(nodes[slot], node -> new ArrayList<>()).add(index);
+        }
+
+        List<Integer> redirected = new ArrayList<>();
+        Map<String, List<Integer>> askedIndexes = new HashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : nodeIndexes.entrySet()) {
+            List<Integer> nodeBatch = entry.getValue();
+            JedisPool pool = getPool(entry.getKey(), slotKeys.get(nodeBatch.get(0)));
+            List<Response<? extends R>> nodeResponses;
+            try (Jedis jedis = pool.getResource()) {
+                nodeResponses = RedisPipeline.send(jedis, nodeBatch.size(), (pipeline, i) -> command.apply(pipeline, nodeBatch.get(i)));
+            } catch (JedisConnectionException e) {
+                // the node may have failed over
+                this.slotNodes = null;
+                throw e;
+            }
+
+            for (int i = 0; i < nodeResponses.size(); i++) {
+                Response<? extends R> response = nodeResponses.get(i);
+                responses.set(nodeBatch.get(i), response);
+                try {
+                    response.get();
+                } catch (JedisMovedDataException e) {
+                    nodes[e.getSlot()] = JedisClusterInfoCache.getNodeKey(e.getTargetNode());
+                    redirected.add(nodeBatch.get(i));
+                } catch (JedisAskDataException e) {
+                    askedIndexes.computeIfAbsent(JedisClusterInfoCache.getNodeKey(e.getTargetNode()), node -> new ArrayList<>())
+                        .add(nodeBatch.get(i));
+                } catch (RuntimeException e) {
+                    // thrown again when the results are read
+                }
+            }
+        }
+
+        for (Map.Entry<String, List<Integer>> entry : askedIndexes.entrySet()) {
+            LOG.debug("Sending {} commands of migrating slots to {}", entry.getValue().size(), entry.getKey());
+            sendAsking(getPool(entry.getKey(), slotKeys.get(entry.getValue().get(0))), entry.getValue(), command, responses);
+        }
+        return redirected;
+    }
+
+    /**
+     * Sends the given commands to the node importing their slot. ASKING only applies to the command following it, so every command is
+     * sent on its own after an ASKING, which is acceptable as long as the migration lasts.
+     */
+    private <R> void sendAsking(JedisPool pool, List<Integer> indexes, RedisPipeline.Command<R> command,
+                                List<Response<? extends R>> responses) {
+        try (Jedis jedis = pool.getResource()) {
+            for (int index : indexes) {
+                jedis.asking();
+                responses.set(index, RedisPipeline.send(jedis, 1, (pipeline, i) -> command.apply(pipeline, index)).get(0));
+            }
+        } catch (JedisConnectionException e) {
+            this.slotNodes = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the connection pool of a node. The JedisCluster only creates the pools of the nodes that joined the cluster when its own
+     * slots are renewed, which a MOVED redirection of one of its commands triggers, so a command for a key served by the node is sent
+     * through the JedisCluster when the node is not known yet.
+     */
+    private JedisPool getPool(String node, String slotKey) {
+        JedisPool pool = jedisCluster.getClusterNodes().get(node);
+        if (pool == null) {
+            LOG.debug("Renewing the slots of the JedisCluster to connect to {}", node);
+            jedisCluster.exists(slotKey);
+            pool = jedisCluster.getClusterNodes().get(node);
+        }
+        if (pool == null) {
+            this.slotNodes = null;
+            throw new JedisClusterException("The node " + node + " is not known to the JedisCluster");
+        }
+        return pool;
+    }
+
+    private String[] getSlotNodes() {
+        String[] nodes = this.slotNodes;
+        if (nodes == null) {
+            nodes = readSlotNodes();
+            this.slotNodes = nodes;
+        }
+        return nodes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String[] readSlotNodes() {
+        JedisException lastException = null;
+        for (JedisPool pool : jedisCluster.getClusterNodes().values()) {
+            try (Jedis jedis = pool.getResource()) {
+                String[] nodes = new String[JedisCluster.HASHSLOTS];
+                for (Object slotInfo : jedis.clusterSlots()) {
+                    // the first and the last slot of a range, followed by the master and the replicas serving it
+                    List<Object> slotRange = (List<Object>) slotInfo;
+                    List<Object> master = (List<Object>) slotRange.get(2);
+                    HostAndPort node = new HostAndPort(SafeEncoder.encode((byte[]) master.get(0)), ((Long) master.get(1)).intValue());
+                    Arrays.fill(nodes, ((Long) slotRange.get(0)).intValue(), ((Long) slotRange.get(1)).intValue() + 1,
+                                JedisClusterInfoCache.getNodeKey(node));
+                }
+                return nodes;
+            } catch (JedisException e) {
+                LOG.warn("Failed to read the slots of the cluster", e);
+                lastException = e;
+            }
+        }
+        throw new JedisClusterException("Could not read the slots of the cluster from any node", lastException);
+    }
+}
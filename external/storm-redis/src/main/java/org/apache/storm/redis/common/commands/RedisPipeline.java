@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.redis.common.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+/**
+ * Sends a batch of commands to a single Redis instance with a pipeline, so that the whole batch costs a single round trip.
+ *
+ * @see JedisClusterPipeline
+ */
+public final class RedisPipeline {
+
+    private RedisPipeline() {
+    }
+
+    /**
+     * Sends the commands of a batch and returns their results, in the order of the commands.
+     *
+     * @param jedis the connection to send the commands on
+     * @param count the number of commands
+     * @param command adds the command of the given index to the pipeline
+     * @return the results of the commands
+     * @throws redis.clients.jedis.exceptions.JedisDataException if a command fails
+     */
+    public static <R> List<R> execute(Jedis jedis, int count, Command<R> command) {
+        List<Response<? extends R>> responses = send(jedis, count, command);
+        List<R> results = new ArrayList<>(count);
+        for (Response<? extends R> response : responses) {
+            results.add(response.get());
+        }
+        return results;
+    }
+
+    /**
+     * Sends the commands of a batch and waits for their responses, without checking them for errors.
+     */
+    static <R> List<Response<? extends R>> send(Jedis jedis, int count, Command<R> command) {
+        Pipeline pipeline = jedis.pipelined();
+        List<Response<? extends R>> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            responses.add(command.apply(pipeline, i));
+        }
+        pipeline.sync();
+        return responses;
+    }
+
+    /**
+     * A command of a batch.
+     *
+     * @param <R> the type of the result of the command
+     */
+    @FunctionalInterface
+    public interface Command<R> {
+        /**
+         * Adds the command of the given index of the batch to the pipeline.
+         *
+         * @param pipeline the pipeline
+         * @param index the index of the command in the batch
+         * @return the response of the command
+         */
+        Response<? extends R> apply(Pipeline pipeline, int index);
+    }
+}
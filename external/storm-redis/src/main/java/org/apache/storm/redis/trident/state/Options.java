@@ -15,6 +15,7 @@ package org.apache.storm.redis.trident.state;
 import java.io.Serializable;
 import org.apache.storm.redis.common.mapper.RedisDataTypeDescription;
 import org.apache.storm.trident.state.Serializer;
+import org.apache.storm.trident.state.map.CacheOptions;
 
 /**
  * Options of State.<br/>
@@ -27,6 +28,8 @@ public class Options<T> implements Serializable {
         new RedisDataTypeDescription(RedisDataTypeDescription.RedisDataType.STRING);
 
     public int localCacheSize = 1000;
+    // if set, used for the local cache instead of localCacheSize
+    public CacheOptions localCacheOptions = null;
     public String globalKey = "$REDIS-MAP-STATE-GLOBAL";
     public KeyFactory keyFactory = null;
     public Serializer<T> serializer = null;
@@ -12,9 +12,10 @@
 
 package org.apache.storm.redis.trident.state;
 
-import com.google.common.collect.Lists;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import org.apache.storm.redis.common.commands.JedisClusterPipeline;
 import org.apache.storm.redis.common.config.JedisClusterConfig;
 import org.apache.storm.redis.common.mapper.RedisDataTypeDescription;
 import org.apache.storm.task.IMetricsContext;
@@ -36,11 +37,14 @@ import redis.clients.jedis.JedisCluster;
 /**
  * IBackingMap implementation for Redis Cluster environment.
  *
+ * <p>The STRING values are read and written with one pipeline per node of the cluster, and the HASH values with a single command.
+ *
  * @param <T> value's type class
  * @see AbstractRedisMapState
  */
 public class RedisClusterMapState<T> extends AbstractRedisMapState<T> {
     private JedisCluster jedisCluster;
+    private JedisClusterPipeline jedisClusterPipeline;
     private Options options;
     private Serializer serializer;
     private KeyFactory keyFactory;
@@ -56,6 +60,7 @@ public class RedisClusterMapState<T> extends AbstractRedisMapState<T> {
     public RedisClusterMapState(JedisCluster jedisCluster, Options options,
                                 Serializer<T> serializer, KeyFactory keyFactory) {
         this.jedisCluster = jedisCluster;
+        this.jedisClusterPipeline = new JedisClusterPipeline(jedisCluster);
         this.options = options;
         this.serializer = serializer;
         this.keyFactory = keyFactory;
@@ -227,14 +232,7 @@ public class RedisClusterMapState<T> extends AbstractRedisMapState<T> {
         RedisDataTypeDescription description = this.options.dataTypeDescription;
         switch (description.getDataType()) {
             case STRING:
-                List<String> values = Lists.newArrayList();
-
-                for (String stringKey : keys) {
-                    String value = jedisCluster.get(stringKey);
-                    values.add(value);
-                }
-
-                return values;
+                return jedisClusterPipeline.execute(keys, (pipeline, i) -> pipeline.get(keys.get(i)));
 
             case HASH:
                 return jedisCluster.hmget(description.getAdditionalKey(), stringKeys);
@@ -252,13 +250,15 @@ public class RedisClusterMapState<T> extends AbstractRedisMapState<T> {
         RedisDataTypeDescription description = this.options.dataTypeDescription;
         switch (description.getDataType()) {
             case STRING:
-                for (Map.Entry<String, String> kvEntry : keyValues.entrySet()) {
+                List<String> keys = new ArrayList<>(keyValues.keySet());
+                jedisClusterPipeline.execute(keys, (pipeline, i) -> {
+                    String key = keys.get(i);
                     if (this.options.expireIntervalSec > 0) {
-                        jedisCluster.setex(kvEntry.getKey(), this.options.expireIntervalSec, kvEntry.getValue());
+                        return pipeline.setex(key, this.options.expireIntervalSec, keyValues.get(key));
                     } else {
-                        jedisCluster.set(kvEntry.getKey(), kvEntry.getValue());
+                        return pipeline.set(key, keyValues.get(key));
                     }
-                }
+                });
                 break;
 
             case HASH:
@@ -324,7 +324,9 @@ public class RedisClusterMapState<T> extends AbstractRedisMapState<T> {
                                                          DEFAULT_POOL_CONFIG);
 
             RedisClusterMapState state = new RedisClusterMapState(jedisCluster, options, serializer, keyFactory);
-            CachedMap c = new CachedMap(state, options.localCacheSize);
+            CachedMap c = options.localCacheOptions != null
+                ? new CachedMap(state, options.localCacheOptions, metrics)
+                : new CachedMap(state, options.localCacheSize);
 
             MapState ms;
             if (type == StateType.NON_TRANSACTIONAL) {
@@ -13,6 +13,7 @@
 package org.apache.storm.redis.trident.state;
 
 import java.util.Map;
+import org.apache.storm.redis.common.commands.JedisClusterPipeline;
 import org.apache.storm.redis.common.config.JedisClusterConfig;
 import org.apache.storm.task.IMetricsContext;
 import org.apache.storm.trident.state.State;
@@ -24,6 +25,7 @@ import redis.clients.jedis.JedisCluster;
  */
 public class RedisClusterState implements State {
     private JedisCluster jedisCluster;
+    private JedisClusterPipeline jedisClusterPipeline;
 
     /**
      * Constructor.
@@ -32,6 +34,7 @@ public class RedisClusterState implements State {
      */
     public RedisClusterState(JedisCluster jedisCluster) {
         this.jedisCluster = jedisCluster;
+        this.jedisClusterPipeline = new JedisClusterPipeline(jedisCluster);
     }
 
     /**
@@ -59,6 +62,15 @@ public class RedisClusterState implements State {
         return this.jedisCluster;
     }
 
+    /**
+     * Returns the pipeline sending batches of commands to the nodes of the JedisCluster instance.
+     *
+     * @return JedisClusterPipeline instance
+     */
+    public JedisClusterPipeline getJedisClusterPipeline() {
+        return this.jedisClusterPipeline;
+    }
+
     /**
      * Returns JedisCluster instance to pool.
      *
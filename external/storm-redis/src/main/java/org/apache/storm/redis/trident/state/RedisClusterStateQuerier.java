@@ -12,7 +12,6 @@
 
 package org.apache.storm.redis.trident.state;
 
-import java.util.ArrayList;
 import java.util.List;
 import org.apache.storm.redis.common.mapper.RedisLookupMapper;
 import redis.clients.jedis.JedisCluster;
@@ -20,6 +19,8 @@ import redis.clients.jedis.JedisCluster;
 /**
  * BaseQueryFunction implementation for Redis Cluster environment.
  *
+ * <p>The STRING values of a batch are read with one pipeline per node of the cluster, and the HASH values with a single HMGET.
+ *
  * @see AbstractRedisStateQuerier
  */
 public class RedisClusterStateQuerier extends AbstractRedisStateQuerier<RedisClusterState> {
@@ -37,29 +38,21 @@ public class RedisClusterStateQuerier extends AbstractRedisStateQuerier<RedisClu
      */
     @Override
     protected List<String> retrieveValuesFromRedis(RedisClusterState state, List<String> keys) {
-        JedisCluster jedisCluster = null;
-        try {
-            jedisCluster = state.getJedisCluster();
-            List<String> redisVals = new ArrayList<String>();
-
-            for (String key : keys) {
-                switch (dataType) {
-                    case STRING:
-                        redisVals.add(jedisCluster.get(key));
-                        break;
-                    case HASH:
-                        redisVals.add(jedisCluster.hget(additionalKey, key));
-                        break;
-                    default:
-                        throw new IllegalArgumentException("Cannot process such data type: " + dataType);
+        switch (dataType) {
+            case STRING:
+                return state.getJedisClusterPipeline().execute(keys, (pipeline, i) -> pipeline.get(keys.get(i)));
+            case HASH:
+                JedisCluster jedisCluster = null;
+                try {
+                    jedisCluster = state.getJedisCluster();
+                    return jedisCluster.hmget(additionalKey, keys.toArray(new String[0]));
+                } finally {
+                    if (jedisCluster != null) {
+                        state.returnJedisCluster(jedisCluster);
+                    }
                 }
-            }
-
-            return redisVals;
-        } finally {
-            if (jedisCluster != null) {
-                state.returnJedisCluster(jedisCluster);
-            }
+            default:
+                throw new IllegalArgumentException("Cannot process such data type: " + dataType);
         }
     }
 }
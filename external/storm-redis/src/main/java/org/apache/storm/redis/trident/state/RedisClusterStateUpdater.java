@@ -12,14 +12,17 @@
 
 package org.apache.storm.redis.trident.state;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.apache.storm.redis.common.mapper.RedisDataTypeDescription;
 import org.apache.storm.redis.common.mapper.RedisStoreMapper;
-import redis.clients.jedis.JedisCluster;
 
 /**
  * BaseStateUpdater implementation for Redis Cluster environment.
  *
+ * <p>The updates of a batch are sent with one pipeline per node of the cluster.
+ *
  * @see AbstractRedisStateUpdater
  */
 public class RedisClusterStateUpdater extends AbstractRedisStateUpdater<RedisClusterState> {
@@ -48,40 +51,39 @@ public class RedisClusterStateUpdater extends AbstractRedisStateUpdater<RedisClu
      */
     @Override
     protected void updateStatesToRedis(RedisClusterState redisClusterState, Map<String, String> keyToValue) {
-        JedisCluster jedisCluster = null;
-        try {
-            jedisCluster = redisClusterState.getJedisCluster();
+        List<String> keys = new ArrayList<>(keyToValue.keySet());
+        List<String> slotKeys = new ArrayList<>(keys.size() + 1);
+        for (String key : keys) {
+            slotKeys.add(dataType == RedisDataTypeDescription.RedisDataType.HASH ? additionalKey : key);
+        }
 
-            for (Map.Entry<String, String> kvEntry : keyToValue.entrySet()) {
-                String key = kvEntry.getKey();
-                String value = kvEntry.getValue();
+        // send expire command for hash only once
+        // it expires key itself entirely, so use it with caution
+        boolean expireHash = dataType == RedisDataTypeDescription.RedisDataType.HASH
+                && this.expireIntervalSec > 0;
+        if (expireHash) {
+            slotKeys.add(additionalKey);
+        }
 
-                switch (dataType) {
-                    case STRING:
-                        if (this.expireIntervalSec > 0) {
-                            jedisCluster.setex(key, expireIntervalSec, value);
-                        } else {
-                            jedisCluster.set(key, value);
-                        }
-                        break;
-                    case HASH:
-                        jedisCluster.hset(additionalKey, key, value);
-                        break;
-                    default:
-                        throw new IllegalArgumentException("Cannot process such data type: " + dataType);
-                }
+        redisClusterState.getJedisClusterPipeline().execute(slotKeys, (pipeline, i) -> {
+            if (i == keys.size()) {
+                return pipeline.expire(additionalKey, expireIntervalSec);
             }
 
-            // send expire command for hash only once
-            // it expires key itself entirely, so use it with caution
-            if (dataType == RedisDataTypeDescription.RedisDataType.HASH
-                    && this.expireIntervalSec > 0) {
-                jedisCluster.expire(additionalKey, expireIntervalSec);
+            String key = keys.get(i);
+            String value = keyToValue.get(key);
+            switch (dataType) {
+                case STRING:
+                    if (this.expireIntervalSec > 0) {
+                        return pipeline.setex(key, expireIntervalSec, value);
+                    } else {
+                        return pipeline.set(key, value);
+                    }
+                case HASH:
+                    return pipeline.hset(additionalKey, key, value);
+                default:
+                    throw new IllegalArgumentException("Cannot process such data type: " + dataType);
             }
-        } finally {
-            if (jedisCluster != null) {
-                redisClusterState.returnJedisCluster(jedisCluster);
-            }
-        }
+        });
     }
 }
@@ -14,6 +14,7 @@ package org.apache.storm.redis.trident.state;
 
 import java.util.List;
 import java.util.Map;
+import org.apache.storm.redis.common.commands.RedisPipeline;
 import org.apache.storm.redis.common.config.JedisPoolConfig;
 import org.apache.storm.redis.common.mapper.RedisDataTypeDescription;
 import org.apache.storm.task.IMetricsContext;
@@ -32,7 +33,6 @@ import org.apache.storm.trident.state.map.TransactionalMap;
 import org.apache.storm.tuple.Values;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
-import redis.clients.jedis.Pipeline;
 
 /**
  * IBackingMap implementation for single Redis environment.
@@ -263,20 +263,23 @@ public class RedisMapState<T> extends AbstractRedisMapState<T> {
             switch (description.getDataType()) {
                 case STRING:
                     String[] keyValue = buildKeyValuesList(keyValues);
-                    jedis.mset(keyValue);
                     if (this.options.expireIntervalSec > 0) {
-                        Pipeline pipe = jedis.pipelined();
-                        for (int i = 0; i < keyValue.length; i += 2) {
-                            pipe.expire(keyValue[i], this.options.expireIntervalSec);
-                        }
-                        pipe.sync();
+                        // sets the values and their expiry with a single round trip
+                        RedisPipeline.execute(jedis, keyValues.size() + 1, (pipeline, i) -> i == 0
+                            ? pipeline.mset(keyValue)
+                            : pipeline.expire(keyValue[2 * (i - 1)], this.options.expireIntervalSec));
+                    } else {
+                        jedis.mset(keyValue);
                     }
                     break;
 
                 case HASH:
-                    jedis.hmset(description.getAdditionalKey(), keyValues);
                     if (this.options.expireIntervalSec > 0) {
-                        jedis.expire(description.getAdditionalKey(), this.options.expireIntervalSec);
+                        RedisPipeline.execute(jedis, 2, (pipeline, i) -> i == 0
+                            ? pipeline.hmset(description.getAdditionalKey(), keyValues)
+                            : pipeline.expire(description.getAdditionalKey(), this.options.expireIntervalSec));
+                    } else {
+                        jedis.hmset(description.getAdditionalKey(), keyValues);
                     }
                     break;
 
@@ -353,7 +356,9 @@ public class RedisMapState<T> extends AbstractRedisMapState<T> {
                                                 jedisPoolConfig.getPassword(),
                                                 jedisPoolConfig.getDatabase());
             RedisMapState state = new RedisMapState(jedisPool, options, serializer, keyFactory);
-            CachedMap c = new CachedMap(state, options.localCacheSize);
+            CachedMap c = options.localCacheOptions != null
+                ? new CachedMap(state, options.localCacheOptions, metrics)
+                : new CachedMap(state, options.localCacheSize);
 
             MapState ms;
             if (type == StateType.NON_TRANSACTIONAL) {
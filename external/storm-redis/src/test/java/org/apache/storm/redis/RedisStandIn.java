@@ -0,0 +1,394 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.redis;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import redis.clients.util.JedisClusterCRC16;
+
+/**
+ * An in-process stand-in for a Redis server, speaking the Redis protocol on a local port. It keeps the data in memory, supports the
+ * commands used by the tests, and counts the commands it receives.
+ *
+ * <p>The nodes of a cluster started with {@link #startCluster(int)} answer CLUSTER SLOTS with the slots served by every node, and redirect
+ * with MOVED the commands whose key belongs to a slot of another node. A slot migrated with {@link #migrateSlot(int, RedisStandIn)} is
+ * redirected with ASK for the keys missing on the migrating node, and the importing node accepts the commands preceded by ASKING.
+ */
+public class RedisStandIn implements Closeable {
+    private static final String HOST = "127.0.0.1";
+
+    private final ServerSocket serverSocket;
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private final Map<String, Object> data = new HashMap<>();
+    private final List<String> commands = new ArrayList<>();
+    private volatile List<RedisStandIn> cluster;
+    private volatile int firstSlot;
+    private volatile int lastSlot;
+    private volatile int migratingSlot = -1;
+    private volatile RedisStandIn migrationTarget;
+    private volatile int importingSlot = -1;
+
+    public RedisStandIn() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getByName(HOST));
+        Thread acceptor = new Thread(this::accept, "redis-stand-in-" + getPort());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Starts the nodes of a cluster, serving the slots in equal ranges.
+     */
+    public static List<RedisStandIn> startCluster(int nodeCount) throws IOException {
+        List<RedisStandIn> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(new RedisStandIn());
+        }
+        int slotsPerNode = 16384 / nodeCount;
+        for (int i = 0; i < nodeCount; i++) {
+            RedisStandIn node = nodes.get(i);
+            node.cluster = nodes;
+            node.setSlots(i * slotsPerNode, i == nodeCount - 1 ? 16383 : (i + 1) * slotsPerNode - 1);
+        }
+        return nodes;
+    }
+
+    /**
+     * Starts a node joining a cluster started with {@link #startCluster(int)}, serving no slots until they are set.
+     */
+    public static RedisStandIn joinCluster(List<RedisStandIn> cluster) throws IOException {
+        RedisStandIn node = new RedisStandIn();
+        node.cluster = cluster;
+        node.setSlots(1, 0);
+        cluster.add(node);
+        return node;
+    }
+
+    public String getHost() {
+        return HOST;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Sets the range of slots served by this node of a cluster, the nodes serving the other slots must be updated accordingly.
+     */
+    public void setSlots(int firstSlot, int lastSlot) {
+        this.firstSlot = firstSlot;
+        this.lastSlot = lastSlot;
+    }
+
+    /**
+     * Starts migrating a slot served by this node to another node of the cluster.
+     */
+    public void migrateSlot(int slot, RedisStandIn target) {
+        this.migratingSlot = slot;
+        this.migrationTarget = target;
+        target.importingSlot = slot;
+    }
+
+    public synchronized Object get(String key) {
+        return data.get(key);
+    }
+
+    public synchronized void put(String key, Object value) {
+        data.put(key, value);
+    }
+
+    /**
+     * Returns the names of the commands received, in lower case.
+     */
+    public synchronized List<String> getCommands() {
+        return new ArrayList<>(commands);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    private boolean servesSlot(int slot) {
+        return firstSlot <= slot && slot <= lastSlot;
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                Thread handler = new Thread(() -> serve(socket), "redis-stand-in-" + getPort() + "-connection");
+                handler.setDaemon(true);
+                handler.start();
+            }
+        } catch (IOException e) {
+            // closed
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            boolean asking = false;
+            while (true) {
+                List<String> args = readCommand(in);
+                writeReply(out, execute(args, asking));
+                // ASKING only applies to the next command
+                asking = args.get(0).equalsIgnoreCase("asking");
+                // replies are sent once the pipelined commands received so far are executed
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // disconnected
+        }
+    }
+
+    private List<String> readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header.charAt(0) != '*') {
+            throw new IOException("Unsupported request " + header);
+        }
+        int count = Integer.parseInt(header.substring(1));
+        List<String> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = Integer.parseInt(readLine(in).substring(1));
+            byte[] bytes = new byte[length + 2];
+            int read = 0;
+            while (read < bytes.length) {
+                int n = in.read(bytes, read, bytes.length - read);
+                if (n < 0) {
+                    throw new EOFException();
+                }
+                read += n;
+            }
+            args.add(new String(bytes, 0, length, StandardCharsets.UTF_8));
+        }
+        return args;
+    }
+
+    private String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException();
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized Object execute(List<String> args, boolean asking) {
+        String command = args.get(0).toLowerCase();
+        commands.add(command);
+        if (cluster != null && !command.equals("cluster") && !command.equals("ping") && !command.equals("asking")) {
+            Object redirection = checkSlots(command, args, asking);
+            if (redirection != null) {
+                return redirection;
+            }
+        }
+
+        String key = args.size() > 1 ? args.get(1) : null;
+        try {
+            switch (command) {
+                case "ping":
+                    return new Status("PONG");
+                case "asking":
+                    return new Status("OK");
+                case "cluster":
+                    return clusterSlots();
+                case "get":
+                    return (String) data.get(key);
+                case "set":
+                    data.put(key, args.get(2));
+                    return new Status("OK");
+                case "setex":
+                    data.put(key, args.get(3));
+                    return new Status("OK");
+                case "mget":
+                    List<Object> values = new ArrayList<>();
+                    for (String mgetKey : args.subList(1, args.size())) {
+                        values.add((String) data.get(mgetKey));
+                    }
+                    return values;
+                case "mset":
+                    for (int i = 1; i < args.size(); i += 2) {
+                        data.put(args.get(i), args.get(i + 1));
+                    }
+                    return new Status("OK");
+                case "exists":
+                    return data.containsKey(key) ? 1L : 0L;
+                case "expire":
+                    return data.containsKey(key) ? 1L : 0L;
+                case "rpush":
+                    List<String> list = (List<String>) data.computeIfAbsent(key, k -> new LinkedList<String>());
+                    list.addAll(args.subList(2, args.size()));
+                    return (long) list.size();
+                case "lpop":
+                    List<String> popList = (List<String>) data.get(key);
+                    return popList == null || popList.isEmpty() ? null : popList.remove(0);
+                case "hset":
+                    Map<String, String> hash = (Map<String, String>) data.computeIfAbsent(key, k -> new HashMap<String, String>());
+                    return hash.put(args.get(2), args.get(3)) == null ? 1L : 0L;
+                case "hmset":
+                    Map<String, String> hmsetHash = (Map<String, String>) data.computeIfAbsent(key, k -> new HashMap<String, String>());
+                    for (int i = 2; i < args.size(); i += 2) {
+                        hmsetHash.put(args.get(i), args.get(i + 1));
+                    }
+                    return new Status("OK");
+                case "hget":
+                    Map<String, String> hgetHash = (Map<String, String>) data.getOrDefault(key, new HashMap<String, String>());
+                    return hgetHash.get(args.get(2));
+                case "hmget":
+                    Map<String, String> hmgetHash = (Map<String, String>) data.getOrDefault(key, new HashMap<String, String>());
+                    List<Object> fieldValues = new ArrayList<>();
+                    for (String field : args.subList(2, args.size())) {
+                        fieldValues.add(hmgetHash.get(field));
+                    }
+                    return fieldValues;
+                case "hexists":
+                    Map<String, String> hexistsHash = (Map<String, String>) data.getOrDefault(key, new HashMap<String, String>());
+                    return hexistsHash.containsKey(args.get(2)) ? 1L : 0L;
+                case "sadd":
+                    Set<String> set = (Set<String>) data.computeIfAbsent(key, k -> new HashSet<String>());
+                    long added = 0;
+                    for (String member : args.subList(2, args.size())) {
+                        added += set.add(member) ? 1 : 0;
+                    }
+                    return added;
+                case "sismember":
+                    Set<String> sismemberSet = (Set<String>) data.getOrDefault(key, new HashSet<String>());
+                    return sismemberSet.contains(args.get(2)) ? 1L : 0L;
+                case "scard":
+                    Set<String> scardSet = (Set<String>) data.getOrDefault(key, new HashSet<String>());
+                    return (long) scardSet.size();
+                default:
+                    return new Error("ERR unknown command '" + command + "'");
+            }
+        } catch (ClassCastException e) {
+            return new Error("WRONGTYPE Operation against a key holding the wrong kind of value");
+        }
+    }
+
+    private Object checkSlots(String command, List<String> args, boolean asking) {
+        List<String> keys;
+        if (command.equals("mget")) {
+            keys = args.subList(1, args.size());
+        } else if (command.equals("mset")) {
+            keys = new ArrayList<>();
+            for (int i = 1; i < args.size(); i += 2) {
+                keys.add(args.get(i));
+            }
+        } else {
+            keys = args.subList(1, 2);
+        }
+
+        int slot = JedisClusterCRC16.getSlot(keys.get(0));
+        for (String key : keys) {
+            if (JedisClusterCRC16.getSlot(key) != slot) {
+                return new Error("CROSSSLOT Keys in request don't hash to the same slot");
+            }
+        }
+        if (slot == migratingSlot && !data.containsKey(keys.get(0))) {
+            return new Error("ASK " + slot + " " + HOST + ":" + migrationTarget.getPort());
+        }
+        if (!servesSlot(slot) && !(asking && slot == importingSlot)) {
+            for (RedisStandIn node : cluster) {
+                if (node.servesSlot(slot)) {
+                    return new Error("MOVED " + slot + " " + HOST + ":" + node.getPort());
+                }
+            }
+            return new Error("CLUSTERDOWN Hash slot not served");
+        }
+        return null;
+    }
+
+    private Object clusterSlots() {
+        if (cluster == null) {
+            return new Error("ERR This instance has cluster support disabled");
+        }
+        List<Object> slots = new ArrayList<>();
+        for (RedisStandIn node : cluster) {
+            if (node.firstSlot > node.lastSlot) {
+                continue;
+            }
+            slots.add(Arrays.asList((long) node.firstSlot, (long) node.lastSlot, Arrays.asList(HOST, (long) node.getPort())));
+        }
+        return slots;
+    }
+
+    private void writeReply(OutputStream out, Object reply) throws IOException {
+        if (reply == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.UTF_8));
+        } else if (reply instanceof Status) {
+            out.write(("+" + ((Status) reply).message + "\r\n").getBytes(StandardCharsets.UTF_8));
+        } else if (reply instanceof Error) {
+            out.write(("-" + ((Error) reply).message + "\r\n").getBytes(StandardCharsets.UTF_8));
+        } else if (reply instanceof Long) {
+            out.write((":" + reply + "\r\n").getBytes(StandardCharsets.UTF_8));
+        } else if (reply instanceof String) {
+            byte[] bytes = ((String) reply).getBytes(StandardCharsets.UTF_8);
+            out.write(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+            out.write(bytes);
+            out.write("\r\n".getBytes(StandardCharsets.UTF_8));
+        } else {
+            List<?> elements = (List<?>) reply;
+            out.write(("*" + elements.size() + "\r\n").getBytes(StandardCharsets.UTF_8));
+            for (Object element : elements) {
+                writeReply(out, element);
+            }
+        }
+    }
+
+    private static class Status {
+        private final String message;
+
+        Status(String message) {
+            this.message = message;
+        }
+    }
+
+    private static class Error {
+        private final String message;
+
+        Error(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.redis.bolt;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import org.apache.storm.redis.RedisStandIn;
+import org.apache.storm.redis.common.config.JedisClusterConfig;
+import org.apache.storm.redis.common.config.JedisPoolConfig;
+import org.apache.storm.redis.common.mapper.RedisDataTypeDescription;
+import org.apache.storm.redis.common.mapper.RedisFilterMapper;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.topology.OutputFieldsDeclarer;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.ITuple;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.Values;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class RedisFilterBoltTest {
+    private final OutputCollector collector = mock(OutputCollector.class);
+    private final TopologyContext context = mock(TopologyContext.class);
+    private List<RedisStandIn> servers = Collections.emptyList();
+    private RedisFilterBolt bolt;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (bolt != null) {
+            bolt.cleanup();
+        }
+        for (RedisStandIn server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testFiltersBatch() throws IOException {
+        RedisStandIn server = new RedisStandIn();
+        servers = Collections.singletonList(server);
+        server.put("key1", "value1");
+        server.put("key3", "value3");
+        JedisPoolConfig config = new JedisPoolConfig.Builder().setHost(server.getHost()).setPort(server.getPort()).build();
+        bolt = new RedisFilterBolt(config, new FilterMapper(new RedisDataTypeDescription(RedisDataTypeDescription.RedisDataType.STRING)))
+            .withBatchSize(3);
+        bolt.prepare(new HashMap<>(), context, collector);
+
+        Tuple tuple1 = mockTuple("key1");
+        Tuple tuple2 = mockTuple("key2");
+        bolt.execute(tuple1);
+        bolt.execute(tuple2);
+        verify(collector, never()).emit(any(Tuple.class), anyList());
+
+        Tuple tuple3 = mockTuple("key3");
+        bolt.execute(tuple3);
+        verify(collector).emit(tuple1, new Values("key1"));
+        verify(collector, never()).emit(tuple2, new Values("key2"));
+        verify(collector).emit(tuple3, new Values("key3"));
+        verify(collector).ack(tuple1);
+        verify(collector).ack(tuple2);
+        verify(collector).ack(tuple3);
+    }
+
+    @Test
+    public void testFiltersBatchOnCluster() throws IOException {
+        servers = RedisStandIn.startCluster(3);
+        RedisDataTypeDescription description = new RedisDataTypeDescription(RedisDataTypeDescription.RedisDataType.SET, "set");
+        for (RedisStandIn server : servers) {
+            server.put("set", new HashSet<>(Arrays.asList("member1", "member2")));
+        }
+        JedisClusterConfig config = new JedisClusterConfig.Builder()
+            .setNodes(Collections.singleton(new InetSocketAddress(servers.get(0).getHost(), servers.get(0).getPort())))
+            .build();
+        bolt = new RedisFilterBolt(config, new FilterMapper(description)).withBatchSize(2);
+        bolt.prepare(new HashMap<>(), context, collector);
+
+        Tuple tuple1 = mockTuple("member1");
+        Tuple tuple2 = mockTuple("member3");
+        bolt.execute(tuple1);
+        bolt.execute(tuple2);
+        verify(collector).emit(tuple1, new Values("member1"));
+        verify(collector, never()).emit(tuple2, new Values("member3"));
+        verify(collector).ack(tuple1);
+        verify(collector).ack(tuple2);
+    }
+
+    private static Tuple mockTuple(String key) {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.getStringByField("key")).thenReturn(key);
+        when(tuple.getValues()).thenReturn(new Values(key));
+        when(tuple.getSourceComponent()).thenReturn("spout");
+        when(tuple.getSourceStreamId()).thenReturn("default");
+        return tuple;
+    }
+
+    private static class FilterMapper implements RedisFilterMapper {
+        private final RedisDataTypeDescription description;
+
+        FilterMapper(RedisDataTypeDescription description) {
+            this.description = description;
+        }
+
+        @Override
+        public void declareOutputFields(OutputFieldsDeclarer declarer) {
+            declarer.declare(new Fields("key"));
+        }
+
+        @Override
+        public RedisDataTypeDescription getDataTypeDescription() {
+            return description;
+        }
+
+        @Override
+        public String getKeyFromTuple(ITuple tuple) {
+            return tuple.getStringByField("key");
+        }
+
+        @Override
+        public String getValueFromTuple(ITuple tuple) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.redis.bolt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import org.apache.storm.Constants;
+import org.apache.storm.redis.RedisStandIn;
+import org.apache.storm.redis.common.config.JedisClusterConfig;
+import org.apache.storm.redis.common.config.JedisPoolConfig;
+import org.apache.storm.redis.common.mapper.RedisDataTypeDescription;
+import org.apache.storm.redis.common.mapper.RedisStoreMapper;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.tuple.ITuple;
+import org.apache.storm.tuple.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.util.JedisClusterCRC16;
+
+public class RedisStoreBoltTest {
+    private final OutputCollector collector = mock(OutputCollector.class);
+    private final TopologyContext context = mock(TopologyContext.class);
+    private final List<RedisStandIn> servers = new ArrayList<>();
+    private RedisStoreBolt bolt;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (bolt != null) {
+            bolt.cleanup();
+        }
+        for (RedisStandIn server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testWritesTupleWithJedisClusterWithoutBatches() throws IOException {
+        List<RedisStandIn> nodes = RedisStandIn.startCluster(3);
+        servers.addAll(nodes);
+        int slot = JedisClusterCRC16.getSlot("key0");
+        int source = Math.min(slot / (16384 / 3), 2);
+        RedisStandIn target = nodes.get((source + 1) % 3);
+        nodes.get(source).migrateSlot(slot, target);
+        bolt = new RedisStoreBolt(clusterConfig(nodes.get(0)), new StoreMapper(RedisDataTypeDescription.RedisDataType.STRING));
+        assertNull(bolt.getComponentConfiguration());
+        bolt.prepare(new HashMap<>(), context, collector);
+
+        // the key of a migrating slot is written to the importing node after an ASKING
+        Tuple tuple = mockTuple("key0", "value0");
+        bolt.execute(tuple);
+        verify(collector).ack(tuple);
+        assertEquals("value0", target.get("key0"));
+        assertEquals(1, Collections.frequency(target.getCommands(), "asking"));
+    }
+
+    @Test
+    public void testWritesBatchWithPipeline() throws IOException {
+        RedisStandIn server = startServer();
+        bolt = new RedisStoreBolt(poolConfig(server), new StoreMapper(RedisDataTypeDescription.RedisDataType.STRING)).withBatchSize(3);
+        bolt.prepare(new HashMap<>(), context, collector);
+
+        Tuple tuple1 = mockTuple("key1", "value1");
+        Tuple tuple2 = mockTuple("key2", "value2");
+        bolt.execute(tuple1);
+        bolt.execute(tuple2);
+        verify(collector, never()).ack(any(Tuple.class));
+        assertEquals(0, Collections.frequency(server.getCommands(), "set"));
+
+        Tuple tuple3 = mockTuple("key3", "value3");
+        bolt.execute(tuple3);
+        verify(collector).ack(tuple1);
+        verify(collector).ack(tuple2);
+        verify(collector).ack(tuple3);
+        assertEquals("value1", server.get("key1"));
+        assertEquals("value3", server.get("key3"));
+    }
+
+    @Test
+    public void testFlushesIncompleteBatchOnTick() throws IOException {
+        RedisStandIn server = startServer();
+        bolt = new RedisStoreBolt(poolConfig(server), new StoreMapper(RedisDataTypeDescription.RedisDataType.HASH, "hash"))
+            .withBatchSize(10)
+            .withFlushIntervalSecs(5);
+        assertEquals(5, bolt.getComponentConfiguration().get("topology.tick.tuple.freq.secs"));
+        bolt.prepare(new HashMap<>(), context, collector);
+
+        Tuple tuple = mockTuple("field", "value");
+        bolt.execute(tuple);
+        verify(collector, never()).ack(tuple);
+
+        bolt.execute(mockTickTuple());
+        verify(collector).ack(tuple);
+        assertEquals(Collections.singletonMap("field", "value"), server.get("hash"));
+    }
+
+    @Test
+    public void testFailsBatchOnError() throws IOException {
+        RedisStandIn server = startServer();
+        server.put("key2", new HashMap<String, String>());
+        bolt = new RedisStoreBolt(poolConfig(server), new StoreMapper(RedisDataTypeDescription.RedisDataType.LIST)).withBatchSize(2);
+        bolt.prepare(new HashMap<>(), context, collector);
+
+        Tuple tuple1 = mockTuple("key1", "value1");
+        Tuple tuple2 = mockTuple("key2", "value2");
+        bolt.execute(tuple1);
+        bolt.execute(tuple2);
+        verify(collector).reportError(any(Throwable.class));
+        verify(collector).fail(tuple1);
+        verify(collector).fail(tuple2);
+        verify(collector, never()).ack(any(Tuple.class));
+    }
+
+    @Test
+    public void testFailsInvalidTupleOnItsOwn() throws IOException {
+        RedisStandIn server = startServer();
+        bolt = new RedisStoreBolt(poolConfig(server), new StoreMapper(RedisDataTypeDescription.RedisDataType.SORTED_SET, "zset"))
+            .withBatchSize(2);
+        bolt.prepare(new HashMap<>(), context, collector);
+
+        Tuple tuple = mockTuple("member", "not a score");
+        bolt.execute(tuple);
+        verify(collector).fail(tuple);
+        assertTrue(server.getCommands().isEmpty());
+    }
+
+    @Test
+    public void testWritesBatchToClusterNodes() throws IOException {
+        List<RedisStandIn> nodes = RedisStandIn.startCluster(3);
+        servers.addAll(nodes);
+        bolt = new RedisStoreBolt(clusterConfig(nodes.get(0)), new StoreMapper(RedisDataTypeDescription.RedisDataType.STRING))
+            .withBatchSize(30);
+        bolt.prepare(new HashMap<>(), context, collector);
+
+        List<Tuple> tuples = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Tuple tuple = mockTuple("key" + i, "value" + i);
+            tuples.add(tuple);
+            bolt.execute(tuple);
+        }
+
+        for (Tuple tuple : tuples) {
+            verify(collector).ack(tuple);
+        }
+        for (int i = 0; i < 30; i++) {
+            String key = "key" + i;
+            RedisStandIn node = nodes.get(Math.min(JedisClusterCRC16.getSlot(key) / (16384 / 3), 2));
+            assertEquals("value" + i, node.get(key));
+        }
+    }
+
+    private RedisStandIn startServer() throws IOException {
+        RedisStandIn server = new RedisStandIn();
+        servers.add(server);
+        return server;
+    }
+
+    private static JedisPoolConfig poolConfig(RedisStandIn server) {
+        return new JedisPoolConfig.Builder().setHost(server.getHost()).setPort(server.getPort()).build();
+    }
+
+    private static JedisClusterConfig clusterConfig(RedisStandIn node) {
+        return new JedisClusterConfig.Builder()
+            .setNodes(Collections.singleton(new InetSocketAddress(node.getHost(), node.getPort())))
+            .build();
+    }
+
+    private static Tuple mockTuple(String key, String value) {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.getStringByField("key")).thenReturn(key);
+        when(tuple.getStringByField("value")).thenReturn(value);
+        when(tuple.getSourceComponent()).thenReturn("spout");
+        when(tuple.getSourceStreamId()).thenReturn("default");
+        return tuple;
+    }
+
+    private static Tuple mockTickTuple() {
+        Tuple tuple = mock(Tuple.class);
+        when(tuple.getSourceComponent()).thenReturn(Constants.SYSTEM_COMPONENT_ID);
+        when(tuple.getSourceStreamId()).thenReturn(Constants.SYSTEM_TICK_STREAM_ID);
+        return tuple;
+    }
+
+    private static class StoreMapper implements RedisStoreMapper {
+        private final RedisDataTypeDescription description;
+
+        StoreMapper(RedisDataTypeDescription.RedisDataType dataType) {
+            this.description = new RedisDataTypeDescription(dataType);
+        }
+
+        StoreMapper(RedisDataTypeDescription.RedisDataType dataType, String additionalKey) {
+            this.description = new RedisDataTypeDescription(dataType, additionalKey);
+        }
+
+        @Override
+        public RedisDataTypeDescription getDataTypeDescription() {
+            return description;
+        }
+
+        @Override
+        public String getKeyFromTuple(ITuple tuple) {
+            return tuple.getStringByField("key");
+        }
+
+        @Override
+        public String getValueFromTuple(ITuple tuple) {
+            return tuple.getStringByField("value");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.redis.common.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.storm.redis.RedisStandIn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.util.JedisClusterCRC16;
+
+public class JedisClusterPipelineTest {
+    private List<RedisStandIn> nodes;
+    private JedisCluster jedisCluster;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        nodes = RedisStandIn.startCluster(3);
+        jedisCluster = new JedisCluster(new HostAndPort(nodes.get(0).getHost(), nodes.get(0).getPort()));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        jedisCluster.close();
+        for (RedisStandIn node : nodes) {
+            node.close();
+        }
+    }
+
+    @Test
+    public void testSendsCommandsToNodeOfTheirSlot() {
+        List<String> keys = makeKeys(100);
+        JedisClusterPipeline pipeline = new JedisClusterPipeline(jedisCluster);
+
+        List<String> results = pipeline.execute(keys, (p, i) -> p.set(keys.get(i), "value" + i));
+        assertEquals(Collections.nCopies(100, "OK"), results);
+
+        int setCount = 0;
+        for (RedisStandIn node : nodes) {
+            setCount += Collections.frequency(node.getCommands(), "set");
+        }
+        assertEquals(100, setCount, "The commands should not be redirected");
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals("value" + i, getNode(keys.get(i)).get(keys.get(i)));
+        }
+
+        List<String> values = pipeline.execute(keys, (p, i) -> p.get(keys.get(i)));
+        assertEquals("value42", values.get(42));
+    }
+
+    @Test
+    public void testFollowsMovedRedirections() {
+        List<String> keys = makeKeys(100);
+        JedisClusterPipeline pipeline = new JedisClusterPipeline(jedisCluster);
+        pipeline.execute(keys, (p, i) -> p.set(keys.get(i), "before"));
+
+        // moves the slots 4096 to 5460 from the first to the second node
+        assertTrue(countKeysInSlots(keys, 4096, 5460) > 0);
+        nodes.get(0).setSlots(0, 4095);
+        nodes.get(1).setSlots(4096, 10921);
+
+        List<String> results = pipeline.execute(keys, (p, i) -> p.set(keys.get(i), "after"));
+        assertEquals(Collections.nCopies(100, "OK"), results);
+        for (String key : keys) {
+            int slot = JedisClusterCRC16.getSlot(key);
+            if (slot >= 4096 && slot <= 5460) {
+                assertEquals("after", nodes.get(1).get(key));
+            }
+        }
+
+        // the slots are updated by the redirections
+        pipeline.execute(keys, (p, i) -> p.get(keys.get(i)));
+        assertEquals(countKeysInSlots(keys, 0, 4095), Collections.frequency(nodes.get(0).getCommands(), "get"));
+    }
+
+    @Test
+    public void testFollowsMovedRedirectionsToNewNode() throws IOException {
+        List<String> keys = makeKeys(100);
+        JedisClusterPipeline pipeline = new JedisClusterPipeline(jedisCluster);
+        pipeline.execute(keys, (p, i) -> p.set(keys.get(i), "before"));
+
+        // moves the slots 0 to 1000 from the first node to a node the JedisCluster did not connect to
+        assertTrue(countKeysInSlots(keys, 0, 1000) > 0);
+        RedisStandIn newNode = RedisStandIn.joinCluster(nodes);
+        newNode.setSlots(0, 1000);
+        nodes.get(0).setSlots(1001, 5460);
+
+        List<String> results = pipeline.execute(keys, (p, i) -> p.set(keys.get(i), "after"));
+        assertEquals(Collections.nCopies(100, "OK"), results);
+        assertEquals(countKeysInSlots(keys, 0, 1000), Collections.frequency(newNode.getCommands(), "set"));
+        for (String key : keys) {
+            if (JedisClusterCRC16.getSlot(key) <= 1000) {
+                assertEquals("after", newNode.get(key));
+            }
+        }
+    }
+
+    @Test
+    public void testSendsAskedCommandsToImportingNode() {
+        List<String> keys = makeKeys(100);
+        String migratedKey = keys.stream().filter(key -> getNode(key) == nodes.get(0)).findFirst().get();
+        nodes.get(0).migrateSlot(JedisClusterCRC16.getSlot(migratedKey), nodes.get(1));
+        nodes.get(1).put(migratedKey, "migrated");
+        JedisClusterPipeline pipeline = new JedisClusterPipeline(jedisCluster);
+
+        List<String> values = pipeline.execute(keys, (p, i) -> p.get(keys.get(i)));
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(keys.get(i).equals(migratedKey) ? "migrated" : null, values.get(i));
+        }
+        assertEquals(1, Collections.frequency(nodes.get(1).getCommands(), "asking"));
+
+        // the slot is still served by the migrating node
+        pipeline.execute(keys, (p, i) -> p.get(keys.get(i)));
+        assertEquals(2, Collections.frequency(nodes.get(1).getCommands(), "asking"));
+    }
+
+    @Test
+    public void testFailsOnCommandError() {
+        getNode("list").put("list", new ArrayList<String>());
+        JedisClusterPipeline pipeline = new JedisClusterPipeline(jedisCluster);
+        List<String> keys = new ArrayList<>(makeKeys(10));
+        keys.add("list");
+
+        assertThrows(JedisDataException.class, () -> pipeline.execute(keys, (p, i) -> p.get(keys.get(i))));
+        assertNull(pipeline.execute(keys.subList(0, 1), (p, i) -> p.get(keys.get(i))).get(0));
+    }
+
+    // the node serving the key, with the initial slots
+    private RedisStandIn getNode(String key) {
+        return nodes.get(Math.min(JedisClusterCRC16.getSlot(key) / (16384 / nodes.size()), nodes.size() - 1));
+    }
+
+    private static int countKeysInSlots(List<String> keys, int firstSlot, int lastSlot) {
+        int count = 0;
+        for (String key : keys) {
+            int slot = JedisClusterCRC16.getSlot(key);
+            if (slot >= firstSlot && slot <= lastSlot) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static List<String> makeKeys(int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add("key" + i);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.redis.trident.state;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.storm.redis.RedisStandIn;
+import org.apache.storm.trident.state.JSONNonTransactionalSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.JedisCluster;
+
+public class RedisClusterMapStateTest {
+    private List<RedisStandIn> nodes;
+    private JedisCluster jedisCluster;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        nodes = RedisStandIn.startCluster(3);
+        jedisCluster = new JedisCluster(new HostAndPort(nodes.get(0).getHost(), nodes.get(0).getPort()));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        jedisCluster.close();
+        for (RedisStandIn node : nodes) {
+            node.close();
+        }
+    }
+
+    @Test
+    public void testPutsAndGetsStringValuesWithPipelines() {
+        Options<Object> options = new Options<>();
+        options.expireIntervalSec = 60;
+        RedisClusterMapState<Object> state = new RedisClusterMapState<>(jedisCluster, options, new JSONNonTransactionalSerializer(),
+                                                                        new KeyFactory.DefaultKeyFactory());
+        List<List<Object>> keys = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (long i = 0; i < 50; i++) {
+            keys.add(Collections.singletonList("word" + i));
+            values.add(i);
+        }
+
+        state.multiPut(keys, values);
+        assertEquals(values, state.multiGet(keys));
+
+        int setexCount = 0;
+        int getCount = 0;
+        for (RedisStandIn node : nodes) {
+            setexCount += Collections.frequency(node.getCommands(), "setex");
+            getCount += Collections.frequency(node.getCommands(), "get");
+        }
+        assertEquals(50, setexCount);
+        assertEquals(50, getCount);
+    }
+}
@@ -43,6 +43,7 @@ import org.apache.storm.sql.planner.streams.rules.StreamsFilterRule;
 import org.apache.storm.sql.planner.streams.rules.StreamsJoinRule;
 import org.apache.storm.sql.planner.streams.rules.StreamsModifyRule;
 import org.apache.storm.sql.planner.streams.rules.StreamsProjectRule;
+import org.apache.storm.sql.planner.streams.rules.StreamsScanPushdownRule;
 import org.apache.storm.sql.planner.streams.rules.StreamsScanRule;
 
 public class StreamsStormRuleSets {
@@ -77,7 +78,9 @@ public class StreamsStormRuleSets {
             StreamsAggregateRule.INSTANCE,
             StreamsJoinRule.INSTANCE,
             StreamsModifyRule.INSTANCE,
-            StreamsCalcRule.INSTANCE
+            StreamsCalcRule.INSTANCE,
+
+            StreamsScanPushdownRule.INSTANCE
         ).build();
 
     public static RuleSet[] getRuleSets() {
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.storm.sql.planner.streams.rel;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.AggregateCall;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.storm.sql.planner.StormRelUtils;
+import org.apache.storm.sql.planner.rel.StormAggregateRelBase;
+import org.apache.storm.sql.planner.streams.StreamsPlanCreator;
+import org.apache.storm.sql.runtime.streams.functions.AggregateCombiner;
+import org.apache.storm.sql.runtime.streams.functions.KeyMapToPairFunction;
+import org.apache.storm.sql.runtime.streams.functions.WindowAggregateResultFunction;
+import org.apache.storm.streams.PairStream;
+import org.apache.storm.streams.Stream;
+import org.apache.storm.streams.windowing.SessionWindows;
+import org.apache.storm.streams.windowing.SlidingWindows;
+import org.apache.storm.streams.windowing.TumblingWindows;
+import org.apache.storm.streams.windowing.Window;
+import org.apache.storm.topology.base.BaseWindowedBolt.Duration;
+import org.apache.storm.tuple.Values;
+
+/**
+ * A group by over a TUMBLE, HOP or SESSION group window, executed as a windowed aggregateByKey on the values of the group by columns.
+ * For the tumbling and hopping windows the rows are aggregated in each task before they are partitioned by the key, so that the data sent
+ * across the network depends on the number of groups and not the number of rows.
+ */
+public class StreamsAggregateRel extends StormAggregateRelBase implements StreamsRel {
+    private final GroupWindow groupWindow;
+
+    public StreamsAggregateRel(RelOptCluster cluster, RelTraitSet traits, RelNode child, ImmutableBitSet groupSet,
+                               List<AggregateCall> aggCalls, GroupWindow groupWindow) {
+        super(cluster, traits, child, false, groupSet, null, aggCalls);
+        this.groupWindow = groupWindow;
+    }
+
+    @Override
+    public Aggregate copy(RelTraitSet traitSet, RelNode input, boolean indicator, ImmutableBitSet groupSet,
+                          List<ImmutableBitSet> groupSets, List<AggregateCall> aggCalls) {
+        return new StreamsAggregateRel(getCluster(), traitSet, input, groupSet, aggCalls, groupWindow);
+    }
+
+    @Override
+    public RelWriter explainTerms(RelWriter pw) {
+        return super.explainTerms(pw).item("window", groupWindow);
+    }
+
+    @Override
+    public void streamsPlan(StreamsPlanCreator planCreator) throws Exception {
+        // SingleRel
+        RelNode input = getInput();
+        StormRelUtils.getStormRelInput(input).streamsPlan(planCreator);
+
+        List<AggregateCombiner.AggregateFunction> functions = new ArrayList<>();
+        for (AggregateCall aggCall : getAggCallList()) {
+            int argIndex = aggCall.getArgList().isEmpty() ? -1 : aggCall.getArgList().get(0);
+            functions.add(new AggregateCombiner.AggregateFunction(toAggregateKind(aggCall.getAggregation().getKind()), argIndex,
+                                                                  aggCall.getType().getSqlTypeName()));
+        }
+        boolean session = groupWindow.kind == SqlKind.SESSION;
+        if (session) {
+            // the start of the session is the timestamp of its first row
+            functions.add(new AggregateCombiner.AggregateFunction(AggregateCombiner.AggregateFunction.Kind.MIN, groupWindow.timeIndex,
+                                                                  SqlTypeName.TIMESTAMP));
+        }
+
+        List<Integer> keyIndexes = new ArrayList<>();
+        for (int group : getGroupSet()) {
+            if (group != groupWindow.timeIndex) {
+                keyIndexes.add(group);
+            }
+        }
+        int windowPosition = getGroupSet().asList().indexOf(groupWindow.timeIndex);
+        KeyMapToPairFunction keyFunction = new KeyMapToPairFunction(keyIndexes.stream().mapToInt(Integer::intValue).toArray());
+        AggregateCombiner combiner = new AggregateCombiner(functions);
+
+        final Stream<Values> inputStream = planCreator.pop();
+        PairStream<Values, Values> aggregated;
+        if (session) {
+            // the sessions are tracked per key
+            aggregated = inputStream.mapToPair(keyFunction).window(groupWindow.toWindow()).aggregateByKey(combiner);
+        } else {
+            aggregated = inputStream.window(groupWindow.toWindow()).mapToPair(keyFunction).aggregateByKey(combiner);
+        }
+        final Stream<Values> finalStream = aggregated.mapWithTimestamp(
+            new WindowAggregateResultFunction(windowPosition, session ? -1 : groupWindow.lengthMs));
+
+        planCreator.addStream(finalStream);
+    }
+
+    private static AggregateCombiner.AggregateFunction.Kind toAggregateKind(SqlKind kind) {
+        switch (kind) {
+            case COUNT:
+                return AggregateCombiner.AggregateFunction.Kind.COUNT;
+            case SUM:
+                return AggregateCombiner.AggregateFunction.Kind.SUM;
+            case MIN:
+                return AggregateCombiner.AggregateFunction.Kind.MIN;
+            case MAX:
+                return AggregateCombiner.AggregateFunction.Kind.MAX;
+            case AVG:
+                return AggregateCombiner.AggregateFunction.Kind.AVG;
+            default:
+                throw new UnsupportedOperationException("Aggregate function " + kind + " is not supported.");
+        }
+    }
+
+    /**
+     * The group window of the group by, the windows are based on the event time in the timestamp field of the tuples. Following the
+     * Storm windows, a window includes the rows with timestamp greater than its start and less than or equal to its end.
+     */
+    public static class GroupWindow {
+        private final SqlKind kind;
+        private final int timeIndex;
+        private final String timestampField;
+        private final long lengthMs;
+        private final long slidingIntervalMs;
+
+        /**
+         * Creates the group window.
+         *
+         * @param kind              TUMBLE, HOP or SESSION
+         * @param timeIndex         the index of the time column in the input of the group by
+         * @param timestampField    the name of the timestamp field of the tuples
+         * @param lengthMs          the length of the window, or the gap for the session windows
+         * @param slidingIntervalMs the sliding interval of the hopping windows
+         */
+        public GroupWindow(SqlKind kind, int timeIndex, String timestampField, long lengthMs, long slidingIntervalMs) {
+            this.kind = kind;
+            this.timeIndex = timeIndex;
+            this.timestampField = timestampField;
+            this.lengthMs = lengthMs;
+            this.slidingIntervalMs = slidingIntervalMs;
+        }
+
+        Window<?, ?> toWindow() {
+            Duration length = Duration.of(Math.toIntExact(lengthMs));
+            switch (kind) {
+                case TUMBLE:
+                    return TumblingWindows.of(length).withTimestampField(timestampField);
+                case HOP:
+                    return SlidingWindows.of(length, Duration.of(Math.toIntExact(slidingIntervalMs))).withTimestampField(timestampField);
+                case SESSION:
+                    return SessionWindows.of(length).withTimestampField(timestampField);
+                default:
+                    throw new IllegalStateException("Unexpected group window " + kind);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return kind + "(" + timestampField + ", " + lengthMs + (kind == SqlKind.HOP ? ", " + slidingIntervalMs : "") + ")";
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.storm.sql.planner.streams.rel;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import java.util.Objects;
+import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.JoinInfo;
+import org.apache.calcite.rel.core.JoinRelType;
+import org.apache.calcite.rex.RexNode;
+import org.apache.storm.sql.planner.StormRelUtils;
+import org.apache.storm.sql.planner.rel.StormJoinRelBase;
+import org.apache.storm.sql.planner.streams.StreamsPlanCreator;
+import org.apache.storm.sql.runtime.calcite.ExecutableExpression;
+import org.apache.storm.sql.runtime.streams.functions.EvaluationFilter;
+import org.apache.storm.sql.runtime.streams.functions.KeyMapToPairFunction;
+import org.apache.storm.sql.runtime.streams.functions.WindowJoinResultFunction;
+import org.apache.storm.streams.Pair;
+import org.apache.storm.streams.PairStream;
+import org.apache.storm.streams.Stream;
+import org.apache.storm.streams.windowing.SlidingWindows;
+import org.apache.storm.topology.base.BaseWindowedBolt.Duration;
+import org.apache.storm.tuple.Values;
+
+/**
+ * An inner equi-join of two streams, where the condition bounds the difference between the timestamps of the rows by boundMs. It is
+ * executed as a join over sliding windows of length 2 * boundMs that slide by boundMs, so that every pair of rows that can match is in
+ * a window, and each pair is emitted from a single window. The rest of the condition is evaluated on the joined rows.
+ */
+public class StreamsJoinRel extends StormJoinRelBase implements StreamsRel {
+    private final int leftTimeIndex;
+    private final int rightTimeIndex;
+    private final String timestampField;
+    private final long boundMs;
+
+    /**
+     * Creates the join.
+     *
+     * @param leftTimeIndex  the index of the time column in the left input
+     * @param rightTimeIndex the index of the time column in the right input
+     * @param timestampField the name of the timestamp field of the tuples
+     * @param boundMs        the bound of the difference between the timestamps of the joined rows
+     */
+    public StreamsJoinRel(RelOptCluster cluster, RelTraitSet traitSet, RelNode left, RelNode right, RexNode condition,
+                          int leftTimeIndex, int rightTimeIndex, String timestampField, long boundMs) {
+        super(cluster, traitSet, left, right, condition, ImmutableSet.of(), JoinRelType.INNER);
+        this.leftTimeIndex = leftTimeIndex;
+        this.rightTimeIndex = rightTimeIndex;
+        this.timestampField = timestampField;
+        this.boundMs = boundMs;
+    }
+
+    @Override
+    public Join copy(RelTraitSet traitSet, RexNode condition, RelNode left, RelNode right, JoinRelType joinType, boolean semiJoinDone) {
+        return new StreamsJoinRel(getCluster(), traitSet, left, right, condition, leftTimeIndex, rightTimeIndex, timestampField, boundMs);
+    }
+
+    @Override
+    public RelWriter explainTerms(RelWriter pw) {
+        return super.explainTerms(pw).item("window", "SLIDING(" + timestampField + ", " + 2 * boundMs + ", " + boundMs + ")");
+    }
+
+    @Override
+    public void streamsPlan(StreamsPlanCreator planCreator) throws Exception {
+        // BiRel
+        StormRelUtils.getStormRelInput(getLeft()).streamsPlan(planCreator);
+        StormRelUtils.getStormRelInput(getRight()).streamsPlan(planCreator);
+        final Stream<Values> rightStream = planCreator.pop();
+        final Stream<Values> leftStream = planCreator.pop();
+
+        JoinInfo joinInfo = analyzeCondition();
+        PairStream<Values, Values> leftPairs = leftStream.mapToPair(new KeyMapToPairFunction(joinInfo.leftKeys.toIntArray()));
+        PairStream<Values, Values> rightPairs = rightStream.mapToPair(new KeyMapToPairFunction(joinInfo.rightKeys.toIntArray()));
+        SlidingWindows<?, ?> window = SlidingWindows.of(Duration.of(Math.toIntExact(2 * boundMs)), Duration.of(Math.toIntExact(boundMs)))
+                                                    .withTimestampField(timestampField);
+        PairStream<Values, Pair<Values, Values>> joined = leftPairs.window(window).join(rightPairs);
+        Stream<Values> finalStream = joined.mapWithTimestamp(new WindowJoinResultFunction(leftTimeIndex, rightTimeIndex, boundMs))
+                                           .filter(Objects::nonNull);
+
+        RexNode remaining = joinInfo.getRemaining(getCluster().getRexBuilder());
+        if (!remaining.isAlwaysTrue()) {
+            ExecutableExpression filterInstance = planCreator.createScalarInstance(Lists.newArrayList(remaining), getRowType(),
+                                                                                   StormRelUtils.getClassName(this));
+            finalStream = finalStream.filter(new EvaluationFilter(filterInstance, planCreator.getDataContext()));
+        }
+
+        planCreator.addStream(finalStream);
+    }
+}
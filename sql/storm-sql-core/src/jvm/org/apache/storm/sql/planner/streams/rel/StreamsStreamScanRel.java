@@ -20,24 +20,105 @@
 package org.apache.storm.sql.planner.streams.rel;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.apache.calcite.plan.RelOptCluster;
+import org.apache.calcite.plan.RelOptCost;
+import org.apache.calcite.plan.RelOptPlanner;
 import org.apache.calcite.plan.RelOptTable;
 import org.apache.calcite.plan.RelTraitSet;
+import org.apache.calcite.rel.RelWriter;
+import org.apache.calcite.rel.metadata.RelMdUtil;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.type.RelDataType;
+import org.apache.calcite.rel.type.RelDataTypeField;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.util.ImmutableIntList;
+import org.apache.storm.sql.planner.StormRelUtils;
 import org.apache.storm.sql.planner.rel.StormStreamScanRelBase;
 import org.apache.storm.sql.planner.streams.StreamsPlanCreator;
 import org.apache.storm.sql.runtime.ISqlStreamsDataSource;
+import org.apache.storm.sql.runtime.calcite.ExecutableExpression;
+import org.apache.storm.sql.runtime.streams.functions.EvaluationFilter;
 import org.apache.storm.sql.runtime.streams.functions.StreamsScanTupleValueMapper;
 import org.apache.storm.streams.Stream;
+import org.apache.storm.topology.IRichSpout;
 import org.apache.storm.tuple.Values;
 
+/**
+ * Scans a stream table. The scan can read only a subset of the columns of the table and filter the rows, the projection and the
+ * filter pushed down by {@link org.apache.storm.sql.planner.streams.rules.StreamsScanPushdownRule} are handed to the data source, and
+ * applied on the tuples of the data source if it does not support the pushdown.
+ */
 public class StreamsStreamScanRel extends StormStreamScanRelBase implements StreamsRel {
     private final int parallelismHint;
+    private final ImmutableIntList projectedFields;
+    private final RexNode filter;
 
     public StreamsStreamScanRel(RelOptCluster cluster, RelTraitSet traitSet, RelOptTable table, int parallelismHint) {
+        this(cluster, traitSet, table, parallelismHint, null, null);
+    }
+
+    /**
+     * Creates a scan with pushed down projection and filter.
+     *
+     * @param cluster         the cluster
+     * @param traitSet        the traits
+     * @param table           the table
+     * @param parallelismHint the parallelism of the spout
+     * @param projectedFields the indexes of the columns to read, or null to read all the columns
+     * @param filter          the filter on the read columns, or null
+     */
+    public StreamsStreamScanRel(RelOptCluster cluster, RelTraitSet traitSet, RelOptTable table, int parallelismHint,
+                                ImmutableIntList projectedFields, RexNode filter) {
         super(cluster, traitSet, table);
         this.parallelismHint = parallelismHint;
+        this.projectedFields = projectedFields;
+        this.filter = filter;
+    }
+
+    public int getParallelismHint() {
+        return parallelismHint;
+    }
+
+    public boolean isPushedDown() {
+        return projectedFields != null || filter != null;
+    }
+
+    @Override
+    public RelDataType deriveRowType() {
+        RelDataType tableRowType = table.getRowType();
+        if (projectedFields == null) {
+            return tableRowType;
+        }
+        List<RelDataTypeField> fields = new ArrayList<>();
+        for (int index : projectedFields) {
+            fields.add(tableRowType.getFieldList().get(index));
+        }
+        return getCluster().getTypeFactory().createStructType(fields);
+    }
+
+    @Override
+    public RelWriter explainTerms(RelWriter pw) {
+        return super.explainTerms(pw)
+            .itemIf("fields", projectedFields, projectedFields != null)
+            .itemIf("filter", filter, filter != null);
+    }
+
+    @Override
+    public double estimateRowCount(RelMetadataQuery mq) {
+        return super.estimateRowCount(mq) * (filter != null ? RelMdUtil.guessSelectivity(filter) : 1d);
+    }
+
+    @Override
+    public RelOptCost computeSelfCost(RelOptPlanner planner, RelMetadataQuery mq) {
+        // makes the scans reading less columns and filtering the rows cheaper, so that the pushed down scans are chosen
+        double filterFactor = filter != null ? 0.5d : 1d;
+        double projectFactor = projectedFields != null
+            ? (projectedFields.size() + 2d) / (table.getRowType().getFieldCount() + 2d) : 1d;
+        return super.computeSelfCost(planner, mq).multiplyBy(filterFactor * projectFactor);
     }
 
     @Override
@@ -48,10 +129,27 @@ public class StreamsStreamScanRel extends StormStreamScanRelBase implements Stre
         if (!sources.containsKey(sourceName)) {
             throw new RuntimeException("Cannot find table " + sourceName);
         }
+        ISqlStreamsDataSource source = sources.get(sourceName);
 
         List<String> fieldNames = getRowType().getFieldNames();
-        final Stream<Values> finalStream = planCreator.getStreamBuilder()
-                .newStream(sources.get(sourceName).getProducer(), new StreamsScanTupleValueMapper(fieldNames), parallelismHint);
+        EvaluationFilter evalFilter = null;
+        if (filter != null) {
+            ExecutableExpression filterInstance = planCreator.createScalarInstance(Lists.newArrayList(filter), getRowType(),
+                                                                                   StormRelUtils.getClassName(this));
+            evalFilter = new EvaluationFilter(filterInstance, planCreator.getDataContext());
+        }
+
+        IRichSpout producer = isPushedDown() ? source.getProducer(new ArrayList<>(fieldNames), evalFilter) : null;
+        final Stream<Values> finalStream;
+        if (producer != null) {
+            finalStream = planCreator.getStreamBuilder()
+                .newStream(producer, new StreamsScanTupleValueMapper(fieldNames), parallelismHint);
+        } else {
+            // the data source does not support the pushdown, the mapper picks the projected fields of the tuples
+            Stream<Values> stream = planCreator.getStreamBuilder()
+                .newStream(source.getProducer(), new StreamsScanTupleValueMapper(fieldNames), parallelismHint);
+            finalStream = evalFilter != null ? stream.filter(evalFilter) : stream;
+        }
         planCreator.addStream(finalStream);
     }
 }
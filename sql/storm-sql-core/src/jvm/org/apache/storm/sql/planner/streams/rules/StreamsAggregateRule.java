@@ -19,22 +19,98 @@
 
 package org.apache.storm.sql.planner.streams.rules;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.calcite.plan.Convention;
 import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
 import org.apache.calcite.rel.RelNode;
-import org.apache.calcite.rel.convert.ConverterRule;
+import org.apache.calcite.rel.core.AggregateCall;
 import org.apache.calcite.rel.logical.LogicalAggregate;
+import org.apache.calcite.rel.logical.LogicalProject;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeFamily;
+import org.apache.storm.sql.planner.streams.rel.StreamsAggregateRel;
 import org.apache.storm.sql.planner.streams.rel.StreamsLogicalConvention;
 
-public class StreamsAggregateRule extends ConverterRule {
+/**
+ * Converts a group by over a TUMBLE, HOP or SESSION group window to {@link StreamsAggregateRel}. The group window function is replaced
+ * with its time column in the input projection, and the window is executed by the Streams API.
+ */
+public class StreamsAggregateRule extends RelOptRule {
     public static final RelOptRule INSTANCE = new StreamsAggregateRule();
 
     private StreamsAggregateRule() {
-        super(LogicalAggregate.class, Convention.NONE, StreamsLogicalConvention.INSTANCE, "StreamsAggregateRule");
+        super(operand(LogicalAggregate.class, Convention.NONE, some(operand(LogicalProject.class, any()))), "StreamsAggregateRule");
     }
 
     @Override
-    public RelNode convert(RelNode rel) {
-        throw new UnsupportedOperationException("Aggregate operation is not supported.");
+    public void onMatch(RelOptRuleCall call) {
+        final LogicalAggregate aggregate = call.rel(0);
+        final LogicalProject project = call.rel(1);
+        if (aggregate.indicator || aggregate.getGroupSets().size() != 1) {
+            throw new UnsupportedOperationException("Grouping sets are not supported.");
+        }
+        for (AggregateCall aggCall : aggregate.getAggCallList()) {
+            if (aggCall.isDistinct()) {
+                throw new UnsupportedOperationException("Distinct aggregate functions are not supported.");
+            }
+        }
+
+        RexBuilder rexBuilder = project.getCluster().getRexBuilder();
+        List<RexNode> projects = new ArrayList<>(project.getProjects());
+        StreamsAggregateRel.GroupWindow groupWindow = null;
+        for (int group : aggregate.getGroupSet()) {
+            RexNode node = projects.get(group);
+            if (!node.isA(SqlKind.TUMBLE) && !node.isA(SqlKind.HOP) && !node.isA(SqlKind.SESSION)) {
+                continue;
+            }
+            if (groupWindow != null) {
+                throw new UnsupportedOperationException("Only one group window is supported.");
+            }
+            RexCall windowCall = (RexCall) node;
+            RexNode time = windowCall.getOperands().get(0);
+            if (!(time instanceof RexInputRef)) {
+                throw new UnsupportedOperationException("The time attribute of the group window should be a column.");
+            }
+            String timestampField = project.getInput().getRowType().getFieldNames().get(((RexInputRef) time).getIndex());
+            long lengthMs;
+            long slidingIntervalMs;
+            if (node.isA(SqlKind.HOP)) {
+                // HOP(time, slide, size)
+                slidingIntervalMs = toMillis(windowCall.getOperands().get(1));
+                lengthMs = toMillis(windowCall.getOperands().get(2));
+            } else {
+                if (windowCall.getOperands().size() > 2) {
+                    throw new UnsupportedOperationException("The alignment of the group window is not supported.");
+                }
+                lengthMs = toMillis(windowCall.getOperands().get(1));
+                slidingIntervalMs = lengthMs;
+            }
+            groupWindow = new StreamsAggregateRel.GroupWindow(node.getKind(), group, timestampField, lengthMs, slidingIntervalMs);
+            // the group window column carries the time of the row up to the aggregate, which sets it to the start of the window
+            projects.set(group, node.getType().equals(time.getType()) ? time : rexBuilder.makeAbstractCast(node.getType(), time));
+        }
+        if (groupWindow == null) {
+            throw new UnsupportedOperationException("Aggregate operation on a stream requires a TUMBLE, HOP or SESSION group window.");
+        }
+
+        final RelNode input = project.copy(project.getTraitSet(), project.getInput(), projects, project.getRowType());
+        call.transformTo(new StreamsAggregateRel(aggregate.getCluster(), aggregate.getTraitSet().replace(StreamsLogicalConvention.INSTANCE),
+                                                 convert(input, input.getTraitSet().replace(StreamsLogicalConvention.INSTANCE).simplify()),
+                                                 aggregate.getGroupSet(), aggregate.getAggCallList(), groupWindow));
+    }
+
+    private static long toMillis(RexNode interval) {
+        if (!(interval instanceof RexLiteral) || interval.getType().getSqlTypeName().getFamily() != SqlTypeFamily.INTERVAL_DAY_TIME) {
+            throw new UnsupportedOperationException("The size of the group window should be a day-time interval, found " + interval);
+        }
+        return ((BigDecimal) ((RexLiteral) interval).getValue()).longValue();
     }
 }
@@ -19,12 +19,30 @@
 
 package org.apache.storm.sql.planner.streams.rules;
 
+import java.math.BigDecimal;
+import java.util.List;
 import org.apache.calcite.plan.Convention;
+import org.apache.calcite.plan.RelOptUtil;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.convert.ConverterRule;
+import org.apache.calcite.rel.core.JoinInfo;
+import org.apache.calcite.rel.core.JoinRelType;
 import org.apache.calcite.rel.logical.LogicalJoin;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeFamily;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.storm.sql.planner.streams.rel.StreamsJoinRel;
 import org.apache.storm.sql.planner.streams.rel.StreamsLogicalConvention;
 
+/**
+ * Converts an inner equi-join of two streams to {@link StreamsJoinRel}. The condition should bound the difference between the time
+ * columns of the two inputs from both sides, for e.g. {@code s.ROWTIME BETWEEN o.ROWTIME - INTERVAL '1' MINUTE AND o.ROWTIME + INTERVAL
+ * '1' MINUTE}, so that the rows can be joined over windows.
+ */
 public class StreamsJoinRule extends ConverterRule {
     public static final StreamsJoinRule INSTANCE = new StreamsJoinRule();
 
@@ -34,6 +52,106 @@ public class StreamsJoinRule extends ConverterRule {
 
     @Override
     public RelNode convert(RelNode rel) {
-        throw new UnsupportedOperationException("Join operation is not supported.");
+        final LogicalJoin join = (LogicalJoin) rel;
+        if (join.getJoinType() != JoinRelType.INNER) {
+            throw new UnsupportedOperationException("Only inner joins are supported.");
+        }
+        JoinInfo joinInfo = join.analyzeCondition();
+        if (joinInfo.leftKeys.isEmpty()) {
+            throw new UnsupportedOperationException("Only equi-joins are supported.");
+        }
+
+        // the bounds of left time - right time
+        int leftFieldCount = join.getLeft().getRowType().getFieldCount();
+        TimeBound bound = new TimeBound();
+        List<RexNode> conjunctions = RelOptUtil.conjunctions(joinInfo.getRemaining(join.getCluster().getRexBuilder()));
+        for (RexNode conjunction : conjunctions) {
+            if (!conjunction.isA(SqlKind.COMPARISON) || conjunction.isA(SqlKind.EQUALS) || conjunction.isA(SqlKind.NOT_EQUALS)) {
+                continue;
+            }
+            RexCall comparison = (RexCall) conjunction;
+            TimeTerm first = TimeTerm.of(comparison.getOperands().get(0));
+            TimeTerm second = TimeTerm.of(comparison.getOperands().get(1));
+            if (first == null || second == null) {
+                continue;
+            }
+            boolean lessThan = comparison.isA(SqlKind.LESS_THAN) || comparison.isA(SqlKind.LESS_THAN_OR_EQUAL);
+            if (first.index < leftFieldCount && second.index >= leftFieldCount) {
+                // left + a < right + b => left - right < b - a
+                bound.add(first.index, second.index - leftFieldCount, second.offsetMs - first.offsetMs, lessThan);
+            } else if (first.index >= leftFieldCount && second.index < leftFieldCount) {
+                // right + a < left + b => left - right > a - b
+                bound.add(second.index, first.index - leftFieldCount, first.offsetMs - second.offsetMs, !lessThan);
+            }
+        }
+        if (bound.upper == null || bound.lower == null) {
+            throw new UnsupportedOperationException("The join condition should bound the difference between the time columns of the "
+                                                    + "inputs from both sides.");
+        }
+        String leftTimeField = join.getLeft().getRowType().getFieldNames().get(bound.leftIndex);
+        String rightTimeField = join.getRight().getRowType().getFieldNames().get(bound.rightIndex);
+        if (!leftTimeField.equals(rightTimeField)) {
+            throw new UnsupportedOperationException("The time columns of the joined streams should have the same name, found "
+                                                    + leftTimeField + " and " + rightTimeField);
+        }
+        long boundMs = Math.max(1, Math.max(Math.abs(bound.upper), Math.abs(bound.lower)));
+
+        final RelNode left = join.getLeft();
+        final RelNode right = join.getRight();
+        return new StreamsJoinRel(join.getCluster(), join.getTraitSet().replace(StreamsLogicalConvention.INSTANCE),
+                                  convert(left, left.getTraitSet().replace(StreamsLogicalConvention.INSTANCE).simplify()),
+                                  convert(right, right.getTraitSet().replace(StreamsLogicalConvention.INSTANCE).simplify()),
+                                  join.getCondition(), bound.leftIndex, bound.rightIndex, leftTimeField, boundMs);
+    }
+
+    private static class TimeBound {
+        private int leftIndex = -1;
+        private int rightIndex = -1;
+        private Long upper;
+        private Long lower;
+
+        void add(int leftIndex, int rightIndex, long boundMs, boolean upperBound) {
+            if (this.leftIndex >= 0 && (this.leftIndex != leftIndex || this.rightIndex != rightIndex)) {
+                throw new UnsupportedOperationException("The join condition should bound the difference between one time column of "
+                                                        + "each input.");
+            }
+            this.leftIndex = leftIndex;
+            this.rightIndex = rightIndex;
+            if (upperBound) {
+                upper = upper == null ? boundMs : Math.min(upper, boundMs);
+            } else {
+                lower = lower == null ? boundMs : Math.max(lower, boundMs);
+            }
+        }
+    }
+
+    // a column plus or minus an interval
+    private static class TimeTerm {
+        private final int index;
+        private final long offsetMs;
+
+        private TimeTerm(int index, long offsetMs) {
+            this.index = index;
+            this.offsetMs = offsetMs;
+        }
+
+        static TimeTerm of(RexNode node) {
+            if (isTimeColumn(node)) {
+                return new TimeTerm(((RexInputRef) node).getIndex(), 0);
+            }
+            if (node.isA(SqlKind.PLUS) || node.isA(SqlKind.MINUS)) {
+                List<RexNode> operands = ((RexCall) node).getOperands();
+                if (isTimeColumn(operands.get(0)) && operands.get(1) instanceof RexLiteral
+                    && operands.get(1).getType().getSqlTypeName().getFamily() == SqlTypeFamily.INTERVAL_DAY_TIME) {
+                    long intervalMs = ((BigDecimal) ((RexLiteral) operands.get(1)).getValue()).longValue();
+                    return new TimeTerm(((RexInputRef) operands.get(0)).getIndex(), node.isA(SqlKind.PLUS) ? intervalMs : -intervalMs);
+                }
+            }
+            return null;
+        }
+
+        private static boolean isTimeColumn(RexNode node) {
+            return node instanceof RexInputRef && node.getType().getSqlTypeName() == SqlTypeName.TIMESTAMP;
+        }
     }
 }
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.storm.sql.planner.streams.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.calcite.plan.RelOptRule;
+import org.apache.calcite.plan.RelOptRuleCall;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rex.RexLocalRef;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.rex.RexPermuteInputsShuttle;
+import org.apache.calcite.rex.RexProgram;
+import org.apache.calcite.util.ImmutableBitSet;
+import org.apache.calcite.util.ImmutableIntList;
+import org.apache.calcite.util.mapping.Mapping;
+import org.apache.calcite.util.mapping.MappingType;
+import org.apache.calcite.util.mapping.Mappings;
+import org.apache.storm.sql.planner.streams.rel.StreamsCalcRel;
+import org.apache.storm.sql.planner.streams.rel.StreamsStreamScanRel;
+
+/**
+ * Pushes the columns referenced by a {@link StreamsCalcRel} and its condition down to the {@link StreamsStreamScanRel} it reads from,
+ * so that the data source decodes only the referenced columns and skips the rows not matching the condition before emitting them.
+ */
+public class StreamsScanPushdownRule extends RelOptRule {
+    public static final StreamsScanPushdownRule INSTANCE = new StreamsScanPushdownRule();
+
+    private StreamsScanPushdownRule() {
+        super(operand(StreamsCalcRel.class, operand(StreamsStreamScanRel.class, none())), "StreamsScanPushdownRule");
+    }
+
+    @Override
+    public boolean matches(RelOptRuleCall call) {
+        final StreamsStreamScanRel scan = call.rel(1);
+        return !scan.isPushedDown();
+    }
+
+    @Override
+    public void onMatch(RelOptRuleCall call) {
+        final StreamsCalcRel calc = call.rel(0);
+        final StreamsStreamScanRel scan = call.rel(1);
+        final RexProgram program = calc.getProgram();
+
+        List<RexNode> projects = new ArrayList<>();
+        for (RexLocalRef project : program.getProjectList()) {
+            projects.add(program.expandLocalRef(project));
+        }
+        RexNode condition = program.getCondition() != null ? program.expandLocalRef(program.getCondition()) : null;
+
+        int fieldCount = scan.getRowType().getFieldCount();
+        ImmutableBitSet usedFields = RelOptUtil.InputFinder.bits(projects, condition);
+        if (usedFields.isEmpty()) {
+            // the rows still need to be read
+            usedFields = ImmutableBitSet.of(0);
+        }
+        if (usedFields.cardinality() == fieldCount && condition == null) {
+            return;
+        }
+
+        Mapping mapping = Mappings.create(MappingType.INVERSE_SURJECTION, fieldCount, usedFields.cardinality());
+        int target = 0;
+        for (int field : usedFields) {
+            mapping.set(field, target++);
+        }
+        RexPermuteInputsShuttle shuttle = new RexPermuteInputsShuttle(mapping);
+
+        final StreamsStreamScanRel newScan = new StreamsStreamScanRel(scan.getCluster(), scan.getTraitSet(), scan.getTable(),
+                                                                      scan.getParallelismHint(), ImmutableIntList.copyOf(usedFields),
+                                                                      condition != null ? condition.accept(shuttle) : null);
+        List<RexNode> newProjects = new ArrayList<>();
+        for (RexNode project : projects) {
+            newProjects.add(project.accept(shuttle));
+        }
+        RexProgram newProgram = RexProgram.create(newScan.getRowType(), newProjects, null, calc.getRowType(),
+                                                  calc.getCluster().getRexBuilder());
+        if (newProgram.isTrivial() && newScan.getRowType().getFieldNames().equals(calc.getRowType().getFieldNames())) {
+            call.transformTo(newScan);
+        } else {
+            call.transformTo(calc.copy(calc.getTraitSet(), newScan, newProgram));
+        }
+    }
+}
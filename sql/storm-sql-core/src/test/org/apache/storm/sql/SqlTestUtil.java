@@ -31,7 +31,11 @@ public final class SqlTestUtil {
 
     public static void runStormTopology(LocalCluster cluster, final List<?> watchedList, final int expectedValueSize,
                                         AbstractStreamsProcessor proc, StormTopology topo) throws Exception {
-        final Config conf = new Config();
+        runStormTopology(cluster, watchedList, expectedValueSize, proc, topo, new Config());
+    }
+
+    public static void runStormTopology(LocalCluster cluster, final List<?> watchedList, final int expectedValueSize,
+                                        AbstractStreamsProcessor proc, StormTopology topo, final Config conf) throws Exception {
         conf.setMaxSpoutPending(20);
         conf.setDebug(true);
 
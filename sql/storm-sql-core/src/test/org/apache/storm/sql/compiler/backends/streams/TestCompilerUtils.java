@@ -164,6 +164,33 @@ public class TestCompilerUtils {
         return new CalciteState(schema, tree);
     }
 
+    public static CalciteState sqlOverWindowedTables(String sql)
+        throws RelConversionException, ValidationException, SqlParseException {
+        SchemaPlus schema = Frameworks.createRootSchema(true);
+        JavaTypeFactory typeFactory = new JavaTypeFactoryImpl
+            (RelDataTypeSystem.DEFAULT);
+
+        StreamableTable streamableTable = new CompilerUtil.TableBuilderInfo(typeFactory)
+            .field("ROWTIME", SqlTypeName.TIMESTAMP, new ColumnConstraint.PrimaryKey(SqlMonotonicity.MONOTONIC, SqlParserPos.ZERO))
+            .field("ID", SqlTypeName.INTEGER)
+            .field("PRODUCT", SqlTypeName.INTEGER)
+            .field("UNITS", SqlTypeName.INTEGER)
+            .build();
+
+        StreamableTable streamableTable2 = new CompilerUtil.TableBuilderInfo(typeFactory)
+            .field("ROWTIME", SqlTypeName.TIMESTAMP, new ColumnConstraint.PrimaryKey(SqlMonotonicity.MONOTONIC, SqlParserPos.ZERO))
+            .field("ORDERID", SqlTypeName.INTEGER)
+            .build();
+
+        schema.add("ORDERS", streamableTable.stream());
+        schema.add("SHIPMENTS", streamableTable2.stream());
+
+        QueryPlanner queryPlanner = new QueryPlanner(schema);
+        StreamsRel tree = queryPlanner.getPlan(sql);
+        System.out.println(StormRelUtils.explain(tree, SqlExplainLevel.ALL_ATTRIBUTES));
+        return new CalciteState(schema, tree);
+    }
+
     public static class MyPlus {
         public static Integer eval(Integer x, Integer y) {
             return x + y;
@@ -21,15 +21,20 @@ package org.apache.storm.sql.compiler.backends.streams;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import org.apache.calcite.DataContext;
 import org.apache.calcite.avatica.util.DateTimeUtils;
+import org.apache.storm.Config;
 import org.apache.storm.LocalCluster;
 import org.apache.storm.sql.SqlTestUtil;
 import org.apache.storm.sql.TestUtils;
 import org.apache.storm.generated.StormTopology;
 import org.apache.storm.sql.AbstractStreamsProcessor;
+import org.apache.storm.sql.planner.StormRelUtils;
 import org.apache.storm.sql.planner.streams.QueryPlanner;
 import org.apache.storm.sql.runtime.ISqlStreamsDataSource;
 import org.apache.storm.streams.Pair;
@@ -38,6 +43,7 @@ import org.apache.storm.tuple.Values;
 import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -98,6 +104,29 @@ public class TestPlanCompiler {
         assertArrayEquals(new Pair[]{Pair.of(4, new Values(4, "abcde", "y"))}, TestUtils.MockInsertBolt.getCollectedValues().toArray());
     }
 
+    @Test
+    public void testProjectionAndFilterPushdown() throws Exception {
+        final int EXPECTED_VALUE_SIZE = 2;
+        String sql = "SELECT NAME FROM FOO WHERE ID > 2";
+        TestCompilerUtils.CalciteState state = TestCompilerUtils.sqlOverDummyTable(sql);
+        // the scan reads only ID and NAME and filters the rows, the calc only projects NAME
+        String plan = StormRelUtils.explain(state.tree());
+        assertTrue(plan.contains("StreamsStreamScanRel(table=[[FOO]], fields=[[0, 1]], filter=[>($0, 2)])"), plan);
+        assertTrue(plan.contains("StreamsCalcRel(expr#0..1=[{inputs}], NAME=[$t1])"), plan);
+
+        final Map<String, ISqlStreamsDataSource> data = new HashMap<>();
+        data.put("FOO", new TestUtils.MockSqlStreamsProjectableDataSource());
+
+        QueryPlanner planner = new QueryPlanner(state.schema());
+        AbstractStreamsProcessor proc = planner.compile(data, sql);
+        // inject output bolt
+        proc.outputStream().to(new TestUtils.MockBolt());
+        final StormTopology topo = proc.build();
+
+        SqlTestUtil.runStormTopology(cluster, TestUtils.MockBolt.getCollectedValues(), EXPECTED_VALUE_SIZE, proc, topo);
+        assertArrayEquals(new Values[]{new Values("abcd"), new Values("abcde")}, TestUtils.MockBolt.getCollectedValues().toArray());
+    }
+
     @Test
     public void testUdf() throws Exception {
         int EXPECTED_VALUE_SIZE = 1;
@@ -143,6 +172,109 @@ public class TestPlanCompiler {
             TestUtils.MockBolt.getCollectedValues().toArray());
     }
 
+    @Test
+    public void testTumbleWindowAggregate() throws Exception {
+        final int EXPECTED_VALUE_SIZE = 3;
+        String sql = "SELECT TUMBLE_START(ROWTIME, INTERVAL '1' MINUTE), TUMBLE_END(ROWTIME, INTERVAL '1' MINUTE), PRODUCT, "
+            + "COUNT(*), SUM(UNITS), MAX(UNITS), AVG(UNITS) "
+            + "FROM ORDERS "
+            + "GROUP BY TUMBLE(ROWTIME, INTERVAL '1' MINUTE), PRODUCT";
+        AbstractStreamsProcessor proc = compileWindowedQuery(sql);
+        final StormTopology topo = proc.build();
+
+        SqlTestUtil.runStormTopology(cluster, TestUtils.MockBolt.getCollectedValues(), EXPECTED_VALUE_SIZE, proc, topo,
+                                     windowedQueryConf());
+        // the window of the last order is not closed by the watermark
+        assertEquals(new HashSet<>(Arrays.asList(
+            new Values(0L, 60000L, 1, 2L, 7, 5, 3),
+            new Values(0L, 60000L, 2, 2L, 7, 4, 3),
+            new Values(60000L, 120000L, 1, 2L, 11, 10, 5))),
+            new HashSet<>(TestUtils.MockBolt.getCollectedValues()));
+    }
+
+    @Test
+    public void testHopWindowAggregate() throws Exception {
+        final int EXPECTED_VALUE_SIZE = 2;
+        String sql = "SELECT HOP_END(ROWTIME, INTERVAL '1' MINUTE, INTERVAL '2' MINUTE), COUNT(*), MIN(UNITS) "
+            + "FROM ORDERS "
+            + "GROUP BY HOP(ROWTIME, INTERVAL '1' MINUTE, INTERVAL '2' MINUTE)";
+        AbstractStreamsProcessor proc = compileWindowedQuery(sql);
+        final StormTopology topo = proc.build();
+
+        SqlTestUtil.runStormTopology(cluster, TestUtils.MockBolt.getCollectedValues(), EXPECTED_VALUE_SIZE, proc, topo,
+                                     windowedQueryConf());
+        assertEquals(new HashSet<>(Arrays.asList(new Values(60000L, 4L, 2), new Values(120000L, 6L, 1))),
+            new HashSet<>(TestUtils.MockBolt.getCollectedValues()));
+    }
+
+    @Test
+    public void testSessionWindowAggregate() throws Exception {
+        final int EXPECTED_VALUE_SIZE = 4;
+        String sql = "SELECT SESSION_START(ROWTIME, INTERVAL '30' SECOND), PRODUCT, COUNT(*) "
+            + "FROM ORDERS "
+            + "GROUP BY SESSION(ROWTIME, INTERVAL '30' SECOND), PRODUCT";
+        AbstractStreamsProcessor proc = compileWindowedQuery(sql);
+        final StormTopology topo = proc.build();
+
+        SqlTestUtil.runStormTopology(cluster, TestUtils.MockBolt.getCollectedValues(), EXPECTED_VALUE_SIZE, proc, topo,
+                                     windowedQueryConf());
+        assertEquals(new HashSet<>(Arrays.asList(
+            new Values(1000L, 1, 2L), new Values(61000L, 1, 2L), new Values(2000L, 2, 1L), new Values(59000L, 2, 1L))),
+            new HashSet<>(TestUtils.MockBolt.getCollectedValues()));
+    }
+
+    @Test
+    public void testWindowJoin() throws Exception {
+        final int EXPECTED_VALUE_SIZE = 3;
+        String sql = "SELECT o.ID, o.PRODUCT, s.ROWTIME "
+            + "FROM ORDERS AS o JOIN SHIPMENTS AS s "
+            + "ON o.ID = s.ORDERID AND s.ROWTIME BETWEEN o.ROWTIME AND o.ROWTIME + INTERVAL '1' MINUTE";
+        AbstractStreamsProcessor proc = compileWindowedQuery(sql);
+        final StormTopology topo = proc.build();
+
+        SqlTestUtil.runStormTopology(cluster, TestUtils.MockBolt.getCollectedValues(), EXPECTED_VALUE_SIZE, proc, topo,
+                                     windowedQueryConf());
+        // every pair is emitted once although it is joined in two of the sliding windows
+        assertEquals(Arrays.asList(new Values(1, 1, 31000L), new Values(3, 1, 65000L), new Values(4, 2, 100000L)),
+            TestUtils.MockBolt.getCollectedValues());
+    }
+
+    @Test
+    public void testAggregateWithoutGroupWindow() throws Exception {
+        String sql = "SELECT PRODUCT, COUNT(*) FROM ORDERS GROUP BY PRODUCT";
+        RuntimeException e = assertThrows(RuntimeException.class, () -> TestCompilerUtils.sqlOverWindowedTables(sql));
+        // the planner wraps the exceptions of the rules
+        assertTrue(Throwables.getRootCause(e) instanceof UnsupportedOperationException);
+    }
+
+    @Test
+    public void testJoinWithoutTimeBound() throws Exception {
+        String sql = "SELECT o.ID, s.ROWTIME FROM ORDERS AS o JOIN SHIPMENTS AS s ON o.ID = s.ORDERID";
+        RuntimeException e = assertThrows(RuntimeException.class, () -> TestCompilerUtils.sqlOverWindowedTables(sql));
+        // the planner wraps the exceptions of the rules
+        assertTrue(Throwables.getRootCause(e) instanceof UnsupportedOperationException);
+    }
+
+    private static Config windowedQueryConf() {
+        Config conf = new Config();
+        // longer than the windows of the windowed queries
+        conf.setMessageTimeoutSecs(600);
+        return conf;
+    }
+
+    private AbstractStreamsProcessor compileWindowedQuery(String sql) throws Exception {
+        TestCompilerUtils.CalciteState state = TestCompilerUtils.sqlOverWindowedTables(sql);
+        final Map<String, ISqlStreamsDataSource> data = new HashMap<>();
+        data.put("ORDERS", new TestUtils.MockSqlStreamsOrdersDataSource());
+        data.put("SHIPMENTS", new TestUtils.MockSqlStreamsShipmentsDataSource());
+
+        QueryPlanner planner = new QueryPlanner(state.schema());
+        AbstractStreamsProcessor proc = planner.compile(data, sql);
+        // inject output bolt
+        proc.outputStream().to(new TestUtils.MockBolt());
+        return proc;
+    }
+
     /**
      * All the binary literal tests are done here, because Avatica converts the result to byte[] whereas Stream provides the result to
      * ByteString which makes different semantic from Stream implementation.
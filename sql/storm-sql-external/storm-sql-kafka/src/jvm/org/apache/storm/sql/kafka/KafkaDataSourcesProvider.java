@@ -43,7 +43,9 @@ import org.apache.storm.sql.runtime.DataSourcesProvider;
 import org.apache.storm.sql.runtime.FieldInfo;
 import org.apache.storm.sql.runtime.IOutputSerializer;
 import org.apache.storm.sql.runtime.ISqlStreamsDataSource;
+import org.apache.storm.sql.runtime.serde.FilteringScheme;
 import org.apache.storm.sql.runtime.utils.SerdeUtils;
+import org.apache.storm.streams.operations.Predicate;
 import org.apache.storm.topology.IRichBolt;
 import org.apache.storm.topology.IRichSpout;
 import org.apache.storm.tuple.Tuple;
@@ -82,14 +84,18 @@ public class KafkaDataSourcesProvider implements DataSourcesProvider {
         private final String topic;
         private final Properties props;
         private final IOutputSerializer serializer;
+        private final String inputFormatClass;
+        private final List<FieldInfo> fields;
 
         KafkaStreamsDataSource(KafkaSpoutConfig<ByteBuffer, ByteBuffer> kafkaSpoutConfig, String bootstrapServers,
-            String topic, Properties props, IOutputSerializer serializer) {
+            String topic, Properties props, IOutputSerializer serializer, String inputFormatClass, List<FieldInfo> fields) {
             this.kafkaSpoutConfig = kafkaSpoutConfig;
             this.bootstrapServers = bootstrapServers;
             this.topic = topic;
             this.props = props;
             this.serializer = serializer;
+            this.inputFormatClass = inputFormatClass;
+            this.fields = fields;
         }
 
         @Override
@@ -97,6 +103,16 @@ public class KafkaDataSourcesProvider implements DataSourcesProvider {
             return new KafkaSpout<>(kafkaSpoutConfig);
         }
 
+        @Override
+        public IRichSpout getProducer(List<String> projectedFieldNames, Predicate<Values> filter) {
+            Scheme scheme = SerdeUtils.getScheme(inputFormatClass, props, fields, projectedFieldNames);
+            if (filter != null) {
+                // the spout acks the records which the scheme deserializes to null without emitting them
+                scheme = new FilteringScheme(scheme, filter);
+            }
+            return new KafkaSpout<>(createKafkaSpoutConfig(bootstrapServers, topic, scheme));
+        }
+
         @Override
         public IRichBolt getConsumer() {
             Preconditions.checkArgument(!props.isEmpty(),
@@ -138,23 +154,27 @@ public class KafkaDataSourcesProvider implements DataSourcesProvider {
             }
         }
         Preconditions.checkState(primaryIndex != -1, "Kafka stream table must have a primary key");
-        Scheme scheme = SerdeUtils.getScheme(inputFormatClass, properties, fieldNames);
+        Scheme scheme = SerdeUtils.getScheme(inputFormatClass, properties, fields, fieldNames);
         
         Map<String, String> values = parseUriParams(uri.getQuery());
         String bootstrapServers = values.get(URI_PARAMS_BOOTSTRAP_SERVERS);
         Preconditions.checkNotNull(bootstrapServers, "bootstrap-servers must be specified");
         String topic = uri.getHost();
-        KafkaSpoutConfig<ByteBuffer, ByteBuffer> kafkaSpoutConfig = 
-            new KafkaSpoutConfig.Builder<ByteBuffer, ByteBuffer>(bootstrapServers, topic)
+        KafkaSpoutConfig<ByteBuffer, ByteBuffer> kafkaSpoutConfig = createKafkaSpoutConfig(bootstrapServers, topic, scheme);
+
+        IOutputSerializer serializer = SerdeUtils.getSerializer(outputFormatClass, properties, fieldNames);
+
+        return new KafkaStreamsDataSource(kafkaSpoutConfig, bootstrapServers, topic, properties, serializer, inputFormatClass,
+                                          fields);
+    }
+
+    private static KafkaSpoutConfig<ByteBuffer, ByteBuffer> createKafkaSpoutConfig(String bootstrapServers, String topic, Scheme scheme) {
+        return new KafkaSpoutConfig.Builder<ByteBuffer, ByteBuffer>(bootstrapServers, topic)
             .setProp(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteBufferDeserializer.class)
             .setProp(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteBufferDeserializer.class)
             .setProp(ConsumerConfig.GROUP_ID_CONFIG, "storm-sql-kafka-" + UUID.randomUUID().toString())
             .setRecordTranslator(new RecordTranslatorSchemeAdapter(scheme))
             .build();
-
-        IOutputSerializer serializer = SerdeUtils.getSerializer(outputFormatClass, properties, fieldNames);
-
-        return new KafkaStreamsDataSource(kafkaSpoutConfig, bootstrapServers, topic, properties, serializer);
     }
 
     private static Map<String, String> parseUriParams(String query) {
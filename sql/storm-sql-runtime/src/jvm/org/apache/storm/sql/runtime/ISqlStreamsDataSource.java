@@ -19,8 +19,11 @@
 
 package org.apache.storm.sql.runtime;
 
+import java.util.List;
+import org.apache.storm.streams.operations.Predicate;
 import org.apache.storm.topology.IRichBolt;
 import org.apache.storm.topology.IRichSpout;
+import org.apache.storm.tuple.Values;
 
 /**
  * An ISqlStreamsDataSource specifies how an external data source produces and consumes data.
@@ -33,6 +36,20 @@ public interface ISqlStreamsDataSource {
      */
     IRichSpout getProducer();
 
+    /**
+     * Provides instance of IRichSpout which emits only the given fields, and skips the records which do not pass the filter.
+     * The projection and the filter are pushed down by the planner so that the data source can decode only the referenced
+     * fields and drop the records before emitting them. The default implementation returns null, in which case the
+     * projection and the filter are applied on the tuples of {@link #getProducer()}.
+     *
+     * @param fieldNames the names of the fields to emit, in order
+     * @param filter the filter on the values of the emitted fields, or null if there is no filter
+     * @return the producer, or null if the data source does not support the pushdown
+     */
+    default IRichSpout getProducer(List<String> fieldNames, Predicate<Values> filter) {
+        return null;
+    }
+
     /**
      * Provides instance of IRichBolt which can be used as consumer in topology.
      */
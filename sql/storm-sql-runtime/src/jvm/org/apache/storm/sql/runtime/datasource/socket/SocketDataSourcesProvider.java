@@ -29,10 +29,13 @@ import org.apache.storm.sql.runtime.IOutputSerializer;
 import org.apache.storm.sql.runtime.ISqlStreamsDataSource;
 import org.apache.storm.sql.runtime.datasource.socket.bolt.SocketBolt;
 import org.apache.storm.sql.runtime.datasource.socket.spout.SocketSpout;
+import org.apache.storm.sql.runtime.serde.FilteringScheme;
 import org.apache.storm.sql.runtime.utils.FieldInfoUtils;
 import org.apache.storm.sql.runtime.utils.SerdeUtils;
+import org.apache.storm.streams.operations.Predicate;
 import org.apache.storm.topology.IRichBolt;
 import org.apache.storm.topology.IRichSpout;
+import org.apache.storm.tuple.Values;
 
 /**
  * Create a Socket data source based on the URI and properties. The URI has the format of
@@ -52,12 +55,19 @@ public class SocketDataSourcesProvider implements DataSourcesProvider {
         private final String host;
         private final int port;
         private final Scheme scheme;
+        private final String inputFormatClass;
+        private final Properties properties;
+        private final List<FieldInfo> fields;
         private final IOutputSerializer serializer;
 
-        SocketStreamsDataSource(String host, int port, Scheme scheme, IOutputSerializer serializer) {
+        SocketStreamsDataSource(String host, int port, Scheme scheme, String inputFormatClass, Properties properties,
+                                List<FieldInfo> fields, IOutputSerializer serializer) {
             this.host = host;
             this.port = port;
             this.scheme = scheme;
+            this.inputFormatClass = inputFormatClass;
+            this.properties = properties;
+            this.fields = fields;
             this.serializer = serializer;
         }
 
@@ -66,6 +76,15 @@ public class SocketDataSourcesProvider implements DataSourcesProvider {
             return new SocketSpout(scheme, host, port);
         }
 
+        @Override
+        public IRichSpout getProducer(List<String> projectedFieldNames, Predicate<Values> filter) {
+            Scheme projectedScheme = SerdeUtils.getScheme(inputFormatClass, properties, fields, projectedFieldNames);
+            if (filter != null) {
+                projectedScheme = new FilteringScheme(projectedScheme, filter);
+            }
+            return new SocketSpout(projectedScheme, host, port);
+        }
+
         @Override
         public IRichBolt getConsumer() {
             return new SocketBolt(serializer, host, port);
@@ -82,9 +101,10 @@ public class SocketDataSourcesProvider implements DataSourcesProvider {
         }
 
         List<String> fieldNames = FieldInfoUtils.getFieldNames(fields);
-        Scheme scheme = SerdeUtils.getScheme(inputFormatClass, properties, fieldNames);
+        Scheme scheme = SerdeUtils.getScheme(inputFormatClass, properties, fields, fieldNames);
         IOutputSerializer serializer = SerdeUtils.getSerializer(outputFormatClass, properties, fieldNames);
 
-        return new SocketDataSourcesProvider.SocketStreamsDataSource(host, port, scheme, serializer);
+        return new SocketDataSourcesProvider.SocketStreamsDataSource(host, port, scheme, inputFormatClass, properties, fields,
+                                                                     serializer);
     }
 }
@@ -167,7 +167,10 @@ public class SocketSpout implements IRichSpout {
                     }
 
                     List<Object> values = convertLineToTuple(line.trim());
-                    queue.push(values);
+                    // the lines filtered out by the scheme are skipped
+                    if (values != null) {
+                        queue.push(values);
+                    }
                 } catch (Throwable t) {
                     // This spout is added to test purpose, so just failing fast doesn't hurt much
                     die(t);
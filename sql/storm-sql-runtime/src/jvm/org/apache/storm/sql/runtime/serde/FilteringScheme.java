@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.sql.runtime.serde;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.apache.storm.spout.Scheme;
+import org.apache.storm.streams.operations.Predicate;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Values;
+
+/**
+ * A Scheme which applies a filter pushed down to the data source on the deserialized values. The records which do not pass the
+ * filter are deserialized to null, which the spouts of the data sources skip without emitting a tuple.
+ */
+public class FilteringScheme implements Scheme {
+    private final Scheme delegate;
+    private final Predicate<Values> filter;
+
+    /**
+     * FilteringScheme Constructor.
+     * @param delegate the Scheme which deserializes the values
+     * @param filter the filter on the deserialized values
+     */
+    public FilteringScheme(Scheme delegate, Predicate<Values> filter) {
+        this.delegate = delegate;
+        this.filter = filter;
+    }
+
+    @Override
+    public List<Object> deserialize(ByteBuffer ser) {
+        List<Object> values = delegate.deserialize(ser);
+        if (values == null) {
+            return null;
+        }
+        Values tuple = values instanceof Values ? (Values) values : new Values(values.toArray());
+        return filter.test(tuple) ? tuple : null;
+    }
+
+    @Override
+    public Fields getOutputFields() {
+        return delegate.getOutputFields();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.storm.sql.runtime.serde;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.storm.spout.Scheme;
+import org.apache.storm.sql.runtime.utils.SerdeUtils;
+import org.apache.storm.tuple.Fields;
+
+/**
+ * A Scheme which outputs a subset of the fields of a Scheme that can not be projected itself, like the user provided schemes.
+ */
+public class ProjectingScheme implements Scheme {
+    private final Scheme delegate;
+    private final List<String> outputFieldNames;
+    private final int[] outputIndexes;
+
+    /**
+     * ProjectingScheme Constructor.
+     * @param delegate the Scheme which deserializes all the fields
+     * @param outputFieldNames the names of the fields to output
+     */
+    public ProjectingScheme(Scheme delegate, List<String> outputFieldNames) {
+        this.delegate = delegate;
+        this.outputFieldNames = outputFieldNames;
+        this.outputIndexes = SerdeUtils.getFieldIndexes(delegate.getOutputFields().toList(), outputFieldNames);
+    }
+
+    @Override
+    public List<Object> deserialize(ByteBuffer ser) {
+        List<Object> values = delegate.deserialize(ser);
+        if (values == null) {
+            return null;
+        }
+        List<Object> list = new ArrayList<>(outputIndexes.length);
+        for (int index : outputIndexes) {
+            list.add(values.get(index));
+        }
+        return list;
+    }
+
+    @Override
+    public Fields getOutputFields() {
+        return new Fields(outputFieldNames);
+    }
+}
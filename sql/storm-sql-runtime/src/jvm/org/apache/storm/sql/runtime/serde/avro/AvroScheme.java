@@ -36,11 +36,15 @@ import org.apache.storm.utils.Utils;
 
 /**
  * AvroScheme uses generic(without code generation) instead of specific(with code generation) readers.
+ * When the field names are a subset of the fields of the record schema, the records are read with a projection of the schema
+ * so that the decoder skips the other fields instead of materializing them.
  */
 public class AvroScheme implements Scheme {
     private final String schemaString;
     private final List<String> fieldNames;
     private final CachedSchemas schemas;
+    private transient DatumReader<GenericRecord> reader;
+    private transient BinaryDecoder decoder;
 
     /**
      * AvroScheme Constructor.
@@ -56,9 +60,11 @@ public class AvroScheme implements Scheme {
     @Override
     public List<Object> deserialize(ByteBuffer ser) {
         try {
-            Schema schema = schemas.getSchema(schemaString);
-            DatumReader<GenericRecord> reader = new GenericDatumReader<>(schema);
-            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(Utils.toByteArray(ser), null);
+            if (reader == null) {
+                Schema schema = schemas.getSchema(schemaString);
+                reader = new GenericDatumReader<>(schema, projectSchema(schema));
+            }
+            decoder = DecoderFactory.get().binaryDecoder(Utils.toByteArray(ser), decoder);
             GenericRecord record = reader.read(null, decoder);
 
             ArrayList<Object> list = new ArrayList<>(fieldNames.size());
@@ -73,6 +79,24 @@ public class AvroScheme implements Scheme {
         }
     }
 
+    private Schema projectSchema(Schema schema) {
+        if (schema.getType() != Schema.Type.RECORD) {
+            return schema;
+        }
+        List<Schema.Field> fields = new ArrayList<>();
+        for (Schema.Field field : schema.getFields()) {
+            if (fieldNames.contains(field.name())) {
+                fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultValue()));
+            }
+        }
+        if (fields.size() == schema.getFields().size()) {
+            return schema;
+        }
+        Schema projected = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError());
+        projected.setFields(fields);
+        return projected;
+    }
+
     @Override
     public Fields getOutputFields() {
         return new Fields(fieldNames);
@@ -23,50 +23,128 @@ import com.google.common.base.Preconditions;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
 import org.apache.storm.spout.Scheme;
+import org.apache.storm.sql.runtime.utils.SerdeUtils;
 import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Values;
 import org.apache.storm.utils.Utils;
 
 /**
- * CsvScheme uses the standard RFC4180 CSV Parser
+ * CsvScheme parses a record of the standard RFC4180 CSV format.
  * One of the difference from Tsv format is that fields with embedded commas will be quoted.
  * eg: a,"b,c",d is allowed.
+ * The record is tokenized in place, and only the output fields are extracted and written to their position in the output.
  *
  * @see <a href="https://tools.ietf.org/html/rfc4180">RFC4180</a>
  */
 public class CsvScheme implements Scheme {
+    private static final char DELIMITER = ',';
+    private static final char QUOTE = '"';
+
     private final List<String> fieldNames;
+    private final List<String> outputFieldNames;
+    private final List<Class<?>> outputFieldTypes;
+    private final int[] outputPositions;
 
     public CsvScheme(List<String> fieldNames) {
+        this(fieldNames, fieldNames);
+    }
+
+    /**
+     * CsvScheme Constructor which outputs a subset of the fields of the records.
+     * @param fieldNames the names of the fields of the records
+     * @param outputFieldNames the names of the fields to output
+     */
+    public CsvScheme(List<String> fieldNames, List<String> outputFieldNames) {
+        this(fieldNames, outputFieldNames, null);
+    }
+
+    /**
+     * CsvScheme Constructor which outputs a subset of the fields of the records converted to the given types.
+     * @param fieldNames the names of the fields of the records
+     * @param outputFieldNames the names of the fields to output
+     * @param outputFieldTypes the types of the fields to output, or null to output the values as String
+     */
+    public CsvScheme(List<String> fieldNames, List<String> outputFieldNames, List<Class<?>> outputFieldTypes) {
         this.fieldNames = fieldNames;
+        this.outputFieldNames = outputFieldNames;
+        this.outputFieldTypes = outputFieldTypes;
+        this.outputPositions = SerdeUtils.getOutputPositions(fieldNames, outputFieldNames);
     }
 
     @Override
     public List<Object> deserialize(ByteBuffer ser) {
-        try {
-            String data = new String(Utils.toByteArray(ser), StandardCharsets.UTF_8);
-            CSVParser parser = CSVParser.parse(data, CSVFormat.RFC4180);
-            CSVRecord record = parser.getRecords().get(0);
-            Preconditions.checkArgument(record.size() == fieldNames.size(), "Invalid schema");
+        String data = ser.hasArray()
+            ? new String(ser.array(), ser.arrayOffset() + ser.position(), ser.remaining(), StandardCharsets.UTF_8)
+            : new String(Utils.toByteArray(ser), StandardCharsets.UTF_8);
+        Object[] values = new Object[outputFieldNames.size()];
+        int len = data.length();
+        int i = 0;
+        // empty lines before the record are ignored
+        while (i < len && isLineBreak(data.charAt(i))) {
+            i++;
+        }
+        Preconditions.checkArgument(i < len, "Empty record");
 
-            ArrayList<Object> list = new ArrayList<>(fieldNames.size());
-            for (int i = 0; i < record.size(); i++) {
-                list.add(record.get(i));
+        int field = 0;
+        while (true) {
+            int position = field < outputPositions.length ? outputPositions[field] : -1;
+            String value;
+            if (i < len && data.charAt(i) == QUOTE) {
+                StringBuilder escaped = null;
+                int start = ++i;
+                while (true) {
+                    if (i >= len) {
+                        throw new RuntimeException(new IOException("EOF reached before encapsulated token finished"));
+                    }
+                    if (data.charAt(i) == QUOTE) {
+                        if (i + 1 < len && data.charAt(i + 1) == QUOTE) {
+                            // an escaped quote
+                            if (position >= 0) {
+                                escaped = (escaped == null ? new StringBuilder() : escaped).append(data, start, i + 1);
+                            }
+                            i += 2;
+                            start = i;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                value = position < 0 ? null : escaped == null ? data.substring(start, i) : escaped.append(data, start, i).toString();
+                i++;
+                if (i < len && data.charAt(i) != DELIMITER && !isLineBreak(data.charAt(i))) {
+                    throw new RuntimeException(new IOException("Invalid char between encapsulated token and delimiter"));
+                }
+            } else {
+                int start = i;
+                while (i < len && data.charAt(i) != DELIMITER && !isLineBreak(data.charAt(i))) {
+                    i++;
+                }
+                value = position < 0 ? null : data.substring(start, i);
+            }
+            if (position >= 0) {
+                values[position] = SerdeUtils.convertString(value, outputFieldTypes != null ? outputFieldTypes.get(position) : null);
+            }
+            field++;
+            if (i < len && data.charAt(i) == DELIMITER) {
+                i++;
+            } else {
+                break;
             }
-            return list;
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
+        Preconditions.checkArgument(field == fieldNames.size(), "Invalid schema");
+        return new Values(values);
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\r' || c == '\n';
     }
 
     @Override
     public Fields getOutputFields() {
-        return new Fields(fieldNames);
+        return new Fields(outputFieldNames);
     }
 }
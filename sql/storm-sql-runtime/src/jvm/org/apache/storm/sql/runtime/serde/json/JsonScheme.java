@@ -18,39 +18,134 @@
 
 package org.apache.storm.sql.runtime.serde.json;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
 import org.apache.storm.spout.Scheme;
+import org.apache.storm.sql.runtime.utils.SerdeUtils;
 import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Values;
 import org.apache.storm.utils.Utils;
 
+/**
+ * JsonScheme reads the fields of a JSON object with a streaming parser. The values of the fields are written to their position in the
+ * output as they are parsed, and the other fields of the object are skipped without being materialized. The parsers are created by a
+ * shared factory which recycles their buffers per thread.
+ *
+ * <p>Without field types the values are the ones of a generic Jackson deserialization: Integer, Long or BigInteger for integral numbers,
+ * Double for the other numbers, and Map and List for the objects and arrays. With field types the scalar values are converted to the
+ * type of their field.
+ */
 public class JsonScheme implements Scheme {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory FACTORY = MAPPER.getFactory();
+
     private final List<String> fields;
+    private final List<Class<?>> fieldTypes;
+    private final HashMap<String, Integer> fieldIndexes;
+    private final boolean hasDuplicateFields;
 
     public JsonScheme(List<String> fields) {
+        this(fields, null);
+    }
+
+    /**
+     * JsonScheme Constructor which converts the values to the types of the fields.
+     * @param fields field names
+     * @param fieldTypes the types of the fields, or null to keep the values as parsed
+     */
+    public JsonScheme(List<String> fields, List<Class<?>> fieldTypes) {
         this.fields = fields;
+        this.fieldTypes = fieldTypes;
+        this.fieldIndexes = new HashMap<>();
+        for (int i = fields.size() - 1; i >= 0; i--) {
+            fieldIndexes.put(fields.get(i), i);
+        }
+        this.hasDuplicateFields = fieldIndexes.size() < fields.size();
     }
 
     @Override
     public List<Object> deserialize(ByteBuffer ser) {
-        ObjectMapper mapper = new ObjectMapper();
-        try {
-            @SuppressWarnings("unchecked")
-            HashMap<String, Object> map = mapper.readValue(Utils.toByteArray(ser), HashMap.class);
-            ArrayList<Object> list = new ArrayList<>(fields.size());
-            for (String f : fields) {
-                list.add(map.get(f));
+        Object[] values = new Object[fields.size()];
+        try (JsonParser parser = createParser(ser)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object but found " + parser.getCurrentToken());
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Integer index = fieldIndexes.get(parser.getCurrentName());
+                JsonToken token = parser.nextToken();
+                if (index == null) {
+                    parser.skipChildren();
+                } else {
+                    values[index] = readValue(parser, token, fieldTypes != null ? fieldTypes.get(index) : null);
+                }
             }
-            return list;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        if (hasDuplicateFields) {
+            // the value of a field output more than once is read into its first position
+            for (int i = 0; i < values.length; i++) {
+                values[i] = values[fieldIndexes.get(fields.get(i))];
+            }
+        }
+        return new Values(values);
+    }
+
+    private static JsonParser createParser(ByteBuffer ser) throws IOException {
+        if (ser.hasArray()) {
+            return FACTORY.createParser(ser.array(), ser.arrayOffset() + ser.position(), ser.remaining());
+        }
+        return FACTORY.createParser(Utils.toByteArray(ser));
+    }
+
+    private static Object readValue(JsonParser parser, JsonToken token, Class<?> type) throws IOException {
+        switch (token) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return SerdeUtils.convertString(parser.getText(), type);
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return type == String.class ? parser.getText() : parser.getBooleanValue();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return readNumber(parser, token, type);
+            case START_OBJECT:
+            case START_ARRAY:
+                return MAPPER.readValue(parser, Object.class);
+            default:
+                throw new IOException("Unexpected token " + token);
+        }
+    }
+
+    private static Object readNumber(JsonParser parser, JsonToken token, Class<?> type) throws IOException {
+        if (type == Integer.class) {
+            return parser.getIntValue();
+        } else if (type == Long.class) {
+            return parser.getLongValue();
+        } else if (type == Double.class) {
+            return parser.getDoubleValue();
+        } else if (type == Float.class) {
+            return parser.getFloatValue();
+        } else if (type == Short.class) {
+            return parser.getShortValue();
+        } else if (type == Byte.class) {
+            return parser.getByteValue();
+        } else if (type == BigDecimal.class) {
+            return parser.getDecimalValue();
+        } else if (type == String.class) {
+            return parser.getText();
+        }
+        return token == JsonToken.VALUE_NUMBER_INT ? parser.getNumberValue() : parser.getDoubleValue();
     }
 
     @Override
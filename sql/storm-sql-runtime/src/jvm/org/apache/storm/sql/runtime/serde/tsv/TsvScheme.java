@@ -22,39 +22,82 @@ import com.google.common.base.Preconditions;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.storm.spout.Scheme;
+import org.apache.storm.sql.runtime.utils.SerdeUtils;
 import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Values;
 import org.apache.storm.utils.Utils;
 
 /**
  * TsvScheme uses a simple delimited format implemention by splitting string,
  * and it supports user defined delimiter.
+ * Only the output fields are extracted from the record and written to their position in the output.
  */
 public class TsvScheme implements Scheme {
     private final List<String> fieldNames;
     private final char delimiter;
+    private final List<String> outputFieldNames;
+    private final List<Class<?>> outputFieldTypes;
+    private final int[] outputPositions;
 
     public TsvScheme(List<String> fieldNames, char delimiter) {
+        this(fieldNames, delimiter, fieldNames);
+    }
+
+    /**
+     * TsvScheme Constructor which outputs a subset of the fields of the records.
+     * @param fieldNames the names of the fields of the records
+     * @param delimiter the delimiter of the fields
+     * @param outputFieldNames the names of the fields to output
+     */
+    public TsvScheme(List<String> fieldNames, char delimiter, List<String> outputFieldNames) {
+        this(fieldNames, delimiter, outputFieldNames, null);
+    }
+
+    /**
+     * TsvScheme Constructor which outputs a subset of the fields of the records converted to the given types.
+     * @param fieldNames the names of the fields of the records
+     * @param delimiter the delimiter of the fields
+     * @param outputFieldNames the names of the fields to output
+     * @param outputFieldTypes the types of the fields to output, or null to output the values as String
+     */
+    public TsvScheme(List<String> fieldNames, char delimiter, List<String> outputFieldNames, List<Class<?>> outputFieldTypes) {
         this.fieldNames = fieldNames;
         this.delimiter = delimiter;
+        this.outputFieldNames = outputFieldNames;
+        this.outputFieldTypes = outputFieldTypes;
+        this.outputPositions = SerdeUtils.getOutputPositions(fieldNames, outputFieldNames);
     }
 
     @Override
     public List<Object> deserialize(ByteBuffer ser) {
-        String data = new String(Utils.toByteArray(ser), StandardCharsets.UTF_8);
-        List<String> parts = org.apache.storm.sql.runtime.utils.Utils.split(data, delimiter);
-        Preconditions.checkArgument(parts.size() == fieldNames.size(), "Invalid schema");
-
-        ArrayList<Object> list = new ArrayList<>(fieldNames.size());
-        list.addAll(parts);
-        return list;
+        String data = ser.hasArray()
+            ? new String(ser.array(), ser.arrayOffset() + ser.position(), ser.remaining(), StandardCharsets.UTF_8)
+            : new String(Utils.toByteArray(ser), StandardCharsets.UTF_8);
+        Object[] values = new Object[outputFieldNames.size()];
+        int len = data.length();
+        int field = 0;
+        int start = 0;
+        // an empty record has no fields
+        for (int i = 0; len > 0 && i <= len; i++) {
+            if (i == len || data.charAt(i) == delimiter) {
+                int position = field < outputPositions.length ? outputPositions[field] : -1;
+                if (position >= 0) {
+                    values[position] = SerdeUtils.convertString(data.substring(start, i),
+                                                                outputFieldTypes != null ? outputFieldTypes.get(position) : null);
+                }
+                field++;
+                start = i + 1;
+            }
+        }
+        Preconditions.checkArgument(field == fieldNames.size(), "Invalid schema");
+        return new Values(values);
     }
 
     @Override
     public Fields getOutputFields() {
-        return new Fields(fieldNames);
+        return new Fields(outputFieldNames);
     }
 }
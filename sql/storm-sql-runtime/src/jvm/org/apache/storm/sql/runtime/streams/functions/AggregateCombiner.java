@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.storm.sql.runtime.streams.functions;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.storm.streams.operations.CombinerAggregator;
+import org.apache.storm.tuple.Values;
+
+/**
+ * Computes the aggregate functions of a group by over the rows of the group. The accumulators are combined, so that the rows can be
+ * partially aggregated before they are sent across the network.
+ */
+public class AggregateCombiner implements CombinerAggregator<Values, Values, Values> {
+    private final List<AggregateFunction> functions;
+
+    public AggregateCombiner(List<AggregateFunction> functions) {
+        this.functions = functions;
+    }
+
+    @Override
+    public Values init() {
+        Values accumulator = new Values();
+        for (AggregateFunction function : functions) {
+            switch (function.kind) {
+                case COUNT:
+                    accumulator.add(0L);
+                    break;
+                case AVG:
+                    // the sum and the count
+                    accumulator.add(new Values(null, 0L));
+                    break;
+                default:
+                    accumulator.add(null);
+            }
+        }
+        return accumulator;
+    }
+
+    @Override
+    public Values apply(Values accumulator, Values row) {
+        for (int i = 0; i < functions.size(); i++) {
+            AggregateFunction function = functions.get(i);
+            Object value = function.argIndex < 0 ? Boolean.TRUE : row.get(function.argIndex);
+            if (value == null) {
+                // the aggregate functions ignore null values
+                continue;
+            }
+            switch (function.kind) {
+                case COUNT:
+                    accumulator.set(i, (Long) accumulator.get(i) + 1);
+                    break;
+                case AVG:
+                    Values sumAndCount = (Values) accumulator.get(i);
+                    sumAndCount.set(0, add(sumAndCount.get(0), value));
+                    sumAndCount.set(1, (Long) sumAndCount.get(1) + 1);
+                    break;
+                default:
+                    accumulator.set(i, combine(function.kind, accumulator.get(i), value));
+            }
+        }
+        return accumulator;
+    }
+
+    @Override
+    public Values merge(Values accum1, Values accum2) {
+        for (int i = 0; i < functions.size(); i++) {
+            AggregateFunction function = functions.get(i);
+            switch (function.kind) {
+                case COUNT:
+                    accum1.set(i, (Long) accum1.get(i) + (Long) accum2.get(i));
+                    break;
+                case AVG:
+                    Values sumAndCount1 = (Values) accum1.get(i);
+                    Values sumAndCount2 = (Values) accum2.get(i);
+                    sumAndCount1.set(0, combine(AggregateFunction.Kind.SUM, sumAndCount1.get(0), sumAndCount2.get(0)));
+                    sumAndCount1.set(1, (Long) sumAndCount1.get(1) + (Long) sumAndCount2.get(1));
+                    break;
+                default:
+                    accum1.set(i, combine(function.kind, accum1.get(i), accum2.get(i)));
+            }
+        }
+        return accum1;
+    }
+
+    @Override
+    public Values result(Values accumulator) {
+        Values result = new Values();
+        for (int i = 0; i < functions.size(); i++) {
+            AggregateFunction function = functions.get(i);
+            Object value = accumulator.get(i);
+            switch (function.kind) {
+                case COUNT:
+                case SUM:
+                    result.add(value == null ? null : convert((Number) value, function.resultType));
+                    break;
+                case AVG:
+                    Values sumAndCount = (Values) value;
+                    Object sum = sumAndCount.get(0);
+                    result.add(sum == null ? null : convert(divide((Number) sum, (Long) sumAndCount.get(1)), function.resultType));
+                    break;
+                default:
+                    result.add(value);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object combine(AggregateFunction.Kind kind, Object current, Object value) {
+        if (current == null) {
+            return value;
+        } else if (value == null) {
+            return current;
+        }
+        switch (kind) {
+            case SUM:
+                return add(current, value);
+            case MIN:
+                return ((Comparable<Object>) value).compareTo(current) < 0 ? value : current;
+            case MAX:
+                return ((Comparable<Object>) value).compareTo(current) > 0 ? value : current;
+            default:
+                throw new IllegalArgumentException("Unexpected aggregate function " + kind);
+        }
+    }
+
+    // the sums are accumulated as long, double or BigDecimal and converted to the result type at the end
+    private static Object add(Object current, Object value) {
+        if (current == null) {
+            current = 0L;
+        }
+        Number a = (Number) current;
+        Number b = (Number) value;
+        if (a instanceof BigDecimal || b instanceof BigDecimal) {
+            return toBigDecimal(a).add(toBigDecimal(b));
+        } else if (isFloatingPoint(a) || isFloatingPoint(b)) {
+            return a.doubleValue() + b.doubleValue();
+        } else {
+            return a.longValue() + b.longValue();
+        }
+    }
+
+    private static Number divide(Number sum, long count) {
+        if (sum instanceof BigDecimal) {
+            return ((BigDecimal) sum).divide(BigDecimal.valueOf(count), MathContext.DECIMAL64);
+        } else if (isFloatingPoint(sum)) {
+            return sum.doubleValue() / count;
+        } else {
+            return sum.longValue() / count;
+        }
+    }
+
+    private static boolean isFloatingPoint(Number number) {
+        return number instanceof Double || number instanceof Float;
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        return number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.toString());
+    }
+
+    private static Object convert(Number number, SqlTypeName type) {
+        switch (type) {
+            case TINYINT:
+                return number.byteValue();
+            case SMALLINT:
+                return number.shortValue();
+            case INTEGER:
+                return number.intValue();
+            case BIGINT:
+                return number.longValue();
+            case REAL:
+                return number.floatValue();
+            case FLOAT:
+            case DOUBLE:
+                return number.doubleValue();
+            case DECIMAL:
+                return toBigDecimal(number);
+            default:
+                return number;
+        }
+    }
+
+    /**
+     * An aggregate function of the group by.
+     */
+    public static class AggregateFunction implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The supported aggregate functions.
+         */
+        public enum Kind {
+            COUNT, SUM, MIN, MAX, AVG
+        }
+
+        private final Kind kind;
+        private final int argIndex;
+        private final SqlTypeName resultType;
+
+        /**
+         * Creates an aggregate function.
+         *
+         * @param kind       the function
+         * @param argIndex   the index of the argument column in the input rows, or -1 for COUNT(*)
+         * @param resultType the SQL type of the result
+         */
+        public AggregateFunction(Kind kind, int argIndex, SqlTypeName resultType) {
+            this.kind = kind;
+            this.argIndex = argIndex;
+            this.resultType = resultType;
+        }
+    }
+}
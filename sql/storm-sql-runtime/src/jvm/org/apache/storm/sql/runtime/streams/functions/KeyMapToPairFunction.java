@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.storm.sql.runtime.streams.functions;
+
+import org.apache.storm.streams.Pair;
+import org.apache.storm.streams.operations.PairFunction;
+import org.apache.storm.tuple.Values;
+
+/**
+ * Maps a row to a pair of the values of the key columns and the row, for the group by and join keys.
+ */
+public class KeyMapToPairFunction implements PairFunction<Values, Values, Values> {
+
+    private final int[] keyIndexes;
+
+    public KeyMapToPairFunction(int[] keyIndexes) {
+        this.keyIndexes = keyIndexes;
+    }
+
+    @Override
+    public Pair<Values, Values> apply(Values input) {
+        Values key = new Values();
+        for (int keyIndex : keyIndexes) {
+            key.add(input.get(keyIndex));
+        }
+        return Pair.of(key, input);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.storm.sql.runtime.streams.functions;
+
+import org.apache.storm.streams.Pair;
+import org.apache.storm.streams.operations.BiFunction;
+import org.apache.storm.tuple.Values;
+
+/**
+ * Builds the output row of a windowed group by from the group key, the aggregated values and the end timestamp of the window. The
+ * group window column holds the start timestamp of the window.
+ */
+public class WindowAggregateResultFunction implements BiFunction<Pair<Values, Values>, Long, Values> {
+    private final int windowPosition;
+    private final long windowLengthMs;
+
+    /**
+     * Creates the function.
+     *
+     * @param windowPosition the position of the group window column in the group by columns
+     * @param windowLengthMs the length of the windows, or -1 for the session windows where the last aggregated value is the timestamp of
+     *                       the first row of the session
+     */
+    public WindowAggregateResultFunction(int windowPosition, long windowLengthMs) {
+        this.windowPosition = windowPosition;
+        this.windowLengthMs = windowLengthMs;
+    }
+
+    @Override
+    public Values apply(Pair<Values, Values> keyAndAggregates, Long windowEnd) {
+        Values key = keyAndAggregates.getFirst();
+        Values aggregates = keyAndAggregates.getSecond();
+        int aggregateCount = aggregates.size();
+        Object windowStart;
+        if (windowLengthMs < 0) {
+            windowStart = aggregates.get(--aggregateCount);
+        } else {
+            windowStart = windowEnd - windowLengthMs;
+        }
+        Values result = new Values();
+        for (int i = 0; i < key.size(); i++) {
+            if (i == windowPosition) {
+                result.add(windowStart);
+            }
+            result.add(key.get(i));
+        }
+        if (windowPosition == key.size()) {
+            result.add(windowStart);
+        }
+        result.addAll(aggregates.subList(0, aggregateCount));
+        return result;
+    }
+}
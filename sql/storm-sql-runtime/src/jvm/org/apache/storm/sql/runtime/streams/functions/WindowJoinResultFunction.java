@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.storm.sql.runtime.streams.functions;
+
+import org.apache.storm.streams.Pair;
+import org.apache.storm.streams.operations.BiFunction;
+import org.apache.storm.tuple.Values;
+
+/**
+ * Builds the joined row from the pair of rows joined in a sliding window. A pair of rows is joined in all the windows that contain both
+ * the rows, so it is only emitted from the window where the later of the two rows arrived in the last sliding interval, and null is
+ * returned for the other windows.
+ */
+public class WindowJoinResultFunction implements BiFunction<Pair<Values, Pair<Values, Values>>, Long, Values> {
+    private final int leftTimestampIndex;
+    private final int rightTimestampIndex;
+    private final long slidingIntervalMs;
+
+    /**
+     * Creates the function.
+     *
+     * @param leftTimestampIndex  the index of the timestamp column in the left rows
+     * @param rightTimestampIndex the index of the timestamp column in the right rows
+     * @param slidingIntervalMs   the sliding interval of the windows
+     */
+    public WindowJoinResultFunction(int leftTimestampIndex, int rightTimestampIndex, long slidingIntervalMs) {
+        this.leftTimestampIndex = leftTimestampIndex;
+        this.rightTimestampIndex = rightTimestampIndex;
+        this.slidingIntervalMs = slidingIntervalMs;
+    }
+
+    @Override
+    public Values apply(Pair<Values, Pair<Values, Values>> keyAndRows, Long windowEnd) {
+        Values left = keyAndRows.getSecond().getFirst();
+        Values right = keyAndRows.getSecond().getSecond();
+        long latest = Math.max(((Number) left.get(leftTimestampIndex)).longValue(), ((Number) right.get(rightTimestampIndex)).longValue());
+        if (latest <= windowEnd - slidingIntervalMs) {
+            return null;
+        }
+        Values result = new Values();
+        result.addAll(left);
+        result.addAll(right);
+        return result;
+    }
+}
@@ -22,7 +22,10 @@ import static org.apache.commons.lang.StringUtils.isNotEmpty;
 
 import com.google.common.base.Preconditions;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,8 +33,11 @@ import java.util.Properties;
 
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.util.Utf8;
+import org.apache.commons.lang.ClassUtils;
 import org.apache.storm.spout.Scheme;
+import org.apache.storm.sql.runtime.FieldInfo;
 import org.apache.storm.sql.runtime.IOutputSerializer;
+import org.apache.storm.sql.runtime.serde.ProjectingScheme;
 import org.apache.storm.sql.runtime.serde.avro.AvroScheme;
 import org.apache.storm.sql.runtime.serde.avro.AvroSerializer;
 import org.apache.storm.sql.runtime.serde.csv.CsvScheme;
@@ -74,6 +80,106 @@ public final class SerdeUtils {
         return scheme;
     }
 
+    /**
+     * Get a Scheme instance which outputs only the projected fields, based on specific configurations. The built-in
+     * schemes skip the fields which are not projected, the schemes of other input formats are wrapped in a
+     * {@link ProjectingScheme}. The JSON, CSV and TSV schemes convert the values to the types of the fields.
+     * @param inputFormatClass input format class
+     * @param properties Properties
+     * @param fields the fields of the records
+     * @param projectedFieldNames the names of the fields to output
+     * @return the Scheme instance
+     */
+    public static Scheme getScheme(String inputFormatClass, Properties properties, List<FieldInfo> fields,
+                                   List<String> projectedFieldNames) {
+        List<String> fieldNames = FieldInfoUtils.getFieldNames(fields);
+        List<Class<?>> projectedFieldTypes = new ArrayList<>(projectedFieldNames.size());
+        for (int index : getFieldIndexes(fieldNames, projectedFieldNames)) {
+            projectedFieldTypes.add(ClassUtils.primitiveToWrapper(fields.get(index).type()));
+        }
+        if (!isNotEmpty(inputFormatClass) || JsonScheme.class.getName().equals(inputFormatClass)) {
+            return new JsonScheme(projectedFieldNames, projectedFieldTypes);
+        } else if (TsvScheme.class.getName().equals(inputFormatClass)) {
+            String delimiter = properties.getProperty("input.tsv.delimiter", "\t");
+            return new TsvScheme(fieldNames, delimiter.charAt(0), projectedFieldNames, projectedFieldTypes);
+        } else if (CsvScheme.class.getName().equals(inputFormatClass)) {
+            return new CsvScheme(fieldNames, projectedFieldNames, projectedFieldTypes);
+        } else if (AvroScheme.class.getName().equals(inputFormatClass)) {
+            return getScheme(inputFormatClass, properties, projectedFieldNames);
+        } else {
+            return new ProjectingScheme(getScheme(inputFormatClass, properties, fieldNames), projectedFieldNames);
+        }
+    }
+
+    /**
+     * Get the indexes of the given fields in the field names.
+     * @param fieldNames field names
+     * @param outputFieldNames the names of the fields to look up
+     * @return the indexes of the fields
+     */
+    public static int[] getFieldIndexes(List<String> fieldNames, List<String> outputFieldNames) {
+        int[] indexes = new int[outputFieldNames.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = fieldNames.indexOf(outputFieldNames.get(i));
+            Preconditions.checkArgument(indexes[i] >= 0, "Unknown field " + outputFieldNames.get(i));
+        }
+        return indexes;
+    }
+
+    /**
+     * Get the positions of the fields in the output fields.
+     * @param fieldNames field names
+     * @param outputFieldNames the names of the output fields
+     * @return the position of each field in the output fields, or -1 for the fields which are not output
+     */
+    public static int[] getOutputPositions(List<String> fieldNames, List<String> outputFieldNames) {
+        int[] positions = new int[fieldNames.size()];
+        Arrays.fill(positions, -1);
+        int[] indexes = getFieldIndexes(fieldNames, outputFieldNames);
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            positions[indexes[i]] = i;
+        }
+        return positions;
+    }
+
+    /**
+     * Convert a String value to the given type. Empty values of the non String types are converted to null.
+     * @param value the String value
+     * @param type the type, or null to keep the value as is
+     * @return the converted value
+     * @throws RuntimeException if the value can not be converted, so that the record is dropped as a malformed one
+     */
+    public static Object convertString(String value, Class<?> type) {
+        if (value == null || type == null || type == String.class) {
+            return value;
+        }
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            if (type == Integer.class) {
+                return Integer.valueOf(value);
+            } else if (type == Long.class) {
+                return Long.valueOf(value);
+            } else if (type == Double.class) {
+                return Double.valueOf(value);
+            } else if (type == Float.class) {
+                return Float.valueOf(value);
+            } else if (type == Short.class) {
+                return Short.valueOf(value);
+            } else if (type == Byte.class) {
+                return Byte.valueOf(value);
+            } else if (type == Boolean.class) {
+                return Boolean.valueOf(value);
+            } else if (type == BigDecimal.class) {
+                return new BigDecimal(value);
+            }
+        } catch (NumberFormatException e) {
+            throw new RuntimeException(new IOException("Cannot convert '" + value + "' to " + type.getSimpleName(), e));
+        }
+        return value;
+    }
+
     /**
      * Get a OutputSerializer instance based on specific configurations.
      * @param outputFormatClass output format class
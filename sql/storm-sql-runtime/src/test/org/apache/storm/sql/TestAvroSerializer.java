@@ -69,4 +69,19 @@ public class TestAvroSerializer {
     AvroScheme scheme = new AvroScheme(schemaString1, fields);
     assertArrayEquals(o.toArray(), scheme.deserialize(byteBuffer).toArray());
   }
+
+  @Test
+  public void testAvroSchemeWithProjection() {
+    List<String> fields = Lists.newArrayList("ID", "val1", "val2");
+    Map<String,Long> mp = Maps.newHashMap();
+    mp.put("l1",1234L);
+    List<Object> o = Lists.newArrayList(1, mp, Lists.newArrayList("s1", "s2"));
+
+    AvroSerializer serializer = new AvroSerializer(schemaString1, fields);
+    ByteBuffer byteBuffer = serializer.write(o, null);
+
+    // the fields not projected are skipped by the decoder
+    AvroScheme scheme = new AvroScheme(schemaString1, Lists.newArrayList("val2", "ID"));
+    assertArrayEquals(new Object[] {Lists.newArrayList("s1", "s2"), 1}, scheme.deserialize(byteBuffer).toArray());
+  }
 }
@@ -23,9 +23,11 @@ import org.apache.storm.sql.runtime.serde.csv.CsvSerializer;
 import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TestCsvSerializer {
 
@@ -49,6 +51,28 @@ public class TestCsvSerializer {
 
     scheme = new CsvScheme(fields);
     assertArrayEquals(o.toArray(), scheme.deserialize(byteBuffer).toArray());
+
+    // projection of the fields
+    byteBuffer.rewind();
+    scheme = new CsvScheme(fields, Lists.newArrayList("v", "ID"));
+    assertArrayEquals(new Object[] {"\"8\"", "1,9"}, scheme.deserialize(byteBuffer).toArray());
+  }
+
+  @Test
+  public void testCsvSchemeWithTypes() {
+    List<String> fields = Lists.newArrayList("ID", "val", "price", "flag");
+    CsvScheme scheme = new CsvScheme(fields, fields, Lists.newArrayList(Long.class, String.class, Double.class, Boolean.class));
+    ByteBuffer byteBuffer = ByteBuffer.wrap("\r\n7,\"a\r\nb\",,true\r\n8,b,1.0,false".getBytes(StandardCharsets.UTF_8));
+    // empty lines before the record are skipped and the next records are ignored
+    assertArrayEquals(new Object[] {7L, "a\r\nb", null, true}, scheme.deserialize(byteBuffer).toArray());
+
+    assertThrows(IllegalArgumentException.class,
+                 () -> scheme.deserialize(ByteBuffer.wrap("1,a,2.0".getBytes(StandardCharsets.UTF_8))));
+    assertThrows(RuntimeException.class,
+                 () -> scheme.deserialize(ByteBuffer.wrap("1,\"a\"b,2.0,true".getBytes(StandardCharsets.UTF_8))));
+    // a value which can not be converted to the type of its field
+    assertThrows(RuntimeException.class,
+                 () -> scheme.deserialize(ByteBuffer.wrap("x,a,2.0,true".getBytes(StandardCharsets.UTF_8))));
   }
 
 }
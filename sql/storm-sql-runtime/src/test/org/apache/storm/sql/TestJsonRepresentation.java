@@ -20,6 +20,7 @@ package org.apache.storm.sql;
 import org.apache.storm.sql.runtime.serde.json.JsonScheme;
 import org.apache.storm.sql.runtime.serde.json.JsonSerializer;
 import org.apache.storm.utils.Utils;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import org.junit.jupiter.api.Test;
 
@@ -40,6 +41,25 @@ public class TestJsonRepresentation {
     assertArrayEquals(new Object[] {1, "2"}, o.toArray());
   }
 
+  @Test
+  public void testJsonSchemeSkipsOtherFields() {
+    final List<String> fields = Lists.newArrayList("val", "nested", "ID", "missing");
+    final String s = "{\"skipped\": {\"a\": [1, {\"b\": 2}]}, \"ID\": 3000000000, \"nested\": {\"c\": [1.5, true]},"
+        + " \"other\": [1, 2], \"val\": null}";
+    JsonScheme scheme = new JsonScheme(fields);
+    List<Object> o = scheme.deserialize(ByteBuffer.wrap(s.getBytes(Charset.defaultCharset())));
+    assertArrayEquals(new Object[] {null, ImmutableMap.of("c", Lists.newArrayList(1.5, true)), 3000000000L, null}, o.toArray());
+  }
+
+  @Test
+  public void testJsonSchemeWithTypes() {
+    final List<String> fields = Lists.newArrayList("ID", "val", "price", "name");
+    final String s = "{\"ID\": 1, \"val\": \"2\", \"price\": 3, \"name\": 4}";
+    JsonScheme scheme = new JsonScheme(fields, Lists.newArrayList(Long.class, Integer.class, Double.class, String.class));
+    List<Object> o = scheme.deserialize(ByteBuffer.wrap(s.getBytes(Charset.defaultCharset())));
+    assertArrayEquals(new Object[] {1L, 2, 3.0, "4"}, o.toArray());
+  }
+
   @Test
   public void testJsonSerializer() {
     final List<String> fields = Lists.newArrayList("ID", "val");
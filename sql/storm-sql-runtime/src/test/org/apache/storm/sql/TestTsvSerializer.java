@@ -23,9 +23,11 @@ import org.apache.storm.sql.runtime.serde.tsv.TsvSerializer;
 import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TestTsvSerializer {
 
@@ -43,4 +45,16 @@ public class TestTsvSerializer {
     assertArrayEquals(o.toArray(), scheme.deserialize(byteBuffer).toArray());
   }
 
+  @Test
+  public void testTsvSchemeWithProjectionAndTypes() {
+    List<String> fields = Lists.newArrayList("ID", "name", "price", "empty");
+    TsvScheme scheme = new TsvScheme(fields, '|', Lists.newArrayList("price", "ID", "name"),
+                                     Lists.newArrayList(Double.class, Integer.class, String.class));
+    ByteBuffer byteBuffer = ByteBuffer.wrap("1|a b|2.5|".getBytes(StandardCharsets.UTF_8));
+    assertArrayEquals(new Object[] {2.5, 1, "a b"}, scheme.deserialize(byteBuffer).toArray());
+
+    assertThrows(IllegalArgumentException.class,
+                 () -> scheme.deserialize(ByteBuffer.wrap("1|a|2.5".getBytes(StandardCharsets.UTF_8))));
+  }
+
 }
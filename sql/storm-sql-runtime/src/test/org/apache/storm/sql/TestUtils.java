@@ -29,6 +29,7 @@ import java.util.PriorityQueue;
 import org.apache.storm.spout.SpoutOutputCollector;
 import org.apache.storm.sql.runtime.ISqlStreamsDataSource;
 import org.apache.storm.streams.Pair;
+import org.apache.storm.streams.operations.Predicate;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.IRichBolt;
@@ -237,6 +238,28 @@ public class TestUtils {
 
   }
 
+  /**
+   * Supports the pushdown of the projection and the filter, the spout emits only the projected fields of the records passing the filter.
+   */
+  public static class MockSqlStreamsProjectableDataSource extends MockSqlStreamsDataSource {
+    @Override
+    public IRichSpout getProducer(List<String> fieldNames, Predicate<Values> filter) {
+      List<String> allFields = Arrays.asList("ID", "NAME", "ADDR");
+      List<Values> records = new ArrayList<>();
+      for (Values record : Arrays.asList(new Values(0, "a", "y"), new Values(1, "ab", "y"), new Values(2, "abc", "y"),
+                                         new Values(3, "abcd", "y"), new Values(4, "abcde", "y"))) {
+        Values projected = new Values();
+        for (String field : fieldNames) {
+          projected.add(record.get(allFields.indexOf(field)));
+        }
+        if (filter == null || filter.test(projected)) {
+          records.add(projected);
+        }
+      }
+      return new MockSpout(records, new Fields(fieldNames));
+    }
+  }
+
   public static class MockSqlStreamsInsertDataSource extends MockSqlStreamsNestedDataSource {
     @Override
     public IRichBolt getConsumer() {
@@ -356,6 +379,52 @@ public class TestUtils {
     }
   }
 
+  public static class MockSqlStreamsOrdersDataSource implements ISqlStreamsDataSource {
+    @Override
+    public IRichSpout getProducer() {
+      List<Values> records = new ArrayList<>();
+      Fields outputFields = new Fields("ROWTIME", "ID", "PRODUCT", "UNITS");
+
+      records.add(new Values(1000L, 1, 1, 5));
+      records.add(new Values(2000L, 2, 2, 3));
+      records.add(new Values(30000L, 3, 1, 2));
+      records.add(new Values(59000L, 4, 2, 4));
+      records.add(new Values(61000L, 5, 1, 1));
+      records.add(new Values(70000L, 6, 1, 10));
+      // advances the event time past the windows above
+      records.add(new Values(130000L, 7, 3, 1));
+
+      return new MockSpout(records, outputFields);
+    }
+
+    @Override
+    public IRichBolt getConsumer() {
+      return new MockBolt();
+    }
+  }
+
+  public static class MockSqlStreamsShipmentsDataSource implements ISqlStreamsDataSource {
+    @Override
+    public IRichSpout getProducer() {
+      List<Values> records = new ArrayList<>();
+      Fields outputFields = new Fields("ROWTIME", "ORDERID");
+
+      records.add(new Values(31000L, 1));
+      records.add(new Values(62000L, 6));
+      records.add(new Values(65000L, 3));
+      records.add(new Values(100000L, 4));
+      records.add(new Values(200000L, 2));
+      records.add(new Values(250000L, 99));
+
+      return new MockSpout(records, outputFields);
+    }
+
+    @Override
+    public IRichBolt getConsumer() {
+      return new MockBolt();
+    }
+  }
+
   public static long monotonicNow() {
     final long NANOSECONDS_PER_MILLISECOND = 1000000;
     return System.nanoTime() / NANOSECONDS_PER_MILLISECOND;
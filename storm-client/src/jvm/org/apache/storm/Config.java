@@ -680,6 +680,22 @@ public class Config extends HashMap<String, Object> {
      */
     @IsString
     public static final String TOPOLOGY_BOLTS_MESSAGE_ID_FIELD_NAME = "topology.bolts.message.id.field.name";
+    /**
+     * Bolt-specific configuration for windowed bolts to specify the gap of session windows in time duration. A session window closes once
+     * no tuple of the session arrives for the gap. This configuration should only be used from the BaseWindowedBolt.withSessionWindow
+     * builder methods, and cannot be combined with the window length and sliding interval configurations.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_BOLTS_SESSION_GAP_DURATION_MS = "topology.bolts.window.session.gap.duration.ms";
+    /**
+     * Bolt-specific configuration for windowed bolts to keep the events of the window ordered by their timestamp. With this, events are
+     * expired from the head of the window and the count and range queries of the watermark based trigger policies use a binary search
+     * instead of scanning the whole window, which helps for windows holding a large number of events. This configuration should only be
+     * used from the BaseWindowedBolt.withTimeIndexedEventBuffer builder method.
+     */
+    @IsBoolean
+    public static final String TOPOLOGY_BOLTS_WINDOW_TIME_INDEXED_BUFFER = "topology.bolts.window.time.indexed.buffer";
     /**
      * This config is available for TransactionalSpouts, and contains the id ( a String) for the transactional topology. This id is used to
      * store the state of the transactional topology in Zookeeper.
@@ -771,12 +787,40 @@ public class Config extends HashMap<String, Object> {
     @IsInteger
     @IsPositiveNumber
     public static final String TOPOLOGY_TRIDENT_BATCH_EMIT_INTERVAL_MILLIS = "topology.trident.batch.emit.interval.millis";
+    /**
+     * The target latency of a Trident batch, from the emit of the batch to its commit. When set, the master batch coordinator adapts the
+     * number of tuples per batch to the observed latencies, between topology.trident.batch.min.size and topology.trident.batch.max.size,
+     * and passes it to the emitters with the {@link org.apache.storm.trident.topology.TransactionAttempt}.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_TRIDENT_BATCH_TARGET_LATENCY_MILLIS = "topology.trident.batch.target.latency.millis";
+    /**
+     * The minimum number of tuples per batch, and the initial size, of the adaptive batch sizing. Defaults to 1.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_TRIDENT_BATCH_MIN_SIZE = "topology.trident.batch.min.size";
+    /**
+     * The maximum number of tuples per batch of the adaptive batch sizing. Defaults to 10000.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_TRIDENT_BATCH_MAX_SIZE = "topology.trident.batch.max.size";
     /**
      * Maximum number of tuples that can be stored inmemory cache in windowing operators for fast access without fetching them from store.
      */
     @IsInteger
     @IsPositiveNumber
     public static final String TOPOLOGY_TRIDENT_WINDOWING_INMEMORY_CACHE_LIMIT = "topology.trident.windowing.cache.tuple.limit";
+    /**
+     * The number of keys per multiUpdate of the map states by the persistent aggregations. When set, the keys of a batch are updated in
+     * chunks of this size, so that with a {@link org.apache.storm.trident.state.map.PipelinedBackingMap} the reads of a chunk overlap with
+     * the writes of the previous chunk. Unset updates all the keys of the batch at once.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_TRIDENT_STATE_UPDATE_CHUNK_SIZE = "topology.trident.state.update.chunk.size";
     /**
      * The id assigned to a running topology. The id is the storm name with a unique nonce appended.
      */
@@ -809,6 +853,13 @@ public class Config extends HashMap<String, Object> {
     @IsInteger
     @IsPositiveNumber
     public static final String TOPOLOGY_SHELLBOLT_MAX_PENDING = "topology.shellbolt.max.pending";
+    /**
+     * Max pending tuples one ShellBolt writes to its subprocess in a single message, when the multilang serializer supports batches like
+     * {@link org.apache.storm.multilang.MessagePackSerializer}.
+     */
+    @IsInteger
+    @IsPositiveNumber
+    public static final String TOPOLOGY_SHELLBOLT_MAX_BATCH_SIZE = "topology.shellbolt.max.batch.size";
     /**
      * How long a subprocess can go without heartbeating before the ShellSpout/ShellBolt tries to suicide itself.
      */
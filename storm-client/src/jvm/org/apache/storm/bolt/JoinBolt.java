@@ -38,6 +38,9 @@ public class JoinBolt extends BaseWindowedBolt {
     protected String outputStreamName;
     // Map[StreamName -> Map[Key -> List<Tuple>]  ]
     HashMap<String, HashMap<Object, ArrayList<Tuple>>> hashedInputs = new HashMap<>(); // holds remaining streams
+    // Map[StreamName -> Map[Key -> List<Tuple>]  ], holds all streams of the window across triggers in incremental mode
+    HashMap<String, HashMap<Object, ArrayList<Tuple>>> windowedInputs = new HashMap<>();
+    protected boolean incremental = false;
     private OutputCollector collector;
 
     /**
@@ -72,6 +75,19 @@ public class JoinBolt extends BaseWindowedBolt {
         return this;
     }
 
+    /**
+     * Optional. Joins the window incrementally. The hashed inputs of all the streams are retained across window activations and are only
+     * updated with the new and expired tuples of the window, and only the join results formed by the new tuples are emitted. So a sliding
+     * window emits each join result once rather than on every activation in which its tuples are part of the window.
+     *
+     * <p>Only inner joins are supported in this mode, since a left join result emitted without a match cannot be retracted once a
+     * matching tuple arrives.
+     */
+    public JoinBolt withIncrementalJoin() {
+        this.incremental = true;
+        return this;
+    }
+
     /**
      * Performs inner Join with the newStream.
      * SQL:
@@ -162,13 +178,28 @@ public class JoinBolt extends BaseWindowedBolt {
         if (outputFields == null) {
             throw new IllegalArgumentException("Must specify output fields via .select() method.");
         }
+        if (incremental) {
+            for (Map.Entry<String, JoinInfo> entry : joinCriteria.entrySet()) {
+                JoinType joinType = entry.getValue().getJoinType();
+                if (joinType != null && joinType != JoinType.INNER) {
+                    throw new IllegalArgumentException("Incremental join supports only inner joins, '" + entry.getKey()
+                                                       + "' is joined with " + joinType.name() + " join.");
+                }
+                windowedInputs.put(entry.getKey(), new HashMap<Object, ArrayList<Tuple>>());
+            }
+        }
     }
 
     @Override
     public void execute(TupleWindow inputWindow) {
         // 1) Perform Join
-        List<Tuple> currentWindow = inputWindow.get();
-        JoinAccumulator joinResult = hashJoin(currentWindow);
+        JoinAccumulator joinResult;
+        if (incremental) {
+            joinResult = incrementalHashJoin(inputWindow.getNew(), inputWindow.getExpired());
+        } else {
+            List<Tuple> currentWindow = inputWindow.get();
+            joinResult = hashJoin(currentWindow);
+        }
 
         // 2) Emit results
         for (ResultRecord resultRecord : joinResult.getRecords()) {
@@ -230,6 +261,65 @@ public class JoinBolt extends BaseWindowedBolt {
         return probe;
     }
 
+    // Joins only the new tuples with the tuples retained from the previous activations of the window
+    protected JoinAccumulator incrementalHashJoin(List<Tuple> newTuples, List<Tuple> expiredTuples) {
+        // 1) Drop the expired tuples. The remaining tuples are the ones already joined in the previous activations.
+        for (Tuple tuple : expiredTuples) {
+            String streamId = getStreamSelector(tuple);
+            HashMap<Object, ArrayList<Tuple>> mappings = windowedInputs.get(streamId);
+            if (mappings != null) {
+                Object field = getJoinField(streamId, tuple);
+                ArrayList<Tuple> recs = mappings.get(field);
+                if (recs != null && recs.remove(tuple) && recs.isEmpty()) {
+                    mappings.remove(field);
+                }
+            }
+        }
+
+        // 2) Segregate the new tuples into streams
+        HashMap<String, HashMap<Object, ArrayList<Tuple>>> newInputs = new HashMap<>();
+        for (String stream : joinCriteria.keySet()) {
+            newInputs.put(stream, new HashMap<Object, ArrayList<Tuple>>());
+        }
+        for (Tuple tuple : newTuples) {
+            String streamId = getStreamSelector(tuple);
+            HashMap<Object, ArrayList<Tuple>> mappings = newInputs.get(streamId);
+            if (mappings != null) {
+                mappings.computeIfAbsent(getJoinField(streamId, tuple), k -> new ArrayList<>()).add(tuple);
+            }
+        }
+
+        // 3) Each new join result contains at least one new tuple. Going over the streams in reverse join order, join the new tuples of
+        //    the stream with the old tuples of the streams before it and all the tuples of the streams after it, and then retain its new
+        //    tuples. This produces each new join result exactly once.
+        JoinAccumulator result = new JoinAccumulator();
+        List<String> streams = new ArrayList<>(joinCriteria.keySet());
+        for (int k = streams.size() - 1; k >= 0; --k) {
+            HashMap<Object, ArrayList<Tuple>> newMappings = newInputs.get(streams.get(k));
+            if (newMappings.isEmpty()) {
+                continue;
+            }
+            JoinAccumulator probe = new JoinAccumulator();
+            for (ArrayList<Tuple> recs : (k == 0 ? newMappings : windowedInputs.get(streams.get(0))).values()) {
+                for (Tuple tuple : recs) {
+                    probe.insert(new ResultRecord(tuple, streams.size() == 1));
+                }
+            }
+            for (int i = 1; i < streams.size() && !probe.getRecords().isEmpty(); ++i) {
+                String streamName = streams.get(i);
+                HashMap<Object, ArrayList<Tuple>> buildInput = (i == k) ? newMappings : windowedInputs.get(streamName);
+                probe = doJoin(probe, buildInput, joinCriteria.get(streamName), i == streams.size() - 1);
+            }
+            result.records.addAll(probe.getRecords());
+
+            HashMap<Object, ArrayList<Tuple>> mappings = windowedInputs.get(streams.get(k));
+            for (Map.Entry<Object, ArrayList<Tuple>> entry : newMappings.entrySet()) {
+                mappings.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).addAll(entry.getValue());
+            }
+        }
+        return result;
+    }
+
     // Dispatches to the right join method (inner/left/right/outer) based on the joinInfo.joinType
     protected JoinAccumulator doJoin(JoinAccumulator probe, HashMap<Object, ArrayList<Tuple>> buildInput, JoinInfo joinInfo,
                                      boolean finalJoin) {
@@ -599,6 +599,8 @@ public abstract class Executor implements Callable, JCQueue.Consumer {
         keysToRemove.remove(Config.TOPOLOGY_BOLTS_WINDOW_LENGTH_DURATION_MS);
         keysToRemove.remove(Config.TOPOLOGY_BOLTS_SLIDING_INTERVAL_COUNT);
         keysToRemove.remove(Config.TOPOLOGY_BOLTS_SLIDING_INTERVAL_DURATION_MS);
+        keysToRemove.remove(Config.TOPOLOGY_BOLTS_SESSION_GAP_DURATION_MS);
+        keysToRemove.remove(Config.TOPOLOGY_BOLTS_WINDOW_TIME_INDEXED_BUFFER);
         keysToRemove.remove(Config.TOPOLOGY_BOLTS_TUPLE_TIMESTAMP_MAX_LAG_MS);
         keysToRemove.remove(Config.TOPOLOGY_BOLTS_MESSAGE_ID_FIELD_NAME);
         keysToRemove.remove(Config.TOPOLOGY_STATE_PROVIDER);
@@ -0,0 +1,261 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.lookup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.storm.shade.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
+import org.apache.storm.tuple.Tuple;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Looks up the values of the keys of the input tuples of a lookup bolt in an external store, as per the {@link LookupOptions}, and acks
+ * or fails the input tuples once their values are handled. The lookups are either synchronous, or asynchronous with a bounded number of
+ * lookups in flight, batching and coalescing of the keys waiting for a lookup thread, and an optional cache shared within the worker.
+ *
+ * <p>A bolt creates the helper when prepared, passes each input tuple to {@link #lookup(Tuple, Object)} and the tick tuples to
+ * {@link #onTick()}, and calls {@link #cleanup()} when cleaned up. The asynchronous lookups are completed on the executor thread, when the
+ * next tuple is received, so an asynchronous lookup bolt should receive tick tuples to complete them when its input is idle. The methods of
+ * this class must be called from the executor thread.
+ *
+ * @param <K> the key type, which must implement equals and hashCode
+ * @param <V> the value type
+ */
+public class AsyncLookupHelper<K, V> {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncLookupHelper.class);
+
+    private final BatchLookup<K, V> batchLookup;
+    private final LookupResultHandler<V> resultHandler;
+    private final OutputCollector collector;
+    private final int maxInFlightLookups;
+    private final int maxBatchSize;
+    private final SharedLookupCache<K, V> cache;
+    private final ExecutorService lookupExecutor;
+    // the input tuples by key, for the keys in the next batch or in flight
+    private final Map<K, List<Tuple>> waitingTuples = new HashMap<>();
+    private final BlockingQueue<CompletedLookup<K, V>> completedLookups = new LinkedBlockingQueue<>();
+    private List<K> nextBatch = new ArrayList<>();
+    private int inFlightLookups;
+
+    /**
+     * Creates a lookup helper.
+     *
+     * @param options the lookup options
+     * @param batchLookup the lookup of the keys in the external store
+     * @param resultHandler the handler emitting the output tuples for the looked up values
+     * @param context the context of the bolt, which names the cache and the lookup threads
+     * @param collector the collector of the bolt
+     */
+    public AsyncLookupHelper(LookupOptions options, BatchLookup<K, V> batchLookup, LookupResultHandler<V> resultHandler,
+                             TopologyContext context, OutputCollector collector) {
+        this.batchLookup = batchLookup;
+        this.resultHandler = resultHandler;
+        this.collector = collector;
+        this.maxInFlightLookups = options.getMaxInFlightLookups();
+        this.maxBatchSize = options.getMaxBatchSize();
+        String componentId = context == null ? "lookup" : context.getThisComponentId();
+        if (options.isCacheEnabled()) {
+            String cacheName = options.getCacheName() != null ? options.getCacheName() : componentId;
+            String stormId = context == null ? null : context.getStormId();
+            this.cache = SharedLookupCache.getOrCreate(stormId + "/" + cacheName, options.getMaxCacheSize(),
+                                                       options.getCacheExpireAfterWriteMillis());
+        } else {
+            this.cache = null;
+        }
+        if (options.isAsync()) {
+            this.lookupExecutor = Executors.newFixedThreadPool(maxInFlightLookups, new ThreadFactoryBuilder()
+                .setNameFormat(componentId + "-lookup-%d")
+                .setDaemon(true)
+                .build());
+        } else {
+            this.lookupExecutor = null;
+        }
+    }
+
+    /**
+     * Looks up the value of the key of an input tuple, and handles it now if it is cached or the lookups are synchronous, or later once it
+     * is looked up.
+     *
+     * @param input the input tuple
+     * @param key the key to look up
+     */
+    public void lookup(Tuple input, K key) {
+        completeLookups();
+        if (cache != null) {
+            Object cached = cache.getIfPresent(key);
+            if (cached != SharedLookupCache.NOT_CACHED) {
+                @SuppressWarnings("unchecked")
+                V value = (V) cached;
+                handle(input, value);
+                return;
+            }
+        }
+        if (lookupExecutor == null) {
+            lookupNow(input, key);
+            return;
+        }
+        List<Tuple> tuples = waitingTuples.get(key);
+        if (tuples != null) {
+            // the key is already being looked up
+            tuples.add(input);
+            return;
+        }
+        tuples = new ArrayList<>(1);
+        tuples.add(input);
+        waitingTuples.put(key, tuples);
+        nextBatch.add(key);
+        if (inFlightLookups < maxInFlightLookups || nextBatch.size() >= maxBatchSize) {
+            sendNextBatch();
+        }
+    }
+
+    /**
+     * Completes the asynchronous lookups and sends the batch of the keys waiting for a lookup thread. A bolt calls it on tick tuples.
+     */
+    public void onTick() {
+        completeLookups();
+        if (!nextBatch.isEmpty() && inFlightLookups < maxInFlightLookups) {
+            sendNextBatch();
+        }
+    }
+
+    /**
+     * Completes all the asynchronous lookups and stops the lookup threads.
+     */
+    public void cleanup() {
+        if (lookupExecutor == null) {
+            return;
+        }
+        if (!nextBatch.isEmpty()) {
+            sendNextBatch();
+        }
+        while (inFlightLookups > 0) {
+            complete(takeCompletedLookup());
+        }
+        lookupExecutor.shutdown();
+    }
+
+    /**
+     * Returns the number of input tuples waiting for the lookup of their key.
+     */
+    public int getWaitingTuples() {
+        int count = 0;
+        for (List<Tuple> tuples : waitingTuples.values()) {
+            count += tuples.size();
+        }
+        return count;
+    }
+
+    private void lookupNow(Tuple input, K key) {
+        V value;
+        try {
+            value = batchLookup.lookup(Collections.singletonList(key)).get(key);
+        } catch (Exception e) {
+            collector.reportError(e);
+            collector.fail(input);
+            return;
+        }
+        if (cache != null) {
+            cache.put(key, value);
+        }
+        handle(input, value);
+    }
+
+    private void sendNextBatch() {
+        while (inFlightLookups >= maxInFlightLookups) {
+            complete(takeCompletedLookup());
+        }
+        final List<K> keys = nextBatch;
+        nextBatch = new ArrayList<>();
+        inFlightLookups++;
+        lookupExecutor.execute(() -> {
+            try {
+                completedLookups.add(new CompletedLookup<>(keys, batchLookup.lookup(keys), null));
+            } catch (Throwable t) {
+                completedLookups.add(new CompletedLookup<>(keys, null, t));
+            }
+        });
+    }
+
+    private CompletedLookup<K, V> takeCompletedLookup() {
+        try {
+            return completedLookups.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void completeLookups() {
+        CompletedLookup<K, V> completed;
+        while ((completed = completedLookups.poll()) != null) {
+            complete(completed);
+        }
+    }
+
+    private void complete(CompletedLookup<K, V> completed) {
+        inFlightLookups--;
+        if (completed.error != null) {
+            LOG.warn("Failed to look up {} keys", completed.keys.size(), completed.error);
+            collector.reportError(completed.error);
+        }
+        for (K key : completed.keys) {
+            List<Tuple> tuples = waitingTuples.remove(key);
+            if (completed.error != null) {
+                for (Tuple tuple : tuples) {
+                    collector.fail(tuple);
+                }
+                continue;
+            }
+            V value = completed.values == null ? null : completed.values.get(key);
+            if (cache != null) {
+                cache.put(key, value);
+            }
+            for (Tuple tuple : tuples) {
+                handle(tuple, value);
+            }
+        }
+    }
+
+    private void handle(Tuple input, V value) {
+        try {
+            resultHandler.onResult(input, value);
+            collector.ack(input);
+        } catch (Exception e) {
+            collector.reportError(e);
+            collector.fail(input);
+        }
+    }
+
+    private static class CompletedLookup<K, V> {
+        private final List<K> keys;
+        private final Map<K, V> values;
+        private final Throwable error;
+
+        CompletedLookup(List<K> keys, Map<K, V> values, Throwable error) {
+            this.keys = keys;
+            this.values = values;
+            this.error = error;
+        }
+    }
+}
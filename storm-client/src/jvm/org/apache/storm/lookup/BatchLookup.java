@@ -0,0 +1,37 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.lookup;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up the values of several keys in an external store at once, e.g. with a multi get, an {@code IN (...)} query or by executing the
+ * single key lookups over the same connection. The lookups of an {@link AsyncLookupHelper} run on its lookup threads, so an implementation
+ * used by concurrent lookups must be thread safe.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+@FunctionalInterface
+public interface BatchLookup<K, V> {
+
+    /**
+     * Looks up the values of the given keys.
+     *
+     * @param keys the distinct keys to look up
+     * @return the values by key, where a key that is absent from the store maps to null or is missing
+     * @throws Exception if the lookup fails, in which case the tuples of all the keys are failed
+     */
+    Map<K, V> lookup(List<K> keys) throws Exception;
+}
@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.lookup;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for the lookups of an {@link AsyncLookupHelper}. By default the lookups are executed one at a time on the executor thread of the
+ * bolt and are not cached, like a plain lookup bolt does.
+ *
+ * <p>With {@link #withMaxInFlightLookups(int)}, the lookups run on as many lookup threads, and the bolt keeps processing its input while
+ * they are in flight. The keys of the input arriving while all the lookup threads are busy are batched into multi key lookups of up to
+ * {@link #withMaxBatchSize(int)} keys, and a key that is already being looked up is not looked up again. The bolt blocks only when all the
+ * lookup threads are busy and the next batch is full. The output tuples are then emitted in the order the lookups complete.
+ *
+ * <p>With {@link #withCache(long, long, TimeUnit)}, the values are cached in a cache shared by the executors of the same component, or
+ * by all the components using the same {@link #withCacheName(String) cache name}, in the worker.
+ */
+public class LookupOptions implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int maxInFlightLookups;
+    private int maxBatchSize = 100;
+    private long maxCacheSize;
+    private long cacheExpireAfterWriteMillis;
+    private String cacheName;
+
+    /**
+     * Executes the lookups asynchronously on the given number of lookup threads.
+     *
+     * @param maxInFlightLookups the maximum number of concurrent lookups, 0 to look up synchronously on the executor thread
+     * @return this
+     */
+    public LookupOptions withMaxInFlightLookups(int maxInFlightLookups) {
+        if (maxInFlightLookups < 0) {
+            throw new IllegalArgumentException("maxInFlightLookups must not be negative");
+        }
+        this.maxInFlightLookups = maxInFlightLookups;
+        return this;
+    }
+
+    /**
+     * Limits the number of keys of the asynchronous multi key lookups.
+     *
+     * @param maxBatchSize the maximum number of keys looked up at once
+     * @return this
+     */
+    public LookupOptions withMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * Caches the looked up values, including the absence of a value.
+     *
+     * @param maximumSize the maximum number of cached keys
+     * @param expireAfterWrite the duration after which a cached value is looked up again, 0 to never expire the values
+     * @param unit the unit of the duration
+     * @return this
+     */
+    public LookupOptions withCache(long maximumSize, long expireAfterWrite, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.maxCacheSize = maximumSize;
+        this.cacheExpireAfterWriteMillis = unit.toMillis(expireAfterWrite);
+        return this;
+    }
+
+    /**
+     * Shares the cache with the other components of the worker using the same name, instead of only between the executors of the
+     * component. The components sharing a cache must look up the same keys in the same store.
+     *
+     * @param cacheName the name of the cache
+     * @return this
+     */
+    public LookupOptions withCacheName(String cacheName) {
+        this.cacheName = cacheName;
+        return this;
+    }
+
+    public int getMaxInFlightLookups() {
+        return maxInFlightLookups;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getMaxCacheSize() {
+        return maxCacheSize;
+    }
+
+    public long getCacheExpireAfterWriteMillis() {
+        return cacheExpireAfterWriteMillis;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public boolean isAsync() {
+        return maxInFlightLookups > 0;
+    }
+
+    public boolean isCacheEnabled() {
+        return maxCacheSize > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "LookupOptions{"
+                + "maxInFlightLookups=" + maxInFlightLookups
+                + ", maxBatchSize=" + maxBatchSize
+                + ", maxCacheSize=" + maxCacheSize
+                + ", cacheExpireAfterWriteMillis=" + cacheExpireAfterWriteMillis
+                + ", cacheName='" + cacheName + '\''
+                + '}';
+    }
+}
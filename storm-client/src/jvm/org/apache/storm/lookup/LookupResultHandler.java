@@ -0,0 +1,34 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.lookup;
+
+import org.apache.storm.tuple.Tuple;
+
+/**
+ * Emits the tuples for the looked up value of an input tuple. It is called on the executor thread of the bolt, which acks the input tuple
+ * afterwards, or fails it if the handler throws an exception.
+ *
+ * @param <V> the value type
+ */
+@FunctionalInterface
+public interface LookupResultHandler<V> {
+
+    /**
+     * Handles the looked up value of an input tuple.
+     *
+     * @param input the input tuple
+     * @param value the value, or null if the key is absent from the store
+     * @throws Exception if the tuples can not be emitted
+     */
+    void onResult(Tuple input, V value) throws Exception;
+}
@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.lookup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.storm.trident.util.ICache;
+import org.apache.storm.trident.util.TinyLfuCache;
+
+/**
+ * A thread safe {@link TinyLfuCache} shared by the lookup helpers of a worker by name.
+ */
+final class SharedLookupCache<K, V> implements ICache<K, V> {
+    static final Object NOT_CACHED = new Object();
+
+    private static final ConcurrentMap<String, SharedLookupCache<?, ?>> CACHES = new ConcurrentHashMap<>();
+
+    private final ICache<K, V> cache;
+
+    private SharedLookupCache(long maximumSize, long expireAfterWriteMillis) {
+        this.cache = new TinyLfuCache<>(maximumSize, null, expireAfterWriteMillis, true);
+    }
+
+    /**
+     * Returns the cache with the given name, creating it with the given settings if it does not exist yet.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> SharedLookupCache<K, V> getOrCreate(String name, long maximumSize, long expireAfterWriteMillis) {
+        return (SharedLookupCache<K, V>) CACHES.computeIfAbsent(name, key -> new SharedLookupCache<>(maximumSize, expireAfterWriteMillis));
+    }
+
+    /**
+     * Returns the cached value, recording the access, or {@link #NOT_CACHED} if the key is not cached.
+     */
+    synchronized Object getIfPresent(K key) {
+        return cache.containsKey(key) ? cache.get(key) : NOT_CACHED;
+    }
+
+    @Override
+    public synchronized boolean containsKey(K key) {
+        return cache.containsKey(key);
+    }
+
+    @Override
+    public synchronized V get(K key) {
+        return cache.get(key);
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    @Override
+    public synchronized long hitCount() {
+        return cache.hitCount();
+    }
+
+    @Override
+    public synchronized long missCount() {
+        return cache.missCount();
+    }
+
+    @Override
+    public synchronized long evictionCount() {
+        return cache.evictionCount();
+    }
+}
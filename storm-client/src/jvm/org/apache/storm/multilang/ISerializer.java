@@ -58,6 +58,18 @@ public interface ISerializer extends Serializable {
      */
     void writeBoltMsg(BoltMsg msg) throws IOException;
 
+    /**
+     * This method sends a batch of bolt messages to a non-JVM bolt process. Serializers which do not support batches send the messages one
+     * at a time.
+     *
+     * @param msgs bolt messages
+     */
+    default void writeBoltMsgs(List<BoltMsg> msgs) throws IOException {
+        for (BoltMsg msg : msgs) {
+            writeBoltMsg(msg);
+        }
+    }
+
     /**
      * This method sends a spout message to a non-JVM spout process.
      *
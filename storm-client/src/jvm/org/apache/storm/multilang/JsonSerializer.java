@@ -98,7 +98,16 @@ public class JsonSerializer implements ISerializer {
 
     @Override
     public ShellMsg readShellMsg() throws IOException, NoOutputException {
-        JSONObject msg = (JSONObject) readMessage();
+        return toShellMsg((JSONObject) readMessage());
+    }
+
+    /**
+     * Converts a message of the multilang protocol read from the non-JVM process to a shell message.
+     *
+     * @param msg the message
+     * @return shell message
+     */
+    static ShellMsg toShellMsg(Map<?, ?> msg) {
         ShellMsg shellMsg = new ShellMsg();
 
         String command = (String) msg.get("command");
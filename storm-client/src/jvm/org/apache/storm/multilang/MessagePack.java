@@ -0,0 +1,275 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.multilang;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes and decodes the subset of the MessagePack format used by the binary multilang protocol: nil, booleans, integers, floats, strings,
+ * binaries, arrays and maps. Integers are decoded to Long and floats to Double, like the JSON protocol, and map keys are strings.
+ */
+final class MessagePack {
+
+    private MessagePack() {
+    }
+
+    /**
+     * Encodes a value. Values of other types than the supported ones are encoded as their string representation, like the JSON protocol.
+     *
+     * @param value the value to encode
+     * @param out   the output to write the encoded value to
+     */
+    static void pack(Object value, DataOutput out) throws IOException {
+        if (value == null) {
+            out.writeByte(0xc0);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? 0xc3 : 0xc2);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            packLong(((Number) value).longValue(), out);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(0xcb);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof String) {
+            packString((String) value, out);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            packHeader(bytes.length, 0xc4, 0xc5, 0xc6, out);
+            out.write(bytes);
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (map.size() < 16) {
+                out.writeByte(0x80 | map.size());
+            } else {
+                packHeader(map.size(), -1, 0xde, 0xdf, out);
+            }
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                packString(String.valueOf(entry.getKey()), out);
+                pack(entry.getValue(), out);
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            packArrayHeader(collection.size(), out);
+            for (Object element : collection) {
+                pack(element, out);
+            }
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            packArrayHeader(length, out);
+            for (int i = 0; i < length; i++) {
+                pack(Array.get(value, i), out);
+            }
+        } else {
+            packString(value.toString(), out);
+        }
+    }
+
+    private static void packLong(long value, DataOutput out) throws IOException {
+        if (value >= 0) {
+            if (value < 0x80) {
+                out.writeByte((int) value);
+            } else if (value <= 0xffL) {
+                out.writeByte(0xcc);
+                out.writeByte((int) value);
+            } else if (value <= 0xffffL) {
+                out.writeByte(0xcd);
+                out.writeShort((int) value);
+            } else if (value <= 0xffffffffL) {
+                out.writeByte(0xce);
+                out.writeInt((int) value);
+            } else {
+                out.writeByte(0xcf);
+                out.writeLong(value);
+            }
+        } else {
+            if (value >= -32) {
+                out.writeByte((int) value);
+            } else if (value >= Byte.MIN_VALUE) {
+                out.writeByte(0xd0);
+                out.writeByte((int) value);
+            } else if (value >= Short.MIN_VALUE) {
+                out.writeByte(0xd1);
+                out.writeShort((int) value);
+            } else if (value >= Integer.MIN_VALUE) {
+                out.writeByte(0xd2);
+                out.writeInt((int) value);
+            } else {
+                out.writeByte(0xd3);
+                out.writeLong(value);
+            }
+        }
+    }
+
+    private static void packString(String value, DataOutput out) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < 32) {
+            out.writeByte(0xa0 | bytes.length);
+        } else {
+            packHeader(bytes.length, 0xd9, 0xda, 0xdb, out);
+        }
+        out.write(bytes);
+    }
+
+    private static void packArrayHeader(int size, DataOutput out) throws IOException {
+        if (size < 16) {
+            out.writeByte(0x90 | size);
+        } else {
+            packHeader(size, -1, 0xdc, 0xdd, out);
+        }
+    }
+
+    private static void packHeader(int size, int type8, int type16, int type32, DataOutput out) throws IOException {
+        if (type8 >= 0 && size <= 0xff) {
+            out.writeByte(type8);
+            out.writeByte(size);
+        } else if (size <= 0xffff) {
+            out.writeByte(type16);
+            out.writeShort(size);
+        } else {
+            out.writeByte(type32);
+            out.writeInt(size);
+        }
+    }
+
+    /**
+     * Decodes a value.
+     *
+     * @param in the buffer holding the encoded value, positioned at the start of the value
+     * @return the decoded value
+     * @throws IOException if the buffer does not hold a valid value
+     */
+    static Object unpack(ByteBuffer in) throws IOException {
+        try {
+            return unpackValue(in);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated MessagePack value", e);
+        }
+    }
+
+    private static Object unpackValue(ByteBuffer in) throws IOException {
+        int type = in.get() & 0xff;
+        if (type <= 0x7f) {
+            return (long) type;
+        } else if (type >= 0xe0) {
+            return (long) (byte) type;
+        } else if (type <= 0x8f) {
+            return unpackMap(type & 0x0f, in);
+        } else if (type <= 0x9f) {
+            return unpackArray(type & 0x0f, in);
+        } else if (type <= 0xbf) {
+            return unpackString(type & 0x1f, in);
+        }
+        switch (type) {
+            case 0xc0:
+                return null;
+            case 0xc2:
+                return false;
+            case 0xc3:
+                return true;
+            case 0xc4:
+                return unpackBytes(in.get() & 0xff, in);
+            case 0xc5:
+                return unpackBytes(in.getShort() & 0xffff, in);
+            case 0xc6:
+                return unpackBytes(in.getInt(), in);
+            case 0xca:
+                return (double) in.getFloat();
+            case 0xcb:
+                return in.getDouble();
+            case 0xcc:
+                return (long) (in.get() & 0xff);
+            case 0xcd:
+                return (long) (in.getShort() & 0xffff);
+            case 0xce:
+                return in.getInt() & 0xffffffffL;
+            case 0xcf:
+            case 0xd3:
+                return in.getLong();
+            case 0xd0:
+                return (long) in.get();
+            case 0xd1:
+                return (long) in.getShort();
+            case 0xd2:
+                return (long) in.getInt();
+            case 0xd9:
+                return unpackString(in.get() & 0xff, in);
+            case 0xda:
+                return unpackString(in.getShort() & 0xffff, in);
+            case 0xdb:
+                return unpackString(in.getInt(), in);
+            case 0xdc:
+                return unpackArray(in.getShort() & 0xffff, in);
+            case 0xdd:
+                return unpackArray(in.getInt(), in);
+            case 0xde:
+                return unpackMap(in.getShort() & 0xffff, in);
+            case 0xdf:
+                return unpackMap(in.getInt(), in);
+            default:
+                throw new IOException("Unsupported MessagePack type 0x" + Integer.toHexString(type));
+        }
+    }
+
+    private static byte[] unpackBytes(int length, ByteBuffer in) throws IOException {
+        checkLength(length, in);
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    private static String unpackString(int length, ByteBuffer in) throws IOException {
+        checkLength(length, in);
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            value = new String(unpackBytes(length, in), StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static List<Object> unpackArray(int size, ByteBuffer in) throws IOException {
+        checkLength(size, in);
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(unpackValue(in));
+        }
+        return list;
+    }
+
+    private static Map<String, Object> unpackMap(int size, ByteBuffer in) throws IOException {
+        checkLength(size, in);
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(String.valueOf(unpackValue(in)), unpackValue(in));
+        }
+        return map;
+    }
+
+    private static void checkLength(int length, ByteBuffer in) throws IOException {
+        // every element takes at least one byte, so this also bounds the size of arrays and maps
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Invalid MessagePack length " + length + " with " + in.remaining() + " bytes remaining");
+        }
+    }
+}
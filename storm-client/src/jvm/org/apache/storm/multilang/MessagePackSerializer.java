@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.multilang;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.storm.shade.org.json.simple.JSONObject;
+import org.apache.storm.shade.org.json.simple.JSONValue;
+import org.apache.storm.task.TopologyContext;
+
+/**
+ * MessagePackSerializer implements the binary multilang protocol. The messages are the same as the messages of the JSON protocol, encoded
+ * in MessagePack and written in frames prefixed with their length as a 4 byte big endian integer. A frame holding a map with the single
+ * key "batch" carries a list of messages, which lets the bolts send many tuples to the non-JVM process in one write and the non-JVM
+ * process send many emits, acks and fails back in one write.
+ *
+ * <p>Before the first frame the serializer writes the {@link #PREAMBLE} byte, which is never the first byte of a JSON message, so that the
+ * multilang libraries detect the protocol used by the topology.
+ */
+public class MessagePackSerializer implements ISerializer {
+    public static final int PREAMBLE = 0xc1;
+    public static final String BATCH = "batch";
+    //ANY CHANGE TO THIS CODE MUST BE SERIALIZABLE COMPATIBLE OR THERE WILL BE PROBLEMS
+    private static final long serialVersionUID = -3307478434716434915L;
+    private transient DataOutputStream processIn;
+    private transient DataInputStream processOut;
+    private transient ByteArrayOutputStream frame;
+    private transient DataOutputStream frameOut;
+    private transient Deque<Object> pendingMessages;
+
+    @Override
+    public void initialize(OutputStream processIn, InputStream processOut) {
+        this.processIn = new DataOutputStream(new BufferedOutputStream(processIn));
+        this.processOut = new DataInputStream(new BufferedInputStream(processOut));
+        this.frame = new ByteArrayOutputStream();
+        this.frameOut = new DataOutputStream(frame);
+        this.pendingMessages = new ArrayDeque<>();
+    }
+
+    @Override
+    public Number connect(Map<String, Object> conf, TopologyContext context)
+        throws IOException, NoOutputException {
+        JSONObject setupInfo = new JSONObject();
+        setupInfo.put("pidDir", context.getPIDDir());
+        setupInfo.put("conf", conf);
+        setupInfo.put("context", context);
+        processIn.writeByte(PREAMBLE);
+        // the setup info is converted the same way as by the JSON protocol, the context and the values of the conf included
+        writeMessage(JSONValue.parse(setupInfo.toJSONString()));
+
+        return (Number) ((Map<?, ?>) readMessage()).get("pid");
+    }
+
+    @Override
+    public void writeBoltMsg(BoltMsg boltMsg) throws IOException {
+        writeMessage(toMap(boltMsg));
+    }
+
+    @Override
+    public void writeBoltMsgs(List<BoltMsg> boltMsgs) throws IOException {
+        if (boltMsgs.size() == 1) {
+            writeBoltMsg(boltMsgs.get(0));
+            return;
+        }
+        List<Object> batch = new ArrayList<>(boltMsgs.size());
+        for (BoltMsg boltMsg : boltMsgs) {
+            batch.add(toMap(boltMsg));
+        }
+        writeMessage(Collections.singletonMap(BATCH, batch));
+    }
+
+    private Map<String, Object> toMap(BoltMsg boltMsg) {
+        Map<String, Object> obj = new HashMap<>();
+        obj.put("id", boltMsg.getId());
+        obj.put("comp", boltMsg.getComp());
+        obj.put("stream", boltMsg.getStream());
+        obj.put("task", boltMsg.getTask());
+        obj.put("tuple", boltMsg.getTuple());
+        return obj;
+    }
+
+    @Override
+    public void writeSpoutMsg(SpoutMsg msg) throws IOException {
+        Map<String, Object> obj = new HashMap<>();
+        obj.put("command", msg.getCommand());
+        obj.put("id", msg.getId());
+        writeMessage(obj);
+    }
+
+    @Override
+    public void writeTaskIds(List<Integer> taskIds) throws IOException {
+        writeMessage(taskIds);
+    }
+
+    private void writeMessage(Object msg) throws IOException {
+        frame.reset();
+        MessagePack.pack(msg, frameOut);
+        processIn.writeInt(frame.size());
+        frame.writeTo(processIn);
+        processIn.flush();
+    }
+
+    @Override
+    public ShellMsg readShellMsg() throws IOException, NoOutputException {
+        Object msg = readMessage();
+        if (!(msg instanceof Map)) {
+            throw new IOException("Expected a map in the message from the subprocess, got " + msg);
+        }
+        return JsonSerializer.toShellMsg((Map<?, ?>) msg);
+    }
+
+    private Object readMessage() throws IOException, NoOutputException {
+        while (pendingMessages.isEmpty()) {
+            Object msg = readFrame();
+            if (msg instanceof Map && ((Map<?, ?>) msg).containsKey(BATCH)) {
+                pendingMessages.addAll((List<?>) ((Map<?, ?>) msg).get(BATCH));
+            } else {
+                return msg;
+            }
+        }
+        return pendingMessages.poll();
+    }
+
+    private Object readFrame() throws IOException, NoOutputException {
+        byte[] bytes;
+        try {
+            int length = processOut.readInt();
+            if (length < 0) {
+                throw new IOException("Invalid frame length " + length);
+            }
+            bytes = new byte[length];
+            processOut.readFully(bytes);
+        } catch (EOFException e) {
+            throw new NoOutputException("Pipe to subprocess seems to be broken! No output read.\nSerializer Exception:\n");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Object msg = MessagePack.unpack(buffer);
+        if (buffer.hasRemaining()) {
+            throw new IOException("Unexpected " + buffer.remaining() + " bytes after the message in the frame");
+        }
+        return msg;
+    }
+}
@@ -0,0 +1,292 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.state;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.apache.storm.utils.Time;
+import org.apache.storm.utils.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link KeyValueState} that expires the mappings after a time to live, measured from the last time the key was put. The values are
+ * stored in the underlying state along with their expiry time, so the expiry survives a restore of the state.
+ *
+ * <p>The expired mappings are removed lazily when the key is read, and actively by {@link #purgeExpired()}, which is expected to be
+ * invoked periodically (e.g. on tick tuples). The keys put or read through this state are tracked in a {@link TimingWheel} by their expiry
+ * time, so that a purge only visits the keys that are due. The wheel holds at most one entry per key and expiry tick (1/64 of the time to
+ * live) among the keys touched within the last time to live. The keys restored from a checkpoint and never touched again are not in the
+ * wheel, so each purge also sweeps a bounded number of mappings of the underlying state from a cursor that is kept across the purges and
+ * restarts from the beginning once the end of the state is reached. A full sweep takes the number of mappings divided by the sweep size
+ * purges, after which every mapping expired before the sweep started is removed. Values that were put in the underlying state without a
+ * time to live never expire.
+ */
+public class TtlKeyValueState<K, V> implements KeyValueState<K, V> {
+    private static final Logger LOG = LoggerFactory.getLogger(TtlKeyValueState.class);
+    // the wheel covers two ttl periods in one rotation
+    private static final int WHEEL_SIZE = 128;
+    private static final int DEFAULT_SWEEP_SIZE = 1000;
+    private final KeyValueState<K, Object> state;
+    private final long ttlMs;
+    private final long tickMs;
+    private final TimingWheel<K> expirations;
+    private final int sweepSize;
+    // the position of the sweep in the underlying state, null when the next sweep starts from the beginning
+    private Iterator<Map.Entry<K, Object>> sweepCursor;
+
+    /**
+     * Creates a {@link TtlKeyValueState}.
+     *
+     * @param state the underlying state
+     * @param ttlMs the time to live of the mappings in millis
+     */
+    public TtlKeyValueState(KeyValueState<K, ?> state, long ttlMs) {
+        this(state, ttlMs, DEFAULT_SWEEP_SIZE);
+    }
+
+    /**
+     * Creates a {@link TtlKeyValueState}.
+     *
+     * @param state     the underlying state
+     * @param ttlMs     the time to live of the mappings in millis
+     * @param sweepSize the maximum number of mappings of the underlying state visited by a purge
+     */
+    @SuppressWarnings("unchecked")
+    public TtlKeyValueState(KeyValueState<K, ?> state, long ttlMs, int sweepSize) {
+        if (ttlMs <= 0) {
+            throw new IllegalArgumentException("ttlMs must be positive [" + ttlMs + "]");
+        }
+        if (sweepSize <= 0) {
+            throw new IllegalArgumentException("sweepSize must be positive [" + sweepSize + "]");
+        }
+        this.state = (KeyValueState<K, Object>) state;
+        this.ttlMs = ttlMs;
+        tickMs = Math.max(1, ttlMs / (WHEEL_SIZE / 2));
+        expirations = new TimingWheel<>(tickMs, WHEEL_SIZE);
+        this.sweepSize = sweepSize;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        long expiryMs = Time.currentTimeMillis() + ttlMs;
+        state.put(key, new TtlValue<>(value, expiryMs));
+        // round up to the tick, so that the keys updated repeatedly within a tick are tracked once
+        expirations.add(key, roundUp(expiryMs));
+    }
+
+    @Override
+    public V get(K key) {
+        return get(key, null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key, V defaultValue) {
+        Object value = state.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof TtlValue) {
+            TtlValue<V> ttlValue = (TtlValue<V>) value;
+            if (ttlValue.isExpired(Time.currentTimeMillis())) {
+                LOG.debug("Removing expired key {}", key);
+                state.delete(key);
+                return defaultValue;
+            }
+            // tracks the keys restored from a checkpoint once they are read
+            expirations.add(key, roundUp(ttlValue.expiryMs));
+            return ttlValue.value;
+        }
+        return (V) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V delete(K key) {
+        Object value = state.delete(key);
+        if (value instanceof TtlValue) {
+            TtlValue<V> ttlValue = (TtlValue<V>) value;
+            return ttlValue.isExpired(Time.currentTimeMillis()) ? null : ttlValue.value;
+        }
+        return (V) value;
+    }
+
+    /**
+     * Removes the mappings that have expired by the current time.
+     *
+     * @return the number of mappings removed
+     */
+    public int purgeExpired() {
+        long now = Time.currentTimeMillis();
+        int removed = 0;
+        for (TimingWheel.Entry<K> entry : expirations.advance(now)) {
+            K key = entry.getItem();
+            Object value = state.get(key);
+            // the key could have been updated or deleted after it was added to the wheel
+            if (value instanceof TtlValue && ((TtlValue<?>) value).isExpired(now)) {
+                state.delete(key);
+                ++removed;
+            }
+        }
+        removed += sweep(now);
+        LOG.debug("Purged {} expired keys", removed);
+        return removed;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    /**
+     * Returns an iterator over the mappings that have not expired.
+     */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        return new TtlIterator(state.iterator(), Time.currentTimeMillis());
+    }
+
+    @Override
+    public void prepareCommit(long txid) {
+        state.prepareCommit(txid);
+    }
+
+    @Override
+    public void commit(long txid) {
+        state.commit(txid);
+    }
+
+    @Override
+    public void commit() {
+        state.commit();
+    }
+
+    @Override
+    public void rollback() {
+        // the keys rolled back are checked against the state when their entries in the wheel are due
+        state.rollback();
+        sweepCursor = null;
+    }
+
+    // removes the expired mappings among the next sweepSize mappings of the underlying state
+    private int sweep(long now) {
+        if (sweepCursor == null) {
+            sweepCursor = state.iterator();
+        }
+        int removed = 0;
+        for (int i = 0; i < sweepSize && sweepCursor.hasNext(); i++) {
+            Map.Entry<K, Object> entry = sweepCursor.next();
+            if (entry.getValue() instanceof TtlValue && ((TtlValue<?>) entry.getValue()).isExpired(now)) {
+                // the cursor could return a value that was updated since
+                Object value = state.get(entry.getKey());
+                if (value instanceof TtlValue && ((TtlValue<?>) value).isExpired(now)) {
+                    state.delete(entry.getKey());
+                    ++removed;
+                }
+            }
+        }
+        if (!sweepCursor.hasNext()) {
+            sweepCursor = null;
+        }
+        return removed;
+    }
+
+    private long roundUp(long expiryMs) {
+        return Math.floorDiv(expiryMs + tickMs - 1, tickMs) * tickMs;
+    }
+
+    @Override
+    public String toString() {
+        return "TtlKeyValueState{"
+                + "ttlMs=" + ttlMs
+                + ", state=" + state
+                + '}';
+    }
+
+    /**
+     * A value stored in the underlying state along with its expiry time.
+     *
+     * @param <V> the type of the value
+     */
+    public static class TtlValue<V> {
+        private final V value;
+        private final long expiryMs;
+
+        public TtlValue(V value, long expiryMs) {
+            this.value = value;
+            this.expiryMs = expiryMs;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public long getExpiryMs() {
+            return expiryMs;
+        }
+
+        boolean isExpired(long now) {
+            return expiryMs <= now;
+        }
+
+        @Override
+        public String toString() {
+            return "TtlValue{"
+                    + "value=" + value
+                    + ", expiryMs=" + expiryMs
+                    + '}';
+        }
+    }
+
+    private class TtlIterator implements Iterator<Map.Entry<K, V>> {
+        private final Iterator<Map.Entry<K, Object>> it;
+        private final long now;
+        private Map.Entry<K, V> next;
+
+        TtlIterator(Iterator<Map.Entry<K, Object>> it, long now) {
+            this.it = it;
+            this.now = now;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+            while (next == null && it.hasNext()) {
+                Map.Entry<K, Object> entry = it.next();
+                Object value = entry.getValue();
+                if (value instanceof TtlValue) {
+                    TtlValue<V> ttlValue = (TtlValue<V>) value;
+                    if (!ttlValue.isExpired(now)) {
+                        next = new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), ttlValue.value);
+                    }
+                } else {
+                    next = new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), (V) value);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, V> res = next;
+            next = null;
+            return res;
+        }
+    }
+}
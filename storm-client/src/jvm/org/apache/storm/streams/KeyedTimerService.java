@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.streams;
+
+import java.util.Collections;
+import java.util.List;
+import org.apache.storm.streams.processors.TimerService;
+import org.apache.storm.utils.Time;
+import org.apache.storm.utils.TimingWheel;
+
+/**
+ * The {@link TimerService} of a {@link StatefulProcessorBolt} that tracks the timers of the keys in timing wheels, one per time domain.
+ * The processing time wheel is advanced by the wall clock and the event time wheel by the watermark. The timers are kept in memory, and
+ * are checkpointed with the state of the bolt as a {@link Timers} snapshot.
+ */
+class KeyedTimerService<K> implements TimerService<K> {
+    private static final long TICK_MS = 100;
+    private static final int WHEEL_SIZE = 1024;
+    private final TimingWheel<K> processingTimeTimers = new TimingWheel<>(TICK_MS, WHEEL_SIZE);
+    private final TimingWheel<K> eventTimeTimers = new TimingWheel<>(TICK_MS, WHEEL_SIZE);
+    private final long maxLagMs;
+    private long watermark = Long.MIN_VALUE;
+
+    KeyedTimerService(long maxLagMs) {
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Override
+    public long currentProcessingTime() {
+        return Time.currentTimeMillis();
+    }
+
+    @Override
+    public long currentWatermark() {
+        return watermark;
+    }
+
+    @Override
+    public void registerProcessingTimeTimer(K key, long time) {
+        processingTimeTimers.add(key, time);
+    }
+
+    @Override
+    public void registerEventTimeTimer(K key, long time) {
+        eventTimeTimers.add(key, time);
+    }
+
+    @Override
+    public void deleteProcessingTimeTimer(K key, long time) {
+        processingTimeTimers.remove(key, time);
+    }
+
+    @Override
+    public void deleteEventTimeTimer(K key, long time) {
+        eventTimeTimers.remove(key, time);
+    }
+
+    /**
+     * Advances the watermark based on the timestamp of an input.
+     */
+    void observeEventTime(long timestamp) {
+        watermark = Math.max(watermark, timestamp - maxLagMs);
+    }
+
+    /**
+     * Returns a snapshot of the registered timers and the watermark.
+     */
+    Timers<K> snapshot() {
+        return new Timers<>(processingTimeTimers.entries(), eventTimeTimers.entries(), watermark);
+    }
+
+    /**
+     * Replaces the registered timers and the watermark with the ones of a snapshot.
+     *
+     * @param timers the snapshot, or null to clear the timers
+     */
+    void restore(Timers<K> timers) {
+        processingTimeTimers.clear();
+        eventTimeTimers.clear();
+        watermark = Long.MIN_VALUE;
+        if (timers != null) {
+            for (TimingWheel.Entry<K> timer : timers.processingTimeTimers) {
+                processingTimeTimers.add(timer.getItem(), timer.getDeadline());
+            }
+            for (TimingWheel.Entry<K> timer : timers.eventTimeTimers) {
+                eventTimeTimers.add(timer.getItem(), timer.getDeadline());
+            }
+            watermark = timers.watermark;
+        }
+    }
+
+    List<TimingWheel.Entry<K>> expiredProcessingTimeTimers() {
+        return processingTimeTimers.isEmpty() ? Collections.emptyList() : processingTimeTimers.advance(currentProcessingTime());
+    }
+
+    List<TimingWheel.Entry<K>> expiredEventTimeTimers() {
+        return eventTimeTimers.isEmpty() || watermark == Long.MIN_VALUE ? Collections.emptyList() : eventTimeTimers.advance(watermark);
+    }
+
+    /**
+     * The timers registered in a {@link KeyedTimerService} along with the watermark, as stored in the state.
+     */
+    static final class Timers<K> {
+        private final List<TimingWheel.Entry<K>> processingTimeTimers;
+        private final List<TimingWheel.Entry<K>> eventTimeTimers;
+        private final long watermark;
+
+        Timers(List<TimingWheel.Entry<K>> processingTimeTimers, List<TimingWheel.Entry<K>> eventTimeTimers, long watermark) {
+            this.processingTimeTimers = processingTimeTimers;
+            this.eventTimeTimers = eventTimeTimers;
+            this.watermark = watermark;
+        }
+
+        @Override
+        public String toString() {
+            return "Timers{"
+                    + "processingTimeTimers=" + processingTimeTimers.size()
+                    + ", eventTimeTimers=" + eventTimeTimers.size()
+                    + ", watermark=" + watermark
+                    + '}';
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.apache.storm.streams.operations.PairValueJoiner;
 import org.apache.storm.streams.operations.Predicate;
 import org.apache.storm.streams.operations.Reducer;
 import org.apache.storm.streams.operations.StateUpdater;
+import org.apache.storm.streams.operations.TimedStateUpdater;
 import org.apache.storm.streams.operations.ValueJoiner;
 import org.apache.storm.streams.operations.aggregators.Count;
 import org.apache.storm.streams.processors.AggregateByKeyProcessor;
@@ -38,6 +39,7 @@ import org.apache.storm.streams.processors.MergeAggregateByKeyProcessor;
 import org.apache.storm.streams.processors.ReduceByKeyProcessor;
 import org.apache.storm.streams.processors.UpdateStateByKeyProcessor;
 import org.apache.storm.streams.windowing.Window;
+import org.apache.storm.topology.base.BaseWindowedBolt.Duration;
 import org.apache.storm.tuple.Fields;
 
 
@@ -371,7 +373,39 @@ public class PairStream<K, V> extends Stream<Pair<K, V>> {
      */
     public <R> StreamState<K, R> updateStateByKey(StateUpdater<? super V, ? extends R> stateUpdater) {
         // repartition so that state query fields grouping works correctly. this can be optimized further
-        return partitionBy(KEY).updateStateByKeyPartition(stateUpdater);
+        return partitionBy(KEY).updateStateByKeyPartition(stateUpdater, 0);
+    }
+
+    /**
+     * Update the state by applying the given state updater to the previous state of the key and the new value for the key, and expire
+     * the state of the keys that are not updated within the given time to live. The expired state is removed when the key is read and
+     * periodically in the background, so that the state does not grow unbounded.
+     *
+     * @param stateUpdater the state updater
+     * @param stateTtl     the time to live of the state of a key since its last update
+     * @param <R>          the result type
+     * @return the {@link StreamState} which can be used to query the state
+     */
+    public <R> StreamState<K, R> updateStateByKey(StateUpdater<? super V, ? extends R> stateUpdater, Duration stateTtl) {
+        return partitionBy(KEY).updateStateByKeyPartition(stateUpdater, stateTtl.value);
+    }
+
+    /**
+     * Update the state by applying the given state updater to the previous state of the key and the new value for the key. The state
+     * updater can register processing time or event time timers for the key, and is invoked when the timers fire to update or remove
+     * the state of the key. The event time is available when the topology uses event time windows, and the watermark trails the largest
+     * timestamp of the values by {@link Config#TOPOLOGY_BOLTS_TUPLE_TIMESTAMP_MAX_LAG_MS}.
+     *
+     * <p>Note: the timers are kept in memory and are not restored when the state is restored after a failure. Use a state time to live
+     * to bound the state of the keys whose timers are lost.
+     *
+     * @param stateUpdater the state updater
+     * @param stateTtl     the time to live of the state of a key since its last update, or null if the state does not expire
+     * @param <R>          the result type
+     * @return the {@link StreamState} which can be used to query the state
+     */
+    public <R> StreamState<K, R> updateStateByKey(TimedStateUpdater<K, ? super V, R> stateUpdater, Duration stateTtl) {
+        return partitionBy(KEY).timedUpdateStateByKeyPartition(stateUpdater, stateTtl == null ? 0 : stateTtl.value);
     }
 
     /**
@@ -393,10 +427,16 @@ public class PairStream<K, V> extends Stream<Pair<K, V>> {
     }
 
 
-    private <R> StreamState<K, R> updateStateByKeyPartition(StateUpdater<? super V, ? extends R> stateUpdater) {
+    private <R> StreamState<K, R> updateStateByKeyPartition(StateUpdater<? super V, ? extends R> stateUpdater, long stateTtlMs) {
+        return new StreamState<>(
+            new PairStream<>(streamBuilder,
+                             addProcessorNode(new UpdateStateByKeyProcessor<>(stateUpdater, stateTtlMs), KEY_VALUE, true)));
+    }
+
+    private <R> StreamState<K, R> timedUpdateStateByKeyPartition(TimedStateUpdater<K, ? super V, R> stateUpdater, long stateTtlMs) {
         return new StreamState<>(
             new PairStream<>(streamBuilder,
-                             addProcessorNode(new UpdateStateByKeyProcessor<>(stateUpdater), KEY_VALUE, true)));
+                             addProcessorNode(new UpdateStateByKeyProcessor<>(stateUpdater, stateTtlMs), KEY_VALUE, true)));
     }
 
     private <R, V1> PairStream<K, R> joinPartition(PairStream<K, V1> otherStream,
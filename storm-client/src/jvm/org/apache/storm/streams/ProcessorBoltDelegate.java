@@ -29,9 +29,12 @@ import org.apache.storm.shade.com.google.common.collect.Table;
 import org.apache.storm.shade.org.jgrapht.DirectedGraph;
 import org.apache.storm.shade.org.jgrapht.graph.DirectedSubgraph;
 import org.apache.storm.shade.org.jgrapht.traverse.TopologicalOrderIterator;
+import org.apache.storm.streams.processors.AnchorTracker;
 import org.apache.storm.streams.processors.ChainedProcessorContext;
 import org.apache.storm.streams.processors.EmittingProcessorContext;
 import org.apache.storm.streams.processors.ForwardingProcessorContext;
+import org.apache.storm.streams.processors.MapAsyncProcessor;
+import org.apache.storm.streams.processors.MapWithTimestampProcessor;
 import org.apache.storm.streams.processors.Processor;
 import org.apache.storm.streams.processors.ProcessorContext;
 import org.apache.storm.task.OutputCollector;
@@ -39,10 +42,11 @@ import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
+import org.apache.storm.utils.TupleUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-class ProcessorBoltDelegate implements Serializable {
+class ProcessorBoltDelegate implements AnchorTracker, Serializable {
     private static final Logger LOG = LoggerFactory.getLogger(ProcessorBoltDelegate.class);
     private final String id;
     private final DirectedGraph<Node, Edge> graph;
@@ -51,11 +55,16 @@ class ProcessorBoltDelegate implements Serializable {
     private final Set<EmittingProcessorContext> emittingProcessorContexts = new HashSet<>();
     private final Table<ProcessorNode, String, Integer> punctuationState = HashBasedTable.create();
     private final Map<String, Integer> streamToInputTaskCount = new HashMap<>();
+    private final List<MapAsyncProcessor<?, ?>> asyncProcessors = new ArrayList<>();
     private Map<String, Object> topoConf;
     private TopologyContext topologyContext;
     private OutputCollector outputCollector;
     private Multimap<String, ProcessorNode> streamToInitialProcessors;
     private String timestampField;
+    // the event timestamp of the input being processed, or the end timestamp of the window being processed
+    private long eventTimestamp;
+    // the input being processed, when the anchors are tracked by this delegate
+    private RefCountedTuple currentAnchor;
 
     ProcessorBoltDelegate(String id, DirectedGraph<Node, Edge> graph, List<ProcessorNode> nodes) {
         this.id = id;
@@ -106,6 +115,16 @@ class ProcessorBoltDelegate implements Serializable {
                 }
             }
             processorNode.initProcessorContext(processorContext);
+            if (processorNode.getProcessor() instanceof MapAsyncProcessor) {
+                MapAsyncProcessor<?, ?> asyncProcessor = (MapAsyncProcessor<?, ?>) processorNode.getProcessor();
+                asyncProcessor.setAnchorTracker(this);
+                asyncProcessors.add(asyncProcessor);
+            } else if (processorNode.getProcessor() instanceof MapWithTimestampProcessor) {
+                if (timestampField == null) {
+                    throw new IllegalStateException("mapWithTimestamp requires a window with a timestamp field in the topology");
+                }
+                ((MapWithTimestampProcessor<?, ?>) processorNode.getProcessor()).setTimestampSupplier(() -> eventTimestamp);
+            }
         }
         if (timestampField != null) {
             for (EmittingProcessorContext ctx : emittingProcessorContexts) {
@@ -144,6 +163,12 @@ class ProcessorBoltDelegate implements Serializable {
         }
     }
 
+    void clearAnchor() {
+        for (EmittingProcessorContext ctx : emittingProcessorContexts) {
+            ctx.clearAnchor();
+        }
+    }
+
     Pair<Object, String> getValueAndStream(Tuple input) {
         Object value;
         String stream;
@@ -163,16 +188,75 @@ class ProcessorBoltDelegate implements Serializable {
     }
 
     void processAndAck(Tuple input) {
+        if (TupleUtils.isTick(input)) {
+            // forward the results of the async processors that completed while the bolt was idle
+            for (MapAsyncProcessor<?, ?> asyncProcessor : asyncProcessors) {
+                asyncProcessor.forwardCompleted();
+            }
+            return;
+        }
         RefCountedTuple refCountedTuple = new RefCountedTuple(input);
+        currentAnchor = refCountedTuple;
         setAnchor(refCountedTuple);
         if (isEventTimestamp()) {
             setEventTimestamp(input.getLongByField(getTimestampField()));
         }
         Pair<Object, String> valueAndStream = getValueAndStream(input);
-        process(valueAndStream.getFirst(), valueAndStream.getSecond());
+        try {
+            process(valueAndStream.getFirst(), valueAndStream.getSecond());
+        } finally {
+            currentAnchor = null;
+        }
         ack(refCountedTuple);
     }
 
+    @Override
+    public Object hold() {
+        if (currentAnchor != null) {
+            currentAnchor.increment();
+        }
+        return currentAnchor;
+    }
+
+    @Override
+    public void release(Object anchor, Runnable action) {
+        if (anchor == null) {
+            action.run();
+            return;
+        }
+        RefCountedTuple tuple = (RefCountedTuple) anchor;
+        RefCountedTuple prev = currentAnchor;
+        if (prev != tuple) {
+            setAnchor(tuple);
+        }
+        try {
+            action.run();
+        } finally {
+            if (prev != tuple && prev != null) {
+                setAnchor(prev);
+            }
+            tuple.decrement();
+            // the input being processed is acked once all its processors are done with it
+            if (tuple != currentAnchor) {
+                ack(tuple);
+            }
+        }
+    }
+
+    @Override
+    public void fail(Object anchor) {
+        if (anchor != null) {
+            RefCountedTuple tuple = (RefCountedTuple) anchor;
+            tuple.decrement();
+            if (!tuple.isAcked()) {
+                LOG.debug("Failing tuple {}", tuple);
+                outputCollector.fail(tuple.tuple());
+                // so that the tuple is not acked when the other processors are done with it
+                tuple.setAcked();
+            }
+        }
+    }
+
     void process(Object value, String sourceStreamId) {
         LOG.debug("Process value {}, sourceStreamId {}", value, sourceStreamId);
         if (StreamUtil.isPunctuation(value)) {
@@ -218,6 +302,7 @@ class ProcessorBoltDelegate implements Serializable {
     }
 
     void setEventTimestamp(long timestamp) {
+        eventTimestamp = timestamp;
         for (EmittingProcessorContext ctx : emittingProcessorContexts) {
             ctx.setEventTimestamp(timestamp);
         }
@@ -48,6 +48,10 @@ public class RefCountedTuple {
         acked = true;
     }
 
+    public boolean isAcked() {
+        return acked;
+    }
+
     @Override
     public String toString() {
         return "RefCountedTuple{"
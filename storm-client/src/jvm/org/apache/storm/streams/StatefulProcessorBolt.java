@@ -16,24 +16,43 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.apache.storm.Config;
 import org.apache.storm.shade.com.google.common.collect.Multimap;
 import org.apache.storm.shade.org.jgrapht.DirectedGraph;
 import org.apache.storm.state.KeyValueState;
+import org.apache.storm.state.TtlKeyValueState;
 import org.apache.storm.streams.processors.StatefulProcessor;
+import org.apache.storm.streams.processors.TimerService;
 import org.apache.storm.streams.processors.UpdateStateByKeyProcessor;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.topology.base.BaseStatefulBolt;
 import org.apache.storm.tuple.Tuple;
+import org.apache.storm.utils.ObjectReader;
+import org.apache.storm.utils.TimingWheel;
+import org.apache.storm.utils.TupleUtils;
 
 /**
- * Stream bolt that executes stateful operations like update state and state query.
+ * Stream bolt that executes stateful operations like update state and state query. The timers registered by the stateful processors
+ * are fired before the next input is processed, or on the tick tuples when the bolt is idle, and the expired state is purged on the tick
+ * tuples. The values emitted by the timers are un-anchored: the tuples that registered a timer are acked once processed, so the timer
+ * output is not replayed on a failure, while the state updated by the timers is checkpointed.
+ *
+ * <p>The registered timers are stored in the state under a reserved key when the state is prepared for a commit, so that they are
+ * restored with the state after a failure. The timers stored with the state that is rolled back are restored before the next input is
+ * processed.
  */
 class StatefulProcessorBolt<K, V> extends BaseStatefulBolt<KeyValueState<K, V>> implements StreamBolt {
     private final ProcessorBoltDelegate delegate;
     // can be UpdateStateByKey or StateQuery processors
     private final Set<StatefulProcessor<K, V>> statefulProcessors;
+    // the state without the time to live, where the timers are stored
+    private KeyValueState<Object, Object> timersState;
+    private boolean restoreTimers;
+    private KeyedTimerService<K> timerService;
+    private TtlKeyValueState<K, V> ttlState;
+    private String timestampField;
 
     StatefulProcessorBolt(String boltId, DirectedGraph<Node, Edge> graph, List<ProcessorNode> nodes) {
         delegate = new ProcessorBoltDelegate(boltId, graph, nodes);
@@ -43,20 +62,64 @@ class StatefulProcessorBolt<K, V> extends BaseStatefulBolt<KeyValueState<K, V>>
     @Override
     public void prepare(Map<String, Object> topoConf, TopologyContext context, OutputCollector collector) {
         delegate.prepare(topoConf, context, collector);
+        timerService = new KeyedTimerService<>(ObjectReader.getInt(topoConf.get(Config.TOPOLOGY_BOLTS_TUPLE_TIMESTAMP_MAX_LAG_MS), 0));
+        for (StatefulProcessor<K, V> statefulProcessor : statefulProcessors) {
+            statefulProcessor.initTimerService(timerService);
+        }
     }
 
     @Override
     public void execute(Tuple input) {
+        if (restoreTimers) {
+            restoreTimers();
+        }
+        boolean isTick = TupleUtils.isTick(input);
+        if (timestampField != null && !isTick) {
+            timerService.observeEventTime(input.getLongByField(timestampField));
+        }
+        List<TimingWheel.Entry<K>> eventTimeTimers = timerService.expiredEventTimeTimers();
+        List<TimingWheel.Entry<K>> processingTimeTimers = timerService.expiredProcessingTimeTimers();
+        if (!eventTimeTimers.isEmpty() || !processingTimeTimers.isEmpty()) {
+            // the results of the timers are not caused by the current input, and are not replayed if it fails
+            delegate.clearAnchor();
+            fireTimers(eventTimeTimers, TimerService.TimeDomain.EVENT_TIME);
+            fireTimers(processingTimeTimers, TimerService.TimeDomain.PROCESSING_TIME);
+        }
+        if (isTick && ttlState != null) {
+            ttlState.purgeExpired();
+        }
         delegate.processAndAck(input);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void initState(KeyValueState<K, V> state) {
+        timersState = (KeyValueState<Object, Object>) state;
+        restoreTimers();
+        long stateTtlMs = getStateTtlMs();
+        KeyValueState<K, V> keyValueState = state;
+        if (stateTtlMs > 0) {
+            ttlState = new TtlKeyValueState<>(state, stateTtlMs);
+            keyValueState = ttlState;
+        }
         for (StatefulProcessor<K, V> statefulProcessor : statefulProcessors) {
-            statefulProcessor.initState(state);
+            statefulProcessor.initState(keyValueState);
         }
     }
 
+    @Override
+    public void prePrepare(long txid) {
+        if (timersState != null) {
+            timersState.put(TimersKey.INSTANCE, timerService.snapshot());
+        }
+    }
+
+    @Override
+    public void preRollback() {
+        // the state is rolled back after this returns
+        restoreTimers = true;
+    }
+
     @Override
     public void declareOutputFields(OutputFieldsDeclarer declarer) {
         delegate.declareOutputFields(declarer);
@@ -65,6 +128,7 @@ class StatefulProcessorBolt<K, V> extends BaseStatefulBolt<KeyValueState<K, V>>
     @Override
     public void setTimestampField(String fieldName) {
         delegate.setTimestampField(fieldName);
+        timestampField = fieldName;
     }
 
     @Override
@@ -89,6 +153,29 @@ class StatefulProcessorBolt<K, V> extends BaseStatefulBolt<KeyValueState<K, V>>
         statefulProcessors.addAll(getStatefulProcessors(nodes));
     }
 
+    private void fireTimers(List<TimingWheel.Entry<K>> timers, TimerService.TimeDomain timeDomain) {
+        for (TimingWheel.Entry<K> timer : timers) {
+            for (StatefulProcessor<K, V> statefulProcessor : statefulProcessors) {
+                statefulProcessor.onTimer(timer.getItem(), timer.getDeadline(), timeDomain);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void restoreTimers() {
+        restoreTimers = false;
+        timerService.restore((KeyedTimerService.Timers<K>) timersState.get(TimersKey.INSTANCE));
+    }
+
+    private long getStateTtlMs() {
+        for (StatefulProcessor<K, V> statefulProcessor : statefulProcessors) {
+            if (statefulProcessor instanceof UpdateStateByKeyProcessor) {
+                return ((UpdateStateByKeyProcessor<?, ?, ?>) statefulProcessor).getStateTtlMs();
+            }
+        }
+        return 0;
+    }
+
     @SuppressWarnings("unchecked")
     private Set<StatefulProcessor<K, V>> getStatefulProcessors(List<ProcessorNode> nodes) {
         Set<StatefulProcessor<K, V>> statefulProcessors = new HashSet<>();
@@ -107,4 +194,26 @@ class StatefulProcessorBolt<K, V> extends BaseStatefulBolt<KeyValueState<K, V>>
         }
         return statefulProcessors;
     }
+
+    /**
+     * The key of the timers in the state, which is equal to any other instance so that it matches once deserialized.
+     */
+    static final class TimersKey {
+        static final TimersKey INSTANCE = new TimersKey();
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TimersKey;
+        }
+
+        @Override
+        public int hashCode() {
+            return TimersKey.class.getName().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "TimersKey";
+        }
+    }
 }
@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import org.apache.storm.annotation.InterfaceStability;
+import org.apache.storm.streams.operations.AsyncFunction;
 import org.apache.storm.streams.operations.BiFunction;
 import org.apache.storm.streams.operations.CombinerAggregator;
 import org.apache.storm.streams.operations.Consumer;
@@ -34,7 +35,9 @@ import org.apache.storm.streams.processors.BranchProcessor;
 import org.apache.storm.streams.processors.FilterProcessor;
 import org.apache.storm.streams.processors.FlatMapProcessor;
 import org.apache.storm.streams.processors.ForEachProcessor;
+import org.apache.storm.streams.processors.MapAsyncProcessor;
 import org.apache.storm.streams.processors.MapProcessor;
+import org.apache.storm.streams.processors.MapWithTimestampProcessor;
 import org.apache.storm.streams.processors.MergeAggregateProcessor;
 import org.apache.storm.streams.processors.PeekProcessor;
 import org.apache.storm.streams.processors.Processor;
@@ -96,6 +99,45 @@ public class Stream<T> {
         return new Stream<>(streamBuilder, addProcessorNode(new MapProcessor<>(function), VALUE));
     }
 
+    /**
+     * Returns a stream consisting of the result of applying the given function to the values of this stream and their event timestamps.
+     * The event timestamp of a value is read from the timestamp field of the tuples, and for the results of a window it is the end
+     * timestamp of the window. This requires a window with a timestamp field (see {@link Window#getTimestampField()}) in the
+     * topology.
+     *
+     * @param function a function to be applied to each value in this stream and its event timestamp
+     * @return the new stream
+     */
+    public <R> Stream<R> mapWithTimestamp(BiFunction<? super T, Long, ? extends R> function) {
+        return new Stream<>(streamBuilder, addProcessorNode(new MapWithTimestampProcessor<>(function), VALUE));
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the given asynchronous function to the values of this stream, in the order
+     * of the values, with up to 100 pending results per task.
+     *
+     * @param function an asynchronous mapping function to be applied to each value in this stream
+     * @return the new stream
+     * @see #mapAsync(AsyncFunction, int, boolean)
+     */
+    public <R> Stream<R> mapAsync(AsyncFunction<? super T, ? extends R> function) {
+        return mapAsync(function, 100, true);
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the given asynchronous function to the values of this stream. Up to
+     * maxInFlight results can be pending per task, so that the throughput of calls to external services scales with the concurrency
+     * instead of the number of executors. The input tuples are acked once their result is emitted, and failed if the function fails.
+     *
+     * @param function    an asynchronous mapping function to be applied to each value in this stream
+     * @param maxInFlight the maximum number of pending results per task
+     * @param ordered     whether the results are emitted in the order of the values, or as soon as they complete
+     * @return the new stream
+     */
+    public <R> Stream<R> mapAsync(AsyncFunction<? super T, ? extends R> function, int maxInFlight, boolean ordered) {
+        return new Stream<>(streamBuilder, addProcessorNode(new MapAsyncProcessor<>(function, maxInFlight, ordered), VALUE));
+    }
+
     /**
      * Returns a stream of key-value pairs by applying a {@link PairFunction} on each value of this stream.
      *
@@ -148,10 +190,14 @@ public class Stream<T> {
      *
      * // time duration based tumbling window
      * stream.window(TumblingWindows.of(Duration.seconds(10));
+     *
+     * // session window that closes after 30 seconds of inactivity (per key for a PairStream)
+     * stream.window(SessionWindows.of(Duration.seconds(30));
      * </pre>
      *
      * @see org.apache.storm.streams.windowing.SlidingWindows
      * @see org.apache.storm.streams.windowing.TumblingWindows
+     * @see org.apache.storm.streams.windowing.SessionWindows
      * @param window the window configuration
      * @return the new stream
      */
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.storm.Config;
 import org.apache.storm.annotation.InterfaceStability;
 import org.apache.storm.generated.StormTopology;
 import org.apache.storm.shade.com.google.common.collect.ArrayListMultimap;
@@ -34,6 +35,7 @@ import org.apache.storm.shade.org.jgrapht.traverse.TopologicalOrderIterator;
 import org.apache.storm.streams.operations.IdentityFunction;
 import org.apache.storm.streams.operations.mappers.PairValueMapper;
 import org.apache.storm.streams.operations.mappers.TupleValueMapper;
+import org.apache.storm.streams.processors.MapAsyncProcessor;
 import org.apache.storm.streams.processors.MapProcessor;
 import org.apache.storm.streams.processors.Processor;
 import org.apache.storm.streams.processors.StateQueryProcessor;
@@ -476,6 +478,7 @@ public class StreamBuilder {
         ProcessorBolt bolt = new ProcessorBolt(boltId, graph, group);
         BoltDeclarer boltDeclarer = topologyBuilder.setBolt(boltId, bolt, getParallelism(group));
         bolt.setStreamToInitialProcessors(wireBolt(group, boltDeclarer, initialProcessors));
+        configureTickTuples(group, boltDeclarer);
         streamBolts.put(bolt, boltDeclarer);
         return bolt;
     }
@@ -490,6 +493,7 @@ public class StreamBuilder {
             bolt = new StatefulProcessorBolt<>(boltId, graph, group);
             BoltDeclarer boltDeclarer = topologyBuilder.setBolt(boltId, bolt, getParallelism(group));
             bolt.setStreamToInitialProcessors(wireBolt(group, boltDeclarer, initialProcessors));
+            configureTickTuples(group, boltDeclarer);
             streamBolts.put(bolt, boltDeclarer);
         } else {
             // state query is added to the existing stateful bolt
@@ -500,10 +504,23 @@ public class StreamBuilder {
             }
             bolt.addNodes(group);
             bolt.addStreamToInitialProcessors(wireBolt(bolt.getNodes(), streamBolts.get(bolt), initialProcessors));
+            configureTickTuples(group, streamBolts.get(bolt));
         }
         return bolt;
     }
 
+    // the tick tuples forward the async results that complete while the bolt is idle, fire the timers and purge the expired state
+    private void configureTickTuples(List<ProcessorNode> group, BoltDeclarer boltDeclarer) {
+        for (ProcessorNode node : group) {
+            Processor<?> processor = node.getProcessor();
+            if (processor instanceof MapAsyncProcessor
+                || (processor instanceof UpdateStateByKeyProcessor && ((UpdateStateByKeyProcessor<?, ?, ?>) processor).isTimeDependent())) {
+                boltDeclarer.addConfiguration(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS, 1);
+                return;
+            }
+        }
+    }
+
     private StateQueryProcessor<?, ?> getStateQueryProcessor(List<ProcessorNode> group) {
         for (ProcessorNode node : group) {
             if (node.getProcessor() instanceof StateQueryProcessor) {
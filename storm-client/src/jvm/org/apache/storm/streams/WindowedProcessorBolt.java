@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 import org.apache.storm.shade.com.google.common.collect.Multimap;
 import org.apache.storm.shade.org.jgrapht.DirectedGraph;
+import org.apache.storm.streams.windowing.SessionWindows;
 import org.apache.storm.streams.windowing.SlidingWindows;
 import org.apache.storm.streams.windowing.TumblingWindows;
 import org.apache.storm.streams.windowing.Window;
@@ -27,6 +28,7 @@ import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.OutputFieldsDeclarer;
 import org.apache.storm.topology.base.BaseWindowedBolt;
 import org.apache.storm.tuple.Tuple;
+import org.apache.storm.windowing.SessionKeyExtractor;
 import org.apache.storm.windowing.TupleWindow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +38,7 @@ import org.slf4j.LoggerFactory;
  */
 class WindowedProcessorBolt extends BaseWindowedBolt implements StreamBolt {
     private static final Logger LOG = LoggerFactory.getLogger(WindowedProcessorBolt.class);
+    private static final String PAIR_KEY_FIELD = "key";
     private final ProcessorBoltDelegate delegate;
     private final Window<?, ?> window;
 
@@ -89,9 +92,13 @@ class WindowedProcessorBolt extends BaseWindowedBolt implements StreamBolt {
             setSlidingWindowParams(window.getWindowLength(), window.getSlidingInterval());
         } else if (window instanceof TumblingWindows) {
             setTumblingWindowParams(window.getWindowLength());
+        } else if (window instanceof SessionWindows) {
+            withSessionWindow(((SessionWindows) window).getGap(), new PairKeyExtractor());
         }
         if (window.getTimestampField() != null) {
             withTimestampField(window.getTimestampField());
+            // the window merges the values of the parent streams and tasks, which are not ordered by the timestamp between each other
+            withTimeIndexedEventBuffer();
         }
         if (window.getLag() != null) {
             withLag(window.getLag());
@@ -125,6 +132,19 @@ class WindowedProcessorBolt extends BaseWindowedBolt implements StreamBolt {
         }
     }
 
+    /*
+     * Sessions are tracked per key for the pairs and globally for the tuples from the spout and the other values.
+     */
+    private static class PairKeyExtractor implements SessionKeyExtractor {
+        @Override
+        public Object extractKey(Tuple tuple) {
+            if (tuple.getSourceComponent().startsWith("spout") || !tuple.contains(PAIR_KEY_FIELD)) {
+                return null;
+            }
+            return tuple.getValueByField(PAIR_KEY_FIELD);
+        }
+    }
+
     void setStreamToInitialProcessors(Multimap<String, ProcessorNode> streamToInitialProcessors) {
         delegate.setStreamToInitialProcessors(streamToInitialProcessors);
     }
@@ -0,0 +1,32 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.streams.operations;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Represents a function that accepts one argument and produces its result asynchronously, for e.g. by calling an external service.
+ *
+ * @param <T> the type of the input to the function
+ * @param <R> the type of the result of the function
+ */
+public interface AsyncFunction<T, R> extends Operation {
+    /**
+     * Applies this function to the given argument. The function should not block, the returned future may be completed by any thread.
+     *
+     * @param input the input to the function
+     * @return a future completing with the function result, or exceptionally to fail the input
+     */
+    CompletableFuture<R> apply(T input);
+}
@@ -0,0 +1,56 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.streams.operations;
+
+import org.apache.storm.streams.processors.TimerService;
+
+/**
+ * Interface for updating the state of a key that can register timers for the key, e.g. to close a session after a period of inactivity.
+ *
+ * @param <K> the key type
+ * @param <T> the value type
+ * @param <S> the state type
+ */
+public interface TimedStateUpdater<K, T, S> extends Operation {
+    /**
+     * The initial value of the state to start with.
+     *
+     * @return the initial value of the state
+     */
+    S init();
+
+    /**
+     * Returns a new state by applying the value on the current state of the key.
+     *
+     * @param key          the key
+     * @param state        the current state
+     * @param value        the value
+     * @param timerService the timer service to register timers for the key
+     * @return the new state
+     */
+    S apply(K key, S state, T value, TimerService<K> timerService);
+
+    /**
+     * Invoked when a timer of the key fires. The returned state is stored and emitted downstream, and a null return value removes the
+     * state of the key without emitting anything.
+     *
+     * @param key          the key
+     * @param state        the current state, or null if the key has no state
+     * @param timestamp    the time of the timer
+     * @param timeDomain   the time domain of the timer
+     * @param timerService the timer service to register timers for the key
+     * @return the new state or null to remove the state of the key
+     */
+    S onTimer(K key, S state, long timestamp, TimerService.TimeDomain timeDomain, TimerService<K> timerService);
+}
@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.streams.processors;
+
+/**
+ * Lets the processors that emit their results after {@link Processor#execute(Object, String)} returned, keep the input tuple from being
+ * acked until the results are emitted with the input as the anchor. All the methods must be called from the executor thread.
+ */
+public interface AnchorTracker {
+    /**
+     * Holds the anchor of the input being processed, the input is not acked until the anchor is released.
+     *
+     * @return the anchor, or null if the anchors are not tracked in this context (for e.g. in windowed bolts)
+     */
+    Object hold();
+
+    /**
+     * Runs the action, that forwards the results of the input, with the held anchor as the anchor of the emitted values, and releases
+     * the anchor.
+     *
+     * @param anchor the anchor returned by {@link #hold()}
+     * @param action the action
+     */
+    void release(Object anchor, Runnable action);
+
+    /**
+     * Releases the anchor and fails the input.
+     *
+     * @param anchor the anchor returned by {@link #hold()}
+     */
+    void fail(Object anchor);
+}
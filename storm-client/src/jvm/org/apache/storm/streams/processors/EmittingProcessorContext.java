@@ -108,6 +108,15 @@ public class EmittingProcessorContext<T> implements ProcessorContext<T> {
         }
     }
 
+    /**
+     * Clears the anchor set for the non-batch processors, so that the values forwarded next are emitted un-anchored.
+     */
+    public void clearAnchor() {
+        if (!(processorNode.isWindowed() && processorNode.isBatch())) {
+            anchors.clear();
+        }
+    }
+
     public void setEventTimestamp(long timestamp) {
         this.eventTimestamp = timestamp;
     }
@@ -131,7 +140,8 @@ public class EmittingProcessorContext<T> implements ProcessorContext<T> {
     }
 
     private void emit(Values values, String outputStreamId) {
-        if (timestampField != null) {
+        // the punctuation stream is declared without the timestamp field
+        if (timestampField != null && !outputStreamId.equals(punctuationStreamId)) {
             values.add(eventTimestamp);
         }
         if (anchors.isEmpty()) {
@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.streams.processors;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import org.apache.storm.streams.operations.AsyncFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies an {@link AsyncFunction} to the values, with up to maxInFlight results pending per task. The results are forwarded from the
+ * executor thread, when the next values are processed, on the tick tuples and before a punctuation; when maxInFlight results are pending
+ * the processing blocks until one completes. In the ordered mode the results are forwarded in the order of the inputs, otherwise as soon as
+ * they complete. The input tuples are acked once their result is forwarded, and failed if the function fails.
+ */
+public class MapAsyncProcessor<T, R> extends BaseProcessor<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(MapAsyncProcessor.class);
+    private final AsyncFunction<T, R> function;
+    private final int maxInFlight;
+    private final boolean ordered;
+    private final Deque<Pending<R>> pending = new ArrayDeque<>();
+    private transient AnchorTracker anchorTracker;
+
+    public MapAsyncProcessor(AsyncFunction<T, R> function, int maxInFlight, boolean ordered) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive [" + maxInFlight + "]");
+        }
+        this.function = function;
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+    }
+
+    public void setAnchorTracker(AnchorTracker anchorTracker) {
+        this.anchorTracker = anchorTracker;
+    }
+
+    @Override
+    public void execute(T input) {
+        forwardCompleted();
+        while (pending.size() >= maxInFlight) {
+            awaitAny();
+            forwardCompleted();
+        }
+        CompletableFuture<R> future;
+        try {
+            future = function.apply(input);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        pending.addLast(new Pending<>(future, anchorTracker == null ? null : anchorTracker.hold()));
+        forwardCompleted();
+    }
+
+    /**
+     * Forwards the results that completed, invoked on the tick tuples.
+     */
+    public void forwardCompleted() {
+        if (ordered) {
+            while (!pending.isEmpty() && pending.peekFirst().future.isDone()) {
+                forward(pending.pollFirst());
+            }
+        } else {
+            Iterator<Pending<R>> it = pending.iterator();
+            while (it.hasNext()) {
+                Pending<R> p = it.next();
+                if (p.future.isDone()) {
+                    it.remove();
+                    forward(p);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of pending results.
+     */
+    public int getInFlightCount() {
+        return pending.size();
+    }
+
+    /**
+     * Waits for the pending results before the punctuation is forwarded.
+     */
+    @Override
+    protected void finish() {
+        while (!pending.isEmpty()) {
+            awaitAny();
+            forwardCompleted();
+        }
+    }
+
+    private void awaitAny() {
+        CompletableFuture<?> waitFor = ordered
+            ? pending.peekFirst().future
+            : CompletableFuture.anyOf(pending.stream().map(p -> p.future).toArray(CompletableFuture[]::new));
+        try {
+            waitFor.join();
+        } catch (RuntimeException e) {
+            // the failure is handled when forwarding
+        }
+    }
+
+    private void forward(Pending<R> p) {
+        R result;
+        try {
+            result = p.future.join();
+        } catch (RuntimeException e) {
+            LOG.warn("Async function failed, failing the input", e);
+            if (anchorTracker != null) {
+                anchorTracker.fail(p.anchor);
+            }
+            return;
+        }
+        if (anchorTracker == null) {
+            context.forward(result);
+        } else {
+            anchorTracker.release(p.anchor, () -> context.forward(result));
+        }
+    }
+
+    private static class Pending<R> {
+        private final CompletableFuture<R> future;
+        private final Object anchor;
+
+        Pending(CompletableFuture<R> future, Object anchor) {
+            this.future = future;
+            this.anchor = anchor;
+        }
+    }
+}
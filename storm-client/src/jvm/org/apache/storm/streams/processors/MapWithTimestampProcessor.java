@@ -0,0 +1,38 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.streams.processors;
+
+import java.util.function.LongSupplier;
+import org.apache.storm.streams.operations.BiFunction;
+
+/**
+ * Applies a {@link BiFunction} to the values and the event timestamp of the input being processed. The event timestamp is supplied by
+ * the bolt, it is the timestamp of the input tuple, or the end timestamp of the window for the results of a window.
+ */
+public class MapWithTimestampProcessor<T, R> extends BaseProcessor<T> {
+    private final BiFunction<T, Long, R> function;
+    private transient LongSupplier timestampSupplier;
+
+    public MapWithTimestampProcessor(BiFunction<T, Long, R> function) {
+        this.function = function;
+    }
+
+    public void setTimestampSupplier(LongSupplier timestampSupplier) {
+        this.timestampSupplier = timestampSupplier;
+    }
+
+    @Override
+    public void execute(T input) {
+        context.forward(function.apply(input, timestampSupplier.getAsLong()));
+    }
+}
@@ -27,4 +27,22 @@ public interface StatefulProcessor<K, V> {
      * @param keyValueState the key-value state
      */
     void initState(KeyValueState<K, V> keyValueState);
+
+    /**
+     * Initialize the {@link TimerService} that can be used to register timers for the keys.
+     *
+     * @param timerService the timer service
+     */
+    default void initTimerService(TimerService<K> timerService) {
+    }
+
+    /**
+     * Invoked when a timer registered with the {@link TimerService} fires.
+     *
+     * @param key        the key of the timer
+     * @param timestamp  the time of the timer
+     * @param timeDomain the time domain of the timer
+     */
+    default void onTimer(K key, long timestamp, TimerService.TimeDomain timeDomain) {
+    }
 }
@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.streams.processors;
+
+/**
+ * A service for registering per key timers from the stateful processors. The processing time timers fire when the wall clock time passes
+ * the timer, and the event time timers fire when the watermark, derived from the timestamps of the input tuples, passes the timer. A key
+ * has at most one timer for a given time in each domain.
+ *
+ * @param <K> the key type
+ */
+public interface TimerService<K> {
+    /**
+     * Returns the current processing time in millis.
+     */
+    long currentProcessingTime();
+
+    /**
+     * Returns the current watermark in millis, or {@link Long#MIN_VALUE} if no timestamped tuples have been received.
+     */
+    long currentWatermark();
+
+    /**
+     * Registers a timer for the key that fires when the processing time passes the given time.
+     *
+     * @param key  the key
+     * @param time the time in millis
+     */
+    void registerProcessingTimeTimer(K key, long time);
+
+    /**
+     * Registers a timer for the key that fires when the watermark passes the given time.
+     *
+     * @param key  the key
+     * @param time the time in millis
+     */
+    void registerEventTimeTimer(K key, long time);
+
+    /**
+     * Deletes the processing time timer of the key for the given time, if there is any.
+     *
+     * @param key  the key
+     * @param time the time in millis
+     */
+    void deleteProcessingTimeTimer(K key, long time);
+
+    /**
+     * Deletes the event time timer of the key for the given time, if there is any.
+     *
+     * @param key  the key
+     * @param time the time in millis
+     */
+    void deleteEventTimeTimer(K key, long time);
+
+    /**
+     * The time domain of a timer.
+     */
+    enum TimeDomain {
+        PROCESSING_TIME,
+        EVENT_TIME
+    }
+}
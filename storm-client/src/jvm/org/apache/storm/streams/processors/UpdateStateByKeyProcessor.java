@@ -15,13 +15,41 @@ package org.apache.storm.streams.processors;
 import org.apache.storm.state.KeyValueState;
 import org.apache.storm.streams.Pair;
 import org.apache.storm.streams.operations.StateUpdater;
+import org.apache.storm.streams.operations.TimedStateUpdater;
 
 public class UpdateStateByKeyProcessor<K, V, R> extends BaseProcessor<Pair<K, V>> implements StatefulProcessor<K, R> {
     private final StateUpdater<V, R> stateUpdater;
+    private final TimedStateUpdater<K, V, R> timedStateUpdater;
+    private final long stateTtlMs;
     private KeyValueState<K, R> keyValueState;
+    private TimerService<K> timerService;
 
     public UpdateStateByKeyProcessor(StateUpdater<V, R> stateUpdater) {
+        this(stateUpdater, 0);
+    }
+
+    /**
+     * Creates a processor that expires the state of the keys that are not updated within the given time.
+     *
+     * @param stateUpdater the state updater
+     * @param stateTtlMs   the time to live of the state in millis, or 0 if the state does not expire
+     */
+    public UpdateStateByKeyProcessor(StateUpdater<V, R> stateUpdater, long stateTtlMs) {
         this.stateUpdater = stateUpdater;
+        this.timedStateUpdater = null;
+        this.stateTtlMs = stateTtlMs;
+    }
+
+    /**
+     * Creates a processor with a state updater that can register timers for the keys.
+     *
+     * @param timedStateUpdater the state updater
+     * @param stateTtlMs        the time to live of the state in millis, or 0 if the state does not expire
+     */
+    public UpdateStateByKeyProcessor(TimedStateUpdater<K, V, R> timedStateUpdater, long stateTtlMs) {
+        this.stateUpdater = null;
+        this.timedStateUpdater = timedStateUpdater;
+        this.stateTtlMs = stateTtlMs;
     }
 
     @Override
@@ -29,16 +57,54 @@ public class UpdateStateByKeyProcessor<K, V, R> extends BaseProcessor<Pair<K, V>
         this.keyValueState = keyValueState;
     }
 
+    @Override
+    public void initTimerService(TimerService<K> timerService) {
+        this.timerService = timerService;
+    }
+
     @Override
     protected void execute(Pair<K, V> input) {
         K key = input.getFirst();
         V val = input.getSecond();
         R agg = keyValueState.get(key);
-        if (agg == null) {
-            agg = stateUpdater.init();
+        R newAgg;
+        if (timedStateUpdater != null) {
+            if (agg == null) {
+                agg = timedStateUpdater.init();
+            }
+            newAgg = timedStateUpdater.apply(key, agg, val, timerService);
+        } else {
+            if (agg == null) {
+                agg = stateUpdater.init();
+            }
+            newAgg = stateUpdater.apply(agg, val);
         }
-        R newAgg = stateUpdater.apply(agg, val);
         keyValueState.put(key, newAgg);
         context.forward(Pair.of(key, newAgg));
     }
+
+    @Override
+    public void onTimer(K key, long timestamp, TimerService.TimeDomain timeDomain) {
+        if (timedStateUpdater == null) {
+            return;
+        }
+        R newAgg = timedStateUpdater.onTimer(key, keyValueState.get(key), timestamp, timeDomain, timerService);
+        if (newAgg == null) {
+            keyValueState.delete(key);
+        } else {
+            keyValueState.put(key, newAgg);
+            context.forward(Pair.of(key, newAgg));
+        }
+    }
+
+    public long getStateTtlMs() {
+        return stateTtlMs;
+    }
+
+    /**
+     * Returns true if the processor uses timers or state expiry, which are driven by tick tuples.
+     */
+    public boolean isTimeDependent() {
+        return timedStateUpdater != null || stateTtlMs > 0;
+    }
 }
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.streams.windowing;
+
+import static org.apache.storm.topology.base.BaseWindowedBolt.Duration;
+
+import org.apache.storm.topology.base.BaseWindowedBolt;
+
+/**
+ * A session window specification. A session window closes once no value arrives for the session gap. On a
+ * {@link org.apache.storm.streams.PairStream} the sessions are tracked separately for each key, otherwise all the values share the same
+ * sessions. The window length and the sliding interval of a session window are the session gap.
+ */
+public class SessionWindows extends BaseWindow<Duration, Duration> {
+    private final Duration gap;
+
+    private SessionWindows(Duration gap) {
+        this.gap = gap;
+    }
+
+    /**
+     * A session window with the given gap.
+     *
+     * @param gap the time duration of inactivity after which the session closes
+     */
+    public static SessionWindows of(Duration gap) {
+        return new SessionWindows(gap);
+    }
+
+    /**
+     * The session gap.
+     *
+     * @return the session gap
+     */
+    public Duration getGap() {
+        return gap;
+    }
+
+    @Override
+    public Duration getWindowLength() {
+        return gap;
+    }
+
+    @Override
+    public Duration getSlidingInterval() {
+        return gap;
+    }
+
+    /**
+     * The name of the field in the tuple that contains the timestamp when the event occurred as a long value. This is used of event-time
+     * based processing. If this config is set and the field is not present in the incoming tuple, an {@link IllegalArgumentException} will
+     * be thrown.
+     *
+     * @param fieldName the name of the field that contains the timestamp
+     */
+    public SessionWindows withTimestampField(String fieldName) {
+        timestampField = fieldName;
+        return this;
+    }
+
+    /**
+     * Specify a stream id on which late tuples are going to be emitted. They are going to be accessible via the {@link
+     * org.apache.storm.topology.WindowedBoltExecutor#LATE_TUPLE_FIELD} field. It must be defined on a per-component basis, and in
+     * conjunction with the {@link BaseWindowedBolt#withTimestampField}, otherwise {@link IllegalArgumentException} will be thrown.
+     *
+     * @param streamId the name of the stream used to emit late tuples on
+     */
+    public SessionWindows withLateTupleStream(String streamId) {
+        lateTupleStream = streamId;
+        return this;
+    }
+
+    /**
+     * Specify the maximum time lag of the tuple timestamp in milliseconds. It means that the tuple timestamps cannot be out of order by
+     * more than this amount.
+     *
+     * @param duration the max lag duration
+     */
+    public SessionWindows withLag(Duration duration) {
+        lag = duration;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+
+        SessionWindows that = (SessionWindows) o;
+
+        return gap != null ? gap.equals(that.gap) : that.gap == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (gap != null ? gap.hashCode() : 0);
+        return result;
+    }
+}
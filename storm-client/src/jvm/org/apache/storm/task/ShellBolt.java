@@ -20,6 +20,7 @@ package org.apache.storm.task;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -82,6 +83,7 @@ public class ShellBolt implements IBolt {
     private volatile boolean running = true;
     private volatile Throwable exception;
     private ShellBoltMessageQueue pendingWrites = new ShellBoltMessageQueue();
+    private int maxBatchSize = 1;
     private Random rand;
 
     private Thread readerThread;
@@ -135,6 +137,7 @@ public class ShellBolt implements IBolt {
         if (maxPending != null) {
             this.pendingWrites = new ShellBoltMessageQueue(((Number) maxPending).intValue());
         }
+        maxBatchSize = ObjectReader.getInt(topoConf.get(Config.TOPOLOGY_SHELLBOLT_MAX_BATCH_SIZE), 1);
 
         rand = new Random();
         this.collector = collector;
@@ -390,8 +393,9 @@ public class ShellBolt implements IBolt {
 
                     Object write = pendingWrites.poll(1, SECONDS);
                     if (write instanceof BoltMsg) {
-                        process.writeBoltMsg((BoltMsg) write);
-                    } else if (write instanceof List<?>) {
+                        write = writeBoltMsgs((BoltMsg) write);
+                    }
+                    if (write instanceof List<?>) {
                         process.writeTaskIds((List<Integer>) write);
                     } else if (write != null) {
                         throw new RuntimeException(
@@ -406,6 +410,31 @@ public class ShellBolt implements IBolt {
             }
         }
 
+        /**
+         * Writes the bolt message together with the bolt messages already pending, up to the max batch size.
+         *
+         * @return the task ids polled while collecting the batch, to write after it, or null
+         */
+        private Object writeBoltMsgs(BoltMsg first) throws IOException, InterruptedException {
+            if (maxBatchSize <= 1) {
+                process.writeBoltMsg(first);
+                return null;
+            }
+            List<BoltMsg> batch = new ArrayList<>();
+            batch.add(first);
+            Object next = null;
+            while (batch.size() < maxBatchSize) {
+                next = pendingWrites.poll(0, SECONDS);
+                if (!(next instanceof BoltMsg)) {
+                    break;
+                }
+                batch.add((BoltMsg) next);
+                next = null;
+            }
+            process.writeBoltMsgs(batch);
+            return next;
+        }
+
         private BoltMsg createHeartbeatBoltMessage(String genId) {
             BoltMsg msg = new BoltMsg();
             msg.setId(genId);
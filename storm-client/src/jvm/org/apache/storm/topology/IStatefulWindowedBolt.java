@@ -36,4 +36,20 @@ public interface IStatefulWindowedBolt<T extends State> extends IStatefulCompone
     default long maxEventsInMemory() {
         return 1_000_000L; // default
     }
+
+    /**
+     * The maximum estimated size in bytes of the window events to keep in memory. If positive, this is used instead of
+     * {@link #maxEventsInMemory()}.
+     */
+    default long maxBytesInMemory() {
+        return 0L; // default, bounded by the number of events
+    }
+
+    /**
+     * The number of window partitions to prefetch from the state while iterating the window. If positive, the modified partitions
+     * evicted from memory are also written to the state in the background.
+     */
+    default int readAheadPartitions() {
+        return 0; // default, no read-ahead
+    }
 }
@@ -15,6 +15,7 @@ package org.apache.storm.topology;
 import java.util.Map;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
+import org.apache.storm.windowing.SessionKeyExtractor;
 import org.apache.storm.windowing.TimestampExtractor;
 import org.apache.storm.windowing.TupleWindow;
 
@@ -42,4 +43,14 @@ public interface IWindowedBolt extends IComponent {
      * @return the timestamp extractor
      */
     TimestampExtractor getTimestampExtractor();
+
+    /**
+     * Return a {@link SessionKeyExtractor} for extracting the session key from a tuple when the bolt is configured with session windows,
+     * or null if all the tuples share the same sessions.
+     *
+     * @return the session key extractor
+     */
+    default SessionKeyExtractor getSessionKeyExtractor() {
+        return null;
+    }
 }
@@ -81,7 +81,8 @@ public class PersistentWindowedBoltExecutor<T extends State> extends WindowedBol
         outputCollector = collector;
         this.windowSystemState = windowSystemState;
         state = new WindowState<>(windowState, partitionState, windowSystemState, this::getState,
-                                  statefulWindowedBolt.maxEventsInMemory());
+                                  statefulWindowedBolt.maxEventsInMemory(), statefulWindowedBolt.maxBytesInMemory(),
+                                  statefulWindowedBolt.readAheadPartitions());
         doPrepare(topoConf, context, new NoAckOutputCollector(collector), state, true);
         restoreWindowSystemState();
     }
@@ -129,6 +130,14 @@ public class PersistentWindowedBoltExecutor<T extends State> extends WindowedBol
         }
     }
 
+    @Override
+    public void cleanup() {
+        super.cleanup();
+        if (state != null) {
+            state.close();
+        }
+    }
+
     @Override
     public void execute(Tuple input) {
         if (!stateInitialized) {
@@ -70,6 +70,10 @@ public class StatefulWindowedBoltExecutor<T extends State> extends WindowedBoltE
         } else {
             throw new IllegalArgumentException(Config.TOPOLOGY_BOLTS_MESSAGE_ID_FIELD_NAME + " is not set");
         }
+        if (topoConf.containsKey(Config.TOPOLOGY_BOLTS_SESSION_GAP_DURATION_MS)) {
+            // the recovery tracks the last expired and evaluated message ids per stream, which does not hold for per key sessions
+            throw new IllegalArgumentException("Session windows are not supported with stateful windowing");
+        }
         topologyContext = context;
         outputCollector = collector;
         streamState = windowState;
@@ -0,0 +1,44 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.topology;
+
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.windowing.SessionKeyExtractor;
+
+/**
+ * A {@link SessionKeyExtractor} that extracts the session key from a specific field in the tuple. Tuples without the field belong to the
+ * session with the null key.
+ */
+public final class TupleFieldSessionKeyExtractor implements SessionKeyExtractor {
+    private final String fieldName;
+
+    private TupleFieldSessionKeyExtractor(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public static TupleFieldSessionKeyExtractor of(String fieldName) {
+        return new TupleFieldSessionKeyExtractor(fieldName);
+    }
+
+    @Override
+    public Object extractKey(Tuple tuple) {
+        return tuple.contains(fieldName) ? tuple.getValueByField(fieldName) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "TupleFieldSessionKeyExtractor{"
+                + "fieldName='" + fieldName + '\''
+                + '}';
+    }
+}
@@ -29,6 +29,10 @@ public final class TupleFieldTimestampExtractor implements TimestampExtractor {
         return new TupleFieldTimestampExtractor(fieldName);
     }
 
+    String getFieldName() {
+        return fieldName;
+    }
+
     @Override
     public long extractTimestamp(Tuple tuple) {
         return tuple.getLongByField(fieldName);
@@ -36,12 +36,16 @@ import org.apache.storm.task.TopologyContext;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.ObjectReader;
 import org.apache.storm.windowing.CountEvictionPolicy;
 import org.apache.storm.windowing.CountTriggerPolicy;
 import org.apache.storm.windowing.Event;
 import org.apache.storm.windowing.EvictionPolicy;
+import org.apache.storm.windowing.SessionKeyExtractor;
+import org.apache.storm.windowing.SessionWindowManager;
 import org.apache.storm.windowing.StatefulWindowManager;
 import org.apache.storm.windowing.TimeEvictionPolicy;
+import org.apache.storm.windowing.TimeIndexedEventBuffer;
 import org.apache.storm.windowing.TimeTriggerPolicy;
 import org.apache.storm.windowing.TimestampExtractor;
 import org.apache.storm.windowing.TriggerPolicy;
@@ -65,6 +69,7 @@ public class WindowedBoltExecutor implements IRichBolt {
     private static final Logger LOG = LoggerFactory.getLogger(WindowedBoltExecutor.class);
     private static final int DEFAULT_WATERMARK_EVENT_INTERVAL_MS = 1000; // 1s
     private static final int DEFAULT_MAX_LAG_MS = 0; // no lag
+    private static final int DEFAULT_SESSION_CHECK_INTERVAL_MS = 100;
     private final IWindowedBolt bolt;
     // package level for unit tests
     transient WaterMarkEventGenerator<Tuple> waterMarkEventGenerator;
@@ -149,6 +154,9 @@ public class WindowedBoltExecutor implements IRichBolt {
     private WindowManager<Tuple> initWindowManager(WindowLifecycleListener<Tuple> lifecycleListener, Map<String, Object> topoConf,
                                                    TopologyContext context, Collection<Event<Tuple>> queue, boolean stateful) {
 
+        if (topoConf.containsKey(Config.TOPOLOGY_BOLTS_SESSION_GAP_DURATION_MS)) {
+            return initSessionWindowManager(lifecycleListener, topoConf, context, stateful);
+        }
         WindowManager<Tuple> manager = stateful
                 ? new StatefulWindowManager<>(lifecycleListener, queue)
                 : new WindowManager<>(lifecycleListener, queue);
@@ -174,6 +182,44 @@ public class WindowedBoltExecutor implements IRichBolt {
             // default is a sliding window of count 1
             slidingIntervalCount = new Count(1);
         }
+        initWaterMarkEventGenerator(manager, topoConf, context);
+        // validate
+        validate(topoConf, windowLengthCount, windowLengthDuration,
+                 slidingIntervalCount, slidingIntervalDuration);
+        evictionPolicy = getEvictionPolicy(windowLengthCount, windowLengthDuration);
+        triggerPolicy = getTriggerPolicy(slidingIntervalCount, slidingIntervalDuration,
+                                         manager, evictionPolicy);
+        manager.setEvictionPolicy(evictionPolicy);
+        manager.setTriggerPolicy(triggerPolicy);
+        return manager;
+    }
+
+    private WindowManager<Tuple> initSessionWindowManager(WindowLifecycleListener<Tuple> lifecycleListener, Map<String, Object> topoConf,
+                                                          TopologyContext context, boolean stateful) {
+        if (stateful) {
+            throw new IllegalArgumentException("Session windows are not supported with persistent windowing");
+        }
+        if (topoConf.containsKey(Config.TOPOLOGY_BOLTS_WINDOW_LENGTH_COUNT)
+            || topoConf.containsKey(Config.TOPOLOGY_BOLTS_WINDOW_LENGTH_DURATION_MS)
+            || topoConf.containsKey(Config.TOPOLOGY_BOLTS_SLIDING_INTERVAL_COUNT)
+            || topoConf.containsKey(Config.TOPOLOGY_BOLTS_SLIDING_INTERVAL_DURATION_MS)) {
+            throw new IllegalArgumentException("Session windows cannot be combined with window length or sliding interval");
+        }
+        int gap = ((Number) topoConf.get(Config.TOPOLOGY_BOLTS_SESSION_GAP_DURATION_MS)).intValue();
+        ensureDurationLessThanTimeout(gap, getTopologyTimeoutMillis(topoConf));
+        SessionKeyExtractor sessionKeyExtractor = bolt.getSessionKeyExtractor();
+        SessionWindowManager<Tuple> manager = new SessionWindowManager<>(lifecycleListener, gap,
+            sessionKeyExtractor != null ? sessionKeyExtractor::extractKey : tuple -> null);
+        initWaterMarkEventGenerator(manager, topoConf, context);
+        if (!isTupleTs()) {
+            // with processing time, periodically close the sessions whose gap has passed
+            triggerPolicy = new TimeTriggerPolicy<>(Math.min(gap, DEFAULT_SESSION_CHECK_INTERVAL_MS), manager);
+            manager.setTriggerPolicy(triggerPolicy);
+        }
+        return manager;
+    }
+
+    private void initWaterMarkEventGenerator(WindowManager<Tuple> manager, Map<String, Object> topoConf, TopologyContext context) {
         // tuple ts
         if (timestampExtractor != null) {
             // late tuple stream
@@ -204,15 +250,6 @@ public class WindowedBoltExecutor implements IRichBolt {
                 throw new IllegalArgumentException("Late tuple stream can be defined only when specifying a timestamp field");
             }
         }
-        // validate
-        validate(topoConf, windowLengthCount, windowLengthDuration,
-                 slidingIntervalCount, slidingIntervalDuration);
-        evictionPolicy = getEvictionPolicy(windowLengthCount, windowLengthDuration);
-        triggerPolicy = getTriggerPolicy(slidingIntervalCount, slidingIntervalDuration,
-                                         manager, evictionPolicy);
-        manager.setEvictionPolicy(evictionPolicy);
-        manager.setTriggerPolicy(triggerPolicy);
-        return manager;
     }
 
     protected void restoreState(Map<String, Optional<?>> state) {
@@ -226,13 +263,26 @@ public class WindowedBoltExecutor implements IRichBolt {
     private Set<GlobalStreamId> getComponentStreams(TopologyContext context) {
         Set<GlobalStreamId> streams = new HashSet<>();
         for (GlobalStreamId streamId : context.getThisSources().keySet()) {
-            if (!streamId.get_streamId().equals(CheckpointSpout.CHECKPOINT_STREAM_ID)) {
+            if (!streamId.get_streamId().equals(CheckpointSpout.CHECKPOINT_STREAM_ID) && carriesTimestamp(context, streamId)) {
                 streams.add(streamId);
             }
         }
         return streams;
     }
 
+    /*
+     * Streams that do not have the timestamp field (like the punctuation streams of the Streams API) never
+     * receive tuples with a timestamp and should not hold back the watermark.
+     */
+    private boolean carriesTimestamp(TopologyContext context, GlobalStreamId streamId) {
+        if (timestampExtractor instanceof TupleFieldTimestampExtractor) {
+            String fieldName = ((TupleFieldTimestampExtractor) timestampExtractor).getFieldName();
+            Fields fields = context.getComponentOutputFields(streamId);
+            return fields == null || fields.contains(fieldName);
+        }
+        return true;
+    }
+
     /**
      * Start the trigger policy and waterMarkEventGenerator if set.
      */
@@ -241,8 +291,10 @@ public class WindowedBoltExecutor implements IRichBolt {
             LOG.debug("Starting waterMarkEventGenerator");
             waterMarkEventGenerator.start();
         }
-        LOG.debug("Starting trigger policy");
-        triggerPolicy.start();
+        if (triggerPolicy != null) {
+            LOG.debug("Starting trigger policy");
+            triggerPolicy.start();
+        }
     }
 
     private boolean isTupleTs() {
@@ -284,7 +336,10 @@ public class WindowedBoltExecutor implements IRichBolt {
 
     @Override
     public void prepare(Map<String, Object> topoConf, TopologyContext context, OutputCollector collector) {
-        doPrepare(topoConf, context, collector, new ConcurrentLinkedQueue<>(), false);
+        Collection<Event<Tuple>> queue = ObjectReader.getBoolean(topoConf.get(Config.TOPOLOGY_BOLTS_WINDOW_TIME_INDEXED_BUFFER), false)
+                ? new TimeIndexedEventBuffer<>()
+                : new ConcurrentLinkedQueue<>();
+        doPrepare(topoConf, context, collector, queue, false);
     }
 
     // NOTE: the queue has to be thread safe.
@@ -364,6 +419,12 @@ public class WindowedBoltExecutor implements IRichBolt {
                 boltExecute(tuples, newTuples, expiredTuples, timestamp);
             }
 
+            @Override
+            public void onSessionActivation(List<Tuple> tuples, long startTime, long endTime) {
+                windowedOutputCollector.setContext(tuples);
+                bolt.execute(new TupleWindowImpl(tuples, tuples, Collections.emptyList(), startTime, endTime));
+            }
+
         };
     }
 
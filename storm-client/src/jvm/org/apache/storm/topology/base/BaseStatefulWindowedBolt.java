@@ -24,6 +24,12 @@ public abstract class BaseStatefulWindowedBolt<T extends State> extends BaseWind
     // max number of window events in memory
     private long maxEventsInMemory;
 
+    // max estimated bytes of window events in memory
+    private long maxBytesInMemory;
+
+    // number of window partitions to prefetch
+    private int readAheadPartitions;
+
     /**
      * {@inheritDoc}
      */
@@ -173,6 +179,30 @@ public abstract class BaseStatefulWindowedBolt<T extends State> extends BaseWind
         return this;
     }
 
+    /**
+     * The maximum estimated size in bytes of the window events to keep in memory. This is meaningful only if {@link #withPersistence()}
+     * is also set, and overrides {@link #withMaxEventsInMemory(long)}. The size of the events is estimated from the values of the
+     * tuples.
+     *
+     * @param maxBytesInMemory the maximum estimated size in bytes of the window events to keep in memory
+     */
+    public BaseStatefulWindowedBolt<T> withMaxBytesInMemory(long maxBytesInMemory) {
+        this.maxBytesInMemory = maxBytesInMemory;
+        return this;
+    }
+
+    /**
+     * The number of window partitions to load in the background ahead of the partition being iterated. This is meaningful only if
+     * {@link #withPersistence()} is also set. With read-ahead the modified partitions evicted from memory are also written to the state
+     * in the background. By default there is no read-ahead.
+     *
+     * @param readAheadPartitions the number of partitions to prefetch
+     */
+    public BaseStatefulWindowedBolt<T> withPartitionReadAhead(int readAheadPartitions) {
+        this.readAheadPartitions = readAheadPartitions;
+        return this;
+    }
+
     @Override
     public boolean isPersistent() {
         return persistent;
@@ -183,6 +213,16 @@ public abstract class BaseStatefulWindowedBolt<T extends State> extends BaseWind
         return maxEventsInMemory > 0 ? maxEventsInMemory : IStatefulWindowedBolt.super.maxEventsInMemory();
     }
 
+    @Override
+    public long maxBytesInMemory() {
+        return maxBytesInMemory;
+    }
+
+    @Override
+    public int readAheadPartitions() {
+        return readAheadPartitions;
+    }
+
     @Override
     public void preCommit(long txid) {
         // NOOP
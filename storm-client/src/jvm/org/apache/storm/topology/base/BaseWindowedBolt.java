@@ -21,7 +21,9 @@ import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.topology.IWindowedBolt;
 import org.apache.storm.topology.OutputFieldsDeclarer;
+import org.apache.storm.topology.TupleFieldSessionKeyExtractor;
 import org.apache.storm.topology.TupleFieldTimestampExtractor;
+import org.apache.storm.windowing.SessionKeyExtractor;
 import org.apache.storm.windowing.TimestampExtractor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +33,7 @@ public abstract class BaseWindowedBolt implements IWindowedBolt {
 
     protected final transient Map<String, Object> windowConfiguration;
     protected TimestampExtractor timestampExtractor;
+    protected SessionKeyExtractor sessionKeyExtractor;
 
     protected BaseWindowedBolt() {
         windowConfiguration = new HashMap<>();
@@ -157,6 +160,48 @@ public abstract class BaseWindowedBolt implements IWindowedBolt {
         return withWindowLength(duration).withSlidingInterval(duration);
     }
 
+    /**
+     * A session window configuration, where all the tuples share the same sessions. A session window closes once no tuple arrives for
+     * the session gap. The tuples of a session are acked only after the session closes, so sessions must close within the {@link
+     * Config#TOPOLOGY_MESSAGE_TIMEOUT_SECS}.
+     *
+     * @param gap the session gap
+     */
+    public BaseWindowedBolt withSessionWindow(Duration gap) {
+        if (gap == null) {
+            throw new IllegalArgumentException("Session gap cannot be set null");
+        }
+        if (gap.value <= 0) {
+            throw new IllegalArgumentException("Session gap must be positive [" + gap + "]");
+        }
+        windowConfiguration.put(Config.TOPOLOGY_BOLTS_SESSION_GAP_DURATION_MS, gap.value);
+        return this;
+    }
+
+    /**
+     * A session window configuration with sessions tracked separately for each value of the key field of the tuples.
+     *
+     * @param gap      the session gap
+     * @param keyField the name of the field that contains the session key
+     */
+    public BaseWindowedBolt withSessionWindow(Duration gap, String keyField) {
+        return withSessionWindow(gap, TupleFieldSessionKeyExtractor.of(keyField));
+    }
+
+    /**
+     * A session window configuration with sessions tracked separately for each key returned by the session key extractor.
+     *
+     * @param gap                 the session gap
+     * @param sessionKeyExtractor the {@link SessionKeyExtractor} implementation
+     */
+    public BaseWindowedBolt withSessionWindow(Duration gap, SessionKeyExtractor sessionKeyExtractor) {
+        if (sessionKeyExtractor == null) {
+            throw new IllegalArgumentException("Session key extractor cannot be set to null");
+        }
+        this.sessionKeyExtractor = sessionKeyExtractor;
+        return withSessionWindow(gap);
+    }
+
     /**
      * Specify a field in the tuple that represents the timestamp as a long value. If this field is not present in the incoming tuple, an
      * {@link IllegalArgumentException} will be thrown. The field MUST contain a timestamp in milliseconds
@@ -188,6 +233,11 @@ public abstract class BaseWindowedBolt implements IWindowedBolt {
         return timestampExtractor;
     }
 
+    @Override
+    public SessionKeyExtractor getSessionKeyExtractor() {
+        return sessionKeyExtractor;
+    }
+
     /**
      * Specify a stream id on which late tuples are going to be emitted. They are going to be accessible via the {@link
      * org.apache.storm.topology.WindowedBoltExecutor#LATE_TUPLE_FIELD} field. It must be defined on a per-component basis, and in
@@ -227,6 +277,17 @@ public abstract class BaseWindowedBolt implements IWindowedBolt {
         return this;
     }
 
+    /**
+     * Keep the events in the window ordered by their timestamp. This makes event expiry proportional to the number of expired events and
+     * lets the watermark based trigger policies look up events by timestamp instead of scanning the whole window, which is useful for
+     * windows that hold a large number of events. Note that out of order events are then processed in timestamp order rather than in
+     * arrival order.
+     */
+    public BaseWindowedBolt withTimeIndexedEventBuffer() {
+        windowConfiguration.put(Config.TOPOLOGY_BOLTS_WINDOW_TIME_INDEXED_BUFFER, true);
+        return this;
+    }
+
     @Override
     public void prepare(Map<String, Object> topoConf, TopologyContext context, OutputCollector collector) {
         // NOOP
@@ -34,6 +34,7 @@ import org.apache.storm.trident.operation.FlatMapFunction;
 import org.apache.storm.trident.operation.Function;
 import org.apache.storm.trident.operation.MapFunction;
 import org.apache.storm.trident.operation.ReducerAggregator;
+import org.apache.storm.trident.operation.VectorizedFilter;
 import org.apache.storm.trident.operation.builtin.ComparisonAggregator;
 import org.apache.storm.trident.operation.builtin.Max;
 import org.apache.storm.trident.operation.builtin.MaxWithComparator;
@@ -49,6 +50,7 @@ import org.apache.storm.trident.operation.impl.MapFunctionExecutor;
 import org.apache.storm.trident.operation.impl.ReducerAggStateUpdater;
 import org.apache.storm.trident.operation.impl.SingleEmitAggregator.BatchToPartition;
 import org.apache.storm.trident.operation.impl.TrueFilter;
+import org.apache.storm.trident.operation.impl.VectorizedFilterExecutor;
 import org.apache.storm.trident.partition.GlobalGrouping;
 import org.apache.storm.trident.partition.IdentityGrouping;
 import org.apache.storm.trident.partition.IndexHashGrouping;
@@ -296,7 +298,9 @@ public class Stream implements IAggregatableStream, ResourceDeclarer<Stream> {
     }
 
     public Stream each(Fields inputFields, Filter filter) {
-        return each(inputFields, new FilterExecutor(filter), new Fields());
+        FilterExecutor executor = filter instanceof VectorizedFilter
+                ? new VectorizedFilterExecutor((VectorizedFilter) filter) : new FilterExecutor(filter);
+        return each(inputFields, executor, new Fields());
     }
 
     //creates brand new tuples with brand new fields
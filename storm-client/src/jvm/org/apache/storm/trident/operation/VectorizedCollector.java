@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.operation;
+
+import java.util.List;
+import org.apache.storm.trident.tuple.Column;
+
+/**
+ * Collects the output of a {@link VectorizedFunction}. The rows are the indexes of the input tuples in the {@link
+ * org.apache.storm.trident.tuple.ColumnBatch}, the output values are appended to the input tuple of the row.
+ */
+public interface VectorizedCollector {
+    /**
+     * Emits a tuple for the row.
+     *
+     * @param row    the row of the input batch
+     * @param values the values of the function fields
+     */
+    void emit(int row, List<Object> values);
+
+    /**
+     * Emits one tuple per row of the input batch, with the values of the row in the columns.
+     *
+     * @param columns the columns of the function fields, with the size of the input batch
+     */
+    void emitColumns(Column... columns);
+
+    /**
+     * Reports an error, see {@link TridentCollector#reportError(Throwable)}.
+     */
+    void reportError(Throwable t);
+}
@@ -0,0 +1,41 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.operation;
+
+import java.util.BitSet;
+import org.apache.storm.trident.tuple.ColumnBatch;
+import org.apache.storm.trident.tuple.TridentTuple;
+
+/**
+ * A {@link Filter} processing a slice of the tuples of a batch at a time in columnar form, see {@link VectorizedFunction}. The filter
+ * still works where a tuple at a time is processed, as a batch with a single row.
+ */
+public interface VectorizedFilter extends Filter {
+
+    /**
+     * Filters the rows of the input batch.
+     *
+     * @param input the slice of the batch, with the input fields of the filter
+     * @param keep  the rows to keep, initially all set; the filter clears the bits of the rows to drop
+     */
+    void filter(ColumnBatch input, BitSet keep);
+
+    @Override
+    default boolean isKeep(TridentTuple tuple) {
+        BitSet keep = new BitSet(1);
+        keep.set(0);
+        filter(ColumnBatch.of(tuple), keep);
+        return keep.get(0);
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.operation;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.storm.trident.tuple.Column;
+import org.apache.storm.trident.tuple.ColumnBatch;
+import org.apache.storm.trident.tuple.TridentTuple;
+
+/**
+ * A {@link Function} processing a slice of the tuples of a batch at a time in columnar form. Within an {@code each} the tuples of the
+ * batch are buffered and passed to {@link #execute(ColumnBatch, VectorizedCollector)} in slices when the batch finishes, so the output
+ * of the function is only emitted at the end of the batch.
+ *
+ * <p>The function still works where a tuple at a time is processed, as a batch with a single row.
+ */
+public interface VectorizedFunction extends Function {
+
+    /**
+     * Processes the rows of the input batch.
+     *
+     * @param input     the slice of the batch, with the input fields of the function
+     * @param collector the collector of the output tuples
+     */
+    void execute(ColumnBatch input, VectorizedCollector collector);
+
+    @Override
+    default void execute(TridentTuple tuple, TridentCollector collector) {
+        execute(ColumnBatch.of(tuple), new VectorizedCollector() {
+            @Override
+            public void emit(int row, List<Object> values) {
+                collector.emit(values);
+            }
+
+            @Override
+            public void emitColumns(Column... columns) {
+                List<Object> values = new ArrayList<>(columns.length);
+                for (Column column : columns) {
+                    values.add(column.get(0));
+                }
+                collector.emit(values);
+            }
+
+            @Override
+            public void reportError(Throwable t) {
+                collector.reportError(t);
+            }
+        });
+    }
+}
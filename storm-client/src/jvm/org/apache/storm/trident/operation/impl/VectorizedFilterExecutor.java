@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.operation.impl;
+
+import java.util.BitSet;
+import org.apache.storm.trident.operation.VectorizedCollector;
+import org.apache.storm.trident.operation.VectorizedFilter;
+import org.apache.storm.trident.operation.VectorizedFunction;
+import org.apache.storm.trident.tuple.ColumnBatch;
+
+/**
+ * Runs a {@link VectorizedFilter} as a vectorized function, emitting null for the kept rows like the {@link FilterExecutor}.
+ */
+public class VectorizedFilterExecutor extends FilterExecutor implements VectorizedFunction {
+
+    public VectorizedFilterExecutor(VectorizedFilter filter) {
+        super(filter);
+    }
+
+    @Override
+    public void execute(ColumnBatch input, VectorizedCollector collector) {
+        BitSet keep = new BitSet(input.size());
+        keep.set(0, input.size());
+        ((VectorizedFilter) filter).filter(input, keep);
+        for (int row = keep.nextSetBit(0); row >= 0 && row < input.size(); row = keep.nextSetBit(row + 1)) {
+            collector.emit(row, null);
+        }
+    }
+}
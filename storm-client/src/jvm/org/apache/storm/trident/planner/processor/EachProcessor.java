@@ -12,13 +12,18 @@
 
 package org.apache.storm.trident.planner.processor;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.trident.operation.Function;
 import org.apache.storm.trident.operation.TridentOperationContext;
+import org.apache.storm.trident.operation.VectorizedCollector;
+import org.apache.storm.trident.operation.VectorizedFunction;
 import org.apache.storm.trident.planner.ProcessorContext;
 import org.apache.storm.trident.planner.TridentProcessor;
+import org.apache.storm.trident.tuple.Column;
+import org.apache.storm.trident.tuple.ColumnBatch;
 import org.apache.storm.trident.tuple.TridentTuple;
 import org.apache.storm.trident.tuple.TridentTuple.Factory;
 import org.apache.storm.trident.tuple.TridentTupleView.ProjectionFactory;
@@ -26,6 +31,8 @@ import org.apache.storm.tuple.Fields;
 
 
 public class EachProcessor implements TridentProcessor {
+    // the number of rows passed at once to the vectorized functions
+    static final int SLICE_SIZE = 1024;
     Function function;
     TridentContext context;
     AppendCollector collector;
@@ -61,6 +68,10 @@ public class EachProcessor implements TridentProcessor {
 
     @Override
     public void execute(ProcessorContext processorContext, String streamId, TridentTuple tuple) {
+        if (function instanceof VectorizedFunction) {
+            ((List<TridentTuple>) processorContext.state[context.getStateIndex()]).add(tuple);
+            return;
+        }
         collector.setContext(processorContext, tuple);
         function.execute(projection.create(tuple), collector);
     }
@@ -68,14 +79,65 @@ public class EachProcessor implements TridentProcessor {
 
     @Override
     public void startBatch(ProcessorContext processorContext) {
+        if (function instanceof VectorizedFunction) {
+            processorContext.state[context.getStateIndex()] = new ArrayList<TridentTuple>();
+        }
     }
 
     @Override
     public void finishBatch(ProcessorContext processorContext) {
+        if (function instanceof VectorizedFunction) {
+            List<TridentTuple> tuples = (List<TridentTuple>) processorContext.state[context.getStateIndex()];
+            processorContext.state[context.getStateIndex()] = null;
+            for (int from = 0; from < tuples.size(); from += SLICE_SIZE) {
+                int to = Math.min(from + SLICE_SIZE, tuples.size());
+                ColumnBatch slice = ColumnBatch.of(projection, tuples, from, to);
+                ((VectorizedFunction) function).execute(slice, new SliceCollector(processorContext, tuples, from, to - from));
+            }
+        }
     }
 
     @Override
     public Factory getOutputFactory() {
         return collector.getOutputFactory();
     }
+
+    private class SliceCollector implements VectorizedCollector {
+        private final ProcessorContext processorContext;
+        private final List<TridentTuple> tuples;
+        private final int from;
+        private final int size;
+
+        SliceCollector(ProcessorContext processorContext, List<TridentTuple> tuples, int from, int size) {
+            this.processorContext = processorContext;
+            this.tuples = tuples;
+            this.from = from;
+            this.size = size;
+        }
+
+        @Override
+        public void emit(int row, List<Object> values) {
+            if (row < 0 || row >= size) {
+                throw new IndexOutOfBoundsException("Row " + row + " out of [0, " + size + ")");
+            }
+            collector.setContext(processorContext, tuples.get(from + row));
+            collector.emit(values);
+        }
+
+        @Override
+        public void emitColumns(Column... columns) {
+            for (int row = 0; row < size; row++) {
+                List<Object> values = new ArrayList<>(columns.length);
+                for (Column column : columns) {
+                    values.add(column.get(row));
+                }
+                emit(row, values);
+            }
+        }
+
+        @Override
+        public void reportError(Throwable t) {
+            collector.reportError(t);
+        }
+    }
 }
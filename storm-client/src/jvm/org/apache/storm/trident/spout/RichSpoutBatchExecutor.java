@@ -165,7 +165,8 @@ public class RichSpoutBatchExecutor implements ITridentSpout<Object> {
                 spout.open(conf, context, new SpoutOutputCollector(this.collector));
                 prepared = true;
             }
-            for (int i = 0; i < maxBatchSize; i++) {
+            int batchSize = tx.getBatchSizeHint() == null ? maxBatchSize : Math.min(maxBatchSize, tx.getBatchSizeHint());
+            for (int i = 0; i < batchSize; i++) {
                 spout.nextTuple();
                 if (this.collector.numEmitted < i) {
                     break;
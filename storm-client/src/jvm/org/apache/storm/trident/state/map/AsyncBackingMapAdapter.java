@@ -0,0 +1,86 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.state.map;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adapts a blocking {@link IBackingMap} to an {@link IAsyncBackingMap} by running the calls on an executor. With a single thread the calls
+ * reach the delegate in the order they were issued; with more threads a read can run concurrently with a write in flight, which requires
+ * the delegate to be thread safe.
+ */
+public class AsyncBackingMapAdapter<T> implements IAsyncBackingMap<T>, AutoCloseable {
+    private static final AtomicInteger ADAPTER_ID = new AtomicInteger();
+    private final IBackingMap<T> delegate;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Creates an adapter running the calls on a pool of daemon threads owned by the adapter.
+     *
+     * @param delegate the backing map
+     * @param threads  the number of threads, 1 to keep the calls ordered
+     */
+    public AsyncBackingMapAdapter(IBackingMap<T> delegate, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive [" + threads + "]");
+        }
+        int id = ADAPTER_ID.incrementAndGet();
+        AtomicInteger threadId = new AtomicInteger();
+        this.delegate = delegate;
+        this.ownedExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "async-backing-map-" + id + "-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.executor = ownedExecutor;
+    }
+
+    /**
+     * Creates an adapter running the calls on the given executor.
+     *
+     * @param delegate the backing map
+     * @param executor the executor
+     */
+    public AsyncBackingMapAdapter(IBackingMap<T> delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.ownedExecutor = null;
+    }
+
+    @Override
+    public CompletableFuture<List<T>> multiGetAsync(List<List<Object>> keys) {
+        return CompletableFuture.supplyAsync(() -> delegate.multiGet(keys), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> multiPutAsync(List<List<Object>> keys, List<T> vals) {
+        return CompletableFuture.runAsync(() -> delegate.multiPut(keys, vals), executor);
+    }
+
+    /**
+     * Shuts down the threads owned by the adapter, the calls in flight still complete.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+}
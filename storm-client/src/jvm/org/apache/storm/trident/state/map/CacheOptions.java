@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.state.map;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.storm.trident.util.ICache;
+import org.apache.storm.trident.util.TinyLfuCache;
+
+/**
+ * Options for the cache of a {@link CachedMap}. By default the cache holds up to 1000 entries and uses the scan resistant TinyLFU
+ * admission, see {@link TinyLfuCache}.
+ *
+ * <p>If metrics are enabled with {@link #withMetricsName(String)}, the {@link CachedMap} registers the hit rate, hit, miss, eviction and
+ * size gauges and a load latency timer for the backing map reads with that name as the prefix. The name should be unique among the
+ * cached map states of a component.
+ */
+public class CacheOptions implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long maximumWeight = 1000;
+    private TinyLfuCache.Weigher<? super List<Object>, Object> weigher;
+    private long expireAfterWriteMillis;
+    private boolean admission = true;
+    private String metricsName;
+
+    /**
+     * Bounds the cache by the number of entries.
+     *
+     * @param maximumSize the maximum number of entries
+     * @return this
+     */
+    public CacheOptions withMaximumSize(long maximumSize) {
+        this.maximumWeight = maximumSize;
+        this.weigher = null;
+        return this;
+    }
+
+    /**
+     * Bounds the cache by the total weight of the entries.
+     *
+     * @param maximumWeight the maximum total weight
+     * @param weigher       the weigher of the entries
+     * @return this
+     */
+    public CacheOptions withMaximumWeight(long maximumWeight, TinyLfuCache.Weigher<? super List<Object>, Object> weigher) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        return this;
+    }
+
+    /**
+     * Expires the entries after the given duration from when they were written, so that the changes made to the backing store by others
+     * are eventually seen.
+     *
+     * @param duration the duration
+     * @param unit     the unit of the duration
+     * @return this
+     */
+    public CacheOptions withExpireAfterWrite(long duration, TimeUnit unit) {
+        this.expireAfterWriteMillis = unit.toMillis(duration);
+        return this;
+    }
+
+    /**
+     * Uses a plain LRU policy instead of the TinyLFU admission.
+     *
+     * @return this
+     */
+    public CacheOptions withLruPolicy() {
+        this.admission = false;
+        return this;
+    }
+
+    /**
+     * Registers the cache metrics with the given name as the prefix.
+     *
+     * @param metricsName the metrics name prefix
+     * @return this
+     */
+    public CacheOptions withMetricsName(String metricsName) {
+        this.metricsName = metricsName;
+        return this;
+    }
+
+    public String getMetricsName() {
+        return metricsName;
+    }
+
+    /**
+     * Creates a cache as per the options.
+     *
+     * @param <T> the value type
+     * @return the cache
+     */
+    public <T> ICache<List<Object>, T> createCache() {
+        return new TinyLfuCache<>(maximumWeight, weigher, expireAfterWriteMillis, admission);
+    }
+
+    @Override
+    public String toString() {
+        return "CacheOptions{"
+                + "maximumWeight=" + maximumWeight
+                + ", weigher=" + weigher
+                + ", expireAfterWriteMillis=" + expireAfterWriteMillis
+                + ", admission=" + admission
+                + ", metricsName='" + metricsName + '\''
+                + '}';
+    }
+}
@@ -30,6 +30,10 @@ public class CachedBatchReadsMap<T> {
         cached.clear();
     }
 
+    public void flush() {
+        delegate.flush();
+    }
+
     public List<RetVal<T>> multiGet(List<List<Object>> keys) {
         // TODO: can optimize further by only querying backing map for keys not in the cache
         List<T> vals = delegate.multiGet(keys);
@@ -12,22 +12,53 @@
 
 package org.apache.storm.trident.state.map;
 
+import com.codahale.metrics.Timer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.storm.trident.util.LRUMap;
+import org.apache.storm.task.IMetricsContext;
+import org.apache.storm.trident.util.ICache;
 
 /**
  * Useful to layer over a map that communicates with a database. you generally layer opaque map over this over your database store.
+ *
+ * <p>The cache is configured with {@link CacheOptions}. The cache created with just the cache size is a plain LRU cache.
  */
 public class CachedMap<T> implements IBackingMap<T> {
-    LRUMap<List<Object>, T> cache;
+    ICache<List<Object>, T> cache;
     IBackingMap<T> delegate;
+    private Timer loadTimer;
 
     public CachedMap(IBackingMap<T> delegate, int cacheSize) {
-        cache = new LRUMap<List<Object>, T>(cacheSize);
+        this(delegate, new CacheOptions().withMaximumSize(Math.max(0, cacheSize)).withLruPolicy(), null);
+    }
+
+    /**
+     * Creates a cached map with the given cache options.
+     *
+     * @param delegate the backing map
+     * @param options  the cache options
+     * @param metrics  the metrics context to register the cache metrics with if {@link CacheOptions#getMetricsName()} is set, can be null
+     */
+    public CachedMap(IBackingMap<T> delegate, CacheOptions options, IMetricsContext metrics) {
+        this.cache = options.createCache();
         this.delegate = delegate;
+        if (metrics != null && options.getMetricsName() != null) {
+            registerMetrics(options.getMetricsName(), metrics);
+        }
+    }
+
+    private void registerMetrics(String name, IMetricsContext metrics) {
+        metrics.registerGauge(name + ".hitRate", () -> {
+            long requests = cache.hitCount() + cache.missCount();
+            return requests == 0 ? 1.0 : (double) cache.hitCount() / requests;
+        });
+        metrics.registerGauge(name + ".hits", cache::hitCount);
+        metrics.registerGauge(name + ".misses", cache::missCount);
+        metrics.registerGauge(name + ".evictions", cache::evictionCount);
+        metrics.registerGauge(name + ".size", cache::size);
+        loadTimer = metrics.registerTimer(name + ".loadLatency");
     }
 
     @Override
@@ -42,7 +73,7 @@ public class CachedMap<T> implements IBackingMap<T> {
             }
         }
 
-        List<T> fetchedVals = delegate.multiGet(toGet);
+        List<T> fetchedVals = load(toGet);
         for (int i = 0; i < toGet.size(); i++) {
             List<Object> key = toGet.get(i);
             T val = fetchedVals.get(i);
@@ -57,12 +88,26 @@ public class CachedMap<T> implements IBackingMap<T> {
         return ret;
     }
 
+    private List<T> load(List<List<Object>> keys) {
+        if (loadTimer == null || keys.isEmpty()) {
+            return delegate.multiGet(keys);
+        }
+        try (Timer.Context ignored = loadTimer.time()) {
+            return delegate.multiGet(keys);
+        }
+    }
+
     @Override
     public void multiPut(List<List<Object>> keys, List<T> values) {
         cache(keys, values);
         delegate.multiPut(keys, values);
     }
 
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
     private void cache(List<List<Object>> keys, List<T> values) {
         for (int i = 0; i < keys.size(); i++) {
             cache.put(keys.get(i), values.get(i));
@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.state.map;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A backing map whose reads and writes complete asynchronously, so that a round trip to the store can overlap with other work. Use
+ * {@link PipelinedBackingMap} to plug it into the map states, and {@link AsyncBackingMapAdapter} to make an {@link IBackingMap} async.
+ *
+ * <p>A read issued after a write of the same key must observe the write only once the future of the write completed; the callers do not
+ * issue such reads while the write is in flight.
+ */
+public interface IAsyncBackingMap<T> {
+    /**
+     * Reads the values of the keys.
+     *
+     * @param keys the keys to read
+     * @return a future completing with the values in the order of the keys, null for the absent keys
+     */
+    CompletableFuture<List<T>> multiGetAsync(List<List<Object>> keys);
+
+    /**
+     * Writes the values of the keys.
+     *
+     * @param keys the keys to write
+     * @param vals the values, in the order of the keys
+     * @return a future completing once the values are durably written
+     */
+    CompletableFuture<Void> multiPutAsync(List<List<Object>> keys, List<T> vals);
+}
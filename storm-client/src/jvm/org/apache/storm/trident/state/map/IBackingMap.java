@@ -19,4 +19,12 @@ public interface IBackingMap<T> {
     List<T> multiGet(List<List<Object>> keys);
 
     void multiPut(List<List<Object>> keys, List<T> vals);
+
+    /**
+     * Waits for the writes issued by {@link #multiPut(List, List)} to complete. The map states invoke this when the batch is committed, so
+     * implementations that write asynchronously must not return before the writes of the batch are durable. Synchronous implementations
+     * need not override this.
+     */
+    default void flush() {
+    }
 }
@@ -15,6 +15,7 @@ package org.apache.storm.trident.state.map;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import org.apache.storm.Config;
 import org.apache.storm.trident.operation.CombinerAggregator;
 import org.apache.storm.trident.operation.TridentCollector;
 import org.apache.storm.trident.operation.TridentOperationContext;
@@ -26,6 +27,7 @@ import org.apache.storm.trident.tuple.TridentTuple;
 import org.apache.storm.trident.tuple.TridentTupleView.ProjectionFactory;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.ObjectReader;
 
 public class MapCombinerAggStateUpdater implements StateUpdater<MapState> {
     //ANY CHANGE TO THIS CODE MUST BE SERIALIZABLE COMPATIBLE OR THERE WILL BE PROBLEMS
@@ -37,6 +39,7 @@ public class MapCombinerAggStateUpdater implements StateUpdater<MapState> {
     transient ProjectionFactory groupFactory;
     transient ProjectionFactory inputFactory;
     ComboList.Factory factory;
+    transient int updateChunkSize;
 
     public MapCombinerAggStateUpdater(CombinerAggregator agg, Fields groupFields, Fields inputFields) {
         this.agg = agg;
@@ -58,7 +61,7 @@ public class MapCombinerAggStateUpdater implements StateUpdater<MapState> {
             groups.add(groupFactory.create(t));
             updaters.add(new CombinerValueUpdater(agg, inputFactory.create(t).getValue(0)));
         }
-        List<Object> newVals = map.multiUpdate(groups, updaters);
+        List<Object> newVals = multiUpdate(map, groups, updaters, updateChunkSize);
 
         for (int i = 0; i < tuples.size(); i++) {
             List<Object> key = groups.get(i);
@@ -71,10 +74,27 @@ public class MapCombinerAggStateUpdater implements StateUpdater<MapState> {
     public void prepare(Map<String, Object> conf, TridentOperationContext context) {
         groupFactory = context.makeProjectionFactory(groupFields);
         inputFactory = context.makeProjectionFactory(inputFields);
+        updateChunkSize = ObjectReader.getInt(conf.get(Config.TOPOLOGY_TRIDENT_STATE_UPDATE_CHUNK_SIZE), 0);
     }
 
     @Override
     public void cleanup() {
     }
 
+    /**
+     * Updates the keys in chunks of chunkSize, so that a map state over a {@link PipelinedBackingMap} reads the values of a chunk while the
+     * values of the previous chunk are being written. The keys must be distinct.
+     */
+    static List<Object> multiUpdate(MapState map, List<List<Object>> keys, List<ValueUpdater> updaters, int chunkSize) {
+        if (chunkSize <= 0 || keys.size() <= chunkSize) {
+            return map.multiUpdate(keys, updaters);
+        }
+        List<Object> ret = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, keys.size());
+            ret.addAll(map.multiUpdate(keys.subList(from, to), updaters.subList(from, to)));
+        }
+        return ret;
+    }
+
 }
@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.storm.Config;
 import org.apache.storm.trident.operation.ReducerAggregator;
 import org.apache.storm.trident.operation.TridentCollector;
 import org.apache.storm.trident.operation.TridentOperationContext;
@@ -27,6 +28,7 @@ import org.apache.storm.trident.tuple.TridentTuple;
 import org.apache.storm.trident.tuple.TridentTupleView.ProjectionFactory;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.ObjectReader;
 
 public class MapReducerAggStateUpdater implements StateUpdater<MapState> {
     //ANY CHANGE TO THIS CODE MUST BE SERIALIZABLE COMPATIBLE OR THERE WILL BE PROBLEMS
@@ -38,6 +40,7 @@ public class MapReducerAggStateUpdater implements StateUpdater<MapState> {
     transient ProjectionFactory groupFactory;
     transient ProjectionFactory inputFactory;
     ComboList.Factory factory;
+    transient int updateChunkSize;
 
     public MapReducerAggStateUpdater(ReducerAggregator agg, Fields groupFields, Fields inputFields) {
         this.agg = agg;
@@ -64,7 +67,7 @@ public class MapReducerAggStateUpdater implements StateUpdater<MapState> {
         for (List<Object> group : uniqueGroups) {
             updaters.add(new ReducerValueUpdater(agg, grouped.get(group)));
         }
-        List<Object> results = map.multiUpdate(uniqueGroups, updaters);
+        List<Object> results = MapCombinerAggStateUpdater.multiUpdate(map, uniqueGroups, updaters, updateChunkSize);
 
         for (int i = 0; i < uniqueGroups.size(); i++) {
             List<Object> group = uniqueGroups.get(i);
@@ -77,6 +80,7 @@ public class MapReducerAggStateUpdater implements StateUpdater<MapState> {
     public void prepare(Map<String, Object> conf, TridentOperationContext context) {
         groupFactory = context.makeProjectionFactory(groupFields);
         inputFactory = context.makeProjectionFactory(inputFields);
+        updateChunkSize = ObjectReader.getInt(conf.get(Config.TOPOLOGY_TRIDENT_STATE_UPDATE_CHUNK_SIZE), 0);
     }
 
     @Override
@@ -79,6 +79,11 @@ public class MicroBatchIBackingMap<T> implements IBackingMap<T> {
         return ret;
     }
 
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
     public static class Options implements Serializable {
         public int maxMultiGetBatchSize = 0; // 0 means delegate batch size = trident batch size.
         public int maxMultiPutBatchSize = 0;
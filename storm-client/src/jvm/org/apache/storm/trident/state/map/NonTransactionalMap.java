@@ -57,5 +57,6 @@ public class NonTransactionalMap<T> implements MapState<T> {
 
     @Override
     public void commit(Long txid) {
+        backing.flush();
     }
 }
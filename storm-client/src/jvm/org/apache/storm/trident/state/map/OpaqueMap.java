@@ -99,6 +99,7 @@ public class OpaqueMap<T> implements MapState<T> {
 
     @Override
     public void commit(Long txid) {
+        backing.flush();
         currTx = null;
         backing.reset();
     }
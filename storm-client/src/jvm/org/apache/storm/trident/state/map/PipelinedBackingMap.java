@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.state.map;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.apache.storm.topology.FailedException;
+
+/**
+ * An {@link IBackingMap} over an {@link IAsyncBackingMap} that does not wait for the writes. {@link #multiPut(List, List)} returns once
+ * the write is issued, and the values stay visible to {@link #multiGet(List)} until the write completes, so that the reads of the next
+ * keys of the batch overlap with the writes of the previous ones (see {@link MapCombinerAggStateUpdater}). {@link #flush()}, invoked by the
+ * map states on commit, waits for the writes of the batch, so a batch is never acked before its writes are durable.
+ *
+ * <p>A failed write fails the batch with a {@link FailedException} on the next call, and the pending values are dropped so that the
+ * replayed batch reads from the store. Instances are meant to be used by the single thread of the state.
+ */
+public class PipelinedBackingMap<T> implements IBackingMap<T> {
+    private final IAsyncBackingMap<T> delegate;
+    private final int maxPendingWrites;
+    private final Deque<PendingWrite<T>> pendingWrites = new ArrayDeque<>();
+    private final Map<List<Object>, T> pendingVals = new HashMap<>();
+
+    /**
+     * Creates a pipelined map allowing up to 16 writes in flight.
+     *
+     * @param delegate the async backing map
+     */
+    public PipelinedBackingMap(IAsyncBackingMap<T> delegate) {
+        this(delegate, 16);
+    }
+
+    /**
+     * Creates a pipelined map.
+     *
+     * @param delegate         the async backing map
+     * @param maxPendingWrites the number of writes in flight after which a write waits for the oldest one
+     */
+    public PipelinedBackingMap(IAsyncBackingMap<T> delegate, int maxPendingWrites) {
+        if (maxPendingWrites <= 0) {
+            throw new IllegalArgumentException("maxPendingWrites must be positive [" + maxPendingWrites + "]");
+        }
+        this.delegate = delegate;
+        this.maxPendingWrites = maxPendingWrites;
+    }
+
+    @Override
+    public List<T> multiGet(List<List<Object>> keys) {
+        completeWrites(false);
+        List<T> ret = new ArrayList<>(keys.size());
+        List<List<Object>> missing = new ArrayList<>();
+        List<Integer> missingIdx = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            List<Object> key = keys.get(i);
+            T val = pendingVals.get(key);
+            if (val == null && !pendingVals.containsKey(key)) {
+                missing.add(key);
+                missingIdx.add(i);
+            }
+            ret.add(val);
+        }
+        if (!missing.isEmpty()) {
+            List<T> vals = join(delegate.multiGetAsync(missing));
+            for (int i = 0; i < missing.size(); i++) {
+                ret.set(missingIdx.get(i), vals.get(i));
+            }
+        }
+        return ret;
+    }
+
+    @Override
+    public void multiPut(List<List<Object>> keys, List<T> vals) {
+        completeWrites(false);
+        PendingWrite<T> write = new PendingWrite<>(new ArrayList<>(keys), new ArrayList<>(vals));
+        for (int i = 0; i < write.keys.size(); i++) {
+            pendingVals.put(write.keys.get(i), write.vals.get(i));
+        }
+        write.future = delegate.multiPutAsync(write.keys, write.vals);
+        pendingWrites.addLast(write);
+        while (pendingWrites.size() > maxPendingWrites) {
+            complete(pendingWrites.peekFirst());
+        }
+    }
+
+    @Override
+    public void flush() {
+        completeWrites(true);
+    }
+
+    /**
+     * Returns the number of writes in flight.
+     */
+    public int getPendingWriteCount() {
+        return pendingWrites.size();
+    }
+
+    private void completeWrites(boolean wait) {
+        while (!pendingWrites.isEmpty() && (wait || pendingWrites.peekFirst().future.isDone())) {
+            complete(pendingWrites.peekFirst());
+        }
+    }
+
+    private void complete(PendingWrite<T> write) {
+        try {
+            write.future.join();
+        } catch (CompletionException | CancellationException e) {
+            failWrites();
+            throw new FailedException("Write to the backing map failed", e.getCause() != null ? e.getCause() : e);
+        }
+        pendingWrites.pollFirst();
+        for (int i = 0; i < write.keys.size(); i++) {
+            List<Object> key = write.keys.get(i);
+            // a later write of the key keeps its value visible
+            if (pendingVals.get(key) == write.vals.get(i)) {
+                pendingVals.remove(key);
+            }
+        }
+    }
+
+    private void failWrites() {
+        // wait for the other writes so that they do not race with the writes of the replayed batch
+        for (PendingWrite<T> write : pendingWrites) {
+            try {
+                write.future.join();
+            } catch (RuntimeException e) {
+                // already failing the batch
+            }
+        }
+        pendingWrites.clear();
+        pendingVals.clear();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static class PendingWrite<T> {
+        private final List<List<Object>> keys;
+        private final List<T> vals;
+        private CompletableFuture<Void> future;
+
+        PendingWrite(List<List<Object>> keys, List<T> vals) {
+            this.keys = keys;
+            this.vals = vals;
+        }
+    }
+}
@@ -97,6 +97,7 @@ public class TransactionalMap<T> implements MapState<T> {
 
     @Override
     public void commit(Long txid) {
+        backing.flush();
         currTx = null;
         backing.reset();
     }
@@ -0,0 +1,85 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.topology;
+
+/**
+ * Adapts the size of the Trident batches to a target batch latency. After each committed batch the size is scaled by the square root of
+ * the ratio between the target and the smoothed observed latency, within a factor of 2 per batch, so that the size converges without
+ * oscillating when several batches are pipelined. Latencies within 10% of the target leave the size unchanged.
+ */
+public class BatchSizeController {
+    private static final double SMOOTHING = 0.5;
+    private static final double DEADBAND = 0.1;
+    private static final double MAX_STEP = 2.0;
+    private final long targetLatencyMs;
+    private final int minSize;
+    private final int maxSize;
+    private double size;
+    private double smoothedLatencyMs = -1;
+
+    /**
+     * Creates a controller starting at the minimum batch size.
+     *
+     * @param targetLatencyMs the target latency of a batch, from the emit of the batch to its commit
+     * @param minSize         the minimum batch size
+     * @param maxSize         the maximum batch size
+     */
+    public BatchSizeController(long targetLatencyMs, int minSize, int maxSize) {
+        if (targetLatencyMs <= 0) {
+            throw new IllegalArgumentException("targetLatencyMs must be positive [" + targetLatencyMs + "]");
+        }
+        if (minSize <= 0 || maxSize < minSize) {
+            throw new IllegalArgumentException("Invalid batch size bounds [" + minSize + ", " + maxSize + "]");
+        }
+        this.targetLatencyMs = targetLatencyMs;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.size = minSize;
+    }
+
+    /**
+     * Returns the size of the next batches.
+     */
+    public int getBatchSize() {
+        return (int) Math.round(size);
+    }
+
+    /**
+     * Records the latency of a committed batch and adapts the batch size.
+     *
+     * @param latencyMs the latency of the batch, from its emit to its commit
+     */
+    public void onBatchCommitted(long latencyMs) {
+        if (smoothedLatencyMs < 0) {
+            smoothedLatencyMs = latencyMs;
+        } else {
+            smoothedLatencyMs = SMOOTHING * latencyMs + (1 - SMOOTHING) * smoothedLatencyMs;
+        }
+        double ratio = targetLatencyMs / Math.max(1.0, smoothedLatencyMs);
+        if (Math.abs(ratio - 1) <= DEADBAND) {
+            return;
+        }
+        double step = Math.max(1 / MAX_STEP, Math.min(MAX_STEP, Math.sqrt(ratio)));
+        size = Math.max(minSize, Math.min(maxSize, size * step));
+    }
+
+    @Override
+    public String toString() {
+        return "BatchSizeController{"
+                + "targetLatencyMs=" + targetLatencyMs
+                + ", size=" + getBatchSize()
+                + ", smoothedLatencyMs=" + smoothedLatencyMs
+                + '}';
+    }
+}
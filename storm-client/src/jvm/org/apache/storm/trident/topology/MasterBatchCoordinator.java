@@ -12,12 +12,14 @@
 
 package org.apache.storm.trident.topology;
 
+import com.codahale.metrics.Timer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import org.apache.storm.Config;
 import org.apache.storm.spout.SpoutOutputCollector;
 import org.apache.storm.task.TopologyContext;
@@ -27,6 +29,8 @@ import org.apache.storm.trident.spout.ITridentSpout;
 import org.apache.storm.trident.topology.state.TransactionalState;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.ObjectReader;
+import org.apache.storm.utils.Time;
 import org.apache.storm.utils.WindowedTimeThrottler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +56,8 @@ public class MasterBatchCoordinator extends BaseRichSpout {
     List<ITridentSpout> spouts;
     WindowedTimeThrottler throttler;
     boolean active = true;
+    BatchSizeController batchSizeController;
+    private Timer batchLatency;
     private List<TransactionalState> states = new ArrayList();
     private SpoutOutputCollector collector;
 
@@ -100,6 +106,15 @@ public class MasterBatchCoordinator extends BaseRichSpout {
             String txId = managedSpoutIds.get(i);
             coordinators.add(spouts.get(i).getCoordinator(txId, conf, context));
         }
+
+        Number targetLatency = (Number) conf.get(Config.TOPOLOGY_TRIDENT_BATCH_TARGET_LATENCY_MILLIS);
+        if (targetLatency != null) {
+            batchSizeController = new BatchSizeController(targetLatency.longValue(),
+                                                          ObjectReader.getInt(conf.get(Config.TOPOLOGY_TRIDENT_BATCH_MIN_SIZE), 1),
+                                                          ObjectReader.getInt(conf.get(Config.TOPOLOGY_TRIDENT_BATCH_MAX_SIZE), 10000));
+            context.registerGauge("trident.batchSize", () -> batchSizeController.getBatchSize());
+        }
+        batchLatency = context.registerTimer("trident.batchLatency");
         LOG.debug("Opened {}", this);
     }
 
@@ -126,6 +141,11 @@ public class MasterBatchCoordinator extends BaseRichSpout {
                 status.status = AttemptStatus.PROCESSED;
                 LOG.debug("Changed status. [tx_attempt = {}] [tx_status = {}]", tx, status);
             } else if (status.status == AttemptStatus.COMMITTING) {
+                long latencyMs = Time.currentTimeMillis() - status.startTimeMs;
+                batchLatency.update(latencyMs, TimeUnit.MILLISECONDS);
+                if (batchSizeController != null) {
+                    batchSizeController.onBatchCommitted(latencyMs);
+                }
                 activeTx.remove(tx.getTransactionId());
                 attemptIds.remove(tx.getTransactionId());
                 collector.emit(SUCCESS_STREAM_ID, new Values(tx));
@@ -190,7 +210,8 @@ public class MasterBatchCoordinator extends BaseRichSpout {
                             state.setData(CURRENT_ATTEMPTS, attemptIds);
                         }
 
-                        TransactionAttempt attempt = new TransactionAttempt(curr, attemptId);
+                        TransactionAttempt attempt = new TransactionAttempt(curr, attemptId,
+                            batchSizeController == null ? null : batchSizeController.getBatchSize());
                         final TransactionStatus newTransactionStatus = new TransactionStatus(attempt);
                         activeTx.put(curr, newTransactionStatus);
                         collector.emit(BATCH_STREAM_ID, new Values(attempt), attempt);
@@ -282,6 +303,7 @@ public class MasterBatchCoordinator extends BaseRichSpout {
                 + ", managedSpoutIds=" + managedSpoutIds
                 + ", spouts=" + spouts
                 + ", throttler=" + throttler
+                + ", batchSizeController=" + batchSizeController
                 + ", active=" + active
                 + "}";
     }
@@ -295,10 +317,12 @@ public class MasterBatchCoordinator extends BaseRichSpout {
     private static class TransactionStatus {
         TransactionAttempt attempt;
         AttemptStatus status;
+        long startTimeMs;
 
         TransactionStatus(TransactionAttempt attempt) {
             this.attempt = attempt;
             this.status = AttemptStatus.PROCESSING;
+            this.startTimeMs = Time.currentTimeMillis();
         }
 
         @Override
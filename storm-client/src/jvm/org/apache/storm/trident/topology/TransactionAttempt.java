@@ -18,6 +18,7 @@ import org.apache.storm.trident.spout.IBatchID;
 public class TransactionAttempt implements IBatchID {
     Long txid;
     int attemptId;
+    Integer batchSizeHint;
 
 
     // for kryo compatibility
@@ -30,6 +31,11 @@ public class TransactionAttempt implements IBatchID {
         this.attemptId = attemptId;
     }
 
+    public TransactionAttempt(Long txid, int attemptId, Integer batchSizeHint) {
+        this(txid, attemptId);
+        this.batchSizeHint = batchSizeHint;
+    }
+
     public Long getTransactionId() {
         return txid;
     }
@@ -44,6 +50,15 @@ public class TransactionAttempt implements IBatchID {
         return attemptId;
     }
 
+    /**
+     * Returns the number of tuples the emitters should emit at most for a new batch, as computed by the {@link MasterBatchCoordinator}
+     * from the observed batch latencies, or null when the adaptive batch sizing is disabled. Partitioned emitters apply it per partition.
+     * The hint does not apply to the replays of a batch, which must emit the same tuples.
+     */
+    public Integer getBatchSizeHint() {
+        return batchSizeHint;
+    }
+
     @Override
     public int hashCode() {
         return txid.hashCode();
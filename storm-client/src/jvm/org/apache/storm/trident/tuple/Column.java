@@ -0,0 +1,268 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.tuple;
+
+import java.util.Arrays;
+
+/**
+ * The values of a field for the rows of a {@link ColumnBatch}. The columns of Long, Integer and Double values are stored in primitive
+ * arrays, which {@link #getLong(int)} and {@link #getDouble(int)} read without boxing; {@link #get(int)} always returns the values with
+ * their original type.
+ */
+public abstract class Column {
+
+    /**
+     * Returns the number of rows.
+     */
+    public abstract int size();
+
+    /**
+     * Returns the value of the row.
+     */
+    public abstract Object get(int row);
+
+    /**
+     * Returns the value of the row as a long, the value must be a {@link Number}.
+     */
+    public long getLong(int row) {
+        return ((Number) get(row)).longValue();
+    }
+
+    /**
+     * Returns the value of the row as a double, the value must be a {@link Number}.
+     */
+    public double getDouble(int row) {
+        return ((Number) get(row)).doubleValue();
+    }
+
+    public static Column ofLongs(long[] values) {
+        return new LongColumn(values, values.length);
+    }
+
+    public static Column ofDoubles(double[] values) {
+        return new DoubleColumn(values, values.length);
+    }
+
+    public static Column ofObjects(Object[] values) {
+        return new ObjectColumn(values, values.length);
+    }
+
+    private static void checkRow(int row, int size) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of [0, " + size + ")");
+        }
+    }
+
+    public static class LongColumn extends Column {
+        private final long[] values;
+        private final int size;
+
+        LongColumn(long[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object get(int row) {
+            return getLong(row);
+        }
+
+        @Override
+        public long getLong(int row) {
+            checkRow(row, size);
+            return values[row];
+        }
+
+        @Override
+        public double getDouble(int row) {
+            return getLong(row);
+        }
+    }
+
+    public static class IntColumn extends Column {
+        private final int[] values;
+        private final int size;
+
+        IntColumn(int[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object get(int row) {
+            checkRow(row, size);
+            return values[row];
+        }
+
+        @Override
+        public long getLong(int row) {
+            checkRow(row, size);
+            return values[row];
+        }
+
+        @Override
+        public double getDouble(int row) {
+            return getLong(row);
+        }
+    }
+
+    public static class DoubleColumn extends Column {
+        private final double[] values;
+        private final int size;
+
+        DoubleColumn(double[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object get(int row) {
+            return getDouble(row);
+        }
+
+        @Override
+        public long getLong(int row) {
+            return (long) getDouble(row);
+        }
+
+        @Override
+        public double getDouble(int row) {
+            checkRow(row, size);
+            return values[row];
+        }
+    }
+
+    public static class ObjectColumn extends Column {
+        private final Object[] values;
+        private final int size;
+
+        ObjectColumn(Object[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object get(int row) {
+            checkRow(row, size);
+            return values[row];
+        }
+    }
+
+    /**
+     * Builds a column, using a primitive array as long as all the values are non null Longs, Integers or Doubles, and falling back to an
+     * object array otherwise.
+     */
+    public static class Builder {
+        private long[] longs;
+        private int[] ints;
+        private double[] doubles;
+        private Object[] objects;
+        private int size;
+        private int capacity;
+
+        public Builder(int capacity) {
+            this.capacity = Math.max(1, capacity);
+        }
+
+        public Builder add(Object value) {
+            if (longs == null && ints == null && doubles == null && objects == null) {
+                if (value instanceof Long) {
+                    longs = new long[capacity];
+                } else if (value instanceof Integer) {
+                    ints = new int[capacity];
+                } else if (value instanceof Double) {
+                    doubles = new double[capacity];
+                } else {
+                    objects = new Object[capacity];
+                }
+            }
+            ensureCapacity();
+            if (longs != null && value instanceof Long) {
+                longs[size++] = (Long) value;
+            } else if (ints != null && value instanceof Integer) {
+                ints[size++] = (Integer) value;
+            } else if (doubles != null && value instanceof Double) {
+                doubles[size++] = (Double) value;
+            } else {
+                if (objects == null) {
+                    toObjects();
+                }
+                objects[size++] = value;
+            }
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Column build() {
+            if (longs != null) {
+                return new LongColumn(longs, size);
+            } else if (ints != null) {
+                return new IntColumn(ints, size);
+            } else if (doubles != null) {
+                return new DoubleColumn(doubles, size);
+            }
+            return new ObjectColumn(objects == null ? new Object[0] : objects, size);
+        }
+
+        private void ensureCapacity() {
+            if (size < capacity) {
+                return;
+            }
+            capacity *= 2;
+            if (longs != null) {
+                longs = Arrays.copyOf(longs, capacity);
+            } else if (ints != null) {
+                ints = Arrays.copyOf(ints, capacity);
+            } else if (doubles != null) {
+                doubles = Arrays.copyOf(doubles, capacity);
+            } else {
+                objects = Arrays.copyOf(objects, capacity);
+            }
+        }
+
+        private void toObjects() {
+            Column current = build();
+            objects = new Object[capacity];
+            for (int i = 0; i < size; i++) {
+                objects[i] = current.get(i);
+            }
+            longs = null;
+            ints = null;
+            doubles = null;
+        }
+    }
+}
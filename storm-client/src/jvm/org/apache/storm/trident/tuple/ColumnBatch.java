@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.storm.tuple.Fields;
+
+/**
+ * A slice of the tuples of a batch in columnar form, one {@link Column} per field. The vectorized operations process a whole slice at
+ * once instead of a {@link TridentTuple} at a time.
+ */
+public class ColumnBatch {
+    private final Fields fields;
+    private final Column[] columns;
+    private final int size;
+
+    public ColumnBatch(Fields fields, Column[] columns, int size) {
+        if (fields.size() != columns.length) {
+            throw new IllegalArgumentException("Expected " + fields.size() + " columns, got " + columns.length);
+        }
+        for (Column column : columns) {
+            if (column.size() != size) {
+                throw new IllegalArgumentException("Column size " + column.size() + " does not match the batch size " + size);
+            }
+        }
+        this.fields = fields;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * Creates a batch with the single row of the tuple.
+     */
+    public static ColumnBatch of(TridentTuple tuple) {
+        Column[] columns = new Column[tuple.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column.Builder(1).add(tuple.getValue(i)).build();
+        }
+        return new ColumnBatch(tuple.getFields(), columns, 1);
+    }
+
+    /**
+     * Creates a batch with the given projection of the tuples.
+     *
+     * @param projection the projection of the fields of the batch
+     * @param tuples     the tuples
+     * @param from       the index of the first tuple, inclusive
+     * @param to         the index of the last tuple, exclusive
+     */
+    public static ColumnBatch of(TridentTupleView.ProjectionFactory projection, List<TridentTuple> tuples, int from, int to) {
+        List<String> fieldNames = projection.getOutputFields();
+        Column[] columns = new Column[fieldNames.size()];
+        for (int i = 0; i < columns.length; i++) {
+            Column.Builder builder = new Column.Builder(to - from);
+            for (int row = from; row < to; row++) {
+                builder.add(projection.getValue(tuples.get(row), i));
+            }
+            columns[i] = builder.build();
+        }
+        return new ColumnBatch(new Fields(fieldNames), columns, to - from);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Fields getFields() {
+        return fields;
+    }
+
+    public Column getColumn(int i) {
+        return columns[i];
+    }
+
+    public Column getColumn(String field) {
+        return columns[fields.fieldIndex(field)];
+    }
+
+    /**
+     * Returns the values of the row, for the row oriented code.
+     */
+    public List<Object> getRow(int row) {
+        List<Object> ret = new ArrayList<>(columns.length);
+        for (Column column : columns) {
+            ret.add(column.get(row));
+        }
+        return ret;
+    }
+}
@@ -222,6 +222,13 @@ public class TridentTupleView extends AbstractList<Object> implements TridentTup
             }
         }
 
+        /**
+         * Returns the value of the i-th projected field of the parent tuple, without creating the projected tuple.
+         */
+        public Object getValue(TridentTuple parent, int i) {
+            return ((TridentTupleView) parent).getValueByPointer(index[i]);
+        }
+
         @Override
         public Map<String, ValuePointer> getFieldIndex() {
             return fieldIndex;
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.util;
+
+/**
+ * A bounded cache used by {@link org.apache.storm.trident.state.map.CachedMap}. Null values can be cached, to remember the keys that are
+ * absent in the backing store. The implementations need not be thread safe.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public interface ICache<K, V> {
+
+    /**
+     * Returns true if the key is cached. This records the access of the key and a cache hit or miss.
+     *
+     * @param key the key
+     * @return true if the key is cached, false otherwise
+     */
+    boolean containsKey(K key);
+
+    /**
+     * Returns the cached value, without recording the access.
+     *
+     * @param key the key
+     * @return the cached value or null if the key is not cached
+     */
+    V get(K key);
+
+    /**
+     * Caches the value. The cache may decline to cache a new key, or evict other keys to make room for it.
+     *
+     * @param key   the key
+     * @param value the value, which can be null
+     */
+    void put(K key, V value);
+
+    /**
+     * Returns the number of cached entries.
+     */
+    int size();
+
+    /**
+     * Returns the number of lookups of cached keys.
+     */
+    long hitCount();
+
+    /**
+     * Returns the number of lookups of keys that were not cached.
+     */
+    long missCount();
+
+    /**
+     * Returns the number of entries evicted or expired from the cache.
+     */
+    long evictionCount();
+}
@@ -0,0 +1,399 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.storm.utils.Time;
+
+/**
+ * A scan resistant {@link ICache} based on the W-TinyLFU policy. New entries are admitted to a small LRU window, and an entry leaving the
+ * window is admitted to the main segmented LRU only if it was accessed more frequently than the entry that would be evicted for it. The
+ * access frequencies are approximated with a count-min sketch that is periodically aged. So a burst of keys that are used only once, like a
+ * batch of cold keys, passes through the window without flushing the frequently used keys.
+ *
+ * <p>The cache is bounded by the total weight of the entries, where each entry weighs 1 unless a {@link Weigher} is given. The entries can
+ * optionally expire after a fixed duration from when they were written. With the admission disabled, the cache is a plain LRU cache.
+ *
+ * <p>This class is not thread safe.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class TinyLfuCache<K, V> implements ICache<K, V> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final long maximumWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final long expireAfterWriteMillis;
+    private final boolean admission;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final FrequencySketch sketch;
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> protectedDeque = new AccessOrderDeque<>();
+    // entries moved from the window to probation that are yet to be admitted
+    private final List<Node<K, V>> candidates = new ArrayList<>();
+    private long windowWeight;
+    private long protectedWeight;
+    private long totalWeight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumWeight          the maximum total weight of the entries, 0 to cache nothing
+     * @param weigher                the weigher of the entries, or null if each entry weighs 1
+     * @param expireAfterWriteMillis the duration after which the entries expire from when they were written, or 0 if they do not expire
+     * @param admission              true to use the TinyLFU admission, false for a plain LRU cache
+     */
+    public TinyLfuCache(long maximumWeight, Weigher<? super K, ? super V> weigher, long expireAfterWriteMillis, boolean admission) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("maximumWeight must not be negative");
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.admission = admission;
+        if (admission) {
+            windowMaximum = Math.max(1, maximumWeight / 100);
+            protectedMaximum = (maximumWeight - windowMaximum) * 8 / 10;
+            sketch = new FrequencySketch(Math.min(maximumWeight, 1 << 22));
+        } else {
+            windowMaximum = maximumWeight;
+            protectedMaximum = 0;
+            sketch = null;
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        Node<K, V> node = data.get(key);
+        if (node != null && isExpired(node)) {
+            evict(node);
+            node = null;
+        }
+        if (node == null) {
+            // the access is counted in the sketch when the value is put
+            misses++;
+            return false;
+        }
+        hits++;
+        onAccess(node);
+        return true;
+    }
+
+    @Override
+    public V get(K key) {
+        Node<K, V> node = data.get(key);
+        return node == null || isExpired(node) ? null : node.value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        long weight = weigh(key, value);
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            final long delta = weight - node.weight;
+            node.value = value;
+            node.weight = weight;
+            node.writeTime = currentTime();
+            totalWeight += delta;
+            if (node.queue == WINDOW) {
+                windowWeight += delta;
+            } else if (node.queue == PROTECTED) {
+                protectedWeight += delta;
+            }
+            onAccess(node);
+        } else {
+            node = new Node<>(key, value, weight, currentTime());
+            data.put(key, node);
+            if (sketch != null) {
+                sketch.increment(key);
+            }
+            window.addLast(node);
+            windowWeight += weight;
+            totalWeight += weight;
+        }
+        evictEntries();
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public long hitCount() {
+        return hits;
+    }
+
+    @Override
+    public long missCount() {
+        return misses;
+    }
+
+    @Override
+    public long evictionCount() {
+        return evictions;
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (sketch != null) {
+            sketch.increment(node.key);
+        }
+        if (node.queue == WINDOW) {
+            window.moveToLast(node);
+        } else if (node.queue == PROBATION) {
+            // promote to the protected segment, demoting the least recently used protected entries
+            probation.remove(node);
+            candidates.remove(node);
+            node.queue = PROTECTED;
+            protectedDeque.addLast(node);
+            protectedWeight += node.weight;
+            while (protectedWeight > protectedMaximum && protectedDeque.first() != node) {
+                Node<K, V> demoted = protectedDeque.first();
+                protectedDeque.remove(demoted);
+                protectedWeight -= demoted.weight;
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protectedDeque.moveToLast(node);
+        }
+    }
+
+    private void evictEntries() {
+        while (windowWeight > windowMaximum && window.first() != null) {
+            Node<K, V> node = window.first();
+            window.remove(node);
+            windowWeight -= node.weight;
+            node.queue = PROBATION;
+            probation.addLast(node);
+            candidates.add(node);
+        }
+        while (totalWeight > maximumWeight) {
+            Node<K, V> victim = probation.first();
+            if (victim == null) {
+                victim = protectedDeque.first() != null ? protectedDeque.first() : window.first();
+            }
+            Node<K, V> candidate = candidates.isEmpty() ? null : candidates.get(candidates.size() - 1);
+            Node<K, V> toEvict = victim;
+            if (admission && candidate != null && !candidates.contains(victim)
+                && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                toEvict = candidate;
+            }
+            evict(toEvict);
+        }
+        candidates.clear();
+    }
+
+    private void evict(Node<K, V> node) {
+        if (node.queue == WINDOW) {
+            window.remove(node);
+            windowWeight -= node.weight;
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+            candidates.remove(node);
+        } else {
+            protectedDeque.remove(node);
+            protectedWeight -= node.weight;
+        }
+        data.remove(node.key);
+        totalWeight -= node.weight;
+        evictions++;
+    }
+
+    private boolean isExpired(Node<K, V> node) {
+        return expireAfterWriteMillis > 0 && currentTime() - node.writeTime >= expireAfterWriteMillis;
+    }
+
+    private long currentTime() {
+        return expireAfterWriteMillis > 0 ? Time.currentTimeMillis() : 0L;
+    }
+
+    private long weigh(K key, V value) {
+        if (weigher == null) {
+            return 1;
+        }
+        long weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight " + weight + " for key " + key);
+        }
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "TinyLfuCache{"
+                + "size=" + data.size()
+                + ", weight=" + totalWeight
+                + ", maximumWeight=" + maximumWeight
+                + ", hits=" + hits
+                + ", misses=" + misses
+                + ", evictions=" + evictions
+                + '}';
+    }
+
+    /**
+     * Computes the weight of the cache entries.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    public interface Weigher<K, V> extends Serializable {
+        /**
+         * Returns the non-negative weight of the entry.
+         *
+         * @param key   the key
+         * @param value the value, which can be null
+         * @return the weight
+         */
+        long weigh(K key, V value);
+    }
+
+    private static class Node<K, V> {
+        private final K key;
+        private V value;
+        private long weight;
+        private long writeTime;
+        private int queue = WINDOW;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        Node(K key, V value, long weight, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+        }
+    }
+
+    // a doubly linked list of the nodes, ordered from the least to the most recently used
+    private static class AccessOrderDeque<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+
+        Node<K, V> first() {
+            return head;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (tail != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+
+    // a count-min sketch of 4 bit counters that are halved periodically, so that the frequencies reflect the recent accesses
+    private static class FrequencySketch {
+        private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(long expectedEntries) {
+            int entries = (int) Math.max(16, expectedEntries);
+            // 4 counters per entry in each row, to keep the collisions low
+            int width = Integer.highestOneBit(4 * entries - 1) << 1;
+            table = new byte[SEEDS.length][width];
+            mask = width - 1;
+            sampleSize = 10 * entries;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key);
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = indexOf(hash, i);
+                if (table[i][index] < MAX_COUNT) {
+                    table[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key);
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, table[i][indexOf(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private int indexOf(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & mask;
+        }
+
+        private static int spread(Object key) {
+            int h = key == null ? 0 : key.hashCode() * 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
@@ -59,9 +59,24 @@ public class InMemoryWindowsStore implements WindowsStore, Serializable {
 
     @Override
     public Iterable<Object> get(List<String> keys) {
-        List<Object> values = new ArrayList<>();
+        List<Object> values = new ArrayList<>(keys.size());
+        List<Integer> missingIndexes = new ArrayList<>();
+        List<String> missingKeys = new ArrayList<>();
         for (String key : keys) {
-            values.add(get(key));
+            Object value = store.get(key);
+            if (value == null && backingStore != null) {
+                missingIndexes.add(values.size());
+                missingKeys.add(key);
+            }
+            values.add(value);
+        }
+
+        // fetch the missing values from the backing store in one batch instead of one call per key
+        if (!missingKeys.isEmpty()) {
+            Iterator<Object> missingValues = backingStore.get(missingKeys).iterator();
+            for (int index : missingIndexes) {
+                values.set(index, missingValues.next());
+            }
         }
         return values;
     }
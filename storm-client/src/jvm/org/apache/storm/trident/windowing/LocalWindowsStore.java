@@ -0,0 +1,423 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.windowing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.storm.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code WindowsStore} that keeps the recently added entries in memory and spills the older entries to append-only segment files in a
+ * local directory. This lets large windows to be held without an external store like HBase.
+ *
+ * <p>The values are serialized with {@link WindowKryoSerializer} only when they are spilled. The index of the spilled entries is kept in
+ * memory, and {@link #get(List)} reads the spilled values of a batch ordered by their location, coalescing the adjacent values into a
+ * single read. A segment is deleted once all its entries are removed, and the live entries of a segment are compacted into the active
+ * segment once most of its entries are removed, which reclaims the space of the expired windows.
+ *
+ * <p>The store is local to the worker and is not recovered after a restart, the directory is cleared when the store is created and deleted
+ * on {@link #shutdown()}.
+ */
+public class LocalWindowsStore implements WindowsStore {
+    private static final Logger LOG = LoggerFactory.getLogger(LocalWindowsStore.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    // a segment is compacted when the live bytes fall below this fraction of its size
+    private static final double COMPACTION_THRESHOLD = 0.5;
+    // spilled values of a batch read that are at most this many bytes apart are read together
+    private static final int MAX_READ_GAP_BYTES = 4096;
+
+    private final transient WindowKryoSerializer serializer;
+    private final transient File directory;
+    private final int maxHotEntries;
+    private final long maxSegmentBytes;
+    // recently added entries, in insertion order
+    private final transient LinkedHashMap<String, Object> hot = new LinkedHashMap<>();
+    // locations of the spilled entries
+    private final transient Map<String, Location> index = new HashMap<>();
+    private final transient Map<Integer, Segment> segments = new HashMap<>();
+    private transient Segment activeSegment;
+    private int nextSegmentId;
+
+    /**
+     * Creates a store that spills to segment files in the given directory.
+     *
+     * @param topoConf        the topology config used for the kryo serialization of the values
+     * @param directory       the directory for the segment files, which is cleared
+     * @param maxHotEntries   the maximum number of entries kept in memory
+     * @param maxSegmentBytes the size in bytes after which a new segment file is started
+     */
+    public LocalWindowsStore(Map<String, Object> topoConf, File directory, int maxHotEntries, long maxSegmentBytes) {
+        if (maxHotEntries <= 0) {
+            throw new IllegalArgumentException("maxHotEntries must be greater than 0");
+        }
+        if (maxSegmentBytes <= 0) {
+            throw new IllegalArgumentException("maxSegmentBytes must be greater than 0");
+        }
+        this.serializer = new WindowKryoSerializer(topoConf);
+        this.directory = directory;
+        this.maxHotEntries = maxHotEntries;
+        this.maxSegmentBytes = maxSegmentBytes;
+        try {
+            if (directory.exists()) {
+                Utils.forceDelete(directory.getPath());
+            }
+            Files.createDirectories(directory.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the windows store directory " + directory, e);
+        }
+        LOG.info("Created local windows store in {} with maxHotEntries {} and maxSegmentBytes {}", directory, maxHotEntries,
+                 maxSegmentBytes);
+    }
+
+    @Override
+    public synchronized Object get(String key) {
+        Object value = hot.get(key);
+        if (value == null) {
+            Location location = index.get(key);
+            if (location != null) {
+                value = deserialize(read(location.segment, location.offset, location.length));
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized Iterable<Object> get(List<String> keys) {
+        Object[] values = new Object[keys.size()];
+        List<Integer> spilled = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Object value = hot.get(keys.get(i));
+            if (value != null) {
+                values[i] = value;
+            } else if (index.containsKey(keys.get(i))) {
+                spilled.add(i);
+            }
+        }
+        if (!spilled.isEmpty()) {
+            readSpilled(keys, spilled, values);
+        }
+        return Arrays.asList(values);
+    }
+
+    @Override
+    public synchronized Iterable<String> getAllKeys() {
+        List<String> keys = new ArrayList<>(hot.size() + index.size());
+        keys.addAll(hot.keySet());
+        keys.addAll(index.keySet());
+        return keys;
+    }
+
+    @Override
+    public synchronized void put(String key, Object value) {
+        WindowsStore.Entry.nonNullCheckForKey(key);
+        WindowsStore.Entry.nonNullCheckForValue(value);
+        put0(key, value);
+        spillIfRequired();
+    }
+
+    @Override
+    public synchronized void putAll(Collection<Entry> entries) {
+        for (Entry entry : entries) {
+            put0(entry.key, entry.value);
+        }
+        spillIfRequired();
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        remove0(key);
+    }
+
+    @Override
+    public synchronized void removeAll(Collection<String> keys) {
+        for (String key : keys) {
+            remove0(key);
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+        segments.clear();
+        index.clear();
+        hot.clear();
+        activeSegment = null;
+        try {
+            Utils.forceDelete(directory.getPath());
+        } catch (IOException e) {
+            LOG.warn("Could not delete the windows store directory {}", directory, e);
+        }
+    }
+
+    // for unit tests
+    synchronized int getSpilledCount() {
+        return index.size();
+    }
+
+    // for unit tests
+    synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    private void put0(String key, Object value) {
+        removeSpilled(key);
+        // re-insert so that the entry is the most recent one
+        hot.remove(key);
+        hot.put(key, value);
+    }
+
+    private void remove0(String key) {
+        if (hot.remove(key) == null) {
+            removeSpilled(key);
+        }
+    }
+
+    private void removeSpilled(String key) {
+        Location location = index.remove(key);
+        if (location != null) {
+            Segment segment = location.segment;
+            segment.keys.remove(key);
+            segment.liveBytes -= location.length;
+            if (segment != activeSegment) {
+                if (segment.keys.isEmpty()) {
+                    deleteSegment(segment);
+                } else if (segment.liveBytes < segment.size * COMPACTION_THRESHOLD) {
+                    compact(segment);
+                }
+            }
+        }
+    }
+
+    // spills the oldest entries in one write once the hot tier is full, leaving room for a quarter of the entries
+    private void spillIfRequired() {
+        if (hot.size() <= maxHotEntries) {
+            return;
+        }
+        int toSpill = hot.size() - maxHotEntries + maxHotEntries / 4;
+        List<String> keys = new ArrayList<>(toSpill);
+        List<byte[]> values = new ArrayList<>(toSpill);
+        Iterator<Map.Entry<String, Object>> it = hot.entrySet().iterator();
+        while (it.hasNext() && keys.size() < toSpill) {
+            Map.Entry<String, Object> entry = it.next();
+            keys.add(entry.getKey());
+            values.add(serializer.serialize(entry.getValue()));
+            it.remove();
+        }
+        append(keys, values);
+        LOG.debug("Spilled {} entries, spilled entries {}", keys.size(), index.size());
+    }
+
+    private void append(List<String> keys, List<byte[]> values) {
+        int start = 0;
+        while (start < keys.size()) {
+            Segment segment = getActiveSegment();
+            int end = start;
+            long bytes = 0;
+            // fill the active segment, with at least one value per segment
+            while (end < keys.size() && (end == start || segment.size + bytes + values.get(end).length <= maxSegmentBytes)) {
+                bytes += values.get(end++).length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) bytes);
+            for (int i = start; i < end; i++) {
+                byte[] value = values.get(i);
+                index.put(keys.get(i), new Location(segment, segment.size + buffer.position(), value.length));
+                segment.keys.add(keys.get(i));
+                buffer.put(value);
+            }
+            buffer.flip();
+            segment.write(buffer);
+            segment.liveBytes += bytes;
+            start = end;
+        }
+    }
+
+    private Segment getActiveSegment() {
+        if (activeSegment == null || activeSegment.size >= maxSegmentBytes) {
+            Segment previous = activeSegment;
+            int id = nextSegmentId++;
+            activeSegment = new Segment(id, new File(directory, SEGMENT_PREFIX + id));
+            segments.put(activeSegment.id, activeSegment);
+            if (previous != null && previous.keys.isEmpty()) {
+                deleteSegment(previous);
+            }
+        }
+        return activeSegment;
+    }
+
+    // moves the live entries of the segment to the active segment and deletes the segment
+    private void compact(Segment segment) {
+        List<String> keys = new ArrayList<>(segment.keys);
+        List<byte[]> values = new ArrayList<>(keys.size());
+        List<Integer> positions = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            positions.add(i);
+            values.add(null);
+        }
+        readBytes(keys, positions, (i, bytes) -> values.set(i, bytes));
+        LOG.debug("Compacting segment {} with {} live entries", segment.id, keys.size());
+        segment.keys.clear();
+        deleteSegment(segment);
+        append(keys, values);
+    }
+
+    private void deleteSegment(Segment segment) {
+        LOG.debug("Deleting segment {}", segment.id);
+        segments.remove(segment.id);
+        segment.close();
+        if (!segment.file.delete()) {
+            LOG.warn("Could not delete segment file {}", segment.file);
+        }
+    }
+
+    private void readSpilled(List<String> keys, List<Integer> positions, Object[] values) {
+        readBytes(keys, positions, (i, bytes) -> values[i] = deserialize(bytes));
+    }
+
+    // reads the spilled values of the keys at the given positions, ordered by their location
+    private void readBytes(List<String> keys, List<Integer> positions, ValueConsumer consumer) {
+        List<Integer> sorted = new ArrayList<>(positions);
+        sorted.sort(Comparator.<Integer>comparingInt(i -> index.get(keys.get(i)).segment.id)
+                        .thenComparingLong(i -> index.get(keys.get(i)).offset));
+        int start = 0;
+        while (start < sorted.size()) {
+            Location first = index.get(keys.get(sorted.get(start)));
+            long rangeEnd = first.offset + first.length;
+            int end = start + 1;
+            while (end < sorted.size()) {
+                Location next = index.get(keys.get(sorted.get(end)));
+                if (next.segment != first.segment || next.offset - rangeEnd > MAX_READ_GAP_BYTES) {
+                    break;
+                }
+                rangeEnd = Math.max(rangeEnd, next.offset + next.length);
+                end++;
+            }
+            ByteBuffer range = read(first.segment, first.offset, (int) (rangeEnd - first.offset));
+            for (int i = start; i < end; i++) {
+                Location location = index.get(keys.get(sorted.get(i)));
+                byte[] bytes = new byte[location.length];
+                range.position((int) (location.offset - first.offset));
+                range.get(bytes);
+                consumer.accept(sorted.get(i), bytes);
+            }
+            start = end;
+        }
+    }
+
+    private ByteBuffer read(Segment segment, long offset, int length) {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (segment.channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of segment " + segment.file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private Object deserialize(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return deserialize(bytes);
+    }
+
+    private Object deserialize(byte[] bytes) {
+        return serializer.deserialize(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return "LocalWindowsStore{"
+                + " directory = " + directory
+                + " hot:size = " + hot.size()
+                + " spilled:size = " + index.size()
+                + " segments = " + segments.size()
+                + '}';
+    }
+
+    private interface ValueConsumer {
+        void accept(int position, byte[] bytes);
+    }
+
+    private static class Location {
+        private final Segment segment;
+        private final long offset;
+        private final int length;
+
+        Location(Segment segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private static class Segment {
+        private final int id;
+        private final File file;
+        private final FileChannel channel;
+        private final Set<String> keys = new HashSet<>();
+        private long size;
+        private long liveBytes;
+
+        Segment(int id, File file) {
+            this.id = id;
+            this.file = file;
+            try {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open segment file " + file, e);
+            }
+        }
+
+        void write(ByteBuffer buffer) {
+            try {
+                while (buffer.hasRemaining()) {
+                    size += channel.write(buffer, size);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write to segment file " + file, e);
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.warn("Could not close segment file {}", file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.windowing;
+
+import java.io.File;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.storm.Config;
+
+/**
+ * Factory to create {@link LocalWindowsStore} instances. The segment files are created in a unique directory under the given base
+ * directory, or under {@code storm.local.dir} if the base directory is not set.
+ *
+ * <p>Like {@link InMemoryWindowsStoreFactory}, this factory contains a single store instance, so that the triggers removed by the
+ * {@link WindowsStateUpdater} are removed from the same store.
+ */
+public class LocalWindowsStoreFactory implements WindowsStoreFactory {
+    public static final int DEFAULT_MAX_HOT_ENTRIES = 100_000;
+    public static final long DEFAULT_MAX_SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    private final String baseDirectory;
+    private final int maxHotEntries;
+    private final long maxSegmentBytes;
+    private transient LocalWindowsStore localWindowsStore;
+
+    public LocalWindowsStoreFactory() {
+        this(null, DEFAULT_MAX_HOT_ENTRIES, DEFAULT_MAX_SEGMENT_BYTES);
+    }
+
+    /**
+     * Creates a factory for {@link LocalWindowsStore}s.
+     *
+     * @param baseDirectory   the base directory for the segment files, or null to use {@code storm.local.dir}
+     * @param maxHotEntries   the maximum number of entries kept in memory
+     * @param maxSegmentBytes the size in bytes after which a new segment file is started
+     */
+    public LocalWindowsStoreFactory(String baseDirectory, int maxHotEntries, long maxSegmentBytes) {
+        this.baseDirectory = baseDirectory;
+        this.maxHotEntries = maxHotEntries;
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    @Override
+    public WindowsStore create(Map<String, Object> topoConf) {
+        if (localWindowsStore == null) {
+            String base = baseDirectory;
+            if (base == null) {
+                base = (String) topoConf.getOrDefault(Config.STORM_LOCAL_DIR, System.getProperty("java.io.tmpdir"));
+            }
+            File directory = new File(new File(base, "trident-windows"), UUID.randomUUID().toString());
+            localWindowsStore = new LocalWindowsStore(topoConf, directory, maxHotEntries, maxSegmentBytes);
+        }
+        return localWindowsStore;
+    }
+}
@@ -128,6 +128,12 @@ public class ShellProcess implements Serializable {
         logErrorStream();
     }
 
+    public void writeBoltMsgs(List<BoltMsg> msgs) throws IOException {
+        serializer.writeBoltMsgs(msgs);
+        // Log any info sent on the error stream
+        logErrorStream();
+    }
+
     public void writeSpoutMsg(SpoutMsg msg) throws IOException {
         serializer.writeSpoutMsg(msg);
         // Log any info sent on the error stream
@@ -0,0 +1,218 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A hashed timing wheel that tracks items until a deadline. The items are hashed into slots by the tick of their deadline, so that adding
+ * and removing an item takes O(1) time, and advancing the wheel only visits the slots of the ticks that have passed (at most all the slots
+ * once), instead of all the tracked items. Items with deadlines more than one rotation ahead share the slots and are checked against their
+ * deadline when the slot is visited.
+ *
+ * <p>The time is supplied by the caller, so the same wheel can be driven by the wall clock or by the event time.
+ *
+ * <p>Note: This class is not thread-safe.
+ *
+ * @param <T> the type of the items
+ */
+public class TimingWheel<T> {
+    private final long tickMs;
+    private final List<Set<Entry<T>>> slots;
+    // the entries added with a deadline before the current tick, which are returned by the next advance
+    private final Set<Entry<T>> overdue = new LinkedHashSet<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * Creates a {@link TimingWheel}.
+     *
+     * @param tickMs    the duration of a tick in millis
+     * @param wheelSize the number of slots in the wheel
+     */
+    public TimingWheel(long tickMs, int wheelSize) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive [" + tickMs + "]");
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("wheelSize must be positive [" + wheelSize + "]");
+        }
+        this.tickMs = tickMs;
+        slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Adds an item with the given deadline.
+     *
+     * @param item     the item
+     * @param deadline the deadline in millis
+     * @return true if added, false if the item is already tracked with the same deadline
+     */
+    public boolean add(T item, long deadline) {
+        Entry<T> entry = new Entry<>(item, deadline);
+        long tick = Math.floorDiv(deadline, tickMs);
+        boolean added = tick < currentTick ? overdue.add(entry) : slot(tick).add(entry);
+        if (added) {
+            ++size;
+        }
+        return added;
+    }
+
+    /**
+     * Removes the item with the given deadline.
+     *
+     * @param item     the item
+     * @param deadline the deadline in millis the item was added with
+     * @return true if the item was removed
+     */
+    public boolean remove(T item, long deadline) {
+        Entry<T> entry = new Entry<>(item, deadline);
+        boolean removed = slot(Math.floorDiv(deadline, tickMs)).remove(entry) || overdue.remove(entry);
+        if (removed) {
+            --size;
+        }
+        return removed;
+    }
+
+    /**
+     * Advances the wheel to the given time and removes the entries having a deadline less than or equal to the time.
+     *
+     * @param time the current time in millis
+     * @return the expired entries ordered by their deadline
+     */
+    public List<Entry<T>> advance(long time) {
+        List<Entry<T>> expired = new ArrayList<>(overdue);
+        overdue.clear();
+        long tick = Math.floorDiv(time, tickMs);
+        long ticks = Math.min(Math.max(tick - currentTick, 0), slots.size() - 1);
+        for (long t = currentTick; t <= currentTick + ticks; t++) {
+            Iterator<Entry<T>> it = slot(t).iterator();
+            while (it.hasNext()) {
+                Entry<T> entry = it.next();
+                if (entry.deadline <= time) {
+                    expired.add(entry);
+                    it.remove();
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, tick);
+        size -= expired.size();
+        expired.sort(Comparator.comparingLong(Entry::getDeadline));
+        return expired;
+    }
+
+    /**
+     * Returns all the entries in the wheel, in no particular order.
+     */
+    public List<Entry<T>> entries() {
+        List<Entry<T>> entries = new ArrayList<>(size);
+        entries.addAll(overdue);
+        for (Set<Entry<T>> slot : slots) {
+            entries.addAll(slot);
+        }
+        return entries;
+    }
+
+    /**
+     * Removes all the entries from the wheel.
+     */
+    public void clear() {
+        overdue.clear();
+        for (Set<Entry<T>> slot : slots) {
+            slot.clear();
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the number of items in the wheel.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private Set<Entry<T>> slot(long tick) {
+        return slots.get((int) Math.floorMod(tick, (long) slots.size()));
+    }
+
+    @Override
+    public String toString() {
+        return "TimingWheel{"
+                + "tickMs=" + tickMs
+                + ", wheelSize=" + slots.size()
+                + ", size=" + size
+                + '}';
+    }
+
+    /**
+     * An item in the wheel along with its deadline.
+     *
+     * @param <T> the type of the item
+     */
+    public static final class Entry<T> {
+        private final T item;
+        private final long deadline;
+
+        Entry(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Entry<?> entry = (Entry<?>) o;
+            return deadline == entry.deadline && Objects.equals(item, entry.item);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(item, deadline);
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{"
+                    + "item=" + item
+                    + ", deadline=" + deadline
+                    + '}';
+        }
+    }
+}
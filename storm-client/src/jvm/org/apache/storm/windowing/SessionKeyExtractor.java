@@ -0,0 +1,30 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.windowing;
+
+import java.io.Serializable;
+import org.apache.storm.tuple.Tuple;
+
+/**
+ * Interface to be implemented for extracting the session key from a tuple. The tuples having the same key are grouped into the same session
+ * windows.
+ */
+public interface SessionKeyExtractor extends Serializable {
+    /**
+     * Return the key of the session the tuple belongs to.
+     *
+     * @param tuple the tuple
+     * @return the session key, can be null
+     */
+    Object extractKey(Tuple tuple);
+}
@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.windowing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks gap based session windows per key. An event extends the session of its key if it falls within the session gap of the session,
+ * and sessions that overlap due to out of order events are merged. A session closes when the reference time (the watermark for event time
+ * and the current time for processing time) passes the timestamp of its last event plus the gap. The {@link WindowLifecycleListener} is
+ * then invoked with the events of the session, which are expired right after.
+ *
+ * <p>For event time processing the sessions are closed by the {@link WaterMarkEvent}s, for processing time a {@link TimeTriggerPolicy}
+ * with this manager as the {@link TriggerHandler} periodically closes the sessions.
+ *
+ * @param <T> the type of event in the window.
+ */
+public class SessionWindowManager<T> extends WindowManager<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(SessionWindowManager.class);
+    private final long gapMs;
+    private final Function<T, Object> keyExtractor;
+    private final Map<Object, List<Session<T>>> sessionsByKey;
+    // open sessions ordered by the end ts, so that closing sessions does not scan the open sessions
+    private final TreeSet<Session<T>> sessionsByEnd;
+    private final ReentrantLock lock;
+    private long nextSessionId;
+
+    /**
+     * Constructs a {@link SessionWindowManager}.
+     *
+     * @param lifecycleListener the {@link WindowLifecycleListener}
+     * @param gapMs             the session gap in millis
+     * @param keyExtractor      extracts the session key from the events
+     */
+    public SessionWindowManager(WindowLifecycleListener<T> lifecycleListener, long gapMs, Function<T, Object> keyExtractor) {
+        super(lifecycleListener);
+        if (gapMs <= 0) {
+            throw new IllegalArgumentException("Session gap must be positive [" + gapMs + "]");
+        }
+        this.gapMs = gapMs;
+        this.keyExtractor = keyExtractor;
+        sessionsByKey = new HashMap<>();
+        sessionsByEnd = new TreeSet<>(Comparator.<Session<T>>comparingLong(s -> s.end).thenComparingLong(s -> s.id));
+        lock = new ReentrantLock(true);
+    }
+
+    @Override
+    public void add(Event<T> windowEvent) {
+        if (windowEvent.isWatermark()) {
+            LOG.debug("Got watermark event with ts {}", windowEvent.getTimestamp());
+            closeSessions(windowEvent.getTimestamp());
+            return;
+        }
+        Object key = keyExtractor.apply(windowEvent.get());
+        long ts = windowEvent.getTimestamp();
+        try {
+            lock.lock();
+            List<Session<T>> sessions = sessionsByKey.computeIfAbsent(key, k -> new ArrayList<>());
+            Session<T> merged = null;
+            Iterator<Session<T>> it = sessions.iterator();
+            while (it.hasNext()) {
+                Session<T> session = it.next();
+                if (ts < session.end && ts + gapMs > session.start) {
+                    sessionsByEnd.remove(session);
+                    if (merged == null) {
+                        merged = session;
+                    } else {
+                        merged.merge(session);
+                        it.remove();
+                    }
+                }
+            }
+            if (merged == null) {
+                merged = new Session<>(key, nextSessionId++);
+                sessions.add(merged);
+            }
+            merged.add(windowEvent, gapMs);
+            sessionsByEnd.add(merged);
+        } finally {
+            lock.unlock();
+        }
+        if (triggerPolicy != null) {
+            triggerPolicy.track(windowEvent);
+        }
+    }
+
+    /**
+     * Closes the sessions that ended by the current time, invoked by the trigger policy for processing time sessions.
+     */
+    @Override
+    public boolean onTrigger() {
+        boolean closed = closeSessions(System.currentTimeMillis());
+        if (triggerPolicy != null) {
+            triggerPolicy.reset();
+        }
+        return closed;
+    }
+
+    /**
+     * Closes the sessions having end ts less than or equal to the reference time.
+     *
+     * @param referenceTime the reference timestamp in millis
+     * @return true if any session was closed
+     */
+    public boolean closeSessions(long referenceTime) {
+        List<Session<T>> closed = new ArrayList<>();
+        try {
+            lock.lock();
+            while (!sessionsByEnd.isEmpty() && sessionsByEnd.first().end <= referenceTime) {
+                Session<T> session = sessionsByEnd.pollFirst();
+                List<Session<T>> sessions = sessionsByKey.get(session.key);
+                sessions.remove(session);
+                if (sessions.isEmpty()) {
+                    sessionsByKey.remove(session.key);
+                }
+                closed.add(session);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Session<T> session : closed) {
+            List<T> events = session.getEvents();
+            LOG.debug("invoking windowLifecycleListener onSessionActivation, [{}] events in session with key {}", events.size(),
+                      session.key);
+            windowLifecycleListener.onSessionActivation(events, session.start, session.end);
+            windowLifecycleListener.onExpiry(events);
+        }
+        return !closed.isEmpty();
+    }
+
+    /**
+     * Returns the number of events in the open sessions.
+     *
+     * @param referenceTime the reference timestamp in millis
+     * @return the count of events in the open sessions with timestamp less than or equal to referenceTime
+     */
+    @Override
+    public int getEventCount(long referenceTime) {
+        int count = 0;
+        try {
+            lock.lock();
+            for (Session<T> session : sessionsByEnd) {
+                for (Event<T> event : session.events) {
+                    if (event.getTimestamp() <= referenceTime) {
+                        ++count;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of open sessions.
+     */
+    public int getSessionCount() {
+        try {
+            lock.lock();
+            return sessionsByEnd.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void restoreState(Map<String, Optional<?>> state) {
+        // the events of the open sessions are not acked, and are replayed on failure
+    }
+
+    @Override
+    public Map<String, Optional<?>> getState() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public String toString() {
+        return "SessionWindowManager{"
+                + "gapMs=" + gapMs
+                + ", triggerPolicy=" + triggerPolicy
+                + '}';
+    }
+
+    private static class Session<T> {
+        private final Object key;
+        private final long id;
+        private final List<Event<T>> events = new ArrayList<>();
+        private long start = Long.MAX_VALUE;
+        private long end = Long.MIN_VALUE;
+
+        Session(Object key, long id) {
+            this.key = key;
+            this.id = id;
+        }
+
+        void add(Event<T> event, long gapMs) {
+            events.add(event);
+            start = Math.min(start, event.getTimestamp());
+            end = Math.max(end, event.getTimestamp() + gapMs);
+        }
+
+        void merge(Session<T> other) {
+            events.addAll(other.events);
+            start = Math.min(start, other.start);
+            end = Math.max(end, other.end);
+        }
+
+        List<T> getEvents() {
+            List<Event<T>> sorted = new ArrayList<>(events);
+            sorted.sort(Comparator.comparingLong(Event::getTimestamp));
+            List<T> res = new ArrayList<>(sorted.size());
+            for (Event<T> event : sorted) {
+                res.add(event.get());
+            }
+            return res;
+        }
+    }
+}
@@ -0,0 +1,513 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.windowing;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread safe collection of window events that keeps the events ordered by their timestamp (and by arrival order for events with the
+ * same timestamp).
+ *
+ * <p>The events are stored in fixed size segments of parallel arrays, and the segments are kept in timestamp order. In order events are
+ * appended to the last segment, late events are inserted into the segment covering their timestamp. Events are usually expired from the
+ * head, so eviction only touches the expired events, and emptied segments are recycled for new events.
+ *
+ * <p>Since the events are ordered by timestamp, the {@link WindowManager} uses this collection to answer the count and range queries made
+ * by the watermark based trigger policies with a binary search instead of a scan over the entire window.
+ *
+ * <p>The iterator is weakly consistent, similar to {@link java.util.concurrent.ConcurrentLinkedQueue}. It never throws
+ * {@link java.util.ConcurrentModificationException} and never returns an event twice.
+ *
+ * @param <T> the type of event in the window.
+ */
+public class TimeIndexedEventBuffer<T> extends AbstractCollection<Event<T>> {
+    public static final int DEFAULT_SEGMENT_CAPACITY = 1024;
+    private static final int MAX_FREE_SEGMENTS = 4;
+    private final int segmentCapacity;
+    private final List<Segment<T>> segments = new ArrayList<>();
+    private final ArrayDeque<Segment<T>> freeSegments = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextSeq;
+    private int size;
+
+    public TimeIndexedEventBuffer() {
+        this(DEFAULT_SEGMENT_CAPACITY);
+    }
+
+    /**
+     * Constructs a {@link TimeIndexedEventBuffer}.
+     *
+     * @param segmentCapacity the number of events held by each segment
+     */
+    public TimeIndexedEventBuffer(int segmentCapacity) {
+        if (segmentCapacity < 2) {
+            throw new IllegalArgumentException("Segment capacity must be at least 2, got " + segmentCapacity);
+        }
+        this.segmentCapacity = segmentCapacity;
+    }
+
+    private static int compare(long ts1, long seq1, long ts2, long seq2) {
+        int res = Long.compare(ts1, ts2);
+        return res != 0 ? res : Long.compare(seq1, seq2);
+    }
+
+    @Override
+    public boolean add(Event<T> event) {
+        lock.lock();
+        try {
+            long ts = event.getTimestamp();
+            long seq = nextSeq++;
+            Segment<T> tail = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (tail == null || ts >= tail.lastTimestamp()) {
+                if (tail == null || tail.end == segmentCapacity) {
+                    tail = newSegment();
+                    segments.add(tail);
+                }
+                tail.set(tail.end++, event, ts, seq);
+                tail.version++;
+            } else {
+                // a late event; since its seq is the largest, it goes after all the events with the same ts
+                int segIdx = firstSegmentWithLastTsAfter(ts);
+                insert(segIdx, segments.get(segIdx).upperBound(ts), event, ts, seq);
+            }
+            size++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            for (Segment<T> segment : segments) {
+                recycle(segment);
+            }
+            segments.clear();
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<Event<T>> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns the number of events having timestamp less than or equal to the reference time.
+     *
+     * @param referenceTime the reference timestamp in millis
+     * @return the count of events with timestamp less than or equal to referenceTime
+     */
+    public int countUpTo(long referenceTime) {
+        lock.lock();
+        try {
+            int segIdx = firstSegmentWithLastTsAfter(referenceTime);
+            int count = 0;
+            for (int i = 0; i < segIdx; i++) {
+                count += segments.get(i).size();
+            }
+            if (segIdx < segments.size()) {
+                Segment<T> segment = segments.get(segIdx);
+                count += segment.upperBound(referenceTime) - segment.start;
+            }
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the earliest event ts between the startTs and endTs.
+     *
+     * @param startTs the start ts (exclusive)
+     * @param endTs   the end ts (inclusive)
+     * @return the earliest event ts between startTs and endTs or {@link Long#MAX_VALUE} if there are no such events
+     */
+    public long earliestTimestamp(long startTs, long endTs) {
+        lock.lock();
+        try {
+            int segIdx = firstSegmentWithLastTsAfter(startTs);
+            if (segIdx < segments.size()) {
+                Segment<T> segment = segments.get(segIdx);
+                long ts = segment.timestamps[segment.upperBound(startTs)];
+                if (ts <= endTs) {
+                    return ts;
+                }
+            }
+            return Long.MAX_VALUE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the list of event ts falling between startTs (exclusive) and endTs (inclusive) at each sliding interval counts.
+     *
+     * @param startTs      the start timestamp (exclusive)
+     * @param endTs        the end timestamp (inclusive)
+     * @param slidingCount the sliding interval count
+     * @return the list of event ts
+     */
+    public List<Long> slidingCountTimestamps(long startTs, long endTs, int slidingCount) {
+        List<Long> timestamps = new ArrayList<>();
+        if (endTs <= startTs) {
+            return timestamps;
+        }
+        lock.lock();
+        try {
+            int count = 0;
+            int segIdx = firstSegmentWithLastTsAfter(startTs);
+            if (segIdx < segments.size()) {
+                int pos = segments.get(segIdx).upperBound(startTs);
+                for (; segIdx < segments.size(); segIdx++) {
+                    Segment<T> segment = segments.get(segIdx);
+                    for (; pos < segment.end; pos++) {
+                        long ts = segment.timestamps[pos];
+                        if (ts > endTs) {
+                            return timestamps;
+                        }
+                        if (++count % slidingCount == 0) {
+                            timestamps.add(ts);
+                        }
+                    }
+                    if (segIdx + 1 < segments.size()) {
+                        pos = segments.get(segIdx + 1).start;
+                    }
+                }
+            }
+            return timestamps;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Returns the index of the first segment whose last ts is greater than the given ts, or the number of
+     * segments if there is no such segment.
+     */
+    private int firstSegmentWithLastTsAfter(long ts) {
+        int lo = 0;
+        int hi = segments.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (segments.get(mid).lastTimestamp() > ts) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /*
+     * Returns the index of the first segment whose last key is greater than or equal to the given key, or the
+     * number of segments if there is no such segment.
+     */
+    private int firstSegmentWithLastKeyAtLeast(long ts, long seq) {
+        int lo = 0;
+        int hi = segments.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Segment<T> segment = segments.get(mid);
+            if (compare(segment.lastTimestamp(), segment.seqs[segment.end - 1], ts, seq) >= 0) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    private void insert(int segIdx, int pos, Event<T> event, long ts, long seq) {
+        Segment<T> segment = segments.get(segIdx);
+        if (segment.end < segmentCapacity) {
+            segment.shift(pos, segment.end, 1);
+            segment.end++;
+            segment.set(pos, event, ts, seq);
+        } else if (segment.start > 0) {
+            segment.shift(segment.start, pos, -1);
+            segment.start--;
+            segment.set(pos - 1, event, ts, seq);
+        } else {
+            // split the full segment in two halves and insert into the one covering pos
+            int mid = segmentCapacity / 2;
+            Segment<T> upper = newSegment();
+            int count = segment.end - mid;
+            System.arraycopy(segment.events, mid, upper.events, 0, count);
+            System.arraycopy(segment.timestamps, mid, upper.timestamps, 0, count);
+            System.arraycopy(segment.seqs, mid, upper.seqs, 0, count);
+            upper.end = count;
+            segment.clear(mid, segment.end);
+            segment.end = mid;
+            segment.version++;
+            segments.add(segIdx + 1, upper);
+            if (pos <= mid) {
+                insert(segIdx, pos, event, ts, seq);
+            } else {
+                insert(segIdx + 1, pos - mid, event, ts, seq);
+            }
+            return;
+        }
+        segment.version++;
+    }
+
+    private void remove(int segIdx, int pos) {
+        Segment<T> segment = segments.get(segIdx);
+        if (pos == segment.start) {
+            segment.clear(pos, pos + 1);
+            segment.start++;
+        } else {
+            segment.shift(pos + 1, segment.end, -1);
+            segment.end--;
+            segment.clear(segment.end, segment.end + 1);
+        }
+        segment.version++;
+        if (segment.size() == 0) {
+            segments.remove(segIdx);
+            recycle(segment);
+        }
+        size--;
+    }
+
+    private Segment<T> newSegment() {
+        Segment<T> segment = freeSegments.poll();
+        return segment != null ? segment : new Segment<>(segmentCapacity);
+    }
+
+    private void recycle(Segment<T> segment) {
+        segment.clear(segment.start, segment.end);
+        segment.start = 0;
+        segment.end = 0;
+        // invalidates any iterator positioned on this segment
+        segment.version++;
+        if (freeSegments.size() < MAX_FREE_SEGMENTS) {
+            freeSegments.push(segment);
+        }
+    }
+
+    /*
+     * A segment holds the events at positions [start, end) ordered by (ts, seq).
+     */
+    private static final class Segment<T> {
+        private final Event<T>[] events;
+        private final long[] timestamps;
+        private final long[] seqs;
+        private int start;
+        private int end;
+        private int version;
+
+        @SuppressWarnings("unchecked")
+        Segment(int capacity) {
+            events = (Event<T>[]) new Event[capacity];
+            timestamps = new long[capacity];
+            seqs = new long[capacity];
+        }
+
+        int size() {
+            return end - start;
+        }
+
+        long lastTimestamp() {
+            return timestamps[end - 1];
+        }
+
+        void set(int pos, Event<T> event, long ts, long seq) {
+            events[pos] = event;
+            timestamps[pos] = ts;
+            seqs[pos] = seq;
+        }
+
+        void shift(int from, int to, int offset) {
+            int count = to - from;
+            if (count > 0) {
+                System.arraycopy(events, from, events, from + offset, count);
+                System.arraycopy(timestamps, from, timestamps, from + offset, count);
+                System.arraycopy(seqs, from, seqs, from + offset, count);
+            }
+        }
+
+        void clear(int from, int to) {
+            for (int i = from; i < to; i++) {
+                events[i] = null;
+            }
+        }
+
+        /*
+         * Returns the position of the first event with ts greater than the given ts, or end if there is no such event.
+         */
+        int upperBound(long ts) {
+            int lo = start;
+            int hi = end;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (timestamps[mid] > ts) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        /*
+         * Returns the position of the first event with key greater than the given key, or end if there is no such event.
+         */
+        int upperBound(long ts, long seq) {
+            int lo = start;
+            int hi = end;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compare(timestamps[mid], seqs[mid], ts, seq) > 0) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+    }
+
+    /*
+     * Remembers the key of the last returned event and re-locates it with a binary search whenever the buffer was
+     * modified underneath, so that the iteration always continues from the first event after that key.
+     */
+    private final class Itr implements Iterator<Event<T>> {
+        private Segment<T> segment;
+        private int segIdx;
+        private int pos;
+        private int expectedVersion;
+        private boolean started;
+        private long lastTs;
+        private long lastSeq;
+        private boolean canRemove;
+        private Event<T> next;
+        private long nextTs;
+        private long nextSeq;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                advance();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Event<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Event<T> res = next;
+            lastTs = nextTs;
+            lastSeq = nextSeq;
+            started = true;
+            canRemove = true;
+            next = null;
+            return res;
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            canRemove = false;
+            lock.lock();
+            try {
+                int idx = firstSegmentWithLastKeyAtLeast(lastTs, lastSeq);
+                if (idx < segments.size()) {
+                    Segment<T> seg = segments.get(idx);
+                    int p = seg.upperBound(lastTs, lastSeq) - 1;
+                    if (p >= seg.start && seg.timestamps[p] == lastTs && seg.seqs[p] == lastSeq) {
+                        TimeIndexedEventBuffer.this.remove(idx, p);
+                    }
+                }
+                // force a re-lookup on the next advance
+                segment = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void advance() {
+            lock.lock();
+            try {
+                if (segment == null || segment.version != expectedVersion) {
+                    relocate();
+                } else {
+                    pos++;
+                    if (pos >= segment.end) {
+                        segIdx++;
+                        if (segIdx < segments.size() && segments.get(segIdx - 1) == segment) {
+                            segment = segments.get(segIdx);
+                            pos = segment.start;
+                            expectedVersion = segment.version;
+                        } else {
+                            relocate();
+                        }
+                    }
+                }
+                if (segment != null && pos < segment.end) {
+                    next = segment.events[pos];
+                    nextTs = segment.timestamps[pos];
+                    nextSeq = segment.seqs[pos];
+                } else {
+                    segment = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void relocate() {
+            if (!started) {
+                segIdx = 0;
+            } else {
+                segIdx = firstSegmentWithLastKeyAtLeast(lastTs, lastSeq);
+                if (segIdx < segments.size()) {
+                    Segment<T> seg = segments.get(segIdx);
+                    if (seg.upperBound(lastTs, lastSeq) >= seg.end) {
+                        segIdx++;
+                    }
+                }
+            }
+            if (segIdx < segments.size()) {
+                segment = segments.get(segIdx);
+                pos = started ? segment.upperBound(lastTs, lastSeq) : segment.start;
+                expectedVersion = segment.version;
+            } else {
+                segment = null;
+            }
+        }
+    }
+}
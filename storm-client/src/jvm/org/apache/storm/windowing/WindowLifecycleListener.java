@@ -12,6 +12,7 @@
 
 package org.apache.storm.windowing;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.Supplier;
@@ -54,4 +55,16 @@ public interface WindowLifecycleListener<T> {
                               Long referenceTime) {
         throw new UnsupportedOperationException("Not implemented");
     }
+
+    /**
+     * Called when a session window closes, i.e. when no event was added to the session for the session gap. By default this is same as
+     * the activation of a window with all the events of the session as new events.
+     *
+     * @param events    the events in the session
+     * @param startTime the timestamp of the first event in the session
+     * @param endTime   the end of the session, i.e. the timestamp of the last event in the session plus the session gap
+     */
+    default void onSessionActivation(List<T> events, long startTime, long endTime) {
+        onActivation(events, events, Collections.emptyList(), endTime);
+    }
 }
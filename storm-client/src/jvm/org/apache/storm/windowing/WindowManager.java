@@ -67,7 +67,8 @@ public class WindowManager<T> implements TriggerHandler {
      *
      * @param lifecycleListener the {@link WindowLifecycleListener}
      * @param queue             a collection where the events in the window can be enqueued. <br/>
-     *                          <b>Note:</b> This collection has to be thread safe.
+     *                          <b>Note:</b> This collection has to be thread safe. A {@link TimeIndexedEventBuffer} keeps the
+     *                          events in timestamp order, so that expiry and the count and range queries do not scan the whole window.
      */
     public WindowManager(WindowLifecycleListener<T> lifecycleListener, Collection<Event<T>> queue) {
         windowLifecycleListener = lifecycleListener;
@@ -232,6 +233,9 @@ public class WindowManager<T> implements TriggerHandler {
      * @return the earliest event ts between startTs and endTs
      */
     public long getEarliestEventTs(long startTs, long endTs) {
+        if (queue instanceof TimeIndexedEventBuffer) {
+            return ((TimeIndexedEventBuffer<T>) queue).earliestTimestamp(startTs, endTs);
+        }
         long minTs = Long.MAX_VALUE;
         for (Event<T> event : queue) {
             if (event.getTimestamp() > startTs && event.getTimestamp() <= endTs) {
@@ -248,6 +252,9 @@ public class WindowManager<T> implements TriggerHandler {
      * @return the count of events with timestamp less than or equal to referenceTime
      */
     public int getEventCount(long referenceTime) {
+        if (queue instanceof TimeIndexedEventBuffer) {
+            return ((TimeIndexedEventBuffer<T>) queue).countUpTo(referenceTime);
+        }
         int count = 0;
         for (Event<T> event : queue) {
             if (event.getTimestamp() <= referenceTime) {
@@ -267,6 +274,9 @@ public class WindowManager<T> implements TriggerHandler {
      * @return the list of event ts
      */
     public List<Long> getSlidingCountTimestamps(long startTs, long endTs, int slidingCount) {
+        if (queue instanceof TimeIndexedEventBuffer) {
+            return ((TimeIndexedEventBuffer<T>) queue).slidingCountTimestamps(startTs, endTs, slidingCount);
+        }
         List<Long> timestamps = new ArrayList<>();
         if (endTs > startTs) {
             int count = 0;
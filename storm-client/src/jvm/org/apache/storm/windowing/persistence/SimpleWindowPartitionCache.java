@@ -13,11 +13,16 @@
 package org.apache.storm.windowing.persistence;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,25 +30,43 @@ import org.slf4j.LoggerFactory;
 /**
  * A simple implementation that evicts the largest un-pinned entry from the cache. This works well for caching window partitions since the
  * access pattern is mostly sequential scans.
+ *
+ * <p>The cache is bounded either by the number of entries or, if a {@link WindowPartitionCache.Weigher} is set, by the total weight of
+ * the entries. If a prefetch executor is set, the entries are prefetched in the background and the prefetched entries that were not yet
+ * accessed are evicted only if there is no other un-pinned entry.
  */
 public class SimpleWindowPartitionCache<K, V> implements WindowPartitionCache<K, V> {
     private static final Logger LOG = LoggerFactory.getLogger(SimpleWindowPartitionCache.class);
 
     private final ConcurrentSkipListMap<K, V> map = new ConcurrentSkipListMap<>();
     private final Map<K, Long> pinned = new HashMap<>();
+    // entries being loaded in the background
+    private final Map<K, CompletableFuture<V>> loading = new HashMap<>();
+    // entries loaded in the background that were not accessed yet
+    private final Set<K> prefetched = new HashSet<>();
     private final long maximumSize;
+    private final long maximumWeight;
+    private final Weigher<K, V> weigher;
+    private final Executor prefetchExecutor;
     private final RemovalListener<K, V> removalListener;
     private final CacheLoader<K, V> cacheLoader;
     private final ReentrantLock lock = new ReentrantLock(true);
     private int size;
 
-    private SimpleWindowPartitionCache(long maximumSize, RemovalListener<K, V> removalListener, CacheLoader<K, V> cacheLoader) {
-        if (maximumSize <= 0) {
+    private SimpleWindowPartitionCache(SimpleWindowPartitionCacheBuilder<K, V> builder, CacheLoader<K, V> cacheLoader) {
+        if (builder.weigher != null) {
+            if (builder.maximumWeight <= 0) {
+                throw new IllegalArgumentException("maximumWeight must be greater than 0");
+            }
+        } else if (builder.maximumSize <= 0) {
             throw new IllegalArgumentException("maximumSize must be greater than 0");
         }
         Objects.requireNonNull(cacheLoader);
-        this.maximumSize = maximumSize;
-        this.removalListener = removalListener;
+        this.maximumSize = builder.maximumSize;
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = builder.weigher;
+        this.prefetchExecutor = builder.prefetchExecutor;
+        this.removalListener = builder.removalListener;
         this.cacheLoader = cacheLoader;
     }
 
@@ -98,6 +121,7 @@ public class SimpleWindowPartitionCache<K, V> implements WindowPartitionCache<K,
                 if (val != null) {
                     --size;
                     pinned.remove(key);
+                    prefetched.remove(key);
                     if (removalListener != null) {
                         removalListener.onRemoval(key, val, RemovalCause.EXPLICIT);
                     }
@@ -108,9 +132,58 @@ public class SimpleWindowPartitionCache<K, V> implements WindowPartitionCache<K,
         }
     }
 
+    @Override
+    public void prefetch(K key) {
+        if (prefetchExecutor == null) {
+            return;
+        }
+        CompletableFuture<V> future = new CompletableFuture<>();
+        try {
+            lock.lock();
+            if (map.containsKey(key) || loading.containsKey(key)) {
+                return;
+            }
+            loading.put(key, future);
+        } finally {
+            lock.unlock();
+        }
+        LOG.debug("prefetch '{}'", key);
+        prefetchExecutor.execute(() -> {
+            try {
+                V val = cacheLoader.load(key);
+                if (val == null) {
+                    throw new NullPointerException("Null value for key " + key);
+                }
+                try {
+                    lock.lock();
+                    // the entry could have been loaded (and even evicted again) by the caller in the meantime
+                    if (loading.remove(key, future) && !map.containsKey(key)) {
+                        ensureCapacity(weigh(key, val));
+                        map.put(key, val);
+                        prefetched.add(key);
+                        ++size;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                future.complete(val);
+            } catch (Throwable ex) {
+                LOG.warn("Prefetching entry '{}' failed", key, ex);
+                try {
+                    lock.lock();
+                    loading.remove(key, future);
+                } finally {
+                    lock.unlock();
+                }
+                future.completeExceptionally(ex);
+            }
+        });
+    }
+
     // Get or load from the cache optionally pinning the entry
     // so that it wont get evicted from the cache
     private V getOrLoad(K key, boolean shouldPin) {
+        awaitPrefetch(key);
         V val;
         if (shouldPin) {
             try {
@@ -129,12 +202,40 @@ public class SimpleWindowPartitionCache<K, V> implements WindowPartitionCache<K,
                 } finally {
                     lock.unlock();
                 }
+            } else if (prefetchExecutor != null) {
+                try {
+                    lock.lock();
+                    prefetched.remove(key);
+                } finally {
+                    lock.unlock();
+                }
             }
         }
 
         return val;
     }
 
+    // wait for the entry being prefetched, so that it is not loaded again
+    private void awaitPrefetch(K key) {
+        if (prefetchExecutor == null) {
+            return;
+        }
+        CompletableFuture<V> future;
+        try {
+            lock.lock();
+            future = loading.get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (future != null) {
+            try {
+                future.join();
+            } catch (CompletionException ex) {
+                LOG.debug("Prefetch of '{}' failed, loading it again", key);
+            }
+        }
+    }
+
     private V load(K key) {
         V val = map.get(key);
         if (val == null) {
@@ -142,30 +243,68 @@ public class SimpleWindowPartitionCache<K, V> implements WindowPartitionCache<K,
             if (val == null) {
                 throw new NullPointerException("Null value for key " + key);
             }
-            ensureCapacity();
+            // supersede a background load of the entry, if any
+            loading.remove(key);
+            ensureCapacity(weigh(key, val));
             map.put(key, val);
             ++size;
         }
+        prefetched.remove(key);
         return val;
     }
 
-    private void ensureCapacity() {
-        if (size >= maximumSize) {
-            Iterator<Map.Entry<K, V>> it = map.descendingMap().entrySet().iterator();
-            while (it.hasNext()) {
-                Map.Entry<K, V> next = it.next();
-                if (!isPinned(next.getKey())) {
-                    it.remove();
-                    if (removalListener != null) {
-                        removalListener.onRemoval(next.getKey(), next.getValue(), RemovalCause.REPLACED);
-                    }
-                    --size;
+    private void ensureCapacity(long weight) {
+        if (weigher == null) {
+            if (size >= maximumSize) {
+                evictOne();
+            }
+        } else {
+            long totalWeight = weight;
+            for (Map.Entry<K, V> entry : map.entrySet()) {
+                totalWeight += weigh(entry.getKey(), entry.getValue());
+            }
+            while (totalWeight > maximumWeight) {
+                long evicted = evictOne();
+                if (evicted < 0) {
+                    LOG.debug("No entries to evict, total weight {} exceeds maximum weight {}", totalWeight, maximumWeight);
                     break;
                 }
+                totalWeight -= evicted;
             }
         }
     }
 
+    // evicts the largest un-pinned entry, preferring the entries that are not prefetched,
+    // and returns the weight of the evicted entry or -1 if no entry could be evicted
+    private long evictOne() {
+        Map.Entry<K, V> victim = null;
+        for (Map.Entry<K, V> next : map.descendingMap().entrySet()) {
+            if (!isPinned(next.getKey())) {
+                if (!prefetched.contains(next.getKey())) {
+                    victim = next;
+                    break;
+                } else if (victim == null) {
+                    victim = next;
+                }
+            }
+        }
+        if (victim == null) {
+            return -1;
+        }
+        final long weight = weigh(victim.getKey(), victim.getValue());
+        map.remove(victim.getKey());
+        prefetched.remove(victim.getKey());
+        if (removalListener != null) {
+            removalListener.onRemoval(victim.getKey(), victim.getValue(), RemovalCause.REPLACED);
+        }
+        --size;
+        return weight;
+    }
+
+    private long weigh(K key, V val) {
+        return weigher == null ? 1 : weigher.weigh(key, val);
+    }
+
     private void pin(K key) {
         LOG.debug("pin '{}'", key);
         pinned.compute(key, (k, v) -> v == null ? 1L : v + 1);
@@ -178,6 +317,9 @@ public class SimpleWindowPartitionCache<K, V> implements WindowPartitionCache<K,
 
     public static class SimpleWindowPartitionCacheBuilder<K, V> implements WindowPartitionCache.Builder<K, V> {
         private long maximumSize;
+        private long maximumWeight;
+        private Weigher<K, V> weigher;
+        private Executor prefetchExecutor;
         private RemovalListener<K, V> removalListener;
 
         @Override
@@ -186,6 +328,24 @@ public class SimpleWindowPartitionCache<K, V> implements WindowPartitionCache<K,
             return this;
         }
 
+        @Override
+        public SimpleWindowPartitionCacheBuilder<K, V> maximumWeight(long weight) {
+            maximumWeight = weight;
+            return this;
+        }
+
+        @Override
+        public SimpleWindowPartitionCacheBuilder<K, V> weigher(Weigher<K, V> weigher) {
+            this.weigher = weigher;
+            return this;
+        }
+
+        @Override
+        public SimpleWindowPartitionCacheBuilder<K, V> prefetchExecutor(Executor executor) {
+            prefetchExecutor = executor;
+            return this;
+        }
+
         @Override
         public SimpleWindowPartitionCacheBuilder<K, V> removalListener(RemovalListener<K, V> listener) {
             removalListener = listener;
@@ -194,7 +354,7 @@ public class SimpleWindowPartitionCache<K, V> implements WindowPartitionCache<K,
 
         @Override
         public SimpleWindowPartitionCache<K, V> build(CacheLoader<K, V> loader) {
-            return new SimpleWindowPartitionCache<>(maximumSize, removalListener, loader);
+            return new SimpleWindowPartitionCache<>(this, loader);
         }
     }
 }
@@ -13,6 +13,7 @@
 package org.apache.storm.windowing.persistence;
 
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 
 /**
  * A loading cache abstraction for caching {@link WindowState.WindowPartition}.
@@ -60,6 +61,16 @@ public interface WindowPartitionCache<K, V> {
      */
     void invalidate(K key);
 
+    /**
+     * Hint that the value for the key would be needed soon, so that the cache can load it in the background. A subsequent
+     * {@link #get(Object)} or {@link #pinAndGet(Object)} for the key waits for the load to complete instead of loading the value again.
+     * The default implementation does nothing.
+     *
+     * @param key the key
+     */
+    default void prefetch(K key) {
+    }
+
     /**
      * The reason why an enrty got evicted from the cache.
      */
@@ -91,6 +102,23 @@ public interface WindowPartitionCache<K, V> {
         void onRemoval(K key, V val, RemovalCause removalCause);
     }
 
+    /**
+     * Computes the weight of the cache entries, for caches bounded by the total weight of the entries rather than the number of entries.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    interface Weigher<K, V> {
+        /**
+         * Returns the weight of the entry. The weight may change while the entry is in the cache.
+         *
+         * @param key the key
+         * @param val the value
+         * @return the non-negative weight of the entry
+         */
+        long weigh(K key, V val);
+    }
+
     /**
      * The interface for loading entires into the cache.
      *
@@ -116,6 +144,32 @@ public interface WindowPartitionCache<K, V> {
          */
         Builder<K, V> maximumSize(long size);
 
+        /**
+         * The maximum total weight of the entries as computed by the {@link #weigher(Weigher)}. After this limit, entries are evicted
+         * from the cache.
+         *
+         * @param weight the weight
+         * @return the Builder
+         */
+        Builder<K, V> maximumWeight(long weight);
+
+        /**
+         * The {@link Weigher} to compute the weight of the entries, used along with {@link #maximumWeight(long)}.
+         *
+         * @param weigher the weigher
+         * @return the Builder
+         */
+        Builder<K, V> weigher(Weigher<K, V> weigher);
+
+        /**
+         * The {@link Executor} for loading the entries that are prefetched. If not set, {@link WindowPartitionCache#prefetch(Object)}
+         * does nothing.
+         *
+         * @param executor the executor
+         * @return the Builder
+         */
+        Builder<K, V> prefetchExecutor(Executor executor);
+
         /**
          * The {@link RemovalListener} to be invoked when entries are evicted.
          *
@@ -20,23 +20,34 @@ import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import org.apache.storm.shade.com.google.common.collect.ImmutableMap;
 import org.apache.storm.state.KeyValueState;
+import org.apache.storm.tuple.Tuple;
 import org.apache.storm.windowing.Event;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A wrapper around the window related states that are checkpointed.
+ *
+ * <p>The window events are kept in {@link WindowPartition}s, and a subset of the partitions are cached in memory, bounded either by the
+ * number of events or by the estimated size of the events in bytes. If read-ahead is enabled, the iterator prefetches the next few
+ * partitions in the background while the current partition is being iterated, and the modified partitions evicted from the cache are
+ * written to the state in the background (write-behind) instead of in the caller.
  */
 public class WindowState<T> extends AbstractCollection<Event<T>> {
     // number of events per window-partition
@@ -50,6 +61,13 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
     private final ReentrantLock partitionIdsLock = new ReentrantLock(true);
     private final WindowPartitionLock windowPartitionsLock = new WindowPartitionLock();
     private final long maxEventsInMemory;
+    private final long maxBytesInMemory;
+    private final int readAheadPartitions;
+    // modified partitions evicted from the cache that are yet to be written to the state
+    private final Map<Long, WindowPartition<T>> pendingWrites = new ConcurrentHashMap<>();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private final ReentrantLock writeBehindLock = new ReentrantLock(true);
+    private final ExecutorService ioExecutor;
     // ordered partition keys
     private volatile Deque<Long> partitionIds;
     private volatile long latestPartitionId;
@@ -63,11 +81,43 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
                        KeyValueState<String, Optional<?>> windowSystemState,
                        Supplier<Map<String, Optional<?>>> windowSystemStateSupplier,
                        long maxEventsInMemory) {
+        this(windowPartitionsState, partitionIdsState, windowSystemState, windowSystemStateSupplier, maxEventsInMemory, 0, 0);
+    }
+
+    /**
+     * Constructs a {@link WindowState}.
+     *
+     * @param windowPartitionsState     the state for the window partitions
+     * @param partitionIdsState         the state for the ordered partition ids
+     * @param windowSystemState         the state for the window manager and policies
+     * @param windowSystemStateSupplier supplies the window system state on flush
+     * @param maxEventsInMemory         the maximum number of events to keep in memory, used if maxBytesInMemory is not positive
+     * @param maxBytesInMemory          the maximum estimated size in bytes of the events to keep in memory, if positive
+     * @param readAheadPartitions       the number of partitions to prefetch while iterating, 0 to disable read-ahead and write-behind
+     */
+    public WindowState(KeyValueState<Long, WindowPartition<T>> windowPartitionsState,
+                       KeyValueState<String, Deque<Long>> partitionIdsState,
+                       KeyValueState<String, Optional<?>> windowSystemState,
+                       Supplier<Map<String, Optional<?>>> windowSystemStateSupplier,
+                       long maxEventsInMemory,
+                       long maxBytesInMemory,
+                       int readAheadPartitions) {
         this.windowPartitionsState = windowPartitionsState;
         this.partitionIdsState = partitionIdsState;
         this.windowSystemState = windowSystemState;
         this.windowSystemStateSupplier = windowSystemStateSupplier;
         this.maxEventsInMemory = Math.max(MAX_PARTITION_EVENTS * MIN_PARTITIONS, maxEventsInMemory);
+        this.maxBytesInMemory = maxBytesInMemory;
+        this.readAheadPartitions = Math.max(0, readAheadPartitions);
+        if (this.readAheadPartitions > 0) {
+            ioExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "window-state-io");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            ioExecutor = null;
+        }
         init();
     }
 
@@ -85,16 +135,17 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
     public Iterator<Event<T>> iterator() {
 
         return new Iterator<Event<T>>() {
-            private Iterator<Long> ids = getIds();
+            private final List<Long> ids = getIds();
+            private int nextIdIndex;
             private Iterator<Event<T>> current = Collections.emptyIterator();
             private Iterator<Event<T>> removeFrom;
             private WindowPartition<T> curPartition;
 
-            private Iterator<Long> getIds() {
+            private List<Long> getIds() {
                 try {
                     partitionIdsLock.lock();
                     LOG.debug("Iterator partitionIds: {}", partitionIds);
-                    return new ArrayList<>(partitionIds).iterator();
+                    return new ArrayList<>(partitionIds);
                 } finally {
                     partitionIdsLock.unlock();
                 }
@@ -112,11 +163,12 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
             @Override
             public boolean hasNext() {
                 boolean curHasNext = current.hasNext();
-                while (!curHasNext && ids.hasNext()) {
+                while (!curHasNext && nextIdIndex < ids.size()) {
                     if (curPartition != null) {
                         unpin(curPartition.getId());
                     }
-                    curPartition = getPinnedPartition(ids.next());
+                    readAhead();
+                    curPartition = getPinnedPartition(ids.get(nextIdIndex++));
                     if (curPartition != null) {
                         iteratorPins.add(curPartition.getId());
                         current = curPartition.iterator();
@@ -144,6 +196,13 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
                 cache.unpin(id);
                 iteratorPins.remove(id);
             }
+
+            // prefetch the partitions following the one that is going to be iterated
+            private void readAhead() {
+                for (int i = nextIdIndex + 1; i <= nextIdIndex + readAheadPartitions && i < ids.size(); i++) {
+                    cache.prefetch(ids.get(i));
+                }
+            }
         };
     }
 
@@ -190,6 +249,13 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
      * @param reInit if the members should be synced with the values from the state.
      */
     public void rollback(boolean reInit) {
+        try {
+            // discard the pending writes, waiting for the writes in progress to complete
+            writeBehindLock.lock();
+            pendingWrites.clear();
+        } finally {
+            writeBehindLock.unlock();
+        }
         partitionIdsState.rollback();
         windowPartitionsState.rollback();
         windowSystemState.rollback();
@@ -199,6 +265,15 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
         }
     }
 
+    /**
+     * Stops the background read-ahead and write-behind, if enabled.
+     */
+    public void close() {
+        if (ioExecutor != null) {
+            ioExecutor.shutdownNow();
+        }
+    }
+
     private void init() {
         initCache();
         initPartitions();
@@ -215,11 +290,20 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
     }
 
     private void initCache() {
-        long size = maxEventsInMemory / MAX_PARTITION_EVENTS;
-        LOG.info("maxEventsInMemory: {}, partition size: {}, number of partitions: {}",
-                 maxEventsInMemory, MAX_PARTITION_EVENTS, size);
-        cache = SimpleWindowPartitionCache.<Long, WindowPartition<T>>newBuilder()
-            .maximumSize(size)
+        SimpleWindowPartitionCache.SimpleWindowPartitionCacheBuilder<Long, WindowPartition<T>> builder =
+            SimpleWindowPartitionCache.newBuilder();
+        if (maxBytesInMemory > 0) {
+            LOG.info("maxBytesInMemory: {}, partition size: {}, read-ahead partitions: {}",
+                     maxBytesInMemory, MAX_PARTITION_EVENTS, readAheadPartitions);
+            builder.maximumWeight(maxBytesInMemory).weigher((pid, p) -> p.getEstimatedBytes());
+        } else {
+            long size = maxEventsInMemory / MAX_PARTITION_EVENTS;
+            LOG.info("maxEventsInMemory: {}, partition size: {}, number of partitions: {}, read-ahead partitions: {}",
+                     maxEventsInMemory, MAX_PARTITION_EVENTS, size, readAheadPartitions);
+            builder.maximumSize(size);
+        }
+        cache = builder
+            .prefetchExecutor(ioExecutor)
             .removalListener(new WindowPartitionCache.RemovalListener<Long, WindowPartition<T>>() {
                 @Override
                 public void onRemoval(Long pid, WindowPartition<T> p, WindowPartitionCache.RemovalCause removalCause) {
@@ -235,7 +319,7 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
                                 windowPartitionsState.delete(pid);
                             }
                         } else if (p.isModified()) {
-                            windowPartitionsState.put(pid, p);
+                            writePartition(pid, p);
                         } else {
                             LOG.debug("WindowPartition '{}' is not modified", pid);
                         }
@@ -250,7 +334,9 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
                     // load from state
                     try {
                         windowPartitionsLock.lock(id);
-                        return windowPartitionsState.get(id, new WindowPartition<>(id));
+                        // the partition could still be waiting to be written to the state
+                        WindowPartition<T> pending = pendingWrites.remove(id);
+                        return pending != null ? pending : windowPartitionsState.get(id, new WindowPartition<>(id));
                     } finally {
                         windowPartitionsLock.unlock(id);
                     }
@@ -258,6 +344,44 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
             });
     }
 
+    // invoked with the partition lock held
+    private void writePartition(long pid, WindowPartition<T> p) {
+        if (ioExecutor == null) {
+            windowPartitionsState.put(pid, p);
+        } else {
+            pendingWrites.put(pid, p);
+            if (writeScheduled.compareAndSet(false, true)) {
+                ioExecutor.execute(() -> {
+                    writeScheduled.set(false);
+                    writePendingPartitions();
+                });
+            }
+        }
+    }
+
+    // writes the pending partitions in a batch
+    private void writePendingPartitions() {
+        try {
+            writeBehindLock.lock();
+            Iterator<Long> it = pendingWrites.keySet().iterator();
+            while (it.hasNext()) {
+                long pid = it.next();
+                try {
+                    windowPartitionsLock.lock(pid);
+                    WindowPartition<T> p = pendingWrites.remove(pid);
+                    if (p != null) {
+                        LOG.debug("Writing evicted partition {}", pid);
+                        windowPartitionsState.put(pid, p);
+                    }
+                } finally {
+                    windowPartitionsLock.unlock(pid);
+                }
+            }
+        } finally {
+            writeBehindLock.unlock();
+        }
+    }
+
     private void deletePartition(long pid) {
         LOG.debug("Delete partition: {}", pid);
         try {
@@ -286,6 +410,7 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
 
     private void flush() {
         LOG.debug("Flushing modified partitions");
+        writePendingPartitions();
         cache.asMap().forEach((pid, p) -> {
             Long pidToInvalidate = null;
             try {
@@ -337,12 +462,46 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
         }
     }
 
+    // a rough estimate of the heap size of an event, counting the values of the tuples
+    static long estimateEventBytes(Event<?> event) {
+        return 32 + estimateBytes(event.get());
+    }
+
+    private static long estimateBytes(Object obj) {
+        if (obj == null) {
+            return 0;
+        } else if (obj instanceof Tuple) {
+            return 64 + estimateBytes(((Tuple) obj).getValues());
+        } else if (obj instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence) obj).length();
+        } else if (obj instanceof byte[]) {
+            return 16 + ((byte[]) obj).length;
+        } else if (obj instanceof Collection) {
+            long bytes = 16;
+            for (Object o : (Collection<?>) obj) {
+                bytes += 8 + estimateBytes(o);
+            }
+            return bytes;
+        } else if (obj instanceof Map) {
+            long bytes = 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+                bytes += 32 + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+            }
+            return bytes;
+        } else {
+            return 16;
+        }
+    }
+
     // the window partition that holds the events
     public static class WindowPartition<T> implements Iterable<Event<T>> {
         private final ConcurrentLinkedQueue<Event<T>> events = new ConcurrentLinkedQueue<>();
         private final AtomicInteger size = new AtomicInteger();
         private final long id;
         private transient volatile boolean modified;
+        // estimated size in bytes of the events, computed lazily since it is not persisted
+        private transient volatile long estimatedBytes;
+        private transient volatile boolean estimated;
 
         public WindowPartition(long id) {
             this.id = id;
@@ -351,6 +510,9 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
         void add(Event<T> event) {
             events.add(event);
             size.incrementAndGet();
+            if (estimated) {
+                estimatedBytes += estimateEventBytes(event);
+            }
             setModified();
         }
 
@@ -376,6 +538,7 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
         public Iterator<Event<T>> iterator() {
             return new Iterator<Event<T>>() {
                 Iterator<Event<T>> it = events.iterator();
+                Event<T> last;
 
                 @Override
                 public boolean hasNext() {
@@ -384,13 +547,17 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
 
                 @Override
                 public Event<T> next() {
-                    return it.next();
+                    last = it.next();
+                    return last;
                 }
 
                 @Override
                 public void remove() {
                     it.remove();
                     size.decrementAndGet();
+                    if (estimated) {
+                        estimatedBytes -= estimateEventBytes(last);
+                    }
                     setModified();
                 }
             };
@@ -404,6 +571,21 @@ public class WindowState<T> extends AbstractCollection<Event<T>> {
             return id;
         }
 
+        /**
+         * Returns the estimated size of the events in the partition in bytes.
+         */
+        public long getEstimatedBytes() {
+            if (!estimated) {
+                long bytes = 0;
+                for (Event<T> event : events) {
+                    bytes += estimateEventBytes(event);
+                }
+                estimatedBytes = bytes;
+                estimated = true;
+            }
+            return estimatedBytes;
+        }
+
         // for unit tests
         public Collection<Event<T>> getEvents() {
             return Collections.unmodifiableCollection(events);
@@ -27,6 +27,7 @@ import org.apache.storm.windowing.TupleWindowImpl;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TestJoinBolt {
     String[] userFields = { "userId", "name", "city" };
@@ -308,6 +309,81 @@ public class TestJoinBolt {
         assertEquals(stores.length + 1, collector.actualResults.size()); // stores.length+1 as 2 users in Bengaluru
     }
 
+    @Test
+    public void testIncrementalInnerJoin() throws Exception {
+        ArrayList<Tuple> userStream = makeStream("users", userFields, users, "usersSpout");
+        ArrayList<Tuple> orderStream = makeStream("orders", orderFields, orders, "ordersSpout");
+
+        JoinBolt bolt = new JoinBolt(JoinBolt.Selector.STREAM, "users", userFields[0])
+            .join("orders", "userId", "users")
+            .select("userId,name,price")
+            .withIncrementalJoin();
+
+        MockCollector collector = new MockCollector();
+        bolt.prepare(null, null, collector);
+
+        // first activation: users and the first 4 orders (userIds 2, 2, 3, 4)
+        ArrayList<Tuple> firstNew = new ArrayList<>(userStream);
+        firstNew.addAll(orderStream.subList(0, 4));
+        bolt.execute(new TupleWindowImpl(firstNew, firstNew, new ArrayList<>()));
+        assertEquals(4, collector.actualResults.size());
+
+        // second activation: remaining orders arrive, user 2 and its orders expire
+        collector.actualResults.clear();
+        ArrayList<Tuple> secondNew = new ArrayList<>(orderStream.subList(4, orders.length));
+        ArrayList<Tuple> secondExpired = new ArrayList<>(orderStream.subList(0, 2));
+        secondExpired.add(userStream.get(1));
+        ArrayList<Tuple> window = new ArrayList<>(userStream);
+        window.removeAll(secondExpired);
+        window.addAll(orderStream.subList(2, orders.length));
+        bolt.execute(new TupleWindowImpl(window, secondNew, secondExpired));
+        printResults(collector);
+        // only the results for the new orders are emitted
+        assertEquals(orders.length - 4, collector.actualResults.size());
+
+        // third activation: a late user with a matching order in the window, nothing expires
+        collector.actualResults.clear();
+        ArrayList<Tuple> lateUser = makeStream("users", userFields, new Object[][]{ { 5, "suresh2", "sunnyvale" } }, "usersSpout");
+        window.addAll(lateUser);
+        bolt.execute(new TupleWindowImpl(window, lateUser, new ArrayList<>()));
+        assertEquals(1, collector.actualResults.size());
+        assertEquals(Arrays.asList(5, "suresh2", 2), collector.actualResults.get(0));
+    }
+
+    @Test
+    public void testIncrementalThreeStreamInnerJoin() throws Exception {
+        ArrayList<Tuple> userStream = makeStream("users", userFields, users, "usersSpout");
+        ArrayList<Tuple> storesStream = makeStream("stores", storeFields, stores, "storesSpout");
+        ArrayList<Tuple> cityStream = makeStream("cities", cityFields, cities, "citiesSpout");
+
+        JoinBolt bolt = new JoinBolt(JoinBolt.Selector.STREAM, "users", userFields[2])
+            .join("stores", "city", "users")
+            .join("cities", "cityName", "stores")
+            .select("name,storeName,city,country")
+            .withIncrementalJoin();
+
+        MockCollector collector = new MockCollector();
+        bolt.prepare(null, null, collector);
+
+        // the tuples arrive over three activations, in the reverse join order
+        ArrayList<Tuple> window = new ArrayList<>();
+        for (ArrayList<Tuple> stream : Arrays.asList(cityStream, storesStream, userStream)) {
+            window.addAll(stream);
+            bolt.execute(new TupleWindowImpl(new ArrayList<>(window), stream, new ArrayList<>()));
+        }
+        // same as the non incremental join of the whole window
+        assertEquals(6, collector.actualResults.size());
+    }
+
+    @Test
+    public void testIncrementalLeftJoinNotSupported() throws Exception {
+        JoinBolt bolt = new JoinBolt(JoinBolt.Selector.STREAM, "users", userFields[0])
+            .leftJoin("orders", "userId", "users")
+            .select("userId,name,price")
+            .withIncrementalJoin();
+        assertThrows(IllegalArgumentException.class, () -> bolt.prepare(null, null, new MockCollector()));
+    }
+
     static class MockCollector extends OutputCollector {
         public ArrayList<List<Object>> actualResults = new ArrayList<>();
 
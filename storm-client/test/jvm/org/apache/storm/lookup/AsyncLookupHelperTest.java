@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.lookup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.tuple.Tuple;
+import org.junit.jupiter.api.Test;
+
+public class AsyncLookupHelperTest {
+
+    private final OutputCollector collector = mock(OutputCollector.class);
+    private final List<List<String>> lookups = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Tuple, String> results = Collections.synchronizedMap(new HashMap<>());
+
+    private Map<String, String> upperCase(List<String> keys) {
+        lookups.add(new ArrayList<>(keys));
+        Map<String, String> values = new HashMap<>();
+        for (String key : keys) {
+            if (!key.equals("absent")) {
+                values.put(key, key.toUpperCase());
+            }
+        }
+        return values;
+    }
+
+    private AsyncLookupHelper<String, String> createHelper(LookupOptions options, BatchLookup<String, String> batchLookup) {
+        return new AsyncLookupHelper<>(options, batchLookup, results::put, null, collector);
+    }
+
+    @Test
+    public void testSynchronousLookupWithCache() {
+        AsyncLookupHelper<String, String> helper = createHelper(new LookupOptions().withCache(10, 1, TimeUnit.MINUTES)
+                                                                    .withCacheName("testSynchronousLookupWithCache"),
+                                                                this::upperCase);
+        Tuple first = mock(Tuple.class);
+        helper.lookup(first, "a");
+        assertEquals("A", results.get(first));
+        verify(collector).ack(first);
+
+        Tuple second = mock(Tuple.class);
+        Tuple absent = mock(Tuple.class);
+        helper.lookup(second, "a");
+        helper.lookup(absent, "absent");
+        helper.lookup(absent, "absent");
+        helper.cleanup();
+
+        assertEquals("A", results.get(second));
+        assertNull(results.get(absent));
+        assertEquals(Arrays.asList(Collections.singletonList("a"), Collections.singletonList("absent")), lookups);
+        verify(collector).ack(second);
+        verify(collector, times(2)).ack(absent);
+    }
+
+    @Test
+    public void testBatchesAndCoalescesKeysWhileLookupsAreInFlight() throws Exception {
+        CountDownLatch firstLookupStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncLookupHelper<String, String> helper = createHelper(new LookupOptions().withMaxInFlightLookups(1).withMaxBatchSize(10),
+            keys -> {
+                firstLookupStarted.countDown();
+                release.await();
+                return upperCase(keys);
+            });
+        Tuple[] tuples = new Tuple[4];
+        for (int i = 0; i < tuples.length; i++) {
+            tuples[i] = mock(Tuple.class);
+        }
+
+        helper.lookup(tuples[0], "a");
+        assertTrue(firstLookupStarted.await(10, TimeUnit.SECONDS));
+        helper.lookup(tuples[1], "b");
+        helper.lookup(tuples[2], "c");
+        helper.lookup(tuples[3], "b");
+        assertEquals(4, helper.getWaitingTuples());
+        assertTrue(results.isEmpty());
+
+        release.countDown();
+        helper.cleanup();
+
+        assertEquals(Arrays.asList(Collections.singletonList("a"), Arrays.asList("b", "c")), lookups);
+        assertEquals("A", results.get(tuples[0]));
+        assertEquals("B", results.get(tuples[1]));
+        assertEquals("C", results.get(tuples[2]));
+        assertEquals("B", results.get(tuples[3]));
+        assertEquals(0, helper.getWaitingTuples());
+        for (Tuple tuple : tuples) {
+            verify(collector).ack(tuple);
+        }
+    }
+
+    @Test
+    public void testBlocksWhenTheNextBatchIsFull() {
+        AsyncLookupHelper<String, String> helper = createHelper(new LookupOptions().withMaxInFlightLookups(2).withMaxBatchSize(2),
+                                                                this::upperCase);
+        for (int i = 0; i < 100; i++) {
+            helper.lookup(mock(Tuple.class), "key" + i);
+            assertTrue(helper.getWaitingTuples() <= 2 * 2 + 2, "waiting tuples: " + helper.getWaitingTuples());
+        }
+        helper.cleanup();
+
+        assertEquals(100, results.size());
+        verify(collector, times(100)).ack(any(Tuple.class));
+    }
+
+    @Test
+    public void testFailsTheTuplesOfAFailedLookup() {
+        AsyncLookupHelper<String, String> helper = createHelper(new LookupOptions().withMaxInFlightLookups(1), keys -> {
+            throw new IllegalStateException("unavailable");
+        });
+        Tuple first = mock(Tuple.class);
+        Tuple second = mock(Tuple.class);
+
+        helper.lookup(first, "a");
+        helper.lookup(second, "a");
+        helper.cleanup();
+
+        verify(collector).fail(first);
+        verify(collector).fail(second);
+        verify(collector, never()).ack(any(Tuple.class));
+        verify(collector, times(1)).reportError(any(IllegalStateException.class));
+    }
+
+    @Test
+    public void testSharesTheCacheByName() {
+        LookupOptions options = new LookupOptions().withMaxInFlightLookups(1).withCache(10, 0, TimeUnit.SECONDS)
+                                                   .withCacheName("testSharesTheCacheByName");
+        AsyncLookupHelper<String, String> first = createHelper(options, this::upperCase);
+        first.lookup(mock(Tuple.class), "a");
+        first.cleanup();
+
+        AsyncLookupHelper<String, String> second = createHelper(options, this::upperCase);
+        Tuple tuple = mock(Tuple.class);
+        second.lookup(tuple, "a");
+        second.cleanup();
+
+        assertEquals(1, lookups.size());
+        assertEquals("A", results.get(tuple));
+        verify(collector).ack(tuple);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.multilang;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MessagePackSerializerTest {
+
+    @Test
+    public void testPackAndUnpack() throws IOException {
+        List<Object> values = Arrays.asList(null, true, false, 0L, 127L, 128L, 65536L, 1L << 40, Long.MAX_VALUE, -1L, -33L, -200L,
+                                            -70000L, Long.MIN_VALUE, 1.5, "", "héllo", String.join("", Collections.nCopies(300, "x")),
+                                            Arrays.asList(1L, "a", Collections.emptyList()), Collections.singletonMap("k", 2L));
+        for (Object value : values) {
+            assertEquals(value, unpack(pack(value)));
+        }
+        assertArrayEquals(new byte[]{ 1, 2 }, (byte[]) unpack(pack(new byte[]{ 1, 2 })));
+        // integers are decoded to Long like the JSON protocol, and other types are encoded as strings
+        assertEquals(Arrays.asList(1L, 2L), unpack(pack(new int[]{ 1, 2 })));
+        assertEquals("x", unpack(pack(new StringBuilder("x"))));
+    }
+
+    @Test
+    public void testUnpackTruncatedValue() throws IOException {
+        byte[] bytes = pack("a longer string, that needs its length encoded");
+        assertThrows(IOException.class, () -> unpack(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    public void testReadBatchedShellMsgs() throws Exception {
+        Map<String, Object> emit = new HashMap<>();
+        emit.put("command", "emit");
+        emit.put("anchors", Collections.singletonList("1"));
+        emit.put("tuple", Arrays.asList("word", 3L));
+        emit.put("need_task_ids", false);
+        Map<String, Object> ack = new HashMap<>();
+        ack.put("command", "ack");
+        ack.put("id", "1");
+
+        ByteArrayOutputStream in = new ByteArrayOutputStream();
+        writeFrame(Collections.singletonMap(MessagePackSerializer.BATCH, Arrays.asList(emit, ack)), in);
+        writeFrame(Collections.singletonMap("command", "sync"), in);
+
+        MessagePackSerializer serializer = new MessagePackSerializer();
+        serializer.initialize(new ByteArrayOutputStream(), new ByteArrayInputStream(in.toByteArray()));
+
+        ShellMsg msg = serializer.readShellMsg();
+        assertEquals("emit", msg.getCommand());
+        assertEquals(Collections.singletonList("1"), msg.getAnchors());
+        assertEquals(Arrays.asList("word", 3L), msg.getTuple());
+        assertEquals(false, msg.areTaskIdsNeeded());
+        msg = serializer.readShellMsg();
+        assertEquals("ack", msg.getCommand());
+        assertEquals("1", msg.getId());
+        assertEquals("sync", serializer.readShellMsg().getCommand());
+        assertThrows(NoOutputException.class, serializer::readShellMsg);
+    }
+
+    @Test
+    public void testWriteBoltMsgsInOneFrame() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MessagePackSerializer serializer = new MessagePackSerializer();
+        serializer.initialize(out, new ByteArrayInputStream(new byte[0]));
+
+        serializer.writeBoltMsgs(Arrays.asList(boltMsg("1", "a"), boltMsg("2", "b")));
+        serializer.writeTaskIds(Arrays.asList(4, 5));
+
+        ByteBuffer frames = ByteBuffer.wrap(out.toByteArray());
+        Map<?, ?> batch = (Map<?, ?>) readFrame(frames);
+        List<?> msgs = (List<?>) batch.get(MessagePackSerializer.BATCH);
+        assertEquals(2, msgs.size());
+        Map<?, ?> first = (Map<?, ?>) msgs.get(0);
+        assertEquals("1", first.get("id"));
+        assertEquals("spout", first.get("comp"));
+        assertEquals(7L, first.get("task"));
+        assertEquals(Collections.singletonList("a"), first.get("tuple"));
+        assertEquals("2", ((Map<?, ?>) msgs.get(1)).get("id"));
+        assertEquals(Arrays.asList(4L, 5L), readFrame(frames));
+        assertEquals(0, frames.remaining());
+    }
+
+    private static BoltMsg boltMsg(String id, Object value) {
+        BoltMsg msg = new BoltMsg();
+        msg.setId(id);
+        msg.setComp("spout");
+        msg.setStream("default");
+        msg.setTask(7);
+        msg.setTuple(Collections.singletonList(value));
+        return msg;
+    }
+
+    private static byte[] pack(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        MessagePack.pack(value, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static Object unpack(byte[] bytes) throws IOException {
+        return MessagePack.unpack(ByteBuffer.wrap(bytes));
+    }
+
+    private static void writeFrame(Object msg, ByteArrayOutputStream out) throws IOException {
+        byte[] bytes = pack(msg);
+        new DataOutputStream(out).writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Object readFrame(ByteBuffer frames) throws IOException {
+        int length = frames.getInt();
+        ByteBuffer frame = frames.slice();
+        frame.limit(length);
+        frames.position(frames.position() + length);
+        return MessagePack.unpack(frame);
+    }
+}
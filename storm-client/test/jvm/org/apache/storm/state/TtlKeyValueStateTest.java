@@ -0,0 +1,154 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.state;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.storm.utils.Time;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TtlKeyValueState}.
+ */
+public class TtlKeyValueStateTest {
+
+    @Test
+    public void testExpiryOnRead() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            InMemoryKeyValueState<String, Object> store = new InMemoryKeyValueState<>();
+            TtlKeyValueState<String, String> state = new TtlKeyValueState<>(store, 1000);
+            state.put("a", "1");
+            Time.advanceTime(600);
+            state.put("b", "2");
+            assertEquals("1", state.get("a"));
+            Time.advanceTime(400);
+            assertNull(state.get("a"));
+            assertEquals("default", state.get("a", "default"));
+            assertNull(store.get("a"));
+            assertEquals("2", state.get("b"));
+            // an update extends the time to live
+            state.put("b", "3");
+            Time.advanceTime(900);
+            assertEquals("3", state.get("b"));
+        }
+    }
+
+    @Test
+    public void testPurgeExpired() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            InMemoryKeyValueState<String, Object> store = new InMemoryKeyValueState<>();
+            TtlKeyValueState<String, Integer> state = new TtlKeyValueState<>(store, 1000);
+            for (int i = 0; i < 10; i++) {
+                state.put("k" + i, i);
+            }
+            Time.advanceTime(500);
+            state.put("k0", 0);
+            assertEquals(0, state.purgeExpired());
+            Time.advanceTime(700);
+            assertEquals(9, state.purgeExpired());
+            Map<String, Integer> remaining = new HashMap<>();
+            for (Map.Entry<String, Object> entry : store) {
+                remaining.put(entry.getKey(), ((TtlKeyValueState.TtlValue<Integer>) entry.getValue()).getValue());
+            }
+            assertEquals(1, remaining.size());
+            assertEquals(Integer.valueOf(0), remaining.get("k0"));
+            Time.advanceTime(400);
+            assertFalse(state.iterator().hasNext());
+            assertEquals(1, state.purgeExpired());
+        }
+    }
+
+    @Test
+    public void testRollbackRestoresExpiry() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            InMemoryKeyValueState<String, Object> store = new InMemoryKeyValueState<>();
+            TtlKeyValueState<String, String> state = new TtlKeyValueState<>(store, 1000);
+            state.put("a", "1");
+            state.prepareCommit(1);
+            state.commit(1);
+            state.put("b", "2");
+            state.rollback();
+            assertNull(state.get("b"));
+            Time.advanceTime(1100);
+            assertEquals(1, state.purgeExpired());
+            assertNull(store.get("a"));
+        }
+    }
+
+    @Test
+    public void testPurgeSweepsRestoredKeys() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            AtomicInteger visited = new AtomicInteger();
+            InMemoryKeyValueState<String, Object> store = new InMemoryKeyValueState<String, Object>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    Iterator<Map.Entry<String, Object>> it = super.iterator();
+                    return new Iterator<Map.Entry<String, Object>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            visited.incrementAndGet();
+                            return it.next();
+                        }
+                    };
+                }
+            };
+            long expiryMs = Time.currentTimeMillis() + 1000;
+            for (int i = 0; i < 5; i++) {
+                store.put("k" + i, new TtlKeyValueState.TtlValue<>(i, expiryMs));
+            }
+            store.put("legacy", "0");
+            store.prepareCommit(1);
+            store.commit(1);
+            TtlKeyValueState<String, Integer> state = new TtlKeyValueState<>(store, 1000, 2);
+            state.rollback();
+            assertEquals(0, visited.get());
+
+            // the restored keys are never touched, and are removed by the sweep in bounded steps
+            Time.advanceTime(1100);
+            int removed = 0;
+            for (int i = 0; i < 3; i++) {
+                removed += state.purgeExpired();
+                assertEquals(2 * (i + 1), visited.get());
+            }
+            assertEquals(5, removed);
+            for (int i = 0; i < 5; i++) {
+                assertNull(store.get("k" + i));
+            }
+            assertEquals("0", store.get("legacy"));
+        }
+    }
+
+    @Test
+    public void testValuesWithoutTtl() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            InMemoryKeyValueState<String, Object> store = new InMemoryKeyValueState<>();
+            store.put("legacy", "0");
+            TtlKeyValueState<String, String> state = new TtlKeyValueState<>(store, 1000);
+            Time.advanceTime(5000);
+            assertEquals(0, state.purgeExpired());
+            assertEquals("0", state.get("legacy"));
+        }
+    }
+}
@@ -12,11 +12,15 @@
 
 package org.apache.storm.streams;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.apache.storm.Constants;
 import org.apache.storm.generated.GlobalStreamId;
 import org.apache.storm.generated.Grouping;
 import org.apache.storm.shade.com.google.common.collect.Multimap;
@@ -25,12 +29,15 @@ import org.apache.storm.shade.org.jgrapht.graph.DefaultDirectedGraph;
 import org.apache.storm.streams.operations.aggregators.LongSum;
 import org.apache.storm.streams.processors.AggregateProcessor;
 import org.apache.storm.streams.processors.FilterProcessor;
+import org.apache.storm.streams.processors.MapAsyncProcessor;
+import org.apache.storm.streams.processors.MapWithTimestampProcessor;
 import org.apache.storm.streams.processors.Processor;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.Utils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -38,6 +45,7 @@ import org.mockito.Mockito;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * Unit tests for {@link ProcessorBolt}
@@ -118,6 +126,107 @@ public class ProcessorBoltTest {
         Mockito.verify(mockOutputCollector, Mockito.times(1)).ack(tupleWithTs);
     }
 
+    @Test
+    public void testMapWithTimestamp() {
+        Tuple tupleWithTs = Mockito.mock(Tuple.class);
+        setUpMockTuples(tupleWithTs);
+        Mockito.when(tupleWithTs.getLongByField("ts")).thenReturn(12345L);
+        setUpProcessorBolt(new MapWithTimestampProcessor<Integer, Long>((x, ts) -> x + ts), "ts");
+        bolt.execute(tupleWithTs);
+        ArgumentCaptor<Values> values = ArgumentCaptor.forClass(Values.class);
+        Mockito.verify(mockOutputCollector).emit(Mockito.anyString(), Mockito.anyCollection(), values.capture());
+        assertEquals(new Values(12445L, 12345L), values.getValue());
+    }
+
+    @Test
+    public void testMapWithTimestampRequiresTimestampField() {
+        assertThrows(IllegalStateException.class, () -> setUpProcessorBolt(new MapWithTimestampProcessor<Integer, Long>((x, ts) -> x + ts)));
+    }
+
+    @Test
+    public void testMapAsyncOrdered() {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        setUpProcessorBolt(new MapAsyncProcessor<Integer, Integer>(x -> {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        }, 10, true));
+        bolt.execute(mockTuple1);
+        bolt.execute(mockTuple2);
+        Mockito.verify(mockOutputCollector, Mockito.never()).ack(Mockito.any());
+        // the second result completes first but is emitted after the first one
+        futures.get(1).complete(2);
+        bolt.execute(tick());
+        Mockito.verify(mockOutputCollector, Mockito.never()).emit(Mockito.anyString(), Mockito.anyCollection(), Mockito.anyList());
+        futures.get(0).complete(1);
+        bolt.execute(tick());
+        ArgumentCaptor<Collection> anchor = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Values> values = ArgumentCaptor.forClass(Values.class);
+        ArgumentCaptor<String> os = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(mockOutputCollector, Mockito.times(2)).emit(os.capture(), anchor.capture(), values.capture());
+        assertArrayEquals(new Object[]{ new Values(1), new Values(2) }, values.getAllValues().toArray());
+        assertArrayEquals(new Object[]{ mockTuple1 }, anchor.getAllValues().get(0).toArray());
+        assertArrayEquals(new Object[]{ mockTuple2 }, anchor.getAllValues().get(1).toArray());
+        Mockito.verify(mockOutputCollector).ack(mockTuple1);
+        Mockito.verify(mockOutputCollector).ack(mockTuple2);
+    }
+
+    @Test
+    public void testMapAsyncUnorderedAndFailure() {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        setUpProcessorBolt(new MapAsyncProcessor<Integer, Integer>(x -> {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        }, 10, false));
+        bolt.execute(mockTuple1);
+        bolt.execute(mockTuple2);
+        futures.get(1).complete(2);
+        futures.get(0).completeExceptionally(new IllegalStateException("service down"));
+        // the completed results are forwarded when the next input is processed
+        bolt.execute(mockTuple3);
+        ArgumentCaptor<Collection> anchor = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Values> values = ArgumentCaptor.forClass(Values.class);
+        ArgumentCaptor<String> os = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(mockOutputCollector).emit(os.capture(), anchor.capture(), values.capture());
+        assertEquals(new Values(2), values.getValue());
+        assertArrayEquals(new Object[]{ mockTuple2 }, anchor.getValue().toArray());
+        Mockito.verify(mockOutputCollector).ack(mockTuple2);
+        Mockito.verify(mockOutputCollector).fail(mockTuple1);
+        Mockito.verify(mockOutputCollector, Mockito.never()).ack(mockTuple1);
+        Mockito.verify(mockOutputCollector, Mockito.never()).ack(mockTuple3);
+    }
+
+    @Test
+    public void testMapAsyncMaxInFlight() {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        MapAsyncProcessor<Integer, Integer> processor = new MapAsyncProcessor<>(x -> {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        }, 1, true);
+        setUpProcessorBolt(processor);
+        bolt.execute(mockTuple1);
+        assertEquals(1, processor.getInFlightCount());
+        // completes while the processor waits for a free slot
+        CompletableFuture<Integer> first = futures.get(0);
+        CompletableFuture.runAsync(() -> {
+            Utils.sleep(100);
+            first.complete(1);
+        });
+        bolt.execute(mockTuple2);
+        assertEquals(2, futures.size());
+        Mockito.verify(mockOutputCollector).ack(mockTuple1);
+        assertEquals(1, processor.getInFlightCount());
+    }
+
+    private Tuple tick() {
+        Tuple tick = Mockito.mock(Tuple.class);
+        Mockito.when(tick.getSourceComponent()).thenReturn(Constants.SYSTEM_COMPONENT_ID);
+        Mockito.when(tick.getSourceStreamId()).thenReturn(Constants.SYSTEM_TICK_STREAM_ID);
+        return tick;
+    }
+
     private void setUpProcessorBolt(Processor<?> processor) {
         setUpProcessorBolt(processor, Collections.emptySet(), false, null);
     }
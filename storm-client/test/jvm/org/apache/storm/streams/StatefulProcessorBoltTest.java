@@ -18,15 +18,20 @@ import java.util.HashMap;
 import org.apache.storm.shade.com.google.common.collect.Multimap;
 import org.apache.storm.shade.org.jgrapht.DirectedGraph;
 import org.apache.storm.shade.org.jgrapht.graph.DefaultDirectedGraph;
+import org.apache.storm.state.InMemoryKeyValueState;
 import org.apache.storm.state.KeyValueState;
 import org.apache.storm.streams.operations.StateUpdater;
+import org.apache.storm.streams.operations.TimedStateUpdater;
 import org.apache.storm.streams.processors.Processor;
+import org.apache.storm.streams.processors.TimerService;
 import org.apache.storm.streams.processors.UpdateStateByKeyProcessor;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
 import org.apache.storm.tuple.Fields;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.MockTupleHelpers;
+import org.apache.storm.utils.Time;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -34,6 +39,7 @@ import org.mockito.Mockito;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * Unit tests for {@link StatefulProcessorBolt}
@@ -82,6 +88,111 @@ public class StatefulProcessorBoltTest {
         Mockito.verify(mockKeyValueState, Mockito.times(1)).put("k", 1L);
     }
 
+    @Test
+    public void testProcessingTimeTimer() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            mockKeyValueState = new InMemoryKeyValueState<>();
+            setUpStatefulProcessorBolt(new UpdateStateByKeyProcessor<>(new TimedStateUpdater<String, Object, Long>() {
+                @Override
+                public Long init() {
+                    return 0L;
+                }
+
+                @Override
+                public Long apply(String key, Long state, Object value, TimerService<String> timerService) {
+                    timerService.registerProcessingTimeTimer(key, timerService.currentProcessingTime() + 1000);
+                    return state + 1;
+                }
+
+                @Override
+                public Long onTimer(String key, Long state, long timestamp, TimerService.TimeDomain timeDomain,
+                                    TimerService<String> timerService) {
+                    assertEquals(TimerService.TimeDomain.PROCESSING_TIME, timeDomain);
+                    assertEquals(1000, timestamp);
+                    return -state;
+                }
+            }, 0));
+            bolt.execute(mockTuple1);
+            Time.advanceTime(500);
+            Tuple tick = MockTupleHelpers.mockTickTuple();
+            bolt.execute(tick);
+            Mockito.verify(mockOutputCollector, Mockito.times(1)).emit(Mockito.anyString(), Mockito.anyCollection(), Mockito.anyList());
+            Time.advanceTime(500);
+            bolt.execute(tick);
+            // the output of the timer is not anchored to the tick
+            Mockito.verify(mockOutputCollector, Mockito.times(1)).emit(Mockito.anyString(), Mockito.anyCollection(), Mockito.anyList());
+            Mockito.verify(mockOutputCollector).emit("outputstream", new Values("k", -1L));
+            assertEquals(Long.valueOf(-1L), mockKeyValueState.get("k"));
+
+            // nor to the next input
+            Time.advanceTime(1000);
+            bolt.execute(mockTuple1);
+            ArgumentCaptor<Collection> anchor = ArgumentCaptor.forClass(Collection.class);
+            ArgumentCaptor<Values> values = ArgumentCaptor.forClass(Values.class);
+            Mockito.verify(mockOutputCollector, Mockito.times(2)).emit(Mockito.anyString(), anchor.capture(), values.capture());
+            assertEquals(new Values("k", 0L), values.getValue());
+            assertArrayEquals(new Object[]{ mockTuple1 }, anchor.getValue().toArray());
+        }
+    }
+
+    @Test
+    public void testTimersAreRestoredWithTheState() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            InMemoryKeyValueState<String, Long> state = new InMemoryKeyValueState<>();
+            mockKeyValueState = state;
+            long timerMs = Time.currentTimeMillis() + 1000;
+            TimedStateUpdater<String, Object, Long> updater = new TimedStateUpdater<String, Object, Long>() {
+                @Override
+                public Long init() {
+                    return 0L;
+                }
+
+                @Override
+                public Long apply(String key, Long count, Object value, TimerService<String> timerService) {
+                    timerService.registerProcessingTimeTimer(key, timerMs);
+                    return count + 1;
+                }
+
+                @Override
+                public Long onTimer(String key, Long count, long timestamp, TimerService.TimeDomain timeDomain,
+                                    TimerService<String> timerService) {
+                    return -count;
+                }
+            };
+            setUpStatefulProcessorBolt(new UpdateStateByKeyProcessor<>(updater, 0));
+            bolt.execute(mockTuple1);
+            bolt.prePrepare(1);
+            state.prepareCommit(1);
+            state.commit(1);
+
+            // the worker restarts, and the bolt is initialized with the restored state
+            state.rollback();
+            setUpStatefulProcessorBolt(new UpdateStateByKeyProcessor<>(updater, 0));
+            Time.advanceTime(1000);
+            bolt.execute(MockTupleHelpers.mockTickTuple());
+            Mockito.verify(mockOutputCollector).emit("outputstream", new Values("k", -1L));
+            assertEquals(Long.valueOf(-1L), state.get("k"));
+        }
+    }
+
+    @Test
+    public void testStateTtl() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            mockKeyValueState = new InMemoryKeyValueState<>();
+            setUpStatefulProcessorBolt(new UpdateStateByKeyProcessor<>(StateUpdater.of(0L, (Long state, Object value) -> state + 1), 1000));
+            bolt.execute(mockTuple1);
+            bolt.execute(mockTuple1);
+            // the expired state is purged within a fraction of the ttl
+            Time.advanceTime(1100);
+            bolt.execute(MockTupleHelpers.mockTickTuple());
+            assertNull(mockKeyValueState.get("k"));
+            bolt.execute(mockTuple1);
+            ArgumentCaptor<Values> values = ArgumentCaptor.forClass(Values.class);
+            Mockito.verify(mockOutputCollector, Mockito.times(3)).emit(Mockito.anyString(), Mockito.anyCollection(), values.capture());
+            assertEquals(new Values("k", 1L), values.getValue());
+        }
+    }
+
     private void setUpStatefulProcessorBolt(Processor<?> processor) {
         ProcessorNode node = new ProcessorNode(processor, "outputstream", new Fields("value"));
         node.setEmitsPair(true);
@@ -75,6 +75,21 @@ public class WindowedProcessorBoltTest {
         assertEquals(new Values(WindowNode.PUNCTUATION), values.getAllValues().get(1));
     }
 
+    @Test
+    public void testPunctuationWithTimestampField() throws Exception {
+        Window<?, ?> window = TumblingWindows.of(BaseWindowedBolt.Count.of(2)).withTimestampField("ts");
+        setUpWindowedProcessorBolt(new AggregateProcessor<>(new Count<>()), window);
+        bolt.execute(getMockTupleWindow(mockTuple1, mockTuple2));
+        bolt.execute(getMockTupleWindow(mockTuple3));
+        ArgumentCaptor<Values> values = ArgumentCaptor.forClass(Values.class);
+        ArgumentCaptor<String> os = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(mockOutputCollector, Mockito.times(4)).emit(os.capture(), values.capture());
+        assertEquals(new Values(2L, 0L), values.getAllValues().get(0));
+        assertEquals(new Values(WindowNode.PUNCTUATION), values.getAllValues().get(1));
+        assertEquals(new Values(1L, 0L), values.getAllValues().get(2));
+        assertEquals(new Values(WindowNode.PUNCTUATION), values.getAllValues().get(3));
+    }
+
     private void setUpWindowedProcessorBolt(Processor<?> processor, Window<?, ?> window) {
         ProcessorNode node = new ProcessorNode(processor, "outputstream", new Fields("value"));
         node.setWindowed(true);
@@ -84,6 +99,9 @@ public class WindowedProcessorBoltTest {
         graph.addVertex(node);
         bolt = new WindowedProcessorBolt("bolt1", graph, Collections.singletonList(node), window);
         bolt.setStreamToInitialProcessors(mockStreamToProcessors);
+        if (window.getTimestampField() != null) {
+            bolt.setTimestampField(window.getTimestampField());
+        }
         bolt.prepare(new HashMap<>(), mockTopologyContext, mockOutputCollector);
     }
 
@@ -19,6 +19,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.apache.storm.Config;
 import org.apache.storm.generated.GlobalStreamId;
 import org.apache.storm.generated.Grouping;
@@ -138,6 +139,32 @@ public class WindowedBoltExecutorTest {
                           new long[]{ (long) third.get().get(0).getValue(0), (long) third.get().get(1).getValue(0) });
     }
 
+    @Test
+    public void testStreamWithoutTsDoesNotHoldBackWatermark() {
+        testWindowedBolt = new TestWindowedBolt();
+        testWindowedBolt.withTimestampField("ts");
+        executor = new WindowedBoltExecutor(testWindowedBolt);
+        Map<String, Object> conf = new HashMap<>();
+        conf.put(Config.TOPOLOGY_MESSAGE_TIMEOUT_SECS, 100000);
+        conf.put(Config.TOPOLOGY_BOLTS_WINDOW_LENGTH_DURATION_MS, 20);
+        conf.put(Config.TOPOLOGY_BOLTS_SLIDING_INTERVAL_DURATION_MS, 10);
+        conf.put(Config.TOPOLOGY_BOLTS_TUPLE_TIMESTAMP_MAX_LAG_MS, 5);
+        conf.put(Config.TOPOLOGY_BOLTS_WATERMARK_EVENT_INTERVAL_MS, 100000);
+        TopologyContext context = Mockito.mock(TopologyContext.class);
+        Map<GlobalStreamId, Grouping> sources = new HashMap<>();
+        sources.put(new GlobalStreamId("s1", "default"), null);
+        sources.put(new GlobalStreamId("s1", "punctuation"), null);
+        Mockito.when(context.getThisSources()).thenReturn(sources);
+        Mockito.when(context.getComponentOutputFields(new GlobalStreamId("s1", "default"))).thenReturn(new Fields("ts"));
+        Mockito.when(context.getComponentOutputFields(new GlobalStreamId("s1", "punctuation"))).thenReturn(new Fields("p"));
+        executor.prepare(conf, context, getOutputCollector());
+        for (long ts : new long[]{ 603, 605, 626 }) {
+            executor.execute(getTuple("s1", new Fields("ts"), new Values(ts), "s1Src"));
+        }
+        executor.waterMarkEventGenerator.run();
+        assertEquals(2, testWindowedBolt.tupleWindows.size());
+    }
+
     @Test
     public void testPrepareLateTupleStreamWithoutTs() {
         Map<String, Object> conf = new HashMap<>();
@@ -218,6 +245,49 @@ public class WindowedBoltExecutorTest {
         Mockito.verify(outputCollector).emit("$late", Collections.singletonList(tuple), new Values(tuple));
     }
 
+    @Test
+    public void testExecuteWithSessionWindow() {
+        testWindowedBolt = new TestWindowedBolt();
+        testWindowedBolt.withTimestampField("ts");
+        testWindowedBolt.withSessionWindow(new BaseWindowedBolt.Duration(10, TimeUnit.MILLISECONDS), "user");
+        executor = new WindowedBoltExecutor(testWindowedBolt);
+        OutputCollector outputCollector = getOutputCollector();
+        Map<String, Object> conf = new HashMap<>(testWindowedBolt.getComponentConfiguration());
+        conf.put(Config.TOPOLOGY_MESSAGE_TIMEOUT_SECS, 100000);
+        conf.put(Config.TOPOLOGY_BOLTS_WATERMARK_EVENT_INTERVAL_MS, 100000);
+        executor.prepare(conf, getTopologyContext(), outputCollector);
+
+        Fields fields = new Fields("user", "ts");
+        Object[][] events = { { "a", 600L }, { "b", 602L }, { "a", 605L }, { "b", 615L }, { "a", 630L } };
+        for (Object[] event : events) {
+            executor.execute(getTuple("s1", fields, new Values(event), "s1Src"));
+        }
+        executor.waterMarkEventGenerator.run();
+        // watermark 630, sessions a[600, 615) b[602, 612) closed, b[615, 625) closed, a[630, 640) open
+        assertEquals(3, testWindowedBolt.tupleWindows.size());
+        TupleWindow first = testWindowedBolt.tupleWindows.get(0);
+        assertEquals(Arrays.asList(602L), Arrays.asList(first.get().get(0).getLongByField("ts")));
+        assertEquals(602L, (long) first.getStartTimestamp());
+        assertEquals(612L, (long) first.getEndTimestamp());
+        TupleWindow second = testWindowedBolt.tupleWindows.get(1);
+        assertEquals(2, second.get().size());
+        assertEquals(600L, (long) second.getStartTimestamp());
+        assertEquals(615L, (long) second.getEndTimestamp());
+        assertEquals(1, testWindowedBolt.tupleWindows.get(2).get().size());
+        Mockito.verify(outputCollector, Mockito.times(4)).ack(Mockito.any());
+    }
+
+    @Test
+    public void testPrepareSessionWindowWithWindowLength() {
+        testWindowedBolt = new TestWindowedBolt();
+        testWindowedBolt.withSessionWindow(new BaseWindowedBolt.Duration(10, TimeUnit.MILLISECONDS));
+        executor = new WindowedBoltExecutor(testWindowedBolt);
+        Map<String, Object> conf = new HashMap<>(testWindowedBolt.getComponentConfiguration());
+        conf.put(Config.TOPOLOGY_MESSAGE_TIMEOUT_SECS, 100000);
+        conf.put(Config.TOPOLOGY_BOLTS_WINDOW_LENGTH_DURATION_MS, 20);
+        assertThrows(IllegalArgumentException.class, () -> executor.prepare(conf, getTopologyContext(), getOutputCollector()));
+    }
+
     @Test
     public void testEmptyConfigOnWrappedBolt() {
         IWindowedBolt wrappedBolt = Mockito.mock(IWindowedBolt.class);
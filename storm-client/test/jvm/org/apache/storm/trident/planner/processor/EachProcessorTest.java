@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.planner.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import org.apache.storm.trident.operation.BaseFilter;
+import org.apache.storm.trident.operation.BaseFunction;
+import org.apache.storm.trident.operation.Function;
+import org.apache.storm.trident.operation.TridentCollector;
+import org.apache.storm.trident.operation.VectorizedCollector;
+import org.apache.storm.trident.operation.VectorizedFilter;
+import org.apache.storm.trident.operation.VectorizedFunction;
+import org.apache.storm.trident.operation.impl.VectorizedFilterExecutor;
+import org.apache.storm.trident.planner.ProcessorContext;
+import org.apache.storm.trident.planner.TupleReceiver;
+import org.apache.storm.trident.tuple.Column;
+import org.apache.storm.trident.tuple.ColumnBatch;
+import org.apache.storm.trident.tuple.TridentTuple;
+import org.apache.storm.trident.tuple.TridentTupleView.FreshOutputFactory;
+import org.apache.storm.tuple.Fields;
+import org.apache.storm.tuple.Values;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the vectorized operations of {@link EachProcessor}.
+ */
+public class EachProcessorTest {
+    private static final int NUM_TUPLES = EachProcessor.SLICE_SIZE * 2 + 10;
+
+    private static List<List<Object>> run(Function function, Fields functionFields) {
+        FreshOutputFactory parent = new FreshOutputFactory(new Fields("id", "word"));
+        List<List<Object>> emitted = new ArrayList<>();
+        TupleReceiver receiver = new TupleReceiver() {
+            @Override
+            public void execute(ProcessorContext processorContext, String streamId, TridentTuple tuple) {
+                emitted.add(new ArrayList<>(tuple.getValues()));
+            }
+
+            @Override
+            public void flush() {
+            }
+        };
+        TridentContext context = new TridentContext(functionFields, Collections.singletonList(parent), Collections.singletonList("s"),
+                                                    Collections.singletonList(receiver), "out", 0, null);
+        EachProcessor processor = new EachProcessor(new Fields("id"), function);
+        processor.prepare(new HashMap<>(), null, context);
+        ProcessorContext processorContext = new ProcessorContext(1L, new Object[1]);
+        processor.startBatch(processorContext);
+        for (long i = 0; i < NUM_TUPLES; i++) {
+            processor.execute(processorContext, "s", parent.create(new Values(i, "w" + i)));
+        }
+        processor.finishBatch(processorContext);
+        return emitted;
+    }
+
+    @Test
+    public void testVectorizedFunctionMatchesRowFunction() {
+        List<List<Object>> rows = run(new BaseFunction() {
+            @Override
+            public void execute(TridentTuple tuple, TridentCollector collector) {
+                collector.emit(new Values(tuple.getLong(0) * 2));
+            }
+        }, new Fields("double"));
+        List<List<Object>> vectorized = run(new DoubleFunction(), new Fields("double"));
+        assertEquals(NUM_TUPLES, rows.size());
+        assertEquals(rows, vectorized);
+        assertEquals(new Values(7L, "w7", 14L), vectorized.get(7));
+    }
+
+    @Test
+    public void testVectorizedFilter() {
+        List<List<Object>> kept = run(new VectorizedFilterExecutor(new EvenFilter()), new Fields());
+        assertEquals(NUM_TUPLES / 2, kept.size());
+        for (List<Object> values : kept) {
+            assertEquals(0, (Long) values.get(0) % 2);
+        }
+    }
+
+    @Test
+    public void testRowFallback() {
+        FreshOutputFactory parent = new FreshOutputFactory(new Fields("id"));
+        List<Object> emitted = new ArrayList<>();
+        new DoubleFunction().execute(parent.create(new Values(21L)), new TridentCollector() {
+            @Override
+            public void emit(List<Object> values) {
+                emitted.addAll(values);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void reportError(Throwable t) {
+            }
+        });
+        assertEquals(new Values(42L), emitted);
+        assertTrue(new EvenFilter().isKeep(parent.create(new Values(2L))));
+    }
+
+    private static class DoubleFunction extends BaseFunction implements VectorizedFunction {
+        @Override
+        public void execute(ColumnBatch input, VectorizedCollector collector) {
+            Column ids = input.getColumn("id");
+            assertTrue(ids instanceof Column.LongColumn);
+            long[] doubled = new long[input.size()];
+            for (int i = 0; i < doubled.length; i++) {
+                doubled[i] = ids.getLong(i) * 2;
+            }
+            collector.emitColumns(Column.ofLongs(doubled));
+        }
+    }
+
+    private static class EvenFilter extends BaseFilter implements VectorizedFilter {
+        @Override
+        public void filter(ColumnBatch input, BitSet keep) {
+            Column ids = input.getColumn(0);
+            for (int i = 0; i < input.size(); i++) {
+                if (ids.getLong(i) % 2 != 0) {
+                    keep.clear(i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.state.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.apache.storm.topology.FailedException;
+import org.apache.storm.trident.operation.builtin.Count;
+import org.apache.storm.trident.state.CombinerValueUpdater;
+import org.apache.storm.trident.state.OpaqueValue;
+import org.apache.storm.trident.state.ValueUpdater;
+import org.apache.storm.trident.testing.MemoryBackingMap;
+import org.apache.storm.tuple.Values;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PipelinedBackingMap}.
+ */
+public class PipelinedBackingMapTest {
+
+    @Test
+    public void testReadsSeeWritesInFlight() {
+        ManualAsyncMap store = new ManualAsyncMap();
+        PipelinedBackingMap<Object> map = new PipelinedBackingMap<>(store);
+        map.multiPut(keys("a", "b"), new Values(1, 2));
+        assertEquals(1, map.getPendingWriteCount());
+        assertEquals(new Values(1, 2, null), map.multiGet(keys("a", "b", "c")));
+        // only the key without a write in flight is read from the store
+        assertEquals(Collections.singletonList(keys("c")), store.reads);
+
+        store.completeWrites();
+        map.flush();
+        assertEquals(0, map.getPendingWriteCount());
+        assertEquals(new Values(1, 2), map.multiGet(keys("a", "b")));
+        assertEquals(2, store.reads.size());
+    }
+
+    @Test
+    public void testLaterWriteStaysVisible() {
+        ManualAsyncMap store = new ManualAsyncMap();
+        PipelinedBackingMap<Object> map = new PipelinedBackingMap<>(store);
+        map.multiPut(keys("a"), new Values(1));
+        map.multiPut(keys("a"), new Values(2));
+        store.pending.get(0).complete(null);
+        assertEquals(new Values(2), map.multiGet(keys("a")));
+        assertEquals(1, map.getPendingWriteCount());
+    }
+
+    @Test
+    public void testFailedWriteFailsTheBatch() {
+        ManualAsyncMap store = new ManualAsyncMap();
+        PipelinedBackingMap<Object> map = new PipelinedBackingMap<>(store);
+        map.multiPut(keys("a"), new Values(1));
+        store.pending.get(0).completeExceptionally(new IllegalStateException("store down"));
+        FailedException e = assertThrows(FailedException.class, map::flush);
+        assertEquals("store down", e.getCause().getMessage());
+        // the values of the failed batch are dropped
+        assertEquals(0, map.getPendingWriteCount());
+        assertNull(map.multiGet(keys("a")).get(0));
+    }
+
+    @Test
+    public void testMaxPendingWrites() {
+        ManualAsyncMap store = new ManualAsyncMap();
+        PipelinedBackingMap<Object> map = new PipelinedBackingMap<>(store, 2);
+        map.multiPut(keys("a"), new Values(1));
+        map.multiPut(keys("b"), new Values(2));
+        store.pending.get(0).complete(null);
+        map.multiPut(keys("c"), new Values(3));
+        assertEquals(2, map.getPendingWriteCount());
+    }
+
+    @Test
+    public void testChunkedUpdatesOfOpaqueMap() {
+        MemoryBackingMap store = new MemoryBackingMap();
+        try (AsyncBackingMapAdapter adapter = new AsyncBackingMapAdapter(store, 1)) {
+            MapState<Object> state = OpaqueMap.build(new PipelinedBackingMap<OpaqueValue>(adapter));
+            List<List<Object>> keys = new ArrayList<>();
+            List<ValueUpdater> updaters = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                keys.add(new Values("k" + i));
+                updaters.add(new CombinerValueUpdater(new Count(), 1L));
+            }
+            for (long txid = 1; txid <= 2; txid++) {
+                state.beginCommit(txid);
+                List<Object> res = MapCombinerAggStateUpdater.multiUpdate(state, keys, updaters, 3);
+                assertEquals(Collections.nCopies(10, txid), res);
+                state.commit(txid);
+                // the writes of the batch are durable after the commit
+                OpaqueValue val = (OpaqueValue) store.multiGet(keys("k9")).get(0);
+                assertEquals(txid, val.getCurr());
+            }
+        }
+    }
+
+    private static List<List<Object>> keys(String... keys) {
+        List<List<Object>> ret = new ArrayList<>();
+        for (String key : keys) {
+            ret.add(new Values(key));
+        }
+        return ret;
+    }
+
+    private static class ManualAsyncMap implements IAsyncBackingMap<Object> {
+        private final Map<List<Object>, Object> vals = new HashMap<>();
+        private final List<List<List<Object>>> reads = new ArrayList<>();
+        private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+        private final List<Runnable> writes = new ArrayList<>();
+
+        @Override
+        public CompletableFuture<List<Object>> multiGetAsync(List<List<Object>> keys) {
+            reads.add(keys);
+            List<Object> ret = new ArrayList<>();
+            for (List<Object> key : keys) {
+                ret.add(vals.get(key));
+            }
+            return CompletableFuture.completedFuture(ret);
+        }
+
+        @Override
+        public CompletableFuture<Void> multiPutAsync(List<List<Object>> keys, List<Object> vals) {
+            writes.add(() -> {
+                for (int i = 0; i < keys.size(); i++) {
+                    this.vals.put(keys.get(i), vals.get(i));
+                }
+            });
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        }
+
+        void completeWrites() {
+            writes.forEach(Runnable::run);
+            pending.forEach(f -> f.complete(null));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.topology;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link BatchSizeController}.
+ */
+public class BatchSizeControllerTest {
+
+    @Test
+    public void testGrowsWhileBelowTarget() {
+        BatchSizeController controller = new BatchSizeController(100, 10, 1000);
+        assertEquals(10, controller.getBatchSize());
+        controller.onBatchCommitted(10);
+        assertEquals(20, controller.getBatchSize());
+        for (int i = 0; i < 20; i++) {
+            controller.onBatchCommitted(10);
+        }
+        assertEquals(1000, controller.getBatchSize());
+    }
+
+    @Test
+    public void testShrinksAboveTarget() {
+        BatchSizeController controller = new BatchSizeController(100, 10, 1000);
+        for (int i = 0; i < 10; i++) {
+            controller.onBatchCommitted(10);
+        }
+        int size = controller.getBatchSize();
+        controller.onBatchCommitted(1000);
+        assertTrue(controller.getBatchSize() < size);
+        for (int i = 0; i < 20; i++) {
+            controller.onBatchCommitted(1000);
+        }
+        assertEquals(10, controller.getBatchSize());
+    }
+
+    @Test
+    public void testConvergesToTarget() {
+        // simulates a batch latency of 20ms plus 1ms per 10 tuples
+        BatchSizeController controller = new BatchSizeController(100, 1, 100000);
+        for (int i = 0; i < 50; i++) {
+            controller.onBatchCommitted(20 + controller.getBatchSize() / 10);
+        }
+        long latency = 20 + controller.getBatchSize() / 10;
+        assertTrue(latency >= 90 && latency <= 110, "latency " + latency);
+        // within the deadband the size does not change
+        int size = controller.getBatchSize();
+        controller.onBatchCommitted(latency);
+        assertEquals(size, controller.getBatchSize());
+    }
+}
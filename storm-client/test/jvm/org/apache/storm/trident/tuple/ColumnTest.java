@@ -0,0 +1,61 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.trident.tuple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link Column}.
+ */
+public class ColumnTest {
+
+    @Test
+    public void testPrimitiveColumns() {
+        Column.Builder longs = new Column.Builder(1);
+        Column.Builder ints = new Column.Builder(1);
+        Column.Builder doubles = new Column.Builder(1);
+        for (int i = 0; i < 100; i++) {
+            longs.add((long) i);
+            ints.add(i);
+            doubles.add(i / 2.0);
+        }
+        Column longColumn = longs.build();
+        assertTrue(longColumn instanceof Column.LongColumn);
+        assertEquals(100, longColumn.size());
+        assertEquals(99L, longColumn.get(99));
+        assertTrue(ints.build() instanceof Column.IntColumn);
+        assertEquals(42, ints.build().get(42));
+        assertEquals(42L, ints.build().getLong(42));
+        assertTrue(doubles.build() instanceof Column.DoubleColumn);
+        assertEquals(1.5, doubles.build().getDouble(3));
+    }
+
+    @Test
+    public void testFallbackToObjects() {
+        Column.Builder builder = new Column.Builder(2);
+        builder.add(1L).add(2L).add(3).add(null).add("x");
+        Column column = builder.build();
+        assertTrue(column instanceof Column.ObjectColumn);
+        assertEquals(1L, column.get(0));
+        assertEquals(2L, column.get(1));
+        assertEquals(3, column.get(2));
+        assertNull(column.get(3));
+        assertEquals("x", column.get(4));
+        assertEquals(0, new Column.Builder(0).build().size());
+    }
+}
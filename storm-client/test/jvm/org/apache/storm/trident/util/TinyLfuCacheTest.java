@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.storm.utils.Time;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TinyLfuCache}.
+ */
+public class TinyLfuCacheTest {
+
+    @Test
+    public void testLruPolicy() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(3, null, 0, false);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        assertTrue(cache.containsKey(1));
+        cache.put(4, "d");
+        // 2 is the least recently used
+        assertFalse(cache.containsKey(2));
+        assertTrue(cache.containsKey(1));
+        assertTrue(cache.containsKey(3));
+        assertTrue(cache.containsKey(4));
+        assertEquals(3, cache.size());
+        assertEquals(4, cache.hitCount());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void testNullValues() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(10, null, 0, true);
+        cache.put(1, null);
+        assertTrue(cache.containsKey(1));
+        assertNull(cache.get(1));
+        assertFalse(cache.containsKey(2));
+    }
+
+    @Test
+    public void testScanResistance() {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, null, 0, true);
+        // a hot set that is used repeatedly
+        for (int round = 0; round < 5; round++) {
+            for (int key = 0; key < 50; key++) {
+                if (!cache.containsKey(key)) {
+                    cache.put(key, key);
+                }
+            }
+        }
+        // a scan of cold keys, each used once
+        for (int key = 1000; key < 1500; key++) {
+            if (!cache.containsKey(key)) {
+                cache.put(key, key);
+            }
+        }
+        int hot = 0;
+        for (int key = 0; key < 50; key++) {
+            if (cache.containsKey(key)) {
+                hot++;
+            }
+        }
+        assertEquals(50, hot);
+        assertTrue(cache.size() <= 100);
+
+        // the same scan flushes the hot set of an LRU cache
+        TinyLfuCache<Integer, Integer> lru = new TinyLfuCache<>(100, null, 0, false);
+        for (int key = 0; key < 50; key++) {
+            lru.put(key, key);
+        }
+        for (int key = 1000; key < 1500; key++) {
+            lru.put(key, key);
+        }
+        assertFalse(lru.containsKey(0));
+    }
+
+    @Test
+    public void testMaximumWeight() {
+        TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(10, (k, v) -> v.length(), 0, false);
+        cache.put(1, "aaaa");
+        cache.put(2, "bbbb");
+        cache.put(3, "cc");
+        assertEquals(3, cache.size());
+        cache.put(4, "dddd");
+        assertFalse(cache.containsKey(1));
+        assertEquals(3, cache.size());
+        // an entry heavier than the cache is not kept
+        cache.put(5, "eeeeeeeeeeee");
+        assertFalse(cache.containsKey(5));
+    }
+
+    @Test
+    public void testExpireAfterWrite() {
+        try (Time.SimulatedTime ignored = new Time.SimulatedTime()) {
+            TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(10, null, 1000, true);
+            cache.put(1, "a");
+            Time.advanceTime(500);
+            cache.put(2, "b");
+            assertTrue(cache.containsKey(1));
+            Time.advanceTime(500);
+            assertFalse(cache.containsKey(1));
+            assertNull(cache.get(1));
+            assertTrue(cache.containsKey(2));
+            assertEquals(1, cache.evictionCount());
+            // a write restarts the expiry
+            cache.put(2, "c");
+            Time.advanceTime(999);
+            assertEquals("c", cache.get(2));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.trident.windowing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.storm.tuple.Values;
+import org.apache.storm.utils.Utils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link LocalWindowsStore}.
+ */
+public class LocalWindowsStoreTest {
+    private File directory;
+    private LocalWindowsStore store;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        directory = new File(Files.createTempDirectory("local-windows-store").toFile(), "store");
+        store = new LocalWindowsStore(Utils.readDefaultConfig(), directory, 10, 1024);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.shutdown();
+        assertFalse(directory.exists());
+    }
+
+    private static List<Object> value(int i) {
+        return new Values("value-" + i, i);
+    }
+
+    private static <T> List<T> toList(Iterable<T> values) {
+        List<T> res = new ArrayList<>();
+        values.forEach(res::add);
+        return res;
+    }
+
+    @Test
+    public void testSpillAndGet() {
+        List<WindowsStore.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            entries.add(new WindowsStore.Entry("k" + i, value(i)));
+        }
+        store.putAll(entries);
+        assertEquals(92, store.getSpilledCount());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(value(i), store.get("k" + i));
+        }
+        assertNull(store.get("missing"));
+
+        Set<String> keys = new HashSet<>();
+        store.getAllKeys().forEach(keys::add);
+        assertEquals(100, keys.size());
+    }
+
+    @Test
+    public void testBatchGetKeepsOrder() {
+        for (int i = 0; i < 300; i++) {
+            store.put("k" + i, value(i));
+        }
+        List<String> keys = Arrays.asList("k299", "k5", "missing", "k150", "k0", "k298", "k151");
+        List<Object> expected = Arrays.asList(value(299), value(5), null, value(150), value(0), value(298), value(151));
+        assertEquals(expected, toList(store.get(keys)));
+    }
+
+    @Test
+    public void testRemoveCompactsAndDeletesSegments() {
+        for (int i = 0; i < 300; i++) {
+            store.put("k" + i, value(i));
+        }
+        int segments = store.getSegmentCount();
+        assertEquals(segments, directory.listFiles().length);
+        // expire the older entries, as the windows slide
+        for (int i = 0; i < 250; i++) {
+            store.remove("k" + i);
+        }
+        assertEquals(store.getSegmentCount(), directory.listFiles().length);
+        assertTrue(store.getSegmentCount() < segments);
+        for (int i = 250; i < 300; i++) {
+            assertEquals(value(i), store.get("k" + i));
+        }
+        // overwrite a spilled entry
+        store.put("k250", value(1000));
+        assertEquals(value(1000), store.get("k250"));
+        store.removeAll(Arrays.asList("k250", "k251"));
+        assertNull(store.get("k251"));
+        assertEquals(48, toList(store.getAllKeys()).size());
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+
+package org.apache.storm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TimingWheel}.
+ */
+public class TimingWheelTest {
+
+    private static List<String> items(List<TimingWheel.Entry<String>> entries) {
+        List<String> res = new ArrayList<>();
+        for (TimingWheel.Entry<String> entry : entries) {
+            res.add(entry.getItem());
+        }
+        return res;
+    }
+
+    @Test
+    public void testExpiryInDeadlineOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8);
+        wheel.add("c", 35);
+        wheel.add("a", 12);
+        wheel.add("b", 18);
+        wheel.add("d", 500);
+        assertFalse(wheel.add("a", 12));
+        assertEquals(4, wheel.size());
+        assertTrue(wheel.advance(11).isEmpty());
+        assertEquals(Arrays.asList("a"), items(wheel.advance(15)));
+        assertEquals(Arrays.asList("b", "c"), items(wheel.advance(40)));
+        // "d" shares a slot with the earlier ticks, but is more than a rotation ahead
+        assertTrue(wheel.advance(100).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(Arrays.asList("d"), items(wheel.advance(1000)));
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8);
+        wheel.add("a", 20);
+        wheel.add("a", 30);
+        assertTrue(wheel.remove("a", 20));
+        assertFalse(wheel.remove("a", 20));
+        assertEquals(1, wheel.entries().size());
+        List<TimingWheel.Entry<String>> expired = wheel.advance(50);
+        assertEquals(1, expired.size());
+        assertEquals(30, expired.get(0).getDeadline());
+    }
+
+    @Test
+    public void testOverdueEntries() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8);
+        wheel.advance(100);
+        wheel.add("late", 50);
+        wheel.add("now", 100);
+        assertEquals(2, wheel.size());
+        assertEquals(Arrays.asList("late", "now"), items(wheel.advance(100)));
+        assertTrue(wheel.isEmpty());
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.windowing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link SessionWindowManager}.
+ */
+public class SessionWindowManagerTest {
+    private SessionWindowManager<String> windowManager;
+    private Listener listener;
+
+    @BeforeEach
+    public void setUp() {
+        listener = new Listener();
+        // the session key is the first character of the event
+        windowManager = new SessionWindowManager<>(listener, 10, event -> event.charAt(0));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        windowManager.shutdown();
+    }
+
+    @Test
+    public void testSessionsPerKey() {
+        windowManager.add("a1", 100);
+        windowManager.add("b1", 101);
+        windowManager.add("a2", 105);
+        windowManager.add("b2", 115);
+        assertEquals(3, windowManager.getSessionCount());
+        windowManager.add(new WaterMarkEvent<>(112));
+        // b[101, 111) closed first
+        assertEquals(Arrays.asList(Arrays.asList("b1")), listener.sessions);
+        assertEquals(Arrays.asList(101L), listener.startTimes);
+        assertEquals(Arrays.asList(111L), listener.endTimes);
+        windowManager.add(new WaterMarkEvent<>(125));
+        assertEquals(Arrays.asList(Arrays.asList("b1"), Arrays.asList("a1", "a2"), Arrays.asList("b2")), listener.sessions);
+        assertEquals(Arrays.asList("b1", "a1", "a2", "b2"), listener.expired);
+        assertEquals(0, windowManager.getSessionCount());
+    }
+
+    @Test
+    public void testSessionsMergeOnOverlap() {
+        windowManager.add("a1", 100);
+        windowManager.add("a3", 115);
+        assertEquals(2, windowManager.getSessionCount());
+        // a late event that bridges the two sessions
+        windowManager.add("a2", 108);
+        assertEquals(1, windowManager.getSessionCount());
+        windowManager.add(new WaterMarkEvent<>(124));
+        assertTrue(listener.sessions.isEmpty());
+        windowManager.add(new WaterMarkEvent<>(125));
+        assertEquals(Arrays.asList(Arrays.asList("a1", "a2", "a3")), listener.sessions);
+        assertEquals(Arrays.asList(100L), listener.startTimes);
+        assertEquals(Arrays.asList(125L), listener.endTimes);
+    }
+
+    @Test
+    public void testProcessingTimeSessions() throws Exception {
+        TriggerPolicy<String, ?> triggerPolicy = new TimeTriggerPolicy<>(5, windowManager);
+        windowManager.setTriggerPolicy(triggerPolicy);
+        triggerPolicy.start();
+        windowManager.add("a1");
+        windowManager.add("a2");
+        long deadline = System.currentTimeMillis() + 10000;
+        while (listener.sessions.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(Arrays.asList(Arrays.asList("a1", "a2")), listener.sessions);
+        assertFalse(windowManager.onTrigger());
+    }
+
+    private static class Listener implements WindowLifecycleListener<String> {
+        final List<List<String>> sessions = new ArrayList<>();
+        final List<Long> startTimes = new ArrayList<>();
+        final List<Long> endTimes = new ArrayList<>();
+        final List<String> expired = new ArrayList<>();
+
+        @Override
+        public void onExpiry(List<String> events) {
+            expired.addAll(events);
+        }
+
+        @Override
+        public void onSessionActivation(List<String> events, long startTime, long endTime) {
+            sessions.add(events);
+            startTimes.add(startTime);
+            endTimes.add(endTime);
+        }
+    }
+}
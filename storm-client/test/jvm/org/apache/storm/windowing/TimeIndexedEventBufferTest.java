@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.  The ASF licenses this file to you under the Apache License, Version
+ * 2.0 (the "License"); you may not use this file except in compliance with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package org.apache.storm.windowing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TimeIndexedEventBuffer}.
+ */
+public class TimeIndexedEventBufferTest {
+
+    private static List<Long> timestamps(Iterable<Event<Integer>> events) {
+        List<Long> res = new ArrayList<>();
+        for (Event<Integer> event : events) {
+            res.add(event.getTimestamp());
+        }
+        return res;
+    }
+
+    @Test
+    public void testEventsAreOrderedByTimestamp() {
+        TimeIndexedEventBuffer<Integer> buffer = new TimeIndexedEventBuffer<>(4);
+        List<Long> expected = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            long ts = i + random.nextInt(50);
+            buffer.add(new EventImpl<>(i, ts));
+            expected.add(ts);
+        }
+        Collections.sort(expected);
+        assertEquals(1000, buffer.size());
+        assertEquals(expected, timestamps(buffer));
+    }
+
+    @Test
+    public void testEventsWithSameTimestampKeepArrivalOrder() {
+        TimeIndexedEventBuffer<Integer> buffer = new TimeIndexedEventBuffer<>(2);
+        buffer.add(new EventImpl<>(1, 10));
+        buffer.add(new EventImpl<>(2, 20));
+        buffer.add(new EventImpl<>(3, 10));
+        buffer.add(new EventImpl<>(4, 10));
+        buffer.add(new EventImpl<>(5, 5));
+        List<Integer> values = new ArrayList<>();
+        for (Event<Integer> event : buffer) {
+            values.add(event.get());
+        }
+        assertEquals(Arrays.asList(5, 1, 3, 4, 2), values);
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        TimeIndexedEventBuffer<Integer> buffer = new TimeIndexedEventBuffer<>(4);
+        for (int i = 0; i < 20; i++) {
+            buffer.add(new EventImpl<>(i, i));
+        }
+        Iterator<Event<Integer>> it = buffer.iterator();
+        while (it.hasNext()) {
+            if (it.next().get() % 3 != 0) {
+                it.remove();
+            }
+        }
+        assertEquals(Arrays.asList(0L, 3L, 6L, 9L, 12L, 15L, 18L), timestamps(buffer));
+        assertEquals(7, buffer.size());
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        assertFalse(buffer.iterator().hasNext());
+    }
+
+    @Test
+    public void testIteratorIsWeaklyConsistent() {
+        TimeIndexedEventBuffer<Integer> buffer = new TimeIndexedEventBuffer<>(2);
+        for (int i = 0; i < 10; i++) {
+            buffer.add(new EventImpl<>(i, i * 10));
+        }
+        Iterator<Event<Integer>> it = buffer.iterator();
+        assertEquals(0L, it.next().getTimestamp());
+        assertEquals(10L, it.next().getTimestamp());
+        // modifications behind and ahead of the iterator
+        buffer.add(new EventImpl<>(100, 5));
+        buffer.add(new EventImpl<>(101, 15));
+        buffer.add(new EventImpl<>(102, 95));
+        List<Long> rest = new ArrayList<>();
+        while (it.hasNext()) {
+            rest.add(it.next().getTimestamp());
+        }
+        assertEquals(Arrays.asList(15L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 95L), rest);
+    }
+
+    @Test
+    public void testQueries() {
+        TimeIndexedEventBuffer<Integer> buffer = new TimeIndexedEventBuffer<>(3);
+        for (long ts : new long[]{ 50, 10, 40, 20, 30, 30, 60 }) {
+            buffer.add(new EventImpl<>(0, ts));
+        }
+        assertEquals(0, buffer.countUpTo(5));
+        assertEquals(1, buffer.countUpTo(10));
+        assertEquals(4, buffer.countUpTo(30));
+        assertEquals(7, buffer.countUpTo(100));
+        assertEquals(10, buffer.earliestTimestamp(0, 100));
+        assertEquals(30, buffer.earliestTimestamp(20, 100));
+        assertEquals(Long.MAX_VALUE, buffer.earliestTimestamp(20, 25));
+        assertEquals(Long.MAX_VALUE, buffer.earliestTimestamp(60, 100));
+        assertEquals(Arrays.asList(20L, 30L, 50L), buffer.slidingCountTimestamps(0, 100, 2));
+        assertEquals(Arrays.asList(30L, 40L), buffer.slidingCountTimestamps(10, 45, 2));
+        assertTrue(buffer.slidingCountTimestamps(45, 45, 1).isEmpty());
+    }
+
+    @Test
+    public void testWindowManagerWithTimeIndexedEventBuffer() {
+        List<Integer> activated = new ArrayList<>();
+        List<Integer> expired = new ArrayList<>();
+        WindowManager<Integer> windowManager = new WindowManager<>(new WindowLifecycleListener<Integer>() {
+            @Override
+            public void onExpiry(List<Integer> events) {
+                expired.addAll(events);
+            }
+
+            @Override
+            public void onActivation(List<Integer> events, List<Integer> newEvents, List<Integer> expired, Long referenceTime) {
+                activated.clear();
+                activated.addAll(events);
+            }
+        }, new TimeIndexedEventBuffer<>(2));
+        EvictionPolicy<Integer, ?> evictionPolicy = new WatermarkTimeEvictionPolicy<>(20);
+        TriggerPolicy<Integer, ?> triggerPolicy = new WatermarkTimeTriggerPolicy<>(10, windowManager, evictionPolicy, windowManager);
+        triggerPolicy.start();
+        windowManager.setEvictionPolicy(evictionPolicy);
+        windowManager.setTriggerPolicy(triggerPolicy);
+        windowManager.add(1, 603);
+        windowManager.add(2, 605);
+        windowManager.add(3, 607);
+        windowManager.add(4, 618);
+        windowManager.add(5, 626);
+        windowManager.add(6, 601);
+        windowManager.add(new WaterMarkEvent<>(630));
+        // the last window (610, 630]
+        assertEquals(Arrays.asList(4, 5), activated);
+        // expired in timestamp order
+        assertEquals(Arrays.asList(6, 1, 2, 3), expired);
+        assertEquals(2, windowManager.getEventCount(650));
+        assertEquals(626, windowManager.getEarliestEventTs(620, 650));
+        windowManager.shutdown();
+    }
+}
@@ -20,6 +20,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import org.apache.storm.state.KeyValueState;
 import org.apache.storm.tuple.Tuple;
@@ -136,6 +137,63 @@ public class WindowStateTest {
         assertEquals(Collections.emptyList(), actual);
     }
 
+    @Test
+    public void testIteratorWithReadAhead() {
+        Map<Long, WindowState.WindowPartition<Integer>> partitionMap = new ConcurrentHashMap<>();
+        Mockito.when(partitionIdsState.get(Mockito.any(), Mockito.any())).then(returnsArgAt(1));
+        Mockito.when(windowState.get(Mockito.any(), Mockito.any())).then(invocation -> {
+            Object[] args = invocation.getArguments();
+            WindowState.WindowPartition<Integer> evicted = partitionMap.get(args[0]);
+            return evicted != null ? evicted : args[1];
+        });
+        Mockito.doAnswer((Answer<Void>) invocation -> {
+            Object[] args = invocation.getArguments();
+            partitionMap.put((long) args[0], (WindowState.WindowPartition<Integer>) args[1]);
+            return null;
+        }).when(windowState).put(Mockito.any(), Mockito.any());
+        Mockito.when(supplier.get()).thenReturn(Collections.emptyMap());
+
+        WindowState<Integer> ws = new WindowState<>(windowState, partitionIdsState, systemState, supplier,
+                                                    10 * WindowState.MAX_PARTITION_EVENTS, 0, 3);
+        long numEvents = 25 * WindowState.MAX_PARTITION_EVENTS;
+        List<Event<Integer>> expected = new ArrayList<>();
+        for (int i = 0; i < numEvents; i++) {
+            Event<Integer> event = getEvent(i);
+            expected.add(event);
+            ws.add(event);
+        }
+        for (int i = 0; i < 3; i++) {
+            List<Event<Integer>> actual = new ArrayList<>();
+            ws.iterator().forEachRemaining(actual::add);
+            assertEquals(expected, actual);
+            ws.clearIteratorPins();
+        }
+        // the evicted partitions are written to the state by the time the state is prepared for commit
+        ws.prepareCommit(1);
+        Mockito.verify(windowState).prepareCommit(1);
+        assertFalse(partitionMap.isEmpty());
+        partitionMap.values().forEach(wp -> assertEquals(WindowState.MAX_PARTITION_EVENTS, wp.size()));
+        ws.close();
+    }
+
+    @Test
+    public void testMaxBytesInMemory() {
+        Mockito.when(partitionIdsState.get(Mockito.any(), Mockito.any())).then(returnsArgAt(1));
+        Mockito.when(windowState.get(Mockito.any(), Mockito.any())).then(returnsArgAt(1));
+
+        long partitionBytes = WindowState.MAX_PARTITION_EVENTS * WindowState.estimateEventBytes(getEvent(0));
+        WindowState<Integer> ws = new WindowState<>(windowState, partitionIdsState, systemState, supplier,
+                                                    10 * WindowState.MAX_PARTITION_EVENTS, 3 * partitionBytes, 0);
+        long numEvents = 6 * WindowState.MAX_PARTITION_EVENTS;
+        for (int i = 0; i < numEvents; i++) {
+            ws.add(getEvent(i));
+        }
+        // 3 partitions fit in memory, the fourth and fifth are evicted when the next partition is created
+        Mockito.verify(windowState, Mockito.times(2)).put(longCaptor.capture(), windowValuesCaptor.capture());
+        windowValuesCaptor.getAllValues().forEach(wp -> assertEquals(partitionBytes, wp.getEstimatedBytes()));
+        assertFalse(longCaptor.getAllValues().contains(5L));
+    }
+
     @Test
     public void testIteratorPartitionNotEvicted() {
         Map<Long, WindowState.WindowPartition<Event<Tuple>>> partitionMap = new HashMap<>();
@@ -23,22 +23,198 @@
 
 
 var fs = require('fs');
+var StringDecoder = require('string_decoder').StringDecoder;
+
+// the byte written by the MessagePackSerializer before the first frame of the binary protocol
+var BINARY_PREAMBLE = 0xc1;
+
+/**
+ * Encodes a value of the binary protocol in MessagePack, appending the encoded buffers to parts.
+ */
+function pack(value, parts) {
+    var header;
+    if (value === null || value === undefined) {
+        parts.push(Buffer.from([0xc0]));
+    } else if (typeof value === 'boolean') {
+        parts.push(Buffer.from([value ? 0xc3 : 0xc2]));
+    } else if (typeof value === 'number') {
+        if (Number.isSafeInteger(value) && value >= -32 && value < 0x80) {
+            header = Buffer.alloc(1);
+            header.writeInt8(value, 0);
+        } else if (Number.isSafeInteger(value) && value >= -0x80000000 && value <= 0x7fffffff) {
+            header = Buffer.alloc(5);
+            header[0] = 0xd2;
+            header.writeInt32BE(value, 1);
+        } else if (Number.isSafeInteger(value)) {
+            var hi = Math.floor(value / 4294967296);
+            header = Buffer.alloc(9);
+            header[0] = 0xd3;
+            header.writeInt32BE(hi, 1);
+            header.writeUInt32BE(value - hi * 4294967296, 5);
+        } else {
+            header = Buffer.alloc(9);
+            header[0] = 0xcb;
+            header.writeDoubleBE(value, 1);
+        }
+        parts.push(header);
+    } else if (Buffer.isBuffer(value)) {
+        parts.push(sizeHeader(0xc6, value.length), value);
+    } else if (Array.isArray(value)) {
+        parts.push(sizeHeader(0xdd, value.length));
+        value.forEach(function(element) {
+            pack(element, parts);
+        });
+    } else if (typeof value === 'object') {
+        // like JSON.stringify, the undefined members are left out
+        var keys = Object.keys(value).filter(function(key) {
+            return value[key] !== undefined && typeof value[key] !== 'function';
+        });
+        parts.push(sizeHeader(0xdf, keys.length));
+        keys.forEach(function(key) {
+            pack(key, parts);
+            pack(value[key], parts);
+        });
+    } else {
+        var str = Buffer.from(String(value), 'utf8');
+        parts.push(sizeHeader(0xdb, str.length), str);
+    }
+}
+
+function sizeHeader(type, size) {
+    var header = Buffer.alloc(5);
+    header[0] = type;
+    header.writeUInt32BE(size, 1);
+    return header;
+}
+
+/**
+ * Decodes a MessagePack value of the binary protocol, returns the value and the offset after it.
+ */
+function unpack(buf, pos) {
+    var t = buf[pos++];
+    if (t <= 0x7f) {
+        return [t, pos];
+    } else if (t >= 0xe0) {
+        return [t - 0x100, pos];
+    } else if (t <= 0x8f) {
+        return unpackMap(buf, pos, t & 0x0f);
+    } else if (t <= 0x9f) {
+        return unpackArray(buf, pos, t & 0x0f);
+    } else if (t <= 0xbf) {
+        return unpackString(buf, pos, t & 0x1f);
+    }
+    switch (t) {
+        case 0xc0: return [null, pos];
+        case 0xc2: return [false, pos];
+        case 0xc3: return [true, pos];
+        case 0xc4: return unpackBytes(buf, pos + 1, buf.readUInt8(pos));
+        case 0xc5: return unpackBytes(buf, pos + 2, buf.readUInt16BE(pos));
+        case 0xc6: return unpackBytes(buf, pos + 4, buf.readUInt32BE(pos));
+        case 0xca: return [buf.readFloatBE(pos), pos + 4];
+        case 0xcb: return [buf.readDoubleBE(pos), pos + 8];
+        case 0xcc: return [buf.readUInt8(pos), pos + 1];
+        case 0xcd: return [buf.readUInt16BE(pos), pos + 2];
+        case 0xce: return [buf.readUInt32BE(pos), pos + 4];
+        case 0xcf: return [buf.readUInt32BE(pos) * 4294967296 + buf.readUInt32BE(pos + 4), pos + 8];
+        case 0xd0: return [buf.readInt8(pos), pos + 1];
+        case 0xd1: return [buf.readInt16BE(pos), pos + 2];
+        case 0xd2: return [buf.readInt32BE(pos), pos + 4];
+        case 0xd3: return [buf.readInt32BE(pos) * 4294967296 + buf.readUInt32BE(pos + 4), pos + 8];
+        case 0xd9: return unpackString(buf, pos + 1, buf.readUInt8(pos));
+        case 0xda: return unpackString(buf, pos + 2, buf.readUInt16BE(pos));
+        case 0xdb: return unpackString(buf, pos + 4, buf.readUInt32BE(pos));
+        case 0xdc: return unpackArray(buf, pos + 2, buf.readUInt16BE(pos));
+        case 0xdd: return unpackArray(buf, pos + 4, buf.readUInt32BE(pos));
+        case 0xde: return unpackMap(buf, pos + 2, buf.readUInt16BE(pos));
+        case 0xdf: return unpackMap(buf, pos + 4, buf.readUInt32BE(pos));
+        default: throw new Error('Unsupported MessagePack type ' + t);
+    }
+}
+
+function unpackString(buf, pos, length) {
+    return [buf.toString('utf8', pos, pos + length), pos + length];
+}
+
+function unpackBytes(buf, pos, length) {
+    return [Buffer.from(buf.slice(pos, pos + length)), pos + length];
+}
+
+function unpackArray(buf, pos, size) {
+    var values = [];
+    for (var i = 0; i < size; i++) {
+        var result = unpack(buf, pos);
+        values.push(result[0]);
+        pos = result[1];
+    }
+    return [values, pos];
+}
+
+function unpackMap(buf, pos, size) {
+    var values = {};
+    for (var i = 0; i < size; i++) {
+        var key = unpack(buf, pos);
+        var value = unpack(buf, key[1]);
+        values[key[0]] = value[0];
+        pos = value[1];
+    }
+    return [values, pos];
+}
 
 function Storm() {
     this.messagePart = '';
     this.taskIdsCallbacks = [];
     this.isFirstMessage = true;
     this.separator = '\nend\n';
+    // the protocol is detected from the first byte sent by the parent, null until then
+    this.binary = null;
+    this.decoder = new StringDecoder('utf8');
+    this.framePart = Buffer.alloc(0);
+    this.outgoingMessages = [];
+    this.flushScheduled = false;
+    // max number of messages sent to the parent in one frame of the binary protocol
+    this.maxBatchSize = 100;
     this.logLevels = {
         trace: 0, debug: 1, info: 2, warn: 3, error: 4
     }
 }
 
 Storm.prototype.sendMsgToParent = function(msg) {
+    if (this.binary) {
+        //The messages are sent in one frame once the input read so far is handled
+        var self = this;
+        this.outgoingMessages.push(msg);
+        if (this.outgoingMessages.length >= this.maxBatchSize) {
+            this.flushMessages();
+        } else if (!this.flushScheduled) {
+            this.flushScheduled = true;
+            setImmediate(function() {
+                self.flushMessages();
+            });
+        }
+        return;
+    }
     var str = JSON.stringify(msg);
     process.stdout.write(str + this.separator);
 };
 
+/**
+ * Sends the messages not sent yet to the parent in one frame of the binary protocol.
+ */
+Storm.prototype.flushMessages = function() {
+    this.flushScheduled = false;
+    if (this.outgoingMessages.length === 0) {
+        return;
+    }
+    var msg = this.outgoingMessages.length === 1 ? this.outgoingMessages[0] : {'batch': this.outgoingMessages};
+    this.outgoingMessages = [];
+    var parts = [];
+    pack(msg, parts);
+    var data = Buffer.concat(parts);
+    var header = Buffer.alloc(4);
+    header.writeUInt32BE(data.length, 0);
+    process.stdout.write(Buffer.concat([header, data]));
+};
+
 Storm.prototype.sync = function() {
     this.sendMsgToParent({'command':'sync'});
 };
@@ -91,7 +267,22 @@ Storm.prototype.startReadingInput = function() {
     var self = this;
     process.stdin.on('readable', function() {
         var chunk = process.stdin.read();
-        var messages = self.handleNewChunk(chunk);
+        if (!chunk || chunk.length === 0) {
+            return;
+        }
+        if (self.binary === null) {
+            self.binary = chunk[0] === BINARY_PREAMBLE;
+            if (self.binary) {
+                chunk = chunk.slice(1);
+            }
+        }
+        if (self.binary) {
+            self.handleNewFrameChunk(chunk).forEach(function(message) {
+                self.handleParsedMessage(message);
+            });
+            return;
+        }
+        var messages = self.handleNewChunk(self.decoder.write(chunk));
         messages.forEach(function(message) {
             self.handleNewMessage(message);
         })
@@ -99,6 +290,33 @@ Storm.prototype.startReadingInput = function() {
     });
 };
 
+/**
+ * receives a new chunk of the binary protocol and returns the list of decoded messages of the complete frames,
+ * with the messages of the batches flattened
+ * stores the incomplete frame in this.framePart
+ * @param chunk
+ */
+Storm.prototype.handleNewFrameChunk = function(chunk) {
+    var messages = [];
+    var buf = this.framePart.length === 0 ? chunk : Buffer.concat([this.framePart, chunk]);
+    var pos = 0;
+    while (buf.length - pos >= 4) {
+        var end = pos + 4 + buf.readUInt32BE(pos);
+        if (buf.length < end) {
+            break;
+        }
+        var msg = unpack(buf, pos + 4)[0];
+        if (msg !== null && typeof msg === 'object' && !Array.isArray(msg) && Array.isArray(msg['batch'])) {
+            Array.prototype.push.apply(messages, msg['batch']);
+        } else {
+            messages.push(msg);
+        }
+        pos = end;
+    }
+    this.framePart = buf.slice(pos);
+    return messages;
+};
+
 /**
  * receives a new string chunk and returns a list of new messages with the separator removed
  * stores state in this.messagePart
@@ -134,8 +352,10 @@ Storm.prototype.isTaskIds = function(msg) {
 };
 
 Storm.prototype.handleNewMessage = function(msg) {
-    var parsedMsg = JSON.parse(msg);
+    this.handleParsedMessage(JSON.parse(msg));
+};
 
+Storm.prototype.handleParsedMessage = function(parsedMsg) {
     if (this.isFirstMessage) {
         this.initSetupInfo(parsedMsg);
         this.isFirstMessage = false;
@@ -238,8 +458,8 @@ Storm.prototype.initialize = function(conf, context, done) {
 };
 
 Storm.prototype.run = function() {
+    //stdin is read as buffers, which are decoded according to the protocol detected from the first byte
     process.stdout.setEncoding('utf8');
-    process.stdin.setEncoding('utf8');
     this.startReadingInput();
 };
 
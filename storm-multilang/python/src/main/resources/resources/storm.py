@@ -19,6 +19,7 @@
 
 import sys
 import os
+import struct
 import traceback
 from collections import deque
 
@@ -30,9 +31,183 @@ except ImportError:
 json_encode = lambda x: json.dumps(x)
 json_decode = lambda x: json.loads(x)
 
+# the byte written by the MessagePackSerializer before the first frame of the binary protocol
+BINARY_PREAMBLE = b'\xc1'
+# max number of messages sent to the parent in one frame of the binary protocol
+MAX_BATCH_SIZE = 100
+
+BINARY = None
+
+# messages of a batch not read yet, and messages not sent yet, in the binary protocol
+pending_msgs = deque()
+outgoing_msgs = []
+
+
+def packMsg(value, out):
+    """encodes a value in MessagePack"""
+    if value is None:
+        out.append(b'\xc0')
+    elif value is True:
+        out.append(b'\xc3')
+    elif value is False:
+        out.append(b'\xc2')
+    elif isinstance(value, int):
+        if 0 <= value < 0x80 or -32 <= value < 0:
+            out.append(struct.pack('>b' if value < 0 else '>B', value))
+        elif -0x80000000 <= value <= 0x7fffffff:
+            out.append(struct.pack('>Bi', 0xd2, value))
+        elif value < 0:
+            out.append(struct.pack('>Bq', 0xd3, value))
+        else:
+            out.append(struct.pack('>BQ', 0xcf, value))
+    elif isinstance(value, float):
+        out.append(struct.pack('>Bd', 0xcb, value))
+    elif isinstance(value, (bytes, bytearray)):
+        out.append(struct.pack('>BI', 0xc6, len(value)))
+        out.append(bytes(value))
+    elif isinstance(value, dict):
+        out.append(struct.pack('>BI', 0xdf, len(value)))
+        for k, v in value.items():
+            packMsg(str(k), out)
+            packMsg(v, out)
+    elif isinstance(value, (list, tuple)):
+        out.append(struct.pack('>BI', 0xdd, len(value)))
+        for v in value:
+            packMsg(v, out)
+    else:
+        data = str(value).encode('utf-8')
+        if len(data) < 32:
+            out.append(struct.pack('>B', 0xa0 | len(data)))
+        else:
+            out.append(struct.pack('>BI', 0xdb, len(data)))
+        out.append(data)
+
+
+def unpackMsg(data, pos=0):
+    """decodes a MessagePack value, returns the value and the position after it"""
+    t = data[pos]
+    pos += 1
+    if t <= 0x7f:
+        return t, pos
+    if t >= 0xe0:
+        return t - 0x100, pos
+    if t <= 0x8f:
+        return unpackMap(data, pos, t & 0x0f)
+    if t <= 0x9f:
+        return unpackArray(data, pos, t & 0x0f)
+    if t <= 0xbf:
+        n = t & 0x1f
+        return data[pos:pos + n].decode('utf-8'), pos + n
+    if t == 0xc0:
+        return None, pos
+    if t == 0xc2:
+        return False, pos
+    if t == 0xc3:
+        return True, pos
+    if t in _FIXED:
+        fmt, size = _FIXED[t]
+        return struct.unpack_from(fmt, data, pos)[0], pos + size
+    if t in _SIZED:
+        kind, fmt, size = _SIZED[t]
+        n = struct.unpack_from(fmt, data, pos)[0]
+        pos += size
+        if kind == 'str':
+            return data[pos:pos + n].decode('utf-8'), pos + n
+        if kind == 'bin':
+            return bytes(data[pos:pos + n]), pos + n
+        if kind == 'array':
+            return unpackArray(data, pos, n)
+        return unpackMap(data, pos, n)
+    raise Exception('Unsupported MessagePack type %#x' % t)
+
+
+_FIXED = {0xca: ('>f', 4), 0xcb: ('>d', 8), 0xcc: ('>B', 1), 0xcd: ('>H', 2), 0xce: ('>I', 4), 0xcf: ('>Q', 8),
+          0xd0: ('>b', 1), 0xd1: ('>h', 2), 0xd2: ('>i', 4), 0xd3: ('>q', 8)}
+_SIZED = {0xc4: ('bin', '>B', 1), 0xc5: ('bin', '>H', 2), 0xc6: ('bin', '>I', 4),
+          0xd9: ('str', '>B', 1), 0xda: ('str', '>H', 2), 0xdb: ('str', '>I', 4),
+          0xdc: ('array', '>H', 2), 0xdd: ('array', '>I', 4), 0xde: ('map', '>H', 2), 0xdf: ('map', '>I', 4)}
+
+
+def unpackArray(data, pos, n):
+    values = []
+    for _ in range(n):
+        value, pos = unpackMsg(data, pos)
+        values.append(value)
+    return values, pos
+
+
+def unpackMap(data, pos, n):
+    values = {}
+    for _ in range(n):
+        key, pos = unpackMsg(data, pos)
+        value, pos = unpackMsg(data, pos)
+        values[key] = value
+    return values, pos
+
+
+try:
+    import msgpack
+    msgpack_encode = lambda x: msgpack.packb(x, use_bin_type=True, default=str)
+    msgpack_decode = lambda x: msgpack.unpackb(x, raw=False)
+except ImportError:
+    def msgpack_encode(x):
+        out = []
+        packMsg(x, out)
+        return b''.join(out)
+
+    def msgpack_decode(x):
+        return unpackMsg(x)[0]
+
+
+def isBinary():
+    """detects the protocol of the parent from the first byte it sends"""
+    global BINARY
+    if BINARY is None:
+        stdin = getattr(sys.stdin, 'buffer', None)
+        if stdin is None or not hasattr(stdin, 'peek'):
+            # Python 2 has no binary buffer on stdin, it only speaks the JSON protocol
+            BINARY = False
+        else:
+            BINARY = stdin.peek(1)[:1] == BINARY_PREAMBLE
+            if BINARY:
+                stdin.read(1)
+    return BINARY
+
+
+def readFrame():
+    header = sys.stdin.buffer.read(4)
+    if len(header) < 4:
+        raise Exception('Read EOF from stdin')
+    length = struct.unpack('>I', header)[0]
+    data = sys.stdin.buffer.read(length)
+    if len(data) < length:
+        raise Exception('Read EOF from stdin')
+    return msgpack_decode(data)
+
+
+def flushMsgs():
+    """sends the messages not sent yet to the parent in one frame"""
+    global outgoing_msgs
+    if not outgoing_msgs:
+        return
+    msg = outgoing_msgs[0] if len(outgoing_msgs) == 1 else {'batch': outgoing_msgs}
+    outgoing_msgs = []
+    data = msgpack_encode(msg)
+    sys.stdout.buffer.write(struct.pack('>I', len(data)) + data)
+    sys.stdout.buffer.flush()
+
 
 def readMsg():
     """reads lines and reconstructs newlines appropriately"""
+    if isBinary():
+        if not pending_msgs:
+            # everything sent so far is flushed before waiting for the parent
+            flushMsgs()
+            msg = readFrame()
+            if type(msg) is not dict or 'batch' not in msg:
+                return msg
+            pending_msgs.extend(msg['batch'])
+        return pending_msgs.popleft()
     msg = ""
     while True:
         line = sys.stdin.readline()
@@ -83,6 +258,11 @@ def readTuple():
 
 
 def sendMsgToParent(msg):
+    if BINARY:
+        outgoing_msgs.append(msg)
+        if len(outgoing_msgs) >= MAX_BATCH_SIZE:
+            flushMsgs()
+        return
     print(json_encode(msg))
     print("end")
     sys.stdout.flush()
@@ -95,6 +275,7 @@ def sync():
 def sendpid(heartbeatdir):
     pid = os.getpid()
     sendMsgToParent({'pid':pid})
+    flushMsgs()
     open(heartbeatdir + "/" + str(pid), "w").close()
 
 
@@ -152,6 +333,7 @@ def fail(tup):
 
 def reportError(msg):
     sendMsgToParent({"command": "error", "msg": msg})
+    flushMsgs()
 
 
 def log(msg, level=2):
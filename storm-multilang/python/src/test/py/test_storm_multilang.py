@@ -0,0 +1,72 @@
+#!/usr/bin/env python
+
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+#
+# http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+from unittest import TestCase, main as test_main
+import io
+import struct
+import sys
+
+import storm
+
+
+class TestStormMultilang(TestCase):
+
+    def setUp(self):
+        self.stdin = sys.stdin
+        self.stdout = sys.stdout
+        storm.BINARY = None
+        storm.pending_msgs.clear()
+        storm.outgoing_msgs = []
+
+    def tearDown(self):
+        sys.stdin = self.stdin
+        sys.stdout = self.stdout
+
+    def test_json_protocol_without_binary_buffer(self):
+        # like the stdin and stdout of Python 2, StringIO has no binary buffer
+        sys.stdin = io.StringIO(u'{"command": "next"}\nend\n')
+        sys.stdout = io.StringIO()
+
+        self.assertEqual({"command": "next"}, storm.readMsg())
+        storm.sendMsgToParent({"command": "sync"})
+        storm.flushMsgs()
+
+        self.assertFalse(storm.BINARY)
+        self.assertEqual('{"command": "sync"}\nend\n', sys.stdout.getvalue())
+
+    def test_binary_protocol(self):
+        frame = storm.msgpack_encode({"batch": [{"command": "next"}, [1, 2]]})
+        sys.stdin = io.TextIOWrapper(io.BufferedReader(io.BytesIO(
+            storm.BINARY_PREAMBLE + struct.pack('>I', len(frame)) + frame)))
+        out = io.BytesIO()
+        sys.stdout = io.TextIOWrapper(out)
+
+        self.assertEqual({"command": "next"}, storm.readMsg())
+        storm.sendMsgToParent({"command": "sync"})
+        self.assertEqual(b'', out.getvalue())
+        self.assertEqual([1, 2], storm.readMsg())
+        storm.flushMsgs()
+
+        self.assertTrue(storm.BINARY)
+        data = out.getvalue()
+        self.assertEqual(len(data) - 4, struct.unpack('>I', data[:4])[0])
+        self.assertEqual({"command": "sync"}, storm.msgpack_decode(data[4:]))
+
+
+if __name__ == '__main__':
+    test_main()
@@ -20,15 +20,178 @@ require "rubygems"
 require "json"
 
 module Storm
+  # Encodes and decodes the MessagePack values of the binary multilang protocol
+  module MessagePack
+    class << self
+      def pack(value, out = ''.b)
+        case value
+          when nil
+            out << "\xc0".b
+          when true
+            out << "\xc3".b
+          when false
+            out << "\xc2".b
+          when Integer
+            if value >= -32 && value < 0x80
+              out << [value].pack('c')
+            elsif value >= -0x80000000 && value <= 0x7fffffff
+              out << [0xd2, value].pack('Cl>')
+            elsif value < 0
+              out << [0xd3, value].pack('Cq>')
+            else
+              out << [0xcf, value].pack('CQ>')
+            end
+          when Float
+            out << [0xcb, value].pack('CG')
+          when Hash
+            out << [0xdf, value.size].pack('CN')
+            value.each do |k, v|
+              pack(k.to_s, out)
+              pack(v, out)
+            end
+          when Array
+            out << [0xdd, value.size].pack('CN')
+            value.each { |v| pack(v, out) }
+          else
+            str = value.is_a?(String) ? value : value.to_s
+            if str.encoding == Encoding::BINARY
+              out << [0xc6, str.bytesize].pack('CN') << str
+            else
+              str = str.encode('UTF-8')
+              out << [0xdb, str.bytesize].pack('CN') << str.b
+            end
+        end
+        out
+      end
+
+      def unpack(data)
+        value, pos = unpack_value(data, 0)
+        raise "Unexpected #{data.bytesize - pos} bytes after the message" if pos != data.bytesize
+        value
+      end
+
+      FIXED = {0xca => ['g', 4], 0xcb => ['G', 8], 0xcc => ['C', 1], 0xcd => ['n', 2], 0xce => ['N', 4], 0xcf => ['Q>', 8],
+               0xd0 => ['c', 1], 0xd1 => ['s>', 2], 0xd2 => ['l>', 4], 0xd3 => ['q>', 8]}
+      SIZED = {0xc4 => [:bin, 'C', 1], 0xc5 => [:bin, 'n', 2], 0xc6 => [:bin, 'N', 4],
+               0xd9 => [:str, 'C', 1], 0xda => [:str, 'n', 2], 0xdb => [:str, 'N', 4],
+               0xdc => [:array, 'n', 2], 0xdd => [:array, 'N', 4], 0xde => [:map, 'n', 2], 0xdf => [:map, 'N', 4]}
+
+      def unpack_value(data, pos)
+        t = data.getbyte(pos)
+        pos += 1
+        return [t, pos] if t <= 0x7f
+        return [t - 0x100, pos] if t >= 0xe0
+        return unpack_map(data, pos, t & 0x0f) if t <= 0x8f
+        return unpack_array(data, pos, t & 0x0f) if t <= 0x9f
+        return unpack_sized(:str, data, pos, t & 0x1f) if t <= 0xbf
+        return [nil, pos] if t == 0xc0
+        return [false, pos] if t == 0xc2
+        return [true, pos] if t == 0xc3
+        if FIXED.key? t
+          fmt, size = FIXED[t]
+          return [data.byteslice(pos, size).unpack1(fmt), pos + size]
+        end
+        if SIZED.key? t
+          kind, fmt, size = SIZED[t]
+          return unpack_sized(kind, data, pos + size, data.byteslice(pos, size).unpack1(fmt))
+        end
+        raise "Unsupported MessagePack type #{t}"
+      end
+
+      def unpack_sized(kind, data, pos, n)
+        case kind
+          when :str
+            [data.byteslice(pos, n).force_encoding('UTF-8'), pos + n]
+          when :bin
+            [data.byteslice(pos, n), pos + n]
+          when :array
+            unpack_array(data, pos, n)
+          else
+            unpack_map(data, pos, n)
+        end
+      end
+
+      def unpack_array(data, pos, n)
+        values = Array.new(n) do
+          value, pos = unpack_value(data, pos)
+          value
+        end
+        [values, pos]
+      end
+
+      def unpack_map(data, pos, n)
+        values = {}
+        n.times do
+          key, pos = unpack_value(data, pos)
+          values[key], pos = unpack_value(data, pos)
+        end
+        [values, pos]
+      end
+    end
+  end
+
   module Protocol
+    # the byte written by the MessagePackSerializer before the first frame of the binary protocol
+    BINARY_PREAMBLE = 0xc1
+    # max number of messages sent to the parent in one frame of the binary protocol
+    MAX_BATCH_SIZE = 100
+
     class << self
-      attr_accessor :mode, :pending_taskids, :pending_commands
+      attr_accessor :mode, :pending_taskids, :pending_commands, :binary, :pending_msgs, :outgoing_msgs
     end
 
     self.pending_taskids = []
     self.pending_commands = []
+    self.pending_msgs = []
+    self.outgoing_msgs = []
+
+    # detects the protocol of the parent from the first byte it sends
+    def binary?
+      if Storm::Protocol.binary.nil?
+        byte = STDIN.getbyte
+        Storm::Protocol.binary = byte == BINARY_PREAMBLE
+        if Storm::Protocol.binary
+          STDIN.binmode
+          STDOUT.binmode
+        elsif byte
+          STDIN.ungetbyte(byte)
+        end
+      end
+      Storm::Protocol.binary
+    end
+
+    def read_frame
+      header = STDIN.read(4)
+      raise EOFError, 'Read EOF from stdin' if header.nil? || header.bytesize < 4
+      length = header.unpack1('N')
+      data = STDIN.read(length)
+      raise EOFError, 'Read EOF from stdin' if data.nil? || data.bytesize < length
+      Storm::MessagePack.unpack(data)
+    end
+
+    # sends the messages not sent yet to the parent in one frame
+    def flush_messages
+      outgoing = Storm::Protocol.outgoing_msgs
+      return if outgoing.empty?
+      msg = outgoing.size == 1 ? outgoing[0] : {'batch' => outgoing}
+      Storm::Protocol.outgoing_msgs = []
+      data = Storm::MessagePack.pack(msg)
+      STDOUT.write([data.bytesize].pack('N') + data)
+      STDOUT.flush
+    end
 
     def read_message
+      if binary?
+        pending = Storm::Protocol.pending_msgs
+        if pending.empty?
+          # everything sent so far is flushed before waiting for the parent
+          flush_messages
+          msg = read_frame
+          return msg unless msg.is_a?(Hash) && msg.key?('batch')
+          pending.concat(msg['batch'])
+        end
+        return pending.shift
+      end
       msg = ""
       loop do
         line = STDIN.readline.chomp
@@ -64,6 +227,11 @@ module Storm
     end
 
     def send_msg_to_parent(msg)
+      if Storm::Protocol.binary
+        Storm::Protocol.outgoing_msgs.push(msg)
+        flush_messages if Storm::Protocol.outgoing_msgs.size >= MAX_BATCH_SIZE
+        return
+      end
       puts msg.to_json
       puts "end"
       STDOUT.flush
@@ -76,6 +244,7 @@ module Storm
     def send_pid(heartbeat_dir)
       pid = Process.pid
       send_msg_to_parent({'pid' => pid})
+      flush_messages
       File.open("#{heartbeat_dir}/#{pid}", "w").close
     end
 
@@ -122,6 +291,7 @@ module Storm
 
     def reportError(msg)
       send_msg_to_parent :command => :error, :msg => msg.to_s
+      flush_messages
     end
 
     def log(msg, level=2)